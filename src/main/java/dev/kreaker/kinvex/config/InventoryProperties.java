@@ -0,0 +1,215 @@
+package dev.kreaker.kinvex.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades de configuración del módulo de inventario. Mapea las propiedades definidas bajo
+ * {@code app.inventory} en application.yml
+ */
+@ConfigurationProperties(prefix = "app.inventory")
+public record InventoryProperties(
+        Deduction deduction,
+        Idempotency idempotency,
+        Ledger ledger,
+        Reservation reservation,
+        Movements movements,
+        Reconciliation reconciliation,
+        CatalogCache catalogCache,
+        ProductImport productImport,
+        Aggregates aggregates,
+        Search search) {
+
+    /** Estrategia usada para descontar stock desde sistemas externos. */
+    public enum DeductionMode {
+        /** Un único UPDATE condicional que valida y descuenta en la misma sentencia. */
+        ATOMIC,
+        /** Lectura de la entidad, validación en memoria y guardado (comportamiento original). */
+        ENTITY
+    }
+
+    public record Deduction(DeductionMode mode) {
+
+        public Deduction {
+            mode = mode != null ? mode : DeductionMode.ATOMIC;
+        }
+    }
+
+    /**
+     * Claves de idempotencia de sistemas externos.
+     *
+     * @param ttl tiempo durante el cual un reintento devuelve la respuesta original
+     */
+    public record Idempotency(Duration ttl) {
+
+        public Idempotency {
+            ttl = ttl != null ? ttl : Duration.ofHours(24);
+        }
+    }
+
+    /**
+     * Libro de stock en memoria para productos con alta frecuencia de descuentos.
+     *
+     * @param enabled activa el libro; deshabilitado todos los descuentos van a base de datos
+     * @param flushInterval cada cuánto se vuelcan los descuentos acumulados a base de datos
+     * @param hotThreshold descuentos por ventana a partir de los cuales un producto pasa a memoria
+     * @param hotWindow ventana usada para medir la frecuencia de descuentos
+     */
+    public record Ledger(
+            boolean enabled, Duration flushInterval, Integer hotThreshold, Duration hotWindow) {
+
+        public Ledger {
+            flushInterval = flushInterval != null ? flushInterval : Duration.ofMillis(200);
+            hotThreshold = hotThreshold != null ? hotThreshold : 100;
+            hotWindow = hotWindow != null ? hotWindow : Duration.ofSeconds(10);
+        }
+    }
+
+    /**
+     * Reservas de stock realizadas al armar un carrito.
+     *
+     * @param defaultTtl vigencia de una reserva cuando la solicitud no indica otra
+     * @param maxTtl vigencia máxima que puede solicitarse
+     * @param sweepInterval frecuencia del barrido de respaldo que vence reservas creadas por otras
+     *     instancias o antes de un reinicio
+     */
+    public record Reservation(Duration defaultTtl, Duration maxTtl, Duration sweepInterval) {
+
+        public Reservation {
+            defaultTtl = defaultTtl != null ? defaultTtl : Duration.ofMinutes(15);
+            maxTtl = maxTtl != null ? maxTtl : Duration.ofHours(24);
+            sweepInterval = sweepInterval != null ? sweepInterval : Duration.ofMinutes(1);
+        }
+    }
+
+    /** Estrategia de escritura de los movimientos de inventario. */
+    public enum MovementWriteMode {
+        /** Cada movimiento se inserta en la transacción que lo genera. */
+        DIRECT,
+        /**
+         * Los movimientos de una transacción se insertan juntos antes de su commit. No agrupa
+         * transacciones distintas: cada movimiento se confirma con el cambio de stock que lo
+         * generó.
+         */
+        TRANSACTION_BATCH
+    }
+
+    /**
+     * Escritura de movimientos de inventario.
+     *
+     * @param writeMode estrategia de escritura
+     * @param maxBatchSize movimientos que una transacción acumula antes de insertarlos sin esperar
+     *     a su commit
+     * @param commitLag tiempo máximo entre el {@code created_at} de un movimiento y el commit de su
+     *     transacción; el recorrido por cursor no entrega movimientos más recientes
+     */
+    public record Movements(
+            MovementWriteMode writeMode, Integer maxBatchSize, Duration commitLag) {
+
+        public Movements {
+            writeMode = writeMode != null ? writeMode : MovementWriteMode.DIRECT;
+            maxBatchSize = maxBatchSize != null ? maxBatchSize : 200;
+            commitLag = commitLag != null ? commitLag : Duration.ofSeconds(30);
+        }
+    }
+
+    /**
+     * Conciliación del stock de productos contra la suma de sus movimientos.
+     *
+     * @param partitionSize cantidad de IDs de producto por partición
+     * @param parallelism particiones procesadas en paralelo, cada una con su propia conexión
+     * @param maxReportedMismatches diferencias que se conservan en el resultado de una ejecución
+     */
+    public record Reconciliation(
+            Integer partitionSize, Integer parallelism, Integer maxReportedMismatches) {
+
+        public Reconciliation {
+            partitionSize = partitionSize != null ? partitionSize : 10_000;
+            parallelism = parallelism != null ? parallelism : 4;
+            maxReportedMismatches = maxReportedMismatches != null ? maxReportedMismatches : 1000;
+        }
+    }
+
+    /**
+     * Caché de datos maestros de productos (código, nombre, precio y estado); nunca incluye stock.
+     *
+     * @param maximumSize entradas máximas en la caché local de cada instancia
+     * @param nearTtl vigencia de una entrada en la caché local
+     * @param remoteTtl vigencia de una entrada en Redis
+     * @param remoteEnabled comparte la caché y sus invalidaciones entre instancias vía Redis
+     */
+    public record CatalogCache(
+            Integer maximumSize, Duration nearTtl, Duration remoteTtl, boolean remoteEnabled) {
+
+        public CatalogCache {
+            maximumSize = maximumSize != null ? maximumSize : 10_000;
+            nearTtl = nearTtl != null ? nearTtl : Duration.ofMinutes(5);
+            remoteTtl = remoteTtl != null ? remoteTtl : Duration.ofHours(1);
+        }
+    }
+
+    /**
+     * Importación masiva de productos desde archivos CSV o XLSX.
+     *
+     * @param chunkSize filas validadas e insertadas por transacción
+     * @param maxReportedErrors errores de fila que se conservan en el resultado de una importación
+     */
+    public record ProductImport(Integer chunkSize, Integer maxReportedErrors) {
+
+        public ProductImport {
+            chunkSize = chunkSize != null ? chunkSize : 1000;
+            maxReportedErrors = maxReportedErrors != null ? maxReportedErrors : 1000;
+        }
+    }
+
+    /**
+     * Agregados que mantienen triggers de base de datos: la valoración del inventario (V13) y los
+     * totales diarios de movimientos (V15).
+     *
+     * @param databaseTriggers si el esquema tiene los triggers; solo los crean las migraciones de
+     *     Flyway. Sin ellos las consultas agregan directamente productos y movimientos y las
+     *     verificaciones periódicas no se ejecutan
+     */
+    public record Aggregates(Boolean databaseTriggers) {
+
+        public Aggregates {
+            databaseTriggers = databaseTriggers != null ? databaseTriggers : false;
+        }
+    }
+
+    /**
+     * Búsqueda de productos por texto.
+     *
+     * @param databaseIndexes si el esquema tiene la extensión {@code pg_trgm}, la columna {@code
+     *     search_vector} y sus índices (V10); solo los crean las migraciones de Flyway. Sin ellos
+     *     la búsqueda compara subcadenas con LIKE y ordena por nombre en lugar de por relevancia
+     */
+    public record Search(Boolean databaseIndexes) {
+
+        public Search {
+            databaseIndexes = databaseIndexes != null ? databaseIndexes : false;
+        }
+    }
+
+    // Valores por defecto para secciones no configuradas
+    public InventoryProperties {
+        deduction = deduction != null ? deduction : new Deduction(null);
+        idempotency = idempotency != null ? idempotency : new Idempotency(null);
+        ledger = ledger != null ? ledger : new Ledger(false, null, null, null);
+        reservation = reservation != null ? reservation : new Reservation(null, null, null);
+        movements = movements != null ? movements : new Movements(null, null, null);
+        reconciliation =
+                reconciliation != null ? reconciliation : new Reconciliation(null, null, null);
+        catalogCache =
+                catalogCache != null ? catalogCache : new CatalogCache(null, null, null, false);
+        productImport = productImport != null ? productImport : new ProductImport(null, null);
+        aggregates = aggregates != null ? aggregates : new Aggregates(null);
+        search = search != null ? search : new Search(null);
+    }
+
+    /** Crea la configuración con todos los valores por defecto. */
+    public static InventoryProperties defaults() {
+        return new InventoryProperties(
+                null, null, null, null, null, null, null, null, null, null);
+    }
+}
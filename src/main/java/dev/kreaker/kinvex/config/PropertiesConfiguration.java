@@ -8,7 +8,12 @@ import org.springframework.context.annotation.Configuration;
  * todas las clases de propiedades para que Spring Boot las procese automáticamente.
  */
 @Configuration
-@EnableConfigurationProperties({AppProperties.class, JwtProperties.class, CorsProperties.class})
+@EnableConfigurationProperties({
+    AppProperties.class,
+    JwtProperties.class,
+    CorsProperties.class,
+    InventoryProperties.class
+})
 public class PropertiesConfiguration {
     // Esta clase solo sirve para habilitar las propiedades de configuración
     // No necesita métodos adicionales
@@ -1,9 +1,13 @@
 package dev.kreaker.kinvex.controller;
 
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionResponse;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionRequest;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
 import dev.kreaker.kinvex.service.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,8 +16,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -36,6 +43,9 @@ public class ExternalBillingController {
 
     private static final Logger logger = LoggerFactory.getLogger(ExternalBillingController.class);
 
+    /** Cabecera con la que el cliente identifica una operación para reintentarla sin duplicarla. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final InventoryService inventoryService;
 
     public ExternalBillingController(InventoryService inventoryService) {
@@ -50,6 +60,7 @@ public class ExternalBillingController {
      * Registra el movimiento con timestamp y detalles - Requiere autenticación JWT
      *
      * @param request Solicitud de descuento de stock
+     * @param idempotencyKey Clave opcional para reintentos seguros
      * @return Respuesta con detalles del descuento realizado
      */
     @PostMapping("/stock/deduct")
@@ -68,11 +79,21 @@ public class ExternalBillingController {
                 @ApiResponse(
                         responseCode = "403",
                         description = "Acceso denegado - permisos insuficientes"),
-                @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+                @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+                @ApiResponse(
+                        responseCode = "409",
+                        description = "Clave de idempotencia usada con otra solicitud")
             })
     @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
     public ResponseEntity<ExternalStockDeductionResponse> deductStock(
-            @Valid @RequestBody ExternalStockDeductionRequest request) {
+            @Valid @RequestBody ExternalStockDeductionRequest request,
+            @Parameter(description = "Clave para reintentar sin descontar dos veces")
+                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                    String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
 
         logger.info(
                 "Recibida solicitud de descuento de stock externo: producto={}, cantidad={}, sistema={}",
@@ -91,4 +112,92 @@ public class ExternalBillingController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Descuenta stock para todas las líneas de una factura en una sola operación.
+     *
+     * <p>La factura se aplica de forma atómica: si alguna línea no tiene stock suficiente o
+     * referencia un producto inexistente, no se descuenta ninguna línea.
+     *
+     * @param request Factura con las líneas a descontar
+     * @param idempotencyKey Clave opcional para reintentos seguros
+     * @return Resultado de cada línea con los detalles del descuento realizado
+     */
+    @PostMapping("/invoices/deduct")
+    @Operation(
+            summary = "Descontar stock de una factura completa",
+            description =
+                    "Descuenta en una única transacción el stock de todas las líneas de una "
+                            + "factura. Si alguna línea falla no se aplica ningún descuento.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Factura descontada exitosamente"),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Stock insuficiente o datos de entrada inválidos"),
+                @ApiResponse(responseCode = "401", description = "Token JWT inválido o ausente"),
+                @ApiResponse(
+                        responseCode = "403",
+                        description = "Acceso denegado - permisos insuficientes"),
+                @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+                @ApiResponse(
+                        responseCode = "409",
+                        description = "Clave de idempotencia usada con otra solicitud")
+            })
+    @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<ExternalInvoiceDeductionResponse> deductInvoice(
+            @Valid @RequestBody ExternalInvoiceDeductionRequest request,
+            @Parameter(description = "Clave para reintentar sin descontar dos veces")
+                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                    String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
+
+        logger.info(
+                "Recibida solicitud de descuento de factura externa: factura={}, líneas={}, sistema={}",
+                request.getInvoiceNumber(),
+                request.getLines().size(),
+                request.getSourceSystem());
+
+        ExternalInvoiceDeductionResponse response =
+                inventoryService.deductInvoiceForExternalSystem(request);
+
+        logger.info(
+                "Descuento de factura procesado exitosamente: factura={}, líneas={}, cantidad_total={}",
+                response.getInvoiceNumber(),
+                response.getTotalLines(),
+                response.getTotalQuantity());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Consulta los datos maestros de un producto por código para armar una factura. Se sirve desde
+     * la caché de catálogo y no incluye stock: la disponibilidad se valida al descontar.
+     *
+     * @param code Código del producto
+     * @return Código, nombre, precio y estado del producto
+     */
+    @GetMapping("/products/{code}")
+    @Operation(
+            summary = "Consultar producto por código",
+            description =
+                    "Devuelve nombre, precio y estado de un producto desde la caché de catálogo. "
+                            + "No incluye stock.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+                @ApiResponse(responseCode = "401", description = "Token JWT inválido o ausente"),
+                @ApiResponse(
+                        responseCode = "403",
+                        description = "Acceso denegado - permisos insuficientes"),
+                @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+            })
+    @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<ProductCatalogEntry> getProductByCode(
+            @Parameter(description = "Código del producto") @PathVariable String code) {
+        return ResponseEntity.ok(inventoryService.getCatalogEntryByCode(code));
+    }
 }
@@ -1,26 +1,46 @@
 package dev.kreaker.kinvex.controller;
 
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateResponse;
+import dev.kreaker.kinvex.dto.inventory.CategoryTreeNode;
 import dev.kreaker.kinvex.dto.inventory.CreateProductRequest;
+import dev.kreaker.kinvex.dto.inventory.InventoryMovementResponse;
+import dev.kreaker.kinvex.dto.inventory.InventoryValuationResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductImportFormat;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductResponse;
 import dev.kreaker.kinvex.dto.inventory.ProductSearchCriteria;
+import dev.kreaker.kinvex.dto.inventory.ProductSearchMode;
+import dev.kreaker.kinvex.dto.inventory.StockAsOfResponse;
 import dev.kreaker.kinvex.dto.inventory.StockUpdateRequest;
 import dev.kreaker.kinvex.dto.inventory.UpdateProductRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.Product;
 import dev.kreaker.kinvex.service.InventoryService;
+import dev.kreaker.kinvex.service.InventoryValuationService;
+import dev.kreaker.kinvex.service.ProductBulkUpdateService;
+import dev.kreaker.kinvex.service.ProductImportService;
+import dev.kreaker.kinvex.service.StockSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -32,6 +52,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Controlador REST para operaciones de inventario y gestión de productos.
@@ -48,9 +69,22 @@ public class InventoryController {
     private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
 
     private final InventoryService inventoryService;
-
-    public InventoryController(InventoryService inventoryService) {
+    private final StockSnapshotService stockSnapshotService;
+    private final InventoryValuationService inventoryValuationService;
+    private final ProductImportService productImportService;
+    private final ProductBulkUpdateService productBulkUpdateService;
+
+    public InventoryController(
+            InventoryService inventoryService,
+            StockSnapshotService stockSnapshotService,
+            InventoryValuationService inventoryValuationService,
+            ProductImportService productImportService,
+            ProductBulkUpdateService productBulkUpdateService) {
         this.inventoryService = inventoryService;
+        this.stockSnapshotService = stockSnapshotService;
+        this.inventoryValuationService = inventoryValuationService;
+        this.productImportService = productImportService;
+        this.productBulkUpdateService = productBulkUpdateService;
     }
 
     // ========== Product CRUD Operations ==========
@@ -58,10 +92,14 @@ public class InventoryController {
      * Obtiene todos los productos con paginación y filtros. Requerimiento 1.3: Consultar productos
      * por código, nombre o categoría
      *
+     * <p>La búsqueda combina todos los filtros en una sola consulta y admite ordenar por varias
+     * columnas, por ejemplo {@code sort=currentStock&sort=unitPrice,desc}.
+     *
      * @param pageable Configuración de paginación y ordenamiento
      * @param code Filtro por código de producto (opcional)
      * @param name Filtro por nombre de producto (opcional)
      * @param categoryId Filtro por ID de categoría (opcional)
+     * @param includeSubcategories Incluye las subcategorías de la categoría filtrada
      * @param minPrice Filtro por precio mínimo (opcional)
      * @param maxPrice Filtro por precio máximo (opcional)
      * @param minStock Filtro por stock mínimo (opcional)
@@ -87,7 +125,7 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<Page<Product>> getProducts(
+    public ResponseEntity<Page<ProductResponse>> getProducts(
             @PageableDefault(size = 20, sort = "name") Pageable pageable,
             @Parameter(description = "Filtro por código de producto")
                     @RequestParam(required = false)
@@ -97,6 +135,9 @@ public class InventoryController {
                     String name,
             @Parameter(description = "Filtro por ID de categoría") @RequestParam(required = false)
                     Long categoryId,
+            @Parameter(description = "Incluir los productos de las subcategorías")
+                    @RequestParam(defaultValue = "false")
+                    boolean includeSubcategories,
             @Parameter(description = "Filtro por precio mínimo") @RequestParam(required = false)
                     BigDecimal minPrice,
             @Parameter(description = "Filtro por precio máximo") @RequestParam(required = false)
@@ -125,6 +166,7 @@ public class InventoryController {
         criteria.setCode(code);
         criteria.setName(name);
         criteria.setCategoryId(categoryId);
+        criteria.setIncludeSubcategories(includeSubcategories);
         criteria.setMinPrice(minPrice);
         criteria.setMaxPrice(maxPrice);
         criteria.setMinStock(minStock);
@@ -133,7 +175,13 @@ public class InventoryController {
         criteria.setOutOfStock(outOfStock);
         criteria.setActive(active);
 
-        Page<Product> products = inventoryService.searchProducts(criteria, pageable);
+        Page<ProductResponse> products;
+        try {
+            products = inventoryService.searchProducts(criteria, pageable);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Parámetros de búsqueda inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
 
         logger.debug(
                 "Productos encontrados: {} de {} total",
@@ -143,6 +191,78 @@ public class InventoryController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Busca productos activos por texto, ordenados por relevancia.
+     *
+     * @param q Texto buscado
+     * @param mode Modo de búsqueda
+     * @param pageable Configuración de paginación
+     * @return Página de productos ordenados por relevancia
+     */
+    @GetMapping("/products/search")
+    @Operation(
+            summary = "Buscar productos por texto",
+            description =
+                    "Busca por subcadena en nombre o código (CONTAINS) o por palabras en nombre y"
+                            + " descripción (FULL_TEXT), con resultados ordenados por relevancia")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Búsqueda realizada"),
+                @ApiResponse(responseCode = "400", description = "Texto de búsqueda inválido"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<Page<ProductResponse>> searchProductsByText(
+            @Parameter(description = "Texto buscado") @RequestParam String q,
+            @Parameter(description = "Modo de búsqueda")
+                    @RequestParam(defaultValue = "CONTAINS")
+                    ProductSearchMode mode,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("Buscando productos por texto '{}' en modo {}", q, mode);
+        try {
+            return ResponseEntity.ok(inventoryService.searchProductsByText(q, mode, pageable));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Texto de búsqueda inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Recorre los productos activos por nombre con paginación por cursor, sin contar el total.
+     *
+     * @param cursor Cursor devuelto por la página anterior, ausente para la primera
+     * @param size Tamaño de página
+     * @return Página de productos con el cursor de la siguiente
+     */
+    @GetMapping("/products/scroll")
+    @Operation(
+            summary = "Recorrer productos por cursor",
+            description =
+                    "Retorna productos activos ordenados por nombre. Cada página incluye el cursor "
+                            + "de la siguiente; el tiempo por página no depende de su posición")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Productos obtenidos exitosamente"),
+                @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<CursorPage<ProductResponse>> scrollProducts(
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "50")
+                    int size) {
+        try {
+            return ResponseEntity.ok(inventoryService.scrollProducts(cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Paginación por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Obtiene un producto por su ID.
      *
@@ -160,14 +280,53 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<Product> getProductById(
+    public ResponseEntity<ProductResponse> getProductById(
             @Parameter(description = "ID del producto") @PathVariable Long id) {
 
         logger.debug("Obteniendo producto por ID: {}", id);
-        Product product = inventoryService.getProductById(id);
+        ProductResponse product = inventoryService.getProductById(id);
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * Recorre los movimientos de un producto del más antiguo al más reciente con paginación por
+     * cursor, sin contar el total.
+     *
+     * @param id ID del producto
+     * @param cursor Cursor devuelto por la página anterior, ausente para la primera
+     * @param size Tamaño de página
+     * @return Página de movimientos con el cursor de la siguiente
+     */
+    @GetMapping("/products/{id}/movements")
+    @Operation(
+            summary = "Recorrer movimientos de un producto por cursor",
+            description =
+                    "Retorna los movimientos del producto en orden cronológico. Cada página "
+                            + "incluye el cursor de la siguiente; el tiempo por página no depende "
+                            + "de su posición")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Movimientos obtenidos exitosamente"),
+                @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<CursorPage<InventoryMovementResponse>> scrollProductMovements(
+            @Parameter(description = "ID del producto") @PathVariable Long id,
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "50")
+                    int size) {
+        try {
+            return ResponseEntity.ok(inventoryService.scrollProductMovements(id, cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Paginación por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Obtiene un producto por su código. Requerimiento 1.3: Consultar productos por código
      *
@@ -185,11 +344,11 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<Product> getProductByCode(
+    public ResponseEntity<ProductResponse> getProductByCode(
             @Parameter(description = "Código del producto") @PathVariable String code) {
 
         logger.debug("Obteniendo producto por código: {}", code);
-        Product product = inventoryService.getProductByCode(code);
+        ProductResponse product = inventoryService.getProductByCode(code);
         return ResponseEntity.ok(product);
     }
 
@@ -213,11 +372,84 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody CreateProductRequest request) {
+    public ResponseEntity<ProductResponse> createProduct(
+            @Valid @RequestBody CreateProductRequest request) {
 
         logger.info("Creando nuevo producto con código: {}", request.getCode());
         Product product = inventoryService.createProduct(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(product);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProductResponse.from(product));
+    }
+
+    /**
+     * Importa productos de forma masiva desde un archivo CSV o XLSX. Las filas inválidas o con
+     * código existente se rechazan sin detener la importación y se informan en la respuesta.
+     *
+     * @param file Archivo CSV o XLSX con fila de encabezados
+     * @return Resultado de la importación con los errores por fila
+     */
+    @PostMapping(value = "/products/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Importar productos",
+            description =
+                    "Crea productos desde un archivo CSV o XLSX con las columnas code, name, "
+                            + "unitPrice y, opcionalmente, description, categoryId, initialStock, "
+                            + "minStock y maxStock")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Importación procesada"),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Formato de archivo no soportado o encabezados inválidos"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @Parameter(description = "Archivo CSV o XLSX") @RequestParam("file") MultipartFile file)
+            throws IOException {
+
+        logger.info("Importando productos desde el archivo: {}", file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            ProductImportFormat format =
+                    ProductImportFormat.fromFilename(file.getOriginalFilename());
+            return ResponseEntity.ok(productImportService.importProducts(input, format));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Archivo de importación inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Actualiza precio, límites de stock, estado o categoría de muchos productos a la vez. Solo se
+     * modifican los campos indicados en cada producto.
+     *
+     * @param request Cambios por código de producto
+     * @return Resultado con los productos actualizados y los códigos no aplicados
+     */
+    @PutMapping("/products/bulk")
+    @Operation(
+            summary = "Actualización masiva de productos",
+            description =
+                    "Aplica cambios parciales de precio, stock mínimo y máximo, estado y "
+                            + "categoría a varios productos identificados por código")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Actualización procesada"),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Datos inválidos, código repetido o categoría inexistente"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<BulkProductUpdateResponse> bulkUpdateProducts(
+            @Valid @RequestBody BulkProductUpdateRequest request) {
+
+        logger.info("Actualización masiva de {} productos", request.products().size());
+        try {
+            return ResponseEntity.ok(productBulkUpdateService.bulkUpdateProducts(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Actualización masiva inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -242,13 +474,13 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<Product> updateProduct(
+    public ResponseEntity<ProductResponse> updateProduct(
             @Parameter(description = "ID del producto") @PathVariable Long id,
             @Valid @RequestBody UpdateProductRequest request) {
 
         logger.info("Actualizando producto ID: {}", id);
         Product product = inventoryService.updateProduct(id, request);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok(ProductResponse.from(product));
     }
 
     /**
@@ -296,7 +528,7 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<InventoryMovement> increaseStock(
+    public ResponseEntity<InventoryMovementResponse> increaseStock(
             @Parameter(description = "ID del producto") @PathVariable Long id,
             @Valid @RequestBody StockUpdateRequest request) {
 
@@ -305,7 +537,7 @@ public class InventoryController {
                 id,
                 request.getQuantity());
         InventoryMovement movement = inventoryService.increaseStock(id, request);
-        return ResponseEntity.ok(movement);
+        return ResponseEntity.ok(InventoryMovementResponse.from(movement));
     }
 
     /**
@@ -330,7 +562,7 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<InventoryMovement> decreaseStock(
+    public ResponseEntity<InventoryMovementResponse> decreaseStock(
             @Parameter(description = "ID del producto") @PathVariable Long id,
             @Valid @RequestBody StockUpdateRequest request) {
 
@@ -339,7 +571,7 @@ public class InventoryController {
                 id,
                 request.getQuantity());
         InventoryMovement movement = inventoryService.decreaseStock(id, request);
-        return ResponseEntity.ok(movement);
+        return ResponseEntity.ok(InventoryMovementResponse.from(movement));
     }
 
     /**
@@ -363,7 +595,7 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
-    public ResponseEntity<InventoryMovement> adjustStock(
+    public ResponseEntity<InventoryMovementResponse> adjustStock(
             @Parameter(description = "ID del producto") @PathVariable Long id,
             @Parameter(description = "Nueva cantidad de stock") @RequestParam Integer newStock,
             @Parameter(description = "Notas del ajuste") @RequestParam(required = false)
@@ -376,7 +608,65 @@ public class InventoryController {
             return ResponseEntity.noContent().build();
         }
 
-        return ResponseEntity.ok(movement);
+        return ResponseEntity.ok(InventoryMovementResponse.from(movement));
+    }
+
+    /**
+     * Obtiene el stock de un producto en un momento pasado.
+     *
+     * @param id ID del producto
+     * @param at Momento consultado
+     * @return Stock del producto en ese momento
+     */
+    @GetMapping("/products/{id}/stock/as-of")
+    @Operation(
+            summary = "Consultar stock a una fecha",
+            description =
+                    "Calcula el stock de un producto en un momento dado a partir de la foto diaria"
+                            + " más cercana y los movimientos posteriores a su cierre")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Stock calculado exitosamente"),
+                @ApiResponse(responseCode = "400", description = "Fecha inválida"),
+                @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<StockAsOfResponse> getStockAsOf(
+            @Parameter(description = "ID del producto") @PathVariable Long id,
+            @Parameter(description = "Momento consultado (ISO 8601)")
+                    @RequestParam
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime at) {
+
+        logger.debug("Consultando stock del producto ID: {} al {}", id, at);
+        try {
+            return ResponseEntity.ok(stockSnapshotService.getStockAsOf(id, at));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Consulta de stock a fecha inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ========== Category Operations ==========
+    /**
+     * Obtiene el árbol completo de categorías.
+     *
+     * @return Categorías raíz con sus subcategorías
+     */
+    @GetMapping("/categories/tree")
+    @Operation(
+            summary = "Obtener el árbol de categorías",
+            description = "Retorna las categorías raíz con todas sus subcategorías anidadas")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Árbol de categorías obtenido"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<List<CategoryTreeNode>> getCategoryTree() {
+        logger.debug("Obteniendo árbol de categorías");
+        return ResponseEntity.ok(inventoryService.getCategoryTree());
     }
 
     // ========== Special Query Operations ==========
@@ -397,9 +687,9 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<List<Product>> getLowStockProducts() {
+    public ResponseEntity<List<ProductResponse>> getLowStockProducts() {
         logger.debug("Obteniendo productos con stock bajo");
-        List<Product> products = inventoryService.getLowStockProducts();
+        List<ProductResponse> products = inventoryService.getLowStockProducts();
         return ResponseEntity.ok(products);
     }
 
@@ -418,9 +708,9 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<List<Product>> getOutOfStockProducts() {
+    public ResponseEntity<List<ProductResponse>> getOutOfStockProducts() {
         logger.debug("Obteniendo productos sin stock");
-        List<Product> products = inventoryService.getOutOfStockProducts();
+        List<ProductResponse> products = inventoryService.getOutOfStockProducts();
         return ResponseEntity.ok(products);
     }
 
@@ -441,12 +731,34 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<List<Product>> getOverStockProducts() {
+    public ResponseEntity<List<ProductResponse>> getOverStockProducts() {
         logger.debug("Obteniendo productos con exceso de stock");
-        List<Product> products = inventoryService.getOverStockProducts();
+        List<ProductResponse> products = inventoryService.getOverStockProducts();
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Obtiene la valoración del inventario, total y por categoría.
+     *
+     * @return Cantidad de productos, unidades y valor de los productos activos
+     */
+    @GetMapping("/valuation")
+    @Operation(
+            summary = "Obtener la valoración del inventario",
+            description =
+                    "Retorna productos, unidades y valor del stock activo, total y por categoría,"
+                            + " a partir de agregados mantenidos con cada cambio de stock o precio")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Valoración obtenida"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado")
+            })
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<InventoryValuationResponse> getInventoryValuation() {
+        logger.debug("Obteniendo valoración del inventario");
+        return ResponseEntity.ok(inventoryValuationService.getValuation());
+    }
+
     /**
      * Busca productos por rango de precios.
      *
@@ -465,12 +777,13 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<List<Product>> getProductsByPriceRange(
+    public ResponseEntity<List<ProductResponse>> getProductsByPriceRange(
             @Parameter(description = "Precio mínimo") @RequestParam BigDecimal minPrice,
             @Parameter(description = "Precio máximo") @RequestParam BigDecimal maxPrice) {
 
         logger.debug("Buscando productos por rango de precios: {} - {}", minPrice, maxPrice);
-        List<Product> products = inventoryService.findProductsByPriceRange(minPrice, maxPrice);
+        List<ProductResponse> products =
+                inventoryService.findProductsByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(products);
     }
 
@@ -492,12 +805,13 @@ public class InventoryController {
                 @ApiResponse(responseCode = "403", description = "Acceso denegado")
             })
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<List<Product>> getProductsByStockRange(
+    public ResponseEntity<List<ProductResponse>> getProductsByStockRange(
             @Parameter(description = "Stock mínimo") @RequestParam Integer minStock,
             @Parameter(description = "Stock máximo") @RequestParam Integer maxStock) {
 
         logger.debug("Buscando productos por rango de stock: {} - {}", minStock, maxStock);
-        List<Product> products = inventoryService.findProductsByStockRange(minStock, maxStock);
+        List<ProductResponse> products =
+                inventoryService.findProductsByStockRange(minStock, maxStock);
         return ResponseEntity.ok(products);
     }
 }
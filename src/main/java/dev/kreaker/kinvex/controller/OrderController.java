@@ -2,8 +2,11 @@ package dev.kreaker.kinvex.controller;
 
 import dev.kreaker.kinvex.dto.order.CreateOrderRequest;
 import dev.kreaker.kinvex.dto.order.OrderReceiptResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderSummary;
 import dev.kreaker.kinvex.dto.order.ReceiveOrderRequest;
 import dev.kreaker.kinvex.dto.order.UpdateOrderStatusRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
 import dev.kreaker.kinvex.entity.PurchaseOrder;
 import dev.kreaker.kinvex.entity.PurchaseOrder.OrderStatus;
 import dev.kreaker.kinvex.service.OrderService;
@@ -72,7 +75,7 @@ public class OrderController {
                         description = "Proveedor o producto no encontrado"),
                 @ApiResponse(responseCode = "409", description = "Número de orden duplicado")
             })
-    public ResponseEntity<PurchaseOrder> createOrder(
+    public ResponseEntity<PurchaseOrderResponse> createOrder(
             @Valid @RequestBody CreateOrderRequest request) {
         logger.info("Creando nueva orden de compra: {}", request.getOrderNumber());
 
@@ -83,7 +86,8 @@ public class OrderController {
                 createdOrder.getOrderNumber(),
                 createdOrder.getId());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(PurchaseOrderResponse.from(createdOrder));
     }
 
     /** Obtiene todas las órdenes de compra con paginación. */
@@ -93,18 +97,43 @@ public class OrderController {
             summary = "Obtener todas las órdenes",
             description = "Obtiene una lista paginada de todas las órdenes de compra")
     @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente")
-    public ResponseEntity<Page<PurchaseOrder>> getAllOrders(
+    public ResponseEntity<Page<PurchaseOrderSummary>> getAllOrders(
             @PageableDefault(size = 20) Pageable pageable) {
         logger.debug(
                 "Obteniendo órdenes de compra - Página: {}, Tamaño: {}",
                 pageable.getPageNumber(),
                 pageable.getPageSize());
 
-        Page<PurchaseOrder> orders = orderService.getAllOrders(pageable);
+        Page<PurchaseOrderSummary> orders = orderService.getAllOrders(pageable);
 
         return ResponseEntity.ok(orders);
     }
 
+    /** Recorre las órdenes de compra, de la más reciente a la más antigua, por cursor. */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
+    @Operation(
+            summary = "Recorrer órdenes por cursor",
+            description =
+                    "Obtiene órdenes de compra por fecha descendente, opcionalmente filtradas por "
+                            + "estado, sin contar el total. Cada página incluye el cursor de la "
+                            + "siguiente")
+    @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente")
+    public ResponseEntity<CursorPage<PurchaseOrderSummary>> scrollOrders(
+            @Parameter(description = "Estado de las órdenes") @RequestParam(required = false)
+                    OrderStatus status,
+            @Parameter(description = "Cursor de la página anterior") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "50")
+                    int size) {
+        try {
+            return ResponseEntity.ok(orderService.scrollOrders(status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Paginación por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /** Obtiene una orden de compra por su ID. */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('VIEWER', 'OPERATOR', 'MANAGER', 'ADMIN')")
@@ -116,11 +145,11 @@ public class OrderController {
                 @ApiResponse(responseCode = "200", description = "Orden encontrada"),
                 @ApiResponse(responseCode = "404", description = "Orden no encontrada")
             })
-    public ResponseEntity<PurchaseOrder> getOrderById(
+    public ResponseEntity<PurchaseOrderResponse> getOrderById(
             @Parameter(description = "ID de la orden de compra") @PathVariable Long id) {
         logger.debug("Obteniendo orden de compra por ID: {}", id);
 
-        PurchaseOrder order = orderService.getOrderById(id);
+        PurchaseOrderResponse order = orderService.getOrderById(id);
 
         return ResponseEntity.ok(order);
     }
@@ -136,12 +165,12 @@ public class OrderController {
                 @ApiResponse(responseCode = "200", description = "Orden encontrada"),
                 @ApiResponse(responseCode = "404", description = "Orden no encontrada")
             })
-    public ResponseEntity<PurchaseOrder> getOrderByNumber(
+    public ResponseEntity<PurchaseOrderResponse> getOrderByNumber(
             @Parameter(description = "Número de la orden de compra") @PathVariable
                     String orderNumber) {
         logger.debug("Obteniendo orden de compra por número: {}", orderNumber);
 
-        PurchaseOrder order = orderService.getOrderByNumber(orderNumber);
+        PurchaseOrderResponse order = orderService.getOrderByNumber(orderNumber);
 
         return ResponseEntity.ok(order);
     }
@@ -162,7 +191,7 @@ public class OrderController {
                 @ApiResponse(responseCode = "400", description = "Transición de estado inválida"),
                 @ApiResponse(responseCode = "404", description = "Orden no encontrada")
             })
-    public ResponseEntity<PurchaseOrder> updateOrderStatus(
+    public ResponseEntity<PurchaseOrderResponse> updateOrderStatus(
             @Parameter(description = "ID de la orden de compra") @PathVariable Long id,
             @Valid @RequestBody UpdateOrderStatusRequest request) {
         logger.info("Actualizando estado de orden ID: {} a {}", id, request.getStatus());
@@ -174,7 +203,7 @@ public class OrderController {
                 updatedOrder.getOrderNumber(),
                 updatedOrder.getStatus());
 
-        return ResponseEntity.ok(updatedOrder);
+        return ResponseEntity.ok(PurchaseOrderResponse.from(updatedOrder));
     }
 
     /** Obtiene órdenes por estado. */
@@ -184,12 +213,12 @@ public class OrderController {
             summary = "Obtener órdenes por estado",
             description = "Obtiene una lista paginada de órdenes filtradas por estado")
     @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente")
-    public ResponseEntity<Page<PurchaseOrder>> getOrdersByStatus(
+    public ResponseEntity<Page<PurchaseOrderSummary>> getOrdersByStatus(
             @Parameter(description = "Estado de las órdenes") @PathVariable OrderStatus status,
             @PageableDefault(size = 20) Pageable pageable) {
         logger.debug("Obteniendo órdenes por estado: {}", status);
 
-        Page<PurchaseOrder> orders = orderService.getOrdersByStatus(status, pageable);
+        Page<PurchaseOrderSummary> orders = orderService.getOrdersByStatus(status, pageable);
 
         return ResponseEntity.ok(orders);
     }
@@ -243,11 +272,11 @@ public class OrderController {
                         description = "Lista de órdenes obtenida exitosamente"),
                 @ApiResponse(responseCode = "404", description = "Proveedor no encontrado")
             })
-    public ResponseEntity<List<PurchaseOrder>> getOrdersBySupplier(
+    public ResponseEntity<List<PurchaseOrderSummary>> getOrdersBySupplier(
             @Parameter(description = "ID del proveedor") @PathVariable Long supplierId) {
         logger.debug("Obteniendo órdenes por proveedor ID: {}", supplierId);
 
-        List<PurchaseOrder> orders = orderService.getOrdersBySupplier(supplierId);
+        List<PurchaseOrderSummary> orders = orderService.getOrdersBySupplier(supplierId);
 
         return ResponseEntity.ok(orders);
     }
@@ -261,10 +290,10 @@ public class OrderController {
     @ApiResponse(
             responseCode = "200",
             description = "Lista de órdenes vencidas obtenida exitosamente")
-    public ResponseEntity<List<PurchaseOrder>> getOverdueOrders() {
+    public ResponseEntity<List<PurchaseOrderSummary>> getOverdueOrders() {
         logger.debug("Obteniendo órdenes vencidas");
 
-        List<PurchaseOrder> overdueOrders = orderService.getOverdueOrders();
+        List<PurchaseOrderSummary> overdueOrders = orderService.getOverdueOrders();
 
         logger.info("Se encontraron {} órdenes vencidas", overdueOrders.size());
 
@@ -278,13 +307,13 @@ public class OrderController {
             summary = "Obtener órdenes que vencen pronto",
             description = "Obtiene órdenes que vencen en los próximos días especificados")
     @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente")
-    public ResponseEntity<List<PurchaseOrder>> getOrdersDueSoon(
+    public ResponseEntity<List<PurchaseOrderSummary>> getOrdersDueSoon(
             @Parameter(description = "Días hacia adelante para considerar (por defecto 7)")
                     @RequestParam(defaultValue = "7")
                     int daysAhead) {
         logger.debug("Obteniendo órdenes que vencen en {} días", daysAhead);
 
-        List<PurchaseOrder> ordersDueSoon = orderService.getOrdersDueSoon(daysAhead);
+        List<PurchaseOrderSummary> ordersDueSoon = orderService.getOrdersDueSoon(daysAhead);
 
         logger.info("Se encontraron {} órdenes que vencen pronto", ordersDueSoon.size());
 
@@ -298,7 +327,7 @@ public class OrderController {
             summary = "Obtener órdenes por rango de fechas",
             description = "Obtiene órdenes creadas en un rango de fechas específico")
     @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente")
-    public ResponseEntity<List<PurchaseOrder>> getOrdersByDateRange(
+    public ResponseEntity<List<PurchaseOrderSummary>> getOrdersByDateRange(
             @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
                     @RequestParam
                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
@@ -309,7 +338,7 @@ public class OrderController {
                     LocalDate endDate) {
         logger.debug("Obteniendo órdenes por rango de fechas: {} - {}", startDate, endDate);
 
-        List<PurchaseOrder> orders = orderService.getOrdersByDateRange(startDate, endDate);
+        List<PurchaseOrderSummary> orders = orderService.getOrdersByDateRange(startDate, endDate);
 
         logger.info("Se encontraron {} órdenes en el rango de fechas", orders.size());
 
@@ -3,12 +3,14 @@ package dev.kreaker.kinvex.controller;
 import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
 import dev.kreaker.kinvex.dto.report.ReportExportRequest;
 import dev.kreaker.kinvex.dto.report.ReportFilterDto;
+import dev.kreaker.kinvex.dto.report.ReportStreamFormat;
 import dev.kreaker.kinvex.dto.report.StockLevelReportDto;
 import dev.kreaker.kinvex.dto.report.SupplierPerformanceReportDto;
 import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
 import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
 import dev.kreaker.kinvex.service.ReportExportService;
 import dev.kreaker.kinvex.service.ReportService;
+import dev.kreaker.kinvex.service.ReportStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -31,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** REST Controller for report generation and retrieval Requirements: 4.1, 4.2, 4.4 */
 @RestController
@@ -42,10 +45,15 @@ public class ReportController {
 
     private final ReportService reportService;
     private final ReportExportService reportExportService;
+    private final ReportStreamService reportStreamService;
 
-    public ReportController(ReportService reportService, ReportExportService reportExportService) {
+    public ReportController(
+            ReportService reportService,
+            ReportExportService reportExportService,
+            ReportStreamService reportStreamService) {
         this.reportService = reportService;
         this.reportExportService = reportExportService;
+        this.reportStreamService = reportStreamService;
     }
 
     /**
@@ -82,6 +90,12 @@ public class ReportController {
                     List<Long> productIds,
             @Parameter(description = "Product codes to filter by") @RequestParam(required = false)
                     List<String> productCodes,
+            @Parameter(description = "Product category IDs to filter by")
+                    @RequestParam(required = false)
+                    List<Long> categoryIds,
+            @Parameter(description = "Supplier IDs to filter purchase order movements by")
+                    @RequestParam(required = false)
+                    List<Long> supplierIds,
             @Parameter(description = "Movement types to filter by (IN, OUT)")
                     @RequestParam(required = false)
                     List<MovementType> movementTypes,
@@ -92,6 +106,16 @@ public class ReportController {
             @Parameter(description = "Maximum number of results to return")
                     @RequestParam(required = false)
                     Integer limit,
+            @Parameter(
+                            description =
+                                    "Field to sort by (createdAt, id, quantity, movementType, "
+                                            + "referenceType, sourceSystem, productCode, "
+                                            + "productName)")
+                    @RequestParam(required = false)
+                    String sortBy,
+            @Parameter(description = "Sort direction (ASC, DESC); defaults to DESC")
+                    @RequestParam(required = false)
+                    String sortDirection,
             @Parameter(description = "Include detailed information (user, reference details)")
                     @RequestParam(defaultValue = "false")
                     boolean detailed) {
@@ -109,16 +133,16 @@ public class ReportController {
                             endDate,
                             productIds,
                             productCodes,
-                            null,
-                            null,
+                            supplierIds,
+                            categoryIds,
                             movementTypes,
                             referenceTypes,
                             sourceSystems,
                             null,
                             null,
                             limit,
-                            null,
-                            null);
+                            sortBy,
+                            sortDirection);
 
             List<InventoryMovementReportDto> reports;
             if (detailed) {
@@ -528,6 +552,106 @@ public class ReportController {
         }
     }
 
+    /**
+     * Stream the detailed inventory movement report as NDJSON or CSV. Rows are written as they
+     * are read from the database, so memory use does not depend on the report period.
+     */
+    @GetMapping("/inventory-movements/stream")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(
+            summary = "Stream inventory movement reports",
+            description =
+                    "Stream the detailed inventory movement report row by row as NDJSON or CSV,"
+                            + " for large periods")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Report stream started"),
+                @ApiResponse(responseCode = "400", description = "Invalid filter parameters"),
+                @ApiResponse(responseCode = "403", description = "Access denied")
+            })
+    public ResponseEntity<StreamingResponseBody> streamInventoryMovements(
+            @Parameter(
+                            description =
+                                    "Start date for the report period (ISO format: yyyy-MM-dd'T'HH:mm:ss)")
+                    @RequestParam(required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime startDate,
+            @Parameter(
+                            description =
+                                    "End date for the report period (ISO format: yyyy-MM-dd'T'HH:mm:ss)")
+                    @RequestParam(required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime endDate,
+            @Parameter(description = "Product IDs to filter by") @RequestParam(required = false)
+                    List<Long> productIds,
+            @Parameter(description = "Product codes to filter by") @RequestParam(required = false)
+                    List<String> productCodes,
+            @Parameter(description = "Product category IDs to filter by")
+                    @RequestParam(required = false)
+                    List<Long> categoryIds,
+            @Parameter(description = "Supplier IDs to filter purchase order movements by")
+                    @RequestParam(required = false)
+                    List<Long> supplierIds,
+            @Parameter(description = "Movement types to filter by (IN, OUT)")
+                    @RequestParam(required = false)
+                    List<MovementType> movementTypes,
+            @Parameter(description = "Reference types to filter by") @RequestParam(required = false)
+                    List<ReferenceType> referenceTypes,
+            @Parameter(description = "Source systems to filter by") @RequestParam(required = false)
+                    List<String> sourceSystems,
+            @Parameter(description = "Maximum number of results to return")
+                    @RequestParam(required = false)
+                    Integer limit,
+            @Parameter(description = "Field to sort by; same fields as the movement report")
+                    @RequestParam(required = false)
+                    String sortBy,
+            @Parameter(description = "Sort direction (ASC, DESC); defaults to DESC")
+                    @RequestParam(required = false)
+                    String sortDirection,
+            @Parameter(description = "Output format (NDJSON, CSV)")
+                    @RequestParam(defaultValue = "NDJSON")
+                    ReportStreamFormat format) {
+
+        logger.info(
+                "Streaming inventory movement report - startDate: {}, endDate: {}, format: {}",
+                startDate,
+                endDate,
+                format);
+
+        ReportFilterDto filter =
+                buildReportFilter(
+                        startDate,
+                        endDate,
+                        productIds,
+                        productCodes,
+                        supplierIds,
+                        categoryIds,
+                        movementTypes,
+                        referenceTypes,
+                        sourceSystems,
+                        null,
+                        null,
+                        limit,
+                        sortBy,
+                        sortDirection);
+        try {
+            reportStreamService.validateInventoryMovementFilter(filter);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid parameters for inventory movement stream: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Runs after this method returns, once the response is committed
+        StreamingResponseBody body =
+                output -> reportStreamService.writeInventoryMovementReport(filter, format, output);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getMediaType()));
+        headers.setContentDispositionFormData(
+                "attachment", "inventory_movements." + format.getFileExtension());
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     /** Helper method to build ReportFilterDto from request parameters */
     private ReportFilterDto buildReportFilter(
             LocalDateTime startDate,
@@ -0,0 +1,96 @@
+package dev.kreaker.kinvex.controller;
+
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse;
+import dev.kreaker.kinvex.service.StockReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para conciliar el stock de los productos contra sus movimientos de inventario.
+ */
+@RestController
+@RequestMapping("/api/inventory/reconciliations")
+@Tag(name = "Stock Reconciliation", description = "Conciliación de stock contra movimientos")
+public class StockReconciliationController {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(StockReconciliationController.class);
+
+    private final StockReconciliationService reconciliationService;
+
+    public StockReconciliationController(StockReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * Inicia una conciliación de stock en segundo plano.
+     *
+     * @param applyCorrections Registra movimientos de ajuste para las diferencias encontradas
+     * @return Estado inicial de la conciliación
+     */
+    @PostMapping
+    @Operation(
+            summary = "Iniciar conciliación de stock",
+            description =
+                    "Compara el stock de cada producto con la suma de sus movimientos y, "
+                            + "opcionalmente, registra ajustes para las diferencias")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "202", description = "Conciliación iniciada"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+                @ApiResponse(
+                        responseCode = "409",
+                        description = "Ya hay una conciliación en ejecución")
+            })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockReconciliationResponse> startReconciliation(
+            @Parameter(description = "Registrar movimientos de ajuste")
+                    @RequestParam(defaultValue = "false")
+                    boolean applyCorrections) {
+
+        logger.info("Iniciando conciliación de stock (correcciones: {})", applyCorrections);
+        StockReconciliationResponse response =
+                reconciliationService.startReconciliation(applyCorrections);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Obtiene el avance o el resultado de una conciliación.
+     *
+     * @param runId ID de la conciliación
+     * @return Estado de la conciliación
+     */
+    @GetMapping("/{runId}")
+    @Operation(
+            summary = "Consultar conciliación de stock",
+            description = "Retorna el avance, las métricas y las diferencias de una conciliación")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Conciliación encontrada"),
+                @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+                @ApiResponse(responseCode = "404", description = "Conciliación no encontrada")
+            })
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<StockReconciliationResponse> getReconciliation(
+            @Parameter(description = "ID de la conciliación") @PathVariable Long runId) {
+
+        return reconciliationService
+                .getReconciliation(runId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,148 @@
+package dev.kreaker.kinvex.controller;
+
+import static dev.kreaker.kinvex.controller.ExternalBillingController.IDEMPOTENCY_KEY_HEADER;
+
+import dev.kreaker.kinvex.dto.inventory.StockReservationRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationResponse;
+import dev.kreaker.kinvex.service.StockReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST de reservas de stock para el checkout de sistemas externos de facturación.
+ *
+ * <p>El sistema externo reserva stock al armar el carrito, confirma la reserva al facturar y la
+ * libera si el carrito se abandona. Las reservas no confirmadas vencen automáticamente.
+ */
+@RestController
+@RequestMapping("/api/external/billing/reservations")
+@Tag(name = "Stock Reservations", description = "Reservas de stock para sistemas externos")
+public class StockReservationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationController.class);
+
+    private final StockReservationService reservationService;
+
+    public StockReservationController(StockReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Reserva stock para las líneas de un carrito.
+     *
+     * @param request Solicitud de reserva
+     * @param idempotencyKey Clave opcional para reintentos seguros
+     * @return Reserva creada
+     */
+    @PostMapping
+    @Operation(
+            summary = "Reservar stock",
+            description =
+                    "Aparta stock para todas las líneas de un carrito sin descontarlo. Si alguna "
+                            + "línea no tiene stock disponible no se reserva ninguna.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "201", description = "Stock reservado exitosamente"),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Stock insuficiente o datos de entrada inválidos"),
+                @ApiResponse(responseCode = "401", description = "Token JWT inválido o ausente"),
+                @ApiResponse(
+                        responseCode = "403",
+                        description = "Acceso denegado - permisos insuficientes"),
+                @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+                @ApiResponse(
+                        responseCode = "409",
+                        description = "Clave de idempotencia usada con otra solicitud")
+            })
+    @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<StockReservationResponse> reserveStock(
+            @Valid @RequestBody StockReservationRequest request,
+            @Parameter(description = "Clave para reintentar sin reservar dos veces")
+                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                    String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
+
+        logger.info(
+                "Recibida solicitud de reserva de stock: referencia={}, líneas={}, sistema={}",
+                request.getReference(),
+                request.getItems().size(),
+                request.getSourceSystem());
+
+        StockReservationResponse response = reservationService.reserveStock(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /** Obtiene una reserva por su ID. */
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener reserva", description = "Obtiene el estado de una reserva")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Reserva encontrada"),
+                @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+            })
+    @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<StockReservationResponse> getReservation(
+            @Parameter(description = "ID de la reserva") @PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.getReservation(id));
+    }
+
+    /** Confirma una reserva: descuenta el stock reservado y registra los movimientos de salida. */
+    @PostMapping("/{id}/commit")
+    @Operation(
+            summary = "Confirmar reserva",
+            description = "Convierte el stock reservado en una salida de stock al facturar.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Reserva confirmada"),
+                @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
+                @ApiResponse(
+                        responseCode = "409",
+                        description = "La reserva venció o ya fue confirmada o liberada")
+            })
+    @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<StockReservationResponse> commitReservation(
+            @Parameter(description = "ID de la reserva") @PathVariable Long id) {
+        logger.info("Recibida solicitud de confirmación de reserva: {}", id);
+        return ResponseEntity.ok(reservationService.commitReservation(id));
+    }
+
+    /** Libera una reserva y devuelve su stock al disponible. */
+    @PostMapping("/{id}/release")
+    @Operation(
+            summary = "Liberar reserva",
+            description = "Devuelve el stock reservado al stock disponible.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Reserva liberada"),
+                @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
+                @ApiResponse(
+                        responseCode = "409",
+                        description = "La reserva ya fue confirmada, liberada o vencida")
+            })
+    @PreAuthorize("hasAnyRole('OPERATOR', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<StockReservationResponse> releaseReservation(
+            @Parameter(description = "ID de la reserva") @PathVariable Long id) {
+        logger.info("Recibida solicitud de liberación de reserva: {}", id);
+        return ResponseEntity.ok(reservationService.releaseReservation(id));
+    }
+}
@@ -0,0 +1,45 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO para la actualización masiva de productos identificados por código.
+ *
+ * @param products Cambios por producto; cada código puede aparecer una sola vez
+ */
+public record BulkProductUpdateRequest(
+        @NotEmpty(message = "Debe indicar al menos un producto")
+                @Size(max = 10_000, message = "No se pueden actualizar más de 10000 productos")
+                List<@Valid ProductFieldUpdate> products) {
+
+    /**
+     * Cambios de un producto. Los campos nulos conservan su valor actual.
+     *
+     * @param code Código del producto
+     * @param unitPrice Nuevo precio unitario
+     * @param minStock Nuevo stock mínimo
+     * @param maxStock Nuevo stock máximo
+     * @param active Nuevo estado
+     * @param categoryId ID de la nueva categoría
+     */
+    public record ProductFieldUpdate(
+            @NotBlank(message = "El código del producto es obligatorio") String code,
+            @DecimalMin(value = "0.01", message = "El precio debe ser mayor a 0")
+                    @Digits(
+                            integer = 8,
+                            fraction = 2,
+                            message = "El precio admite hasta 8 dígitos enteros y 2 decimales")
+                    BigDecimal unitPrice,
+            @Min(value = 0, message = "El stock mínimo no puede ser negativo") Integer minStock,
+            @Min(value = 0, message = "El stock máximo no puede ser negativo") Integer maxStock,
+            Boolean active,
+            Long categoryId) {}
+}
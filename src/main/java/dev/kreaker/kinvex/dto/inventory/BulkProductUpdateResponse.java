@@ -0,0 +1,18 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de una actualización masiva de productos.
+ *
+ * @param requestedCount Productos incluidos en la solicitud
+ * @param updatedCount Productos actualizados
+ * @param notFoundCodes Códigos de la solicitud que no corresponden a ningún producto
+ * @param invalidStockLimitCodes Códigos no actualizados porque el stock máximo quedaría por debajo
+ *     del mínimo
+ */
+public record BulkProductUpdateResponse(
+        int requestedCount,
+        int updatedCount,
+        List<String> notFoundCodes,
+        List<String> invalidStockLimitCodes) {}
@@ -0,0 +1,14 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta con una categoría y sus subcategorías, ordenadas por nombre.
+ *
+ * @param id ID de la categoría
+ * @param name Nombre de la categoría
+ * @param parentId ID de la categoría padre, o {@code null} si es raíz
+ * @param children Subcategorías directas
+ */
+public record CategoryTreeNode(
+        Long id, String name, Long parentId, List<CategoryTreeNode> children) {}
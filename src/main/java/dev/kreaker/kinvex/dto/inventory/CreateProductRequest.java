@@ -1,6 +1,7 @@
 package dev.kreaker.kinvex.dto.inventory;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +26,10 @@ public class CreateProductRequest {
 
     @NotNull(message = "El precio unitario es obligatorio")
     @DecimalMin(value = "0.01", message = "El precio debe ser mayor a 0")
+    @Digits(
+            integer = 8,
+            fraction = 2,
+            message = "El precio admite hasta 8 dígitos enteros y 2 decimales")
     private BigDecimal unitPrice;
 
     @Min(value = 0, message = "El stock inicial no puede ser negativo")
@@ -0,0 +1,101 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para descontar en una sola operación todas las líneas de una factura emitida por un sistema
+ * externo de facturación.
+ *
+ * <p>La factura se aplica de forma atómica: o se descuentan todas las líneas o ninguna.
+ */
+public class ExternalInvoiceDeductionRequest {
+
+    @NotBlank(message = "El número de factura es obligatorio")
+    @Size(max = 50, message = "El número de factura no puede exceder 50 caracteres")
+    private String invoiceNumber;
+
+    @Size(max = 50, message = "El sistema origen no puede exceder 50 caracteres")
+    private String sourceSystem;
+
+    @Size(max = 500, message = "Las notas no pueden exceder 500 caracteres")
+    private String notes;
+
+    /** Clave de idempotencia opcional, normalmente recibida en la cabecera Idempotency-Key. */
+    @Size(max = 100, message = "La clave de idempotencia no puede exceder 100 caracteres")
+    private String idempotencyKey;
+
+    @NotEmpty(message = "La factura debe contener al menos una línea")
+    @Size(max = 500, message = "La factura no puede exceder 500 líneas")
+    @Valid
+    private List<ExternalStockDeductionRequest> lines = new ArrayList<>();
+
+    // Default constructor
+    public ExternalInvoiceDeductionRequest() {}
+
+    // Constructor with required fields
+    public ExternalInvoiceDeductionRequest(
+            String invoiceNumber, List<ExternalStockDeductionRequest> lines) {
+        this.invoiceNumber = invoiceNumber;
+        this.lines = lines;
+    }
+
+    // Getters and Setters
+    public String getInvoiceNumber() {
+        return invoiceNumber;
+    }
+
+    public void setInvoiceNumber(String invoiceNumber) {
+        this.invoiceNumber = invoiceNumber;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public void setSourceSystem(String sourceSystem) {
+        this.sourceSystem = sourceSystem;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public List<ExternalStockDeductionRequest> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ExternalStockDeductionRequest> lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public String toString() {
+        return "ExternalInvoiceDeductionRequest{"
+                + "invoiceNumber='"
+                + invoiceNumber
+                + '\''
+                + ", sourceSystem='"
+                + sourceSystem
+                + '\''
+                + ", lines="
+                + (lines != null ? lines.size() : 0)
+                + '}';
+    }
+}
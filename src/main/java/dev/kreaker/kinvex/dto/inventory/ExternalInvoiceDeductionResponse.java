@@ -0,0 +1,118 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de respuesta para el descuento de una factura completa desde sistemas externos. Contiene el
+ * resultado de cada línea con la misma forma que {@link ExternalStockDeductionResponse}.
+ */
+public class ExternalInvoiceDeductionResponse {
+
+    private String invoiceNumber;
+    private Integer totalLines;
+    private Integer totalQuantity;
+    private LocalDateTime timestamp;
+    private String status;
+    private String message;
+    private List<ExternalStockDeductionResponse> lines;
+
+    // Default constructor
+    public ExternalInvoiceDeductionResponse() {}
+
+    // Constructor for successful deduction
+    public ExternalInvoiceDeductionResponse(
+            String invoiceNumber,
+            LocalDateTime timestamp,
+            List<ExternalStockDeductionResponse> lines) {
+        this.invoiceNumber = invoiceNumber;
+        this.timestamp = timestamp;
+        this.lines = lines;
+        this.totalLines = lines.size();
+        this.totalQuantity =
+                lines.stream().mapToInt(ExternalStockDeductionResponse::getQuantityDeducted).sum();
+        this.status = "SUCCESS";
+        this.message = "Factura descontada exitosamente";
+    }
+
+    // Static factory method for success response
+    public static ExternalInvoiceDeductionResponse success(
+            String invoiceNumber,
+            LocalDateTime timestamp,
+            List<ExternalStockDeductionResponse> lines) {
+        return new ExternalInvoiceDeductionResponse(invoiceNumber, timestamp, lines);
+    }
+
+    // Getters and Setters
+    public String getInvoiceNumber() {
+        return invoiceNumber;
+    }
+
+    public void setInvoiceNumber(String invoiceNumber) {
+        this.invoiceNumber = invoiceNumber;
+    }
+
+    public Integer getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(Integer totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public Integer getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(Integer totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<ExternalStockDeductionResponse> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ExternalStockDeductionResponse> lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public String toString() {
+        return "ExternalInvoiceDeductionResponse{"
+                + "invoiceNumber='"
+                + invoiceNumber
+                + '\''
+                + ", totalLines="
+                + totalLines
+                + ", totalQuantity="
+                + totalQuantity
+                + ", status='"
+                + status
+                + '\''
+                + '}';
+    }
+}
@@ -27,6 +27,13 @@ public class ExternalStockDeductionRequest {
     @Size(max = 500, message = "Las notas no pueden exceder 500 caracteres")
     private String notes;
 
+    /**
+     * Clave de idempotencia opcional. Normalmente se recibe en la cabecera {@code Idempotency-Key};
+     * se ignora en las líneas de una factura.
+     */
+    @Size(max = 100, message = "La clave de idempotencia no puede exceder 100 caracteres")
+    private String idempotencyKey;
+
     // Default constructor
     public ExternalStockDeductionRequest() {}
 
@@ -78,6 +85,14 @@ public class ExternalStockDeductionRequest {
         this.notes = notes;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     @Override
     public String toString() {
         return "ExternalStockDeductionRequest{"
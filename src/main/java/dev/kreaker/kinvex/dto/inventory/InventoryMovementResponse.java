@@ -0,0 +1,42 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import dev.kreaker.kinvex.entity.User;
+import java.time.LocalDateTime;
+
+/**
+ * Vista de solo lectura de un movimiento de inventario. El producto y el usuario se exponen solo
+ * por su identificación, sin cargar sus entidades.
+ */
+public record InventoryMovementResponse(
+        Long id,
+        Long productId,
+        String productCode,
+        MovementType movementType,
+        Integer quantity,
+        ReferenceType referenceType,
+        Long referenceId,
+        String sourceSystem,
+        String notes,
+        Long createdById,
+        LocalDateTime createdAt) {
+
+    /** Convierte un movimiento cuyo producto ya está cargado en la transacción que lo creó. */
+    public static InventoryMovementResponse from(InventoryMovement movement) {
+        User createdBy = movement.getCreatedBy();
+        return new InventoryMovementResponse(
+                movement.getId(),
+                movement.getProduct().getId(),
+                movement.getProduct().getCode(),
+                movement.getMovementType(),
+                movement.getQuantity(),
+                movement.getReferenceType(),
+                movement.getReferenceId(),
+                movement.getSourceSystem(),
+                movement.getNotes(),
+                createdBy != null ? createdBy.getId() : null,
+                movement.getCreatedAt());
+    }
+}
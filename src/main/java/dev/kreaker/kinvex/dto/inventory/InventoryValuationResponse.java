@@ -0,0 +1,28 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO de respuesta con la valoración de los productos activos, total y por categoría.
+ *
+ * @param productCount Productos activos, incluidos los que no tienen categoría
+ * @param totalUnits Unidades en stock de los productos activos
+ * @param totalValue Valor del stock a precio unitario actual
+ * @param categories Valoración de cada categoría con productos activos
+ */
+public record InventoryValuationResponse(
+        long productCount,
+        long totalUnits,
+        BigDecimal totalValue,
+        List<CategoryValuationResponse> categories) {
+
+    /** Valoración de los productos activos de una categoría. */
+    public record CategoryValuationResponse(
+            Long categoryId,
+            String categoryName,
+            long productCount,
+            long totalUnits,
+            BigDecimal averageStock,
+            BigDecimal totalValue) {}
+}
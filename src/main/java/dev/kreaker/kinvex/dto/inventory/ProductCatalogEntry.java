@@ -0,0 +1,10 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos maestros de un producto para consultas por código. No incluye stock: el stock siempre se
+ * consulta en base de datos o en el libro de stock.
+ */
+public record ProductCatalogEntry(
+        Long id, String code, String name, BigDecimal unitPrice, Boolean active) {}
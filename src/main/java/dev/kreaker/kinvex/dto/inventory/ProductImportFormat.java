@@ -0,0 +1,29 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.util.Locale;
+
+/** Formato de un archivo de importación masiva de productos. */
+public enum ProductImportFormat {
+    /** Texto separado por comas (RFC 4180) en UTF-8, con fila de encabezados. */
+    CSV,
+    /** Libro de Excel; se lee la primera hoja, con fila de encabezados. */
+    XLSX;
+
+    /**
+     * Determina el formato por la extensión del nombre de archivo.
+     *
+     * @param filename Nombre del archivo subido
+     * @return Formato del archivo
+     * @throws IllegalArgumentException si la extensión no es csv ni xlsx
+     */
+    public static ProductImportFormat fromFilename(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".xlsx")) {
+            return XLSX;
+        }
+        throw new IllegalArgumentException("Formato de archivo no soportado: se espera CSV o XLSX");
+    }
+}
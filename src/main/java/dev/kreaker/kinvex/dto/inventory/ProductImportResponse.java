@@ -0,0 +1,29 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de una importación masiva de productos.
+ *
+ * @param totalRows Filas de datos leídas del archivo, sin contar los encabezados
+ * @param importedCount Productos creados
+ * @param failedCount Filas rechazadas
+ * @param errors Errores de las filas rechazadas, en orden de fila y hasta el máximo configurado
+ * @param errorsTruncated Indica si hubo más errores de los que se incluyen
+ */
+public record ProductImportResponse(
+        long totalRows,
+        long importedCount,
+        long failedCount,
+        List<RowError> errors,
+        boolean errorsTruncated) {
+
+    /**
+     * Error de una fila del archivo.
+     *
+     * @param rowNumber Número de fila en el archivo; la fila 1 es la de encabezados
+     * @param code Código de producto de la fila, si lo tiene
+     * @param message Motivo del rechazo
+     */
+    public record RowError(long rowNumber, String code, String message) {}
+}
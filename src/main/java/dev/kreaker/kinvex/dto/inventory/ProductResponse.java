@@ -0,0 +1,90 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import dev.kreaker.kinvex.entity.Category;
+import dev.kreaker.kinvex.entity.Product;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Vista de solo lectura de un producto para las respuestas de la API. Incluye la categoría como ID
+ * y nombre, y los indicadores de stock ya calculados, para que serializarla no dependa de una
+ * sesión abierta.
+ */
+public record ProductResponse(
+        Long id,
+        String code,
+        String name,
+        String description,
+        Long categoryId,
+        String categoryName,
+        BigDecimal unitPrice,
+        Integer currentStock,
+        Integer reservedStock,
+        Integer availableStock,
+        Integer minStock,
+        Integer maxStock,
+        Boolean active,
+        boolean lowStock,
+        boolean overStock,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /** Constructor usado por las proyecciones JPQL; calcula los indicadores de stock. */
+    public ProductResponse(
+            Long id,
+            String code,
+            String name,
+            String description,
+            Long categoryId,
+            String categoryName,
+            BigDecimal unitPrice,
+            Integer currentStock,
+            Integer reservedStock,
+            Integer minStock,
+            Integer maxStock,
+            Boolean active,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+        this(
+                id,
+                code,
+                name,
+                description,
+                categoryId,
+                categoryName,
+                unitPrice,
+                currentStock,
+                reservedStock,
+                currentStock - reservedStock,
+                minStock,
+                maxStock,
+                active,
+                currentStock <= minStock,
+                maxStock != null && currentStock > maxStock,
+                createdAt,
+                updatedAt);
+    }
+
+    /**
+     * Convierte un producto cargado. Debe llamarse dentro de la transacción si la categoría no se
+     * cargó junto con el producto.
+     */
+    public static ProductResponse from(Product product) {
+        Category category = product.getCategory();
+        return new ProductResponse(
+                product.getId(),
+                product.getCode(),
+                product.getName(),
+                product.getDescription(),
+                category != null ? category.getId() : null,
+                category != null ? category.getName() : null,
+                product.getUnitPrice(),
+                product.getCurrentStock(),
+                product.getReservedStock(),
+                product.getMinStock(),
+                product.getMaxStock(),
+                product.getActive(),
+                product.getCreatedAt(),
+                product.getUpdatedAt());
+    }
+}
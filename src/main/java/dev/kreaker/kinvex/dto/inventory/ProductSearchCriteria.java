@@ -8,6 +8,7 @@ public class ProductSearchCriteria {
     private String code;
     private String name;
     private Long categoryId;
+    private Boolean includeSubcategories;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Integer minStock;
@@ -44,6 +45,15 @@ public class ProductSearchCriteria {
         this.categoryId = categoryId;
     }
 
+    /** Incluye los productos de las subcategorías de {@link #getCategoryId()}. */
+    public Boolean getIncludeSubcategories() {
+        return includeSubcategories;
+    }
+
+    public void setIncludeSubcategories(Boolean includeSubcategories) {
+        this.includeSubcategories = includeSubcategories;
+    }
+
     public BigDecimal getMinPrice() {
         return minPrice;
     }
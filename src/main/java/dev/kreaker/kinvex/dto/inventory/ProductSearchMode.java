@@ -0,0 +1,9 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+/** Modo de búsqueda de texto en productos. */
+public enum ProductSearchMode {
+    /** Subcadena en nombre o código, ordenada por similitud de trigramas. */
+    CONTAINS,
+    /** Palabras en nombre o descripción, ordenadas por relevancia; la última admite prefijo. */
+    FULL_TEXT
+}
@@ -0,0 +1,98 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** DTO de respuesta para el stock de un producto en un momento dado. */
+public class StockAsOfResponse {
+
+    private Long productId;
+    private String productCode;
+    private LocalDateTime asOf;
+    private Integer stock;
+    private LocalDate snapshotDate;
+    private Long movementsApplied;
+
+    // Default constructor
+    public StockAsOfResponse() {}
+
+    public StockAsOfResponse(
+            Long productId,
+            String productCode,
+            LocalDateTime asOf,
+            Integer stock,
+            LocalDate snapshotDate,
+            Long movementsApplied) {
+        this.productId = productId;
+        this.productCode = productCode;
+        this.asOf = asOf;
+        this.stock = stock;
+        this.snapshotDate = snapshotDate;
+        this.movementsApplied = movementsApplied;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    /** Fecha de la foto usada como base, o {@code null} si se partió del stock actual. */
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    /** Movimientos aplicados sobre la base para llegar al momento consultado. */
+    public Long getMovementsApplied() {
+        return movementsApplied;
+    }
+
+    public void setMovementsApplied(Long movementsApplied) {
+        this.movementsApplied = movementsApplied;
+    }
+
+    @Override
+    public String toString() {
+        return "StockAsOfResponse{"
+                + "productId="
+                + productId
+                + ", asOf="
+                + asOf
+                + ", stock="
+                + stock
+                + ", snapshotDate="
+                + snapshotDate
+                + '}';
+    }
+}
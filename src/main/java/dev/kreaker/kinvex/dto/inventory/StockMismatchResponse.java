@@ -0,0 +1,90 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+/** DTO de respuesta para un producto cuyo stock no coincide con sus movimientos. */
+public class StockMismatchResponse {
+
+    private Long productId;
+    private String productCode;
+    private Integer currentStock;
+    private Long ledgerStock;
+    private boolean corrected;
+
+    // Default constructor
+    public StockMismatchResponse() {}
+
+    public StockMismatchResponse(
+            Long productId,
+            String productCode,
+            Integer currentStock,
+            Long ledgerStock,
+            boolean corrected) {
+        this.productId = productId;
+        this.productCode = productCode;
+        this.currentStock = currentStock;
+        this.ledgerStock = ledgerStock;
+        this.corrected = corrected;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public Integer getCurrentStock() {
+        return currentStock;
+    }
+
+    public void setCurrentStock(Integer currentStock) {
+        this.currentStock = currentStock;
+    }
+
+    /** Entradas menos salidas registradas para el producto. */
+    public Long getLedgerStock() {
+        return ledgerStock;
+    }
+
+    public void setLedgerStock(Long ledgerStock) {
+        this.ledgerStock = ledgerStock;
+    }
+
+    /** Stock actual menos el stock según los movimientos. */
+    public long getDifference() {
+        return currentStock - ledgerStock;
+    }
+
+    /** Indica si se registró un movimiento de ajuste que elimina la diferencia. */
+    public boolean isCorrected() {
+        return corrected;
+    }
+
+    public void setCorrected(boolean corrected) {
+        this.corrected = corrected;
+    }
+
+    @Override
+    public String toString() {
+        return "StockMismatchResponse{"
+                + "productCode='"
+                + productCode
+                + '\''
+                + ", currentStock="
+                + currentStock
+                + ", ledgerStock="
+                + ledgerStock
+                + ", corrected="
+                + corrected
+                + '}';
+    }
+}
@@ -0,0 +1,153 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** DTO de respuesta con el avance y el resultado de una conciliación de stock. */
+public class StockReconciliationResponse {
+
+    /** Estado de una ejecución de conciliación. */
+    public enum ReconciliationStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private Long runId;
+    private ReconciliationStatus status;
+    private boolean applyCorrections;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long totalProducts;
+    private int totalPartitions;
+    private int completedPartitions;
+    private long mismatchesFound;
+    private long correctionsApplied;
+    private String error;
+    private List<StockMismatchResponse> mismatches;
+
+    // Default constructor
+    public StockReconciliationResponse() {}
+
+    /** Fracción de particiones procesadas, entre 0 y 1. */
+    public double getProgress() {
+        if (status == ReconciliationStatus.COMPLETED) {
+            return 1.0;
+        }
+        return totalPartitions > 0 ? (double) completedPartitions / totalPartitions : 0.0;
+    }
+
+    // Getters and Setters
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public ReconciliationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReconciliationStatus status) {
+        this.status = status;
+    }
+
+    public boolean isApplyCorrections() {
+        return applyCorrections;
+    }
+
+    public void setApplyCorrections(boolean applyCorrections) {
+        this.applyCorrections = applyCorrections;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getTotalProducts() {
+        return totalProducts;
+    }
+
+    public void setTotalProducts(long totalProducts) {
+        this.totalProducts = totalProducts;
+    }
+
+    public int getTotalPartitions() {
+        return totalPartitions;
+    }
+
+    public void setTotalPartitions(int totalPartitions) {
+        this.totalPartitions = totalPartitions;
+    }
+
+    public int getCompletedPartitions() {
+        return completedPartitions;
+    }
+
+    public void setCompletedPartitions(int completedPartitions) {
+        this.completedPartitions = completedPartitions;
+    }
+
+    public long getMismatchesFound() {
+        return mismatchesFound;
+    }
+
+    public void setMismatchesFound(long mismatchesFound) {
+        this.mismatchesFound = mismatchesFound;
+    }
+
+    public long getCorrectionsApplied() {
+        return correctionsApplied;
+    }
+
+    public void setCorrectionsApplied(long correctionsApplied) {
+        this.correctionsApplied = correctionsApplied;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /** Diferencias encontradas, hasta el máximo configurado. */
+    public List<StockMismatchResponse> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<StockMismatchResponse> mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReconciliationResponse{"
+                + "runId="
+                + runId
+                + ", status="
+                + status
+                + ", completedPartitions="
+                + completedPartitions
+                + "/"
+                + totalPartitions
+                + ", mismatchesFound="
+                + mismatchesFound
+                + '}';
+    }
+}
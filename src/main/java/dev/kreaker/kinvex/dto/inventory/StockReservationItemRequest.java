@@ -0,0 +1,55 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/** DTO para una línea de una reserva de stock. */
+public class StockReservationItemRequest {
+
+    @NotBlank(message = "El código de producto es obligatorio")
+    @Size(max = 50, message = "El código de producto no puede exceder 50 caracteres")
+    private String productCode;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser mayor a 0")
+    private Integer quantity;
+
+    // Default constructor
+    public StockReservationItemRequest() {}
+
+    // Constructor with required fields
+    public StockReservationItemRequest(String productCode, Integer quantity) {
+        this.productCode = productCode;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationItemRequest{"
+                + "productCode='"
+                + productCode
+                + '\''
+                + ", quantity="
+                + quantity
+                + '}';
+    }
+}
@@ -0,0 +1,62 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import dev.kreaker.kinvex.entity.StockReservationItem;
+
+/** DTO de respuesta para una línea de una reserva de stock. */
+public class StockReservationItemResponse {
+
+    private String productCode;
+    private String productName;
+    private Integer quantity;
+
+    // Default constructor
+    public StockReservationItemResponse() {}
+
+    public StockReservationItemResponse(String productCode, String productName, Integer quantity) {
+        this.productCode = productCode;
+        this.productName = productName;
+        this.quantity = quantity;
+    }
+
+    // Static factory method from entity
+    public static StockReservationItemResponse from(StockReservationItem item) {
+        return new StockReservationItemResponse(
+                item.getProduct().getCode(), item.getProduct().getName(), item.getQuantity());
+    }
+
+    // Getters and Setters
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationItemResponse{"
+                + "productCode='"
+                + productCode
+                + '\''
+                + ", quantity="
+                + quantity
+                + '}';
+    }
+}
@@ -0,0 +1,112 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para reservar stock al armar un carrito. La reserva se aplica de forma atómica: o se reservan
+ * todas las líneas o ninguna.
+ */
+public class StockReservationRequest {
+
+    /** Identificador del carrito u operación en el sistema externo. */
+    @Size(max = 100, message = "La referencia no puede exceder 100 caracteres")
+    private String reference;
+
+    @Size(max = 50, message = "El sistema origen no puede exceder 50 caracteres")
+    private String sourceSystem;
+
+    @Size(max = 500, message = "Las notas no pueden exceder 500 caracteres")
+    private String notes;
+
+    /** Vigencia solicitada en segundos; si se omite se usa la configurada por defecto. */
+    @Min(value = 1, message = "La vigencia debe ser mayor a 0")
+    private Long ttlSeconds;
+
+    /** Clave de idempotencia opcional, normalmente recibida en la cabecera Idempotency-Key. */
+    @Size(max = 100, message = "La clave de idempotencia no puede exceder 100 caracteres")
+    private String idempotencyKey;
+
+    @NotEmpty(message = "La reserva debe contener al menos una línea")
+    @Size(max = 500, message = "La reserva no puede exceder 500 líneas")
+    @Valid
+    private List<StockReservationItemRequest> items = new ArrayList<>();
+
+    // Default constructor
+    public StockReservationRequest() {}
+
+    // Constructor with required fields
+    public StockReservationRequest(String reference, List<StockReservationItemRequest> items) {
+        this.reference = reference;
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public void setSourceSystem(String sourceSystem) {
+        this.sourceSystem = sourceSystem;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public List<StockReservationItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockReservationItemRequest> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationRequest{"
+                + "reference='"
+                + reference
+                + '\''
+                + ", sourceSystem='"
+                + sourceSystem
+                + '\''
+                + ", ttlSeconds="
+                + ttlSeconds
+                + ", items="
+                + (items != null ? items.size() : 0)
+                + '}';
+    }
+}
@@ -0,0 +1,127 @@
+package dev.kreaker.kinvex.dto.inventory;
+
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.entity.StockReservation.ReservationStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** DTO de respuesta con el estado de una reserva de stock. */
+public class StockReservationResponse {
+
+    private Long reservationId;
+    private String reference;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+    private Integer totalQuantity;
+    private List<StockReservationItemResponse> items;
+
+    // Default constructor
+    public StockReservationResponse() {}
+
+    // Static factory method from entity
+    public static StockReservationResponse from(StockReservation reservation) {
+        return of(
+                reservation,
+                reservation.getItems().stream().map(StockReservationItemResponse::from).toList());
+    }
+
+    // Static factory method with already resolved items
+    public static StockReservationResponse of(
+            StockReservation reservation, List<StockReservationItemResponse> items) {
+        StockReservationResponse response = new StockReservationResponse();
+        response.reservationId = reservation.getId();
+        response.reference = reservation.getReference();
+        response.status = reservation.getStatus();
+        response.expiresAt = reservation.getExpiresAt();
+        response.createdAt = reservation.getCreatedAt();
+        response.resolvedAt = reservation.getResolvedAt();
+        response.items = items;
+        response.totalQuantity =
+                response.items.stream().mapToInt(StockReservationItemResponse::getQuantity).sum();
+        return response;
+    }
+
+    // Getters and Setters
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public Integer getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(Integer totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public List<StockReservationItemResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockReservationItemResponse> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservationResponse{"
+                + "reservationId="
+                + reservationId
+                + ", reference='"
+                + reference
+                + '\''
+                + ", status="
+                + status
+                + ", expiresAt="
+                + expiresAt
+                + ", totalQuantity="
+                + totalQuantity
+                + '}';
+    }
+}
@@ -0,0 +1,29 @@
+package dev.kreaker.kinvex.dto.order;
+
+import dev.kreaker.kinvex.entity.OrderDetail;
+import java.math.BigDecimal;
+
+/** Vista de solo lectura de una línea de orden de compra. */
+public record OrderDetailResponse(
+        Long id,
+        Long productId,
+        String productCode,
+        String productName,
+        Integer quantityOrdered,
+        Integer quantityReceived,
+        BigDecimal unitPrice,
+        BigDecimal totalPrice) {
+
+    /** Convierte una línea cuyo producto ya está cargado. */
+    public static OrderDetailResponse from(OrderDetail detail) {
+        return new OrderDetailResponse(
+                detail.getId(),
+                detail.getProduct().getId(),
+                detail.getProduct().getCode(),
+                detail.getProduct().getName(),
+                detail.getQuantityOrdered(),
+                detail.getQuantityReceived(),
+                detail.getUnitPrice(),
+                detail.getTotalPrice());
+    }
+}
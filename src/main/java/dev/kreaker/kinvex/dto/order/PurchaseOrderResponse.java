@@ -0,0 +1,45 @@
+package dev.kreaker.kinvex.dto.order;
+
+import dev.kreaker.kinvex.entity.PurchaseOrder;
+import dev.kreaker.kinvex.entity.PurchaseOrder.OrderStatus;
+import dev.kreaker.kinvex.entity.User;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Vista de solo lectura de una orden de compra con sus detalles. */
+public record PurchaseOrderResponse(
+        Long id,
+        String orderNumber,
+        Long supplierId,
+        String supplierName,
+        OrderStatus status,
+        LocalDate orderDate,
+        LocalDate expectedDate,
+        LocalDate receivedDate,
+        BigDecimal totalAmount,
+        String notes,
+        Long createdById,
+        LocalDateTime createdAt,
+        List<OrderDetailResponse> orderDetails) {
+
+    /** Convierte una orden cuyo proveedor, detalles y productos ya están cargados. */
+    public static PurchaseOrderResponse from(PurchaseOrder order) {
+        User createdBy = order.getCreatedBy();
+        return new PurchaseOrderResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getSupplier().getId(),
+                order.getSupplier().getName(),
+                order.getStatus(),
+                order.getOrderDate(),
+                order.getExpectedDate(),
+                order.getReceivedDate(),
+                order.getTotalAmount(),
+                order.getNotes(),
+                createdBy != null ? createdBy.getId() : null,
+                order.getCreatedAt(),
+                order.getOrderDetails().stream().map(OrderDetailResponse::from).toList());
+    }
+}
@@ -0,0 +1,36 @@
+package dev.kreaker.kinvex.dto.order;
+
+import dev.kreaker.kinvex.entity.PurchaseOrder;
+import dev.kreaker.kinvex.entity.PurchaseOrder.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Vista de solo lectura de una orden de compra para listados, sin sus detalles. */
+public record PurchaseOrderSummary(
+        Long id,
+        String orderNumber,
+        Long supplierId,
+        String supplierName,
+        OrderStatus status,
+        LocalDate orderDate,
+        LocalDate expectedDate,
+        LocalDate receivedDate,
+        BigDecimal totalAmount,
+        LocalDateTime createdAt) {
+
+    /** Convierte una orden cuyo proveedor ya está cargado. */
+    public static PurchaseOrderSummary from(PurchaseOrder order) {
+        return new PurchaseOrderSummary(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getSupplier().getId(),
+                order.getSupplier().getName(),
+                order.getStatus(),
+                order.getOrderDate(),
+                order.getExpectedDate(),
+                order.getReceivedDate(),
+                order.getTotalAmount(),
+                order.getCreatedAt());
+    }
+}
@@ -0,0 +1,52 @@
+package dev.kreaker.kinvex.dto.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Página de una paginación por cursor. A diferencia de {@code Page} no incluye el total de
+ * elementos, por lo que obtenerla no ejecuta una consulta COUNT.
+ *
+ * @param content Elementos de la página
+ * @param size Tamaño de página solicitado
+ * @param hasNext Indica si hay más elementos después de esta página
+ * @param nextCursor Cursor para pedir la página siguiente, nulo si no hay más elementos
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+
+    public static final int MAX_SIZE = 1000;
+
+    /**
+     * Construye la página a partir del resultado de la consulta, con el cursor del último elemento.
+     *
+     * @param slice Resultado de la consulta
+     * @param cursorOf Cursor de un elemento
+     * @return Página con el cursor de la siguiente, si existe
+     */
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, String> cursorOf) {
+        List<T> content = slice.getContent();
+        String nextCursor =
+                slice.hasNext() && !content.isEmpty()
+                        ? cursorOf.apply(content.get(content.size() - 1))
+                        : null;
+        return new CursorPage<>(content, slice.getSize(), slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Límite de la consulta para un tamaño de página. El orden lo fija cada consulta.
+     *
+     * @param size Tamaño de página solicitado
+     * @return Primera página del tamaño solicitado
+     * @throws IllegalArgumentException si el tamaño está fuera de rango
+     */
+    public static Pageable limit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + MAX_SIZE);
+        }
+        return PageRequest.of(0, size);
+    }
+}
@@ -0,0 +1,72 @@
+package dev.kreaker.kinvex.dto.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de una paginación por cursor: la clave de ordenamiento y el ID del último elemento
+ * devuelto. Se entrega al cliente como texto opaco y la página siguiente continúa justo después de
+ * esa posición, sin recorrer ni contar las filas anteriores.
+ *
+ * @param sortKey Valor de la clave de ordenamiento del último elemento
+ * @param id ID del último elemento, que desempata filas con la misma clave
+ */
+public record PageCursor(String sortKey, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Codifica la posición de un elemento como cursor opaco.
+     *
+     * @param sortKey Clave de ordenamiento del elemento
+     * @param id ID del elemento
+     * @return Cursor para pedir la página siguiente
+     */
+    public static String encode(Object sortKey, Long id) {
+        String raw = id + String.valueOf(SEPARATOR) + sortKey;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param cursor Cursor opaco
+     * @return Posición codificada en el cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 1) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+            return new PageCursor(
+                    raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            // Incluye NumberFormatException y errores de Base64
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+
+    public LocalDate sortKeyAsDate() {
+        try {
+            return LocalDate.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+
+    public LocalDateTime sortKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package dev.kreaker.kinvex.dto.report;
+
+/** Formats for reports streamed row by row to the response */
+public enum ReportStreamFormat {
+    /** One JSON object per line (newline-delimited JSON) */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** RFC 4180 CSV with a header row */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    ReportStreamFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -19,7 +20,11 @@ import org.hibernate.annotations.CreationTimestamp;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_id_seq")
+    @SequenceGenerator(
+            name = "audit_logs_id_seq",
+            sequenceName = "audit_logs_id_seq",
+            allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -226,6 +231,7 @@ public class AuditLog {
     public static final String ACTION_STOCK_INCREASE = "STOCK_INCREASE";
     public static final String ACTION_STOCK_DECREASE = "STOCK_DECREASE";
     public static final String ACTION_ORDER_RECEIVE = "ORDER_RECEIVE";
+    public static final String ACTION_BULK_UPDATE = "BULK_UPDATE";
 
     // Common entity types as constants
     public static final String ENTITY_USER = "User";
@@ -0,0 +1,111 @@
+package dev.kreaker.kinvex.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @Size(max = 100)
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    @NotBlank
+    @Size(max = 30)
+    @Column(nullable = false, length = 30)
+    private String scope;
+
+    @NotBlank
+    @Size(max = 64)
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Default constructor
+    public IdempotencyKey() {}
+
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // Business methods
+    public boolean matches(String scope, String requestHash) {
+        return this.scope.equals(scope) && this.requestHash.equals(requestHash);
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyKey{"
+                + "key='"
+                + key
+                + '\''
+                + ", scope='"
+                + scope
+                + '\''
+                + ", createdAt="
+                + createdAt
+                + ", expiresAt="
+                + expiresAt
+                + '}';
+    }
+}
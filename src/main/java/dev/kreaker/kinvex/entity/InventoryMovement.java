@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -20,8 +21,19 @@ import org.hibernate.annotations.CreationTimestamp;
 @Table(name = "inventory_movements")
 public class InventoryMovement {
 
+    /**
+     * IDs que reserva cada valor de la secuencia (optimizador pooled-lo, seleccionado con {@code
+     * hibernate.id.optimizer.pooled.preferred}). Debe coincidir con el INCREMENT BY de {@code
+     * inventory_movements_id_seq}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movements_id_seq")
+    @SequenceGenerator(
+            name = "inventory_movements_id_seq",
+            sequenceName = "inventory_movements_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull
@@ -0,0 +1,125 @@
+package dev.kreaker.kinvex.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Cantidad, unidades y valor de los productos activos de una categoría, repartidos en 16 filas por
+ * categoría ({@code slot = id % 16}); {@code category_id = 0} agrupa los productos sin categoría.
+ *
+ * <p>Las filas las mantiene el trigger de {@code products} (V13) en la misma transacción que cada
+ * cambio; la aplicación solo las lee o las recalcula.
+ */
+@Entity
+@Table(name = "inventory_valuation")
+public class InventoryValuation {
+
+    @EmbeddedId private Key id;
+
+    @Column(name = "product_count", nullable = false)
+    private Long productCount = 0L;
+
+    @Column(name = "total_units", nullable = false)
+    private Long totalUnits = 0L;
+
+    @Column(name = "total_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    // Default constructor
+    public InventoryValuation() {}
+
+    // Constructor with required fields
+    public InventoryValuation(
+            Long categoryId,
+            Short slot,
+            Long productCount,
+            Long totalUnits,
+            BigDecimal totalValue) {
+        this.id = new Key(categoryId, slot);
+        this.productCount = productCount;
+        this.totalUnits = totalUnits;
+        this.totalValue = totalValue;
+    }
+
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+
+    public void setId(Key id) {
+        this.id = id;
+    }
+
+    public Long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(Long productCount) {
+        this.productCount = productCount;
+    }
+
+    public Long getTotalUnits() {
+        return totalUnits;
+    }
+
+    public void setTotalUnits(Long totalUnits) {
+        this.totalUnits = totalUnits;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    /** Clave de la fila: categoría y slot. */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "category_id", nullable = false)
+        private Long categoryId;
+
+        @Column(name = "slot", nullable = false)
+        private Short slot;
+
+        // Default constructor
+        public Key() {}
+
+        public Key(Long categoryId, Short slot) {
+            this.categoryId = categoryId;
+            this.slot = slot;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public Short getSlot() {
+            return slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(categoryId, key.categoryId) && Objects.equals(slot, key.slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, slot);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dev.kreaker.kinvex.entity;
+
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+/**
+ * Cantidad de movimientos y unidades de un día por producto, tipo de movimiento, tipo de
+ * referencia y sistema de origen, repartidos en 16 filas por combinación ({@code slot = id % 16}
+ * del movimiento, V17) para que los movimientos concurrentes de un producto no esperen por una
+ * misma fila; las lecturas suman los slots.
+ *
+ * <p>Las filas las mantienen los triggers de {@code inventory_movements} (V15, V17) en la misma
+ * transacción que cada movimiento; la aplicación solo las lee o las recalcula.
+ */
+@Entity
+@Table(name = "movement_rollup_daily")
+public class MovementRollupDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "movement_date", nullable = false)
+    private LocalDate movementDate;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private MovementType movementType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reference_type", length = 20)
+    private ReferenceType referenceType;
+
+    @Column(name = "source_system", length = 50)
+    private String sourceSystem;
+
+    @Column(name = "slot", nullable = false)
+    private Short slot = 0;
+
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount = 0L;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity = 0L;
+
+    // Default constructor
+    public MovementRollupDaily() {}
+
+    // Constructor with required fields
+    public MovementRollupDaily(
+            LocalDate movementDate,
+            Product product,
+            MovementType movementType,
+            Long movementCount,
+            Long totalQuantity) {
+        this.movementDate = movementDate;
+        this.product = product;
+        this.movementType = movementType;
+        this.movementCount = movementCount;
+        this.totalQuantity = totalQuantity;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getMovementDate() {
+        return movementDate;
+    }
+
+    public void setMovementDate(LocalDate movementDate) {
+        this.movementDate = movementDate;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public MovementType getMovementType() {
+        return movementType;
+    }
+
+    public void setMovementType(MovementType movementType) {
+        this.movementType = movementType;
+    }
+
+    public ReferenceType getReferenceType() {
+        return referenceType;
+    }
+
+    public void setReferenceType(ReferenceType referenceType) {
+        this.referenceType = referenceType;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public void setSourceSystem(String sourceSystem) {
+        this.sourceSystem = sourceSystem;
+    }
+
+    public Short getSlot() {
+        return slot;
+    }
+
+    public void setSlot(Short slot) {
+        this.slot = slot;
+    }
+
+    public Long getMovementCount() {
+        return movementCount;
+    }
+
+    public void setMovementCount(Long movementCount) {
+        this.movementCount = movementCount;
+    }
+
+    public Long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(Long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return "MovementRollupDaily{"
+                + "movementDate="
+                + movementDate
+                + ", productId="
+                + (product != null ? product.getId() : null)
+                + ", movementType="
+                + movementType
+                + ", referenceType="
+                + referenceType
+                + ", sourceSystem="
+                + sourceSystem
+                + ", movementCount="
+                + movementCount
+                + ", totalQuantity="
+                + totalQuantity
+                + '}';
+    }
+}
@@ -3,6 +3,8 @@ package dev.kreaker.kinvex.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -21,14 +24,26 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GeneratedColumn;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Table(name = "products")
 public class Product {
 
+    /**
+     * IDs que reserva cada valor de la secuencia (optimizador pooled-lo, seleccionado con {@code
+     * hibernate.id.optimizer.pooled.preferred}). Debe coincidir con el INCREMENT BY de {@code
+     * products_id_seq}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(
+            name = "products_id_seq",
+            sequenceName = "products_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank
@@ -58,6 +73,15 @@ public class Product {
     @Column(name = "current_stock", nullable = false)
     private Integer currentStock = 0;
 
+    // Lo gestiona StockReservationService mediante consultas propias; la entidad solo lo lee
+    @Column(
+            name = "reserved_stock",
+            nullable = false,
+            insertable = false,
+            updatable = false,
+            columnDefinition = "integer default 0")
+    private Integer reservedStock = 0;
+
     @Min(0)
     @Column(name = "min_stock", nullable = false)
     private Integer minStock = 0;
@@ -69,6 +93,26 @@ public class Product {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Lo calcula la base de datos con cada cambio de stock o de límites; la entidad solo lo lee
+    @Enumerated(EnumType.STRING)
+    @GeneratedColumn(
+            "CASE WHEN current_stock = 0 THEN 'OUT_OF_STOCK' "
+                    + "WHEN current_stock <= min_stock THEN 'LOW_STOCK' "
+                    + "WHEN max_stock IS NOT NULL AND current_stock > max_stock THEN 'OVER_STOCK' "
+                    + "ELSE 'NORMAL' END")
+    @Column(name = "stock_status", length = 12)
+    private StockStatus stockStatus;
+
+    // Lo gestiona StockLedger mediante consultas propias; la entidad solo lo lee
+    @JsonIgnore
+    @Column(
+            name = "ledger_owned",
+            nullable = false,
+            insertable = false,
+            updatable = false,
+            columnDefinition = "boolean default false")
+    private Boolean ledgerOwned = false;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -168,6 +212,15 @@ public class Product {
         this.currentStock = currentStock;
     }
 
+    public Integer getReservedStock() {
+        return reservedStock;
+    }
+
+    /** Stock que no está comprometido por reservas activas. */
+    public Integer getAvailableStock() {
+        return currentStock - reservedStock;
+    }
+
     public Integer getMinStock() {
         return minStock;
     }
@@ -192,6 +245,10 @@ public class Product {
         this.active = active;
     }
 
+    public Boolean getLedgerOwned() {
+        return ledgerOwned;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -224,6 +281,10 @@ public class Product {
         this.inventoryMovements = inventoryMovements;
     }
 
+    public StockStatus getStockStatus() {
+        return stockStatus;
+    }
+
     // Business methods
     public boolean isLowStock() {
         return currentStock <= minStock;
@@ -248,7 +309,7 @@ public class Product {
     }
 
     public boolean hasAvailableStock(Integer requiredQuantity) {
-        return currentStock >= requiredQuantity;
+        return getAvailableStock() >= requiredQuantity;
     }
 
     @Override
@@ -278,4 +339,12 @@ public class Product {
                 + updatedAt
                 + '}';
     }
+
+    /** Clasificación del stock; un producto sin stock también cuenta como stock bajo. */
+    public enum StockStatus {
+        NORMAL,
+        LOW_STOCK,
+        OUT_OF_STOCK,
+        OVER_STOCK
+    }
 }
@@ -13,6 +13,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -29,7 +30,11 @@ import org.hibernate.annotations.CreationTimestamp;
 public class PurchaseOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_orders_id_seq")
+    @SequenceGenerator(
+            name = "purchase_orders_id_seq",
+            sequenceName = "purchase_orders_id_seq",
+            allocationSize = 50)
     private Long id;
 
     @NotBlank
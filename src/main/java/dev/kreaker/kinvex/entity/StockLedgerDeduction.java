@@ -0,0 +1,66 @@
+package dev.kreaker.kinvex.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Descuento del libro de stock confirmado junto con su movimiento pero aún no aplicado a {@code
+ * products.current_stock}. El volcado aplica el neto por producto y borra las filas en la misma
+ * transacción, por lo que tras una caída solo quedan las que faltan por aplicar.
+ */
+@Entity
+@Table(name = "stock_ledger_deductions")
+public class StockLedgerDeduction {
+
+    @Id
+    @Column(name = "movement_id")
+    private Long movementId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public StockLedgerDeduction() {}
+
+    // Getters and Setters
+    public Long getMovementId() {
+        return movementId;
+    }
+
+    public void setMovementId(Long movementId) {
+        this.movementId = movementId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
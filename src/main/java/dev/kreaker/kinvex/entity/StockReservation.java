@@ -0,0 +1,195 @@
+package dev.kreaker.kinvex.entity;
+
+import com.fasterxml.jackson.annotation.JsonManagedReference;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Reserva de stock realizada al armar un carrito. Mientras está activa, sus unidades se suman a
+ * {@code products.reserved_stock} y dejan de estar disponibles para otros descuentos.
+ */
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Size(max = 100)
+    @Column(length = 100)
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+
+    @Size(max = 50)
+    @Column(name = "source_system", length = 50)
+    private String sourceSystem;
+
+    @Size(max = 500)
+    @Column(length = 500)
+    private String notes;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonManagedReference("reservation-items")
+    private List<StockReservationItem> items = new ArrayList<>();
+
+    // Default constructor
+    public StockReservation() {}
+
+    // Constructor with required fields
+    public StockReservation(String reference, LocalDateTime expiresAt, User createdBy) {
+        this.reference = reference;
+        this.expiresAt = expiresAt;
+        this.createdBy = createdBy;
+    }
+
+    public void addItem(StockReservationItem item) {
+        items.add(item);
+        item.setReservation(this);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public void setSourceSystem(String sourceSystem) {
+        this.sourceSystem = sourceSystem;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public User getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(User createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public List<StockReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockReservationItem> items) {
+        this.items = items;
+    }
+
+    // Business methods
+    public boolean isExpired(LocalDateTime now) {
+        return status == ReservationStatus.ACTIVE && !expiresAt.isAfter(now);
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservation{"
+                + "id="
+                + id
+                + ", reference='"
+                + reference
+                + '\''
+                + ", status="
+                + status
+                + ", expiresAt="
+                + expiresAt
+                + ", items="
+                + items.size()
+                + '}';
+    }
+
+    public enum ReservationStatus {
+        ACTIVE,
+        COMMITTED,
+        RELEASED,
+        EXPIRED
+    }
+}
@@ -0,0 +1,140 @@
+package dev.kreaker.kinvex.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.CreationTimestamp;
+
+/** Stock de un producto al cierre de un día. */
+@Entity
+@Table(
+        name = "stock_snapshots",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_stock_snapshots_product_date",
+                        columnNames = {"product_id", "snapshot_date"}))
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @NotNull
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @NotNull
+    @Column(name = "closing_stock", nullable = false)
+    private Integer closingStock;
+
+    @Column(name = "quantity_in", nullable = false)
+    private Integer quantityIn = 0;
+
+    @Column(name = "quantity_out", nullable = false)
+    private Integer quantityOut = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public StockSnapshot() {}
+
+    // Constructor with required fields
+    public StockSnapshot(Product product, LocalDate snapshotDate, Integer closingStock) {
+        this.product = product;
+        this.snapshotDate = snapshotDate;
+        this.closingStock = closingStock;
+    }
+
+    /** Momento al que corresponde el stock de cierre: el inicio del día siguiente. */
+    public LocalDateTime getClosingTime() {
+        return snapshotDate.plusDays(1).atStartOfDay();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    public Integer getClosingStock() {
+        return closingStock;
+    }
+
+    public void setClosingStock(Integer closingStock) {
+        this.closingStock = closingStock;
+    }
+
+    public Integer getQuantityIn() {
+        return quantityIn;
+    }
+
+    public void setQuantityIn(Integer quantityIn) {
+        this.quantityIn = quantityIn;
+    }
+
+    public Integer getQuantityOut() {
+        return quantityOut;
+    }
+
+    public void setQuantityOut(Integer quantityOut) {
+        this.quantityOut = quantityOut;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockSnapshot{"
+                + "id="
+                + id
+                + ", productId="
+                + (product != null ? product.getId() : null)
+                + ", snapshotDate="
+                + snapshotDate
+                + ", closingStock="
+                + closingStock
+                + '}';
+    }
+}
@@ -192,6 +192,91 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    /** Maneja excepciones de reserva de stock no encontrada. */
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFoundException(
+            ReservationNotFoundException ex, WebRequest request) {
+
+        logger.warn("Reserva no encontrada: {}", ex.getMessage());
+
+        ErrorResponse errorResponse =
+                new ErrorResponse(
+                        "RESERVATION_NOT_FOUND",
+                        ex.getMessage(),
+                        LocalDateTime.now(),
+                        request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    /** Maneja excepciones de conflicto de estado en reservas de stock. */
+    @ExceptionHandler(ReservationStateConflictException.class)
+    public ResponseEntity<ErrorResponse> handleReservationStateConflictException(
+            ReservationStateConflictException ex, WebRequest request) {
+
+        logger.warn("Conflicto de estado en reserva: {}", ex.getMessage());
+
+        ErrorResponse errorResponse =
+                new ErrorResponse(
+                        "RESERVATION_STATE_CONFLICT",
+                        ex.getMessage(),
+                        LocalDateTime.now(),
+                        request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /** Maneja solicitudes de conciliación mientras otra está en ejecución. */
+    @ExceptionHandler(ReconciliationInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleReconciliationInProgressException(
+            ReconciliationInProgressException ex, WebRequest request) {
+
+        logger.warn("Conciliación de stock en curso: {}", ex.getMessage());
+
+        ErrorResponse errorResponse =
+                new ErrorResponse(
+                        "RECONCILIATION_IN_PROGRESS",
+                        ex.getMessage(),
+                        LocalDateTime.now(),
+                        request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /** Maneja excepciones de reutilización de claves de idempotencia. */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflictException(
+            IdempotencyKeyConflictException ex, WebRequest request) {
+
+        logger.warn("Conflicto de clave de idempotencia: {}", ex.getMessage());
+
+        ErrorResponse errorResponse =
+                new ErrorResponse(
+                        "IDEMPOTENCY_KEY_CONFLICT",
+                        ex.getMessage(),
+                        LocalDateTime.now(),
+                        request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /** Maneja excepciones de claves de idempotencia inválidas. */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKeyException(
+            InvalidIdempotencyKeyException ex, WebRequest request) {
+
+        logger.warn("Clave de idempotencia inválida: {}", ex.getMessage());
+
+        ErrorResponse errorResponse =
+                new ErrorResponse(
+                        "INVALID_IDEMPOTENCY_KEY",
+                        ex.getMessage(),
+                        LocalDateTime.now(),
+                        request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     /** Maneja errores de validación de datos de entrada. */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
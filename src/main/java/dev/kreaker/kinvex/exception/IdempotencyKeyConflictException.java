@@ -0,0 +1,22 @@
+package dev.kreaker.kinvex.exception;
+
+/**
+ * Excepción lanzada cuando se reutiliza una clave de idempotencia con una solicitud distinta a la
+ * que la registró originalmente.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super(
+                "La clave de idempotencia "
+                        + idempotencyKey
+                        + " ya fue utilizada con una solicitud diferente");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,9 @@
+package dev.kreaker.kinvex.exception;
+
+/** Excepción lanzada cuando la clave de idempotencia recibida no tiene un formato válido. */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package dev.kreaker.kinvex.exception;
+
+/**
+ * Excepción lanzada cuando se solicita una conciliación de stock mientras otra sigue en ejecución.
+ */
+public class ReconciliationInProgressException extends RuntimeException {
+
+    private final Long runId;
+
+    public ReconciliationInProgressException(Long runId) {
+        super("La conciliación de stock " + runId + " sigue en ejecución");
+        this.runId = runId;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+}
@@ -0,0 +1,9 @@
+package dev.kreaker.kinvex.exception;
+
+/** Excepción lanzada cuando no se encuentra una reserva de stock. */
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(Long reservationId) {
+        super("Reserva de stock no encontrada con ID: " + reservationId);
+    }
+}
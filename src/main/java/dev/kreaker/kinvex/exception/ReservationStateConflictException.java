@@ -0,0 +1,22 @@
+package dev.kreaker.kinvex.exception;
+
+/**
+ * Excepción lanzada cuando se intenta confirmar o liberar una reserva de stock que ya no está
+ * activa.
+ *
+ * <p>Ejemplos: - Confirmar una reserva vencida - Confirmar una reserva ya liberada - Liberar una
+ * reserva ya confirmada
+ */
+public class ReservationStateConflictException extends RuntimeException {
+
+    private final Long reservationId;
+
+    public ReservationStateConflictException(Long reservationId, String message) {
+        super(message);
+        this.reservationId = reservationId;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+}
@@ -1,6 +1,10 @@
 package dev.kreaker.kinvex.repository;
 
 import dev.kreaker.kinvex.entity.Category;
+import dev.kreaker.kinvex.repository.projection.CategoryNode;
+import dev.kreaker.kinvex.repository.projection.CategoryProductCount;
+import dev.kreaker.kinvex.repository.projection.CategoryTreeVersion;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,6 +20,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsByName(String name);
 
+    /** IDs de la lista que corresponden a una categoría existente. */
+    @Query("SELECT c.id FROM Category c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     // Hierarchical queries
     List<Category> findByParentIsNull();
 
@@ -29,18 +37,40 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c WHERE c.parent.id = :parentId ORDER BY c.name")
     List<Category> findChildrenByParentId(@Param("parentId") Long parentId);
 
-    // Custom queries for reports
+    // Árbol de categorías: CategoryTreeCache lo arma en memoria con una sola lectura
+    @Query(
+            "SELECT c.id AS id, c.name AS name, parent.id AS parentId "
+                    + "FROM Category c LEFT JOIN c.parent parent")
+    List<CategoryNode> findAllNodes();
+
     @Query(
-            "SELECT c, COUNT(p) FROM Category c LEFT JOIN c.products p GROUP BY c ORDER BY COUNT(p) DESC")
-    List<Object[]> findCategoriesWithProductCount();
+            "SELECT COUNT(c) AS categoryCount, MAX(c.updatedAt) AS lastUpdatedAt "
+                    + "FROM Category c")
+    CategoryTreeVersion findTreeVersion();
 
-    @Query("SELECT c FROM Category c WHERE SIZE(c.products) > 0 ORDER BY c.name")
+    // Custom queries for reports. Los conteos agrupan por el ID de la categoría y las
+    // comprobaciones de existencia usan EXISTS sobre idx_products_category, sin SIZE()
+    @Query(
+            "SELECT c.id AS categoryId, c.name AS categoryName, COUNT(p.id) AS productCount "
+                    + "FROM Category c LEFT JOIN Product p ON p.category = c "
+                    + "GROUP BY c.id, c.name ORDER BY COUNT(p.id) DESC")
+    List<CategoryProductCount> findCategoriesWithProductCount();
+
+    @Query(
+            "SELECT c FROM Category c "
+                    + "WHERE EXISTS (SELECT 1 FROM Product p WHERE p.category = c) "
+                    + "ORDER BY c.name")
     List<Category> findCategoriesWithProducts();
 
-    @Query("SELECT c FROM Category c WHERE SIZE(c.products) = 0 ORDER BY c.name")
+    @Query(
+            "SELECT c FROM Category c "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM Product p WHERE p.category = c) "
+                    + "ORDER BY c.name")
     List<Category> findEmptyCategories();
 
     @Query(
-            "SELECT c, COUNT(p) FROM Category c LEFT JOIN c.products p WHERE p.active = true GROUP BY c")
-    List<Object[]> findCategoriesWithActiveProductCount();
+            "SELECT c.id AS categoryId, c.name AS categoryName, COUNT(p.id) AS productCount "
+                    + "FROM Category c LEFT JOIN Product p ON p.category = c AND p.active = true "
+                    + "GROUP BY c.id, c.name")
+    List<CategoryProductCount> findCategoriesWithActiveProductCount();
 }
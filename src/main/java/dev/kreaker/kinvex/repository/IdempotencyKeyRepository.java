@@ -0,0 +1,46 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.entity.IdempotencyKey;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Reserva una clave de idempotencia para la transacción actual. Si otra transacción tiene la
+     * misma clave en curso, la inserción espera a que termine; una clave expirada se reutiliza.
+     *
+     * @return 1 si la clave quedó reservada, 0 si ya existe una clave vigente
+     */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO idempotency_keys "
+                            + "(idempotency_key, scope, request_hash, created_at, expires_at) "
+                            + "VALUES (:key, :scope, :requestHash, :now, :expiresAt) "
+                            + "ON CONFLICT (idempotency_key) DO UPDATE SET "
+                            + "scope = EXCLUDED.scope, request_hash = EXCLUDED.request_hash, "
+                            + "response_body = NULL, created_at = EXCLUDED.created_at, "
+                            + "expires_at = EXCLUDED.expires_at "
+                            + "WHERE idempotency_keys.expires_at < :now",
+            nativeQuery = true)
+    int claim(
+            @Param("key") String key,
+            @Param("scope") String scope,
+            @Param("requestHash") String requestHash,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.responseBody = :responseBody WHERE k.key = :key")
+    int storeResponse(@Param("key") String key, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
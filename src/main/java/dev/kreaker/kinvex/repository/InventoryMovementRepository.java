@@ -1,21 +1,28 @@
 package dev.kreaker.kinvex.repository;
 
+import dev.kreaker.kinvex.dto.inventory.InventoryMovementResponse;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
 import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
 import dev.kreaker.kinvex.entity.Product;
 import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.projection.NetMovement;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+public interface InventoryMovementRepository
+        extends JpaRepository<InventoryMovement, Long>,
+                JpaSpecificationExecutor<InventoryMovement>,
+                InventoryMovementRepositoryCustom {
 
     // Basic finder methods
     List<InventoryMovement> findByProduct(Product product);
@@ -24,6 +31,38 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
 
     Page<InventoryMovement> findByProductId(Long productId, Pageable pageable);
 
+    /** Proyección de movimientos con el código del producto, sin cargar entidades. */
+    String MOVEMENT_RESPONSE =
+            "SELECT new dev.kreaker.kinvex.dto.inventory.InventoryMovementResponse("
+                    + "m.id, p.id, p.code, m.movementType, m.quantity, m.referenceType, "
+                    + "m.referenceId, m.sourceSystem, m.notes, u.id, m.createdAt) "
+                    + "FROM InventoryMovement m JOIN m.product p LEFT JOIN m.createdBy u ";
+
+    // Paginación por cursor (fecha, id) de los movimientos de un producto, sin COUNT. Un
+    // movimiento se confirma después de su created_at, así que solo se leen los anteriores a
+    // settledBefore: un movimiento posterior al cursor que aún no se confirmó no queda atrás
+    @Query(
+            MOVEMENT_RESPONSE
+                    + "WHERE p.id = :productId AND m.createdAt <= :settledBefore "
+                    + "ORDER BY m.createdAt, m.id")
+    Slice<InventoryMovementResponse> findOldestByProductId(
+            @Param("productId") Long productId,
+            @Param("settledBefore") LocalDateTime settledBefore,
+            Pageable pageable);
+
+    @Query(
+            MOVEMENT_RESPONSE
+                    + "WHERE p.id = :productId AND m.createdAt >= :createdAt "
+                    + "AND (m.createdAt > :createdAt OR m.id > :id) "
+                    + "AND m.createdAt <= :settledBefore "
+                    + "ORDER BY m.createdAt, m.id")
+    Slice<InventoryMovementResponse> findByProductIdAfterCreatedAt(
+            @Param("productId") Long productId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("settledBefore") LocalDateTime settledBefore,
+            Pageable pageable);
+
     List<InventoryMovement> findByMovementType(MovementType movementType);
 
     List<InventoryMovement> findByReferenceType(ReferenceType referenceType);
@@ -45,6 +84,8 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
             Product product, LocalDateTime startDate, LocalDateTime endDate);
 
     // Custom queries for reports (Requirements 1.3, 4.4)
+    // Con los triggers de V15, los resúmenes de los reportes leen los totales diarios de
+    // MovementRollupDailyRepository; las consultas agregadas de aquí recorren los movimientos
     @Query(
             "SELECT im FROM InventoryMovement im WHERE im.createdAt BETWEEN :startDate AND :endDate ORDER BY im.createdAt DESC")
     List<InventoryMovement> findMovementsBetween(
@@ -116,4 +157,19 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
             "SELECT COUNT(DISTINCT im.product) FROM InventoryMovement im WHERE im.createdAt BETWEEN :startDate AND :endDate")
     long countDistinctProductsWithMovementsBetween(
             @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Efecto neto de los movimientos de un producto en el rango [from, to). Usa el índice por
+     * producto y fecha, de modo que el costo depende de los movimientos del rango y no del
+     * historial completo del producto.
+     */
+    @Query(
+            "SELECT COALESCE(SUM(CASE WHEN im.movementType = 'IN' THEN im.quantity "
+                    + "ELSE -im.quantity END), 0L) AS netQuantity, COUNT(im) AS movementCount "
+                    + "FROM InventoryMovement im WHERE im.product.id = :productId "
+                    + "AND im.createdAt >= :from AND im.createdAt < :to")
+    NetMovement sumNetMovementBetween(
+            @Param("productId") Long productId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 }
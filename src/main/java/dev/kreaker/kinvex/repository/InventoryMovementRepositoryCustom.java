@@ -0,0 +1,53 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Operaciones masivas sobre movimientos que no pasan por el contexto de persistencia. */
+public interface InventoryMovementRepositoryCustom {
+
+    /**
+     * Inserta los movimientos con sentencias INSERT de varias filas y asigna a cada uno que no lo
+     * tenga un ID reservado de la secuencia de movimientos. Antes vuelca el contexto de
+     * persistencia, ya que los movimientos pueden referenciar entidades aún no escritas.
+     *
+     * <p>Los movimientos deben tener asignada la fecha de creación, ya que la inserción no pasa
+     * por los callbacks de Hibernate.
+     *
+     * @param movements Movimientos a insertar
+     */
+    void insertAll(List<InventoryMovement> movements);
+
+    /**
+     * Reserva IDs de la secuencia de movimientos sin insertar filas, para movimientos que se
+     * insertarán más tarde con {@link #insertAll}.
+     *
+     * @param count Cantidad de IDs a reservar
+     * @return IDs reservados, consecutivos dentro de cada bloque de la secuencia
+     */
+    List<Long> allocateIds(int count);
+
+    /**
+     * Recorre los movimientos que cumplen la especificación con un cursor de solo avance,
+     * proyectados directamente a filas de reporte: la memoria usada no depende de la cantidad de
+     * movimientos.
+     *
+     * <p>Debe ejecutarse dentro de una transacción y el stream debe cerrarse al terminar, ya que
+     * mantiene abiertos el cursor y la conexión.
+     *
+     * @param specification Filtros de los movimientos
+     * @param sort Orden de las filas
+     * @param limit Cantidad máxima de filas, o {@code null} para no limitar
+     * @param fetchSize Filas que se leen de la base de datos en cada viaje
+     * @return Filas del reporte con los datos del producto y del usuario
+     */
+    Stream<InventoryMovementReportDto> streamReportRows(
+            Specification<InventoryMovement> specification,
+            Sort sort,
+            Integer limit,
+            int fetchSize);
+}
@@ -0,0 +1,186 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.specification.InventoryMovementSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Implementación JDBC de {@link InventoryMovementRepositoryCustom}. Al ejecutarse dentro de una
+ * transacción JPA usa la misma conexión, por lo que los movimientos se confirman o revierten
+ * junto con el resto de cambios.
+ *
+ * <p>Los reportes en streaming se leen con una consulta de criterios proyectada a DTOs, que no
+ * agrega entidades al contexto de persistencia mientras se recorre el cursor.
+ *
+ * <p>Los IDs se reservan de {@code inventory_movements_id_seq} con el esquema pooled-lo: cada valor
+ * de la secuencia es el primero de un bloque de {@link InventoryMovement#ID_ALLOCATION_SIZE} IDs.
+ * Hibernate usa el mismo esquema porque {@code hibernate.id.optimizer.pooled.preferred} lo
+ * selecciona; con el optimizador pooled por defecto el valor sería el último del bloque y los IDs
+ * de {@code save()} se solaparían con los reservados aquí.
+ */
+class InventoryMovementRepositoryImpl implements InventoryMovementRepositoryCustom {
+
+    private static final String ID_SEQUENCE = "inventory_movements_id_seq";
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO inventory_movements (id, product_id, movement_type, quantity, "
+                    + "reference_type, reference_id, source_system, notes, created_by, created_at) "
+                    + "VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int COLUMN_COUNT = 10;
+
+    /** Filas por sentencia; mantiene los parámetros por debajo del límite del protocolo de PG. */
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final String nextIdSql;
+
+    InventoryMovementRepositoryImpl(
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.nextIdSql =
+                entityManagerFactory
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getJdbcServices()
+                        .getDialect()
+                        .getSequenceSupport()
+                        .getSequenceNextValString(ID_SEQUENCE);
+    }
+
+    @Override
+    public void insertAll(List<InventoryMovement> movements) {
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        for (int from = 0; from < movements.size(); from += MAX_ROWS_PER_STATEMENT) {
+            insertRows(
+                    movements.subList(
+                            from, Math.min(from + MAX_ROWS_PER_STATEMENT, movements.size())));
+        }
+    }
+
+    @Override
+    public Stream<InventoryMovementReportDto> streamReportRows(
+            Specification<InventoryMovement> specification,
+            Sort sort,
+            Integer limit,
+            int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<InventoryMovementReportDto> query =
+                cb.createQuery(InventoryMovementReportDto.class);
+        Root<InventoryMovement> root = query.from(InventoryMovement.class);
+        query.where(specification.toPredicate(root, query, cb));
+
+        Join<InventoryMovement, Product> product =
+                InventoryMovementSpecifications.productJoin(root);
+        Join<InventoryMovement, User> createdBy = root.join("createdBy", JoinType.LEFT);
+        query.select(
+                cb.construct(
+                        InventoryMovementReportDto.class,
+                        root.get("id"),
+                        product.get("code"),
+                        product.get("name"),
+                        root.get("movementType"),
+                        root.get("quantity"),
+                        root.get("referenceType"),
+                        root.get("referenceId"),
+                        root.get("sourceSystem"),
+                        root.get("notes"),
+                        createdBy.get("username"),
+                        root.get("createdAt"),
+                        product.get("unitPrice")));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<InventoryMovementReportDto> typedQuery =
+                entityManager
+                        .createQuery(query)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultStream();
+    }
+
+    private void insertRows(List<InventoryMovement> rows) {
+        List<InventoryMovement> unassigned =
+                rows.stream().filter(movement -> movement.getId() == null).toList();
+        List<Long> ids = allocateIds(unassigned.size());
+        for (int i = 0; i < unassigned.size(); i++) {
+            unassigned.get(i).setId(ids.get(i));
+        }
+
+        String sql =
+                INSERT_PREFIX
+                        + String.join(", ", Collections.nCopies(rows.size(), ROW_PLACEHOLDERS));
+        jdbcTemplate.update(
+                sql,
+                ps -> {
+                    for (int i = 0; i < rows.size(); i++) {
+                        setInsertParameters(ps, i * COLUMN_COUNT, rows.get(i));
+                    }
+                });
+    }
+
+    /** Reserva IDs consecutivos por bloques: un valor de la secuencia por cada bloque. */
+    @Override
+    public List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long low = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+            long high = low + InventoryMovement.ID_ALLOCATION_SIZE;
+            for (long id = low; id < high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private void setInsertParameters(PreparedStatement ps, int offset, InventoryMovement movement)
+            throws SQLException {
+        ps.setLong(offset + 1, movement.getId());
+        ps.setLong(offset + 2, movement.getProduct().getId());
+        ps.setString(offset + 3, movement.getMovementType().name());
+        ps.setInt(offset + 4, movement.getQuantity());
+        ps.setString(
+                offset + 5,
+                movement.getReferenceType() != null ? movement.getReferenceType().name() : null);
+        ps.setObject(offset + 6, movement.getReferenceId(), Types.BIGINT);
+        ps.setString(offset + 7, movement.getSourceSystem());
+        ps.setString(offset + 8, movement.getNotes());
+        ps.setObject(
+                offset + 9,
+                movement.getCreatedBy() != null ? movement.getCreatedBy().getId() : null,
+                Types.BIGINT);
+        ps.setTimestamp(offset + 10, Timestamp.valueOf(movement.getCreatedAt()));
+    }
+}
@@ -0,0 +1,127 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.entity.MovementRollupDaily;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Totales diarios de movimientos para los reportes agregados. Cada consulta suma las filas de cada
+ * día y combinación de producto, tipo, referencia y origen, una por slot, en lugar de recorrer los
+ * movimientos, por lo que los rangos incluyen días completos.
+ *
+ * <p>Los resultados tienen la misma forma que las consultas equivalentes de {@link
+ * InventoryMovementRepository}. Las filas cuyos movimientos se eliminaron quedan en cero y no
+ * aparecen en los resultados.
+ */
+@Repository
+public interface MovementRollupDailyRepository extends JpaRepository<MovementRollupDaily, Long> {
+
+    // ========== Reportes ==========
+
+    @Query(
+            "SELECT p, "
+                    + "SUM(CASE WHEN r.movementType = 'IN' THEN r.totalQuantity ELSE 0L END) "
+                    + "as inbound, "
+                    + "SUM(CASE WHEN r.movementType = 'OUT' THEN r.totalQuantity ELSE 0L END) "
+                    + "as outbound, "
+                    + "SUM(CASE WHEN r.movementType = 'IN' THEN r.totalQuantity "
+                    + "ELSE -r.totalQuantity END) as netMovement "
+                    + "FROM MovementRollupDaily r JOIN r.product p "
+                    + "WHERE r.movementDate BETWEEN :startDate AND :endDate "
+                    + "GROUP BY p HAVING SUM(r.movementCount) > 0 ORDER BY netMovement DESC")
+    List<Object[]> findProductMovementSummaryBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query(
+            "SELECT r.movementType, r.referenceType, SUM(r.movementCount), SUM(r.totalQuantity) "
+                    + "FROM MovementRollupDaily r "
+                    + "WHERE r.movementDate BETWEEN :startDate AND :endDate "
+                    + "GROUP BY r.movementType, r.referenceType "
+                    + "HAVING SUM(r.movementCount) > 0")
+    List<Object[]> findMovementStatisticsByTypeBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query(
+            "SELECT r.movementDate, "
+                    + "SUM(CASE WHEN r.movementType = 'IN' THEN r.totalQuantity ELSE 0L END), "
+                    + "SUM(CASE WHEN r.movementType = 'OUT' THEN r.totalQuantity ELSE 0L END) "
+                    + "FROM MovementRollupDaily r "
+                    + "WHERE r.movementDate BETWEEN :startDate AND :endDate "
+                    + "GROUP BY r.movementDate HAVING SUM(r.movementCount) > 0 "
+                    + "ORDER BY r.movementDate")
+    List<Object[]> findDailyMovementSummaryBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ========== Verificación ==========
+    // Consultas nativas sobre PostgreSQL, como los triggers que mantienen la tabla (V15, V17)
+
+    /**
+     * Bloquea los totales frente a los triggers de movimientos hasta el fin de la transacción. Las
+     * lecturas no se bloquean.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE movement_rollup_daily IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockRollup();
+
+    /**
+     * Cuenta las filas de los totales de los días indicados que no coinciden con un recálculo
+     * desde los movimientos, en ambos sentidos.
+     */
+    @Query(
+            value =
+                    "WITH actual AS ("
+                            + "SELECT CAST(created_at AS DATE) AS movement_date, product_id, "
+                            + "movement_type, reference_type, "
+                            + "NULLIF(source_system, '') AS source_system, "
+                            + "CAST(id % 16 AS SMALLINT) AS slot, "
+                            + "COUNT(*) AS movement_count, "
+                            + "CAST(SUM(quantity) AS BIGINT) AS total_quantity "
+                            + "FROM inventory_movements "
+                            + "WHERE created_at >= CAST(:startDate AS TIMESTAMP) "
+                            + "AND created_at < CAST(:endDate AS TIMESTAMP) + INTERVAL '1 day' "
+                            + "GROUP BY 1, 2, 3, 4, 5, 6), "
+                            + "stored AS ("
+                            + "SELECT movement_date, product_id, movement_type, reference_type, "
+                            + "source_system, slot, movement_count, total_quantity "
+                            + "FROM movement_rollup_daily "
+                            + "WHERE movement_date BETWEEN :startDate AND :endDate "
+                            + "AND (movement_count <> 0 OR total_quantity <> 0)) "
+                            + "SELECT COUNT(*) FROM ("
+                            + "(SELECT * FROM actual EXCEPT SELECT * FROM stored) "
+                            + "UNION ALL "
+                            + "(SELECT * FROM stored EXCEPT SELECT * FROM actual)) drift",
+            nativeQuery = true)
+    long countRollupDrift(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(
+            value =
+                    "DELETE FROM movement_rollup_daily "
+                            + "WHERE movement_date BETWEEN :startDate AND :endDate",
+            nativeQuery = true)
+    int clearRollup(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /** Recalcula los totales de los días indicados desde los movimientos. */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO movement_rollup_daily (movement_date, product_id, "
+                            + "movement_type, reference_type, source_system, slot, "
+                            + "movement_count, total_quantity) "
+                            + "SELECT CAST(created_at AS DATE), product_id, movement_type, "
+                            + "reference_type, NULLIF(source_system, ''), "
+                            + "CAST(id % 16 AS SMALLINT), COUNT(*), SUM(quantity) "
+                            + "FROM inventory_movements "
+                            + "WHERE created_at >= CAST(:startDate AS TIMESTAMP) "
+                            + "AND created_at < CAST(:endDate AS TIMESTAMP) + INTERVAL '1 day' "
+                            + "GROUP BY 1, 2, 3, 4, 5, 6",
+            nativeQuery = true)
+    int rebuildRollup(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
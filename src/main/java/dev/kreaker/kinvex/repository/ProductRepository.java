@@ -1,37 +1,170 @@
 package dev.kreaker.kinvex.repository;
 
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
+import dev.kreaker.kinvex.dto.inventory.ProductResponse;
 import dev.kreaker.kinvex.entity.Category;
 import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.repository.projection.CategoryValuation;
+import dev.kreaker.kinvex.repository.projection.ProductIdRange;
+import dev.kreaker.kinvex.repository.projection.StockDeductionResult;
+import dev.kreaker.kinvex.repository.projection.StockLevelRow;
+import dev.kreaker.kinvex.repository.projection.StockMismatch;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository
+        extends JpaRepository<Product, Long>,
+                JpaSpecificationExecutor<Product>,
+                ProductRepositoryCustom {
+
+    /**
+     * Proyección de productos con el ID y nombre de su categoría. Las lecturas que se devuelven por
+     * la API la usan para no cargar entidades ni depender de cargas diferidas al serializar.
+     */
+    String PRODUCT_RESPONSE =
+            "SELECT new dev.kreaker.kinvex.dto.inventory.ProductResponse("
+                    + "p.id, p.code, p.name, p.description, c.id, c.name, p.unitPrice, "
+                    + "p.currentStock, p.reservedStock, p.minStock, p.maxStock, p.active, "
+                    + "p.createdAt, p.updatedAt) "
+                    + "FROM Product p LEFT JOIN p.category c ";
 
     // Basic finder methods
     Optional<Product> findByCode(String code);
 
+    /** Carga el producto junto con su categoría. */
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    @Query(PRODUCT_RESPONSE + "WHERE p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
+
+    @Query(PRODUCT_RESPONSE + "WHERE p.code = :code")
+    Optional<ProductResponse> findResponseByCode(@Param("code") String code);
+
+    @Query(PRODUCT_RESPONSE + "WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Búsqueda por criterios con la categoría cargada en la misma consulta. */
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
     boolean existsByCode(String code);
 
+    /** Códigos de la lista que ya pertenecen a un producto; una sola consulta por lote. */
+    @Query("SELECT p.code FROM Product p WHERE p.code IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    /** Datos maestros de un producto por código, sin cargar la entidad ni su stock. */
+    @Query(
+            "SELECT new dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry("
+                    + "p.id, p.code, p.name, p.unitPrice, p.active) "
+                    + "FROM Product p WHERE p.code = :code")
+    Optional<ProductCatalogEntry> findCatalogEntryByCode(@Param("code") String code);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) los productos con los códigos indicados. El orden
+     * por ID hace que transacciones concurrentes adquieran los bloqueos en el mismo orden y evita
+     * interbloqueos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.code IN :codes ORDER BY p.id")
+    List<Product> findByCodeInForUpdate(@Param("codes") Collection<String> codes);
+
     List<Product> findByActiveTrue();
 
     Page<Product> findByActiveTrue(Pageable pageable);
 
+    // Paginación por cursor (nombre, id) sobre idx_products_active_name, sin COUNT. La condición
+    // redundante sobre el nombre acota el recorrido del índice al inicio de la página
+    @Query(PRODUCT_RESPONSE + "WHERE p.active = true ORDER BY p.name, p.id")
+    Slice<ProductResponse> findActiveOrderedByName(Pageable pageable);
+
+    @Query(
+            PRODUCT_RESPONSE
+                    + "WHERE p.active = true AND p.name >= :name "
+                    + "AND (p.name > :name OR p.id > :id) ORDER BY p.name, p.id")
+    Slice<ProductResponse> findActiveAfterName(
+            @Param("name") String name, @Param("id") Long id, Pageable pageable);
+
     // Search methods
+    // LOWER(...) LIKE coincide con los índices de trigramas de V10; IgnoreCase usaría UPPER(...)
+    @Query(
+            "SELECT p FROM Product p WHERE LOWER(p.name) "
+                    + "LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()}")
     List<Product> findByNameContainingIgnoreCase(String name);
 
+    @Query(
+            "SELECT p FROM Product p WHERE LOWER(p.name) "
+                    + "LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()}")
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
+    @Query(
+            "SELECT p FROM Product p WHERE LOWER(p.code) "
+                    + "LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()}")
     List<Product> findByCodeContainingIgnoreCase(String code);
 
+    /**
+     * Productos activos cuyo nombre o código contiene el texto, ordenados por similitud. El filtro
+     * usa los índices GIN de trigramas sobre {@code lower(name)} y {@code lower(code)}. Devuelve
+     * solo los IDs en orden de relevancia; los datos se leen con {@link #findResponsesByIdIn}.
+     *
+     * @param term Texto buscado, en minúsculas
+     * @param pattern Patrón LIKE {@code %term%} con los comodines del texto escapados
+     */
+    @Query(
+            value =
+                    "SELECT p.id FROM products p WHERE p.active = true "
+                            + "AND (lower(p.name) LIKE :pattern OR lower(p.code) LIKE :pattern) "
+                            + "ORDER BY GREATEST(similarity(lower(p.name), :term), "
+                            + "similarity(lower(p.code), :term)) DESC, p.id",
+            countQuery =
+                    "SELECT COUNT(*) FROM products p WHERE p.active = true "
+                            + "AND (lower(p.name) LIKE :pattern OR lower(p.code) LIKE :pattern)",
+            nativeQuery = true)
+    Page<Long> searchByTrigram(
+            @Param("term") String term, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Productos activos cuyo nombre o descripción coincide con la consulta de texto completo,
+     * ordenados por relevancia. Usa el índice GIN sobre {@code search_vector}. Igual que {@link
+     * #searchByTrigram}, devuelve solo los IDs.
+     *
+     * @param tsQuery Consulta en sintaxis de {@code to_tsquery}
+     */
+    @Query(
+            value =
+                    "SELECT p.id FROM products p WHERE p.active = true "
+                            + "AND p.search_vector @@ to_tsquery('simple', :tsQuery) "
+                            + "ORDER BY ts_rank_cd(p.search_vector, "
+                            + "to_tsquery('simple', :tsQuery)) DESC, p.id",
+            countQuery =
+                    "SELECT COUNT(*) FROM products p WHERE p.active = true "
+                            + "AND p.search_vector @@ to_tsquery('simple', :tsQuery)",
+            nativeQuery = true)
+    Page<Long> searchByFullText(@Param("tsQuery") String tsQuery, Pageable pageable);
+
     // Category-based queries
     List<Product> findByCategory(Category category);
 
@@ -39,26 +172,197 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByCategoryAndActiveTrue(Category category, Pageable pageable);
 
-    // Stock-related queries
-    @Query("SELECT p FROM Product p WHERE p.currentStock <= p.minStock AND p.active = true")
-    List<Product> findLowStockProducts();
-
+    // Stock-related queries. Filtran por la columna generada stock_status, que cubre el índice
+    // parcial de V12 con solo los productos activos fuera de rango
     @Query(
-            "SELECT p FROM Product p WHERE p.currentStock > p.maxStock AND p.maxStock IS NOT NULL AND p.active = true")
-    List<Product> findOverStockProducts();
+            PRODUCT_RESPONSE
+                    + "WHERE p.stockStatus IN ('LOW_STOCK', 'OUT_OF_STOCK') AND p.active = true")
+    List<ProductResponse> findLowStockProducts();
+
+    @Query(PRODUCT_RESPONSE + "WHERE p.stockStatus = 'OVER_STOCK' AND p.active = true")
+    List<ProductResponse> findOverStockProducts();
 
-    @Query("SELECT p FROM Product p WHERE p.currentStock = 0 AND p.active = true")
-    List<Product> findOutOfStockProducts();
+    @Query(PRODUCT_RESPONSE + "WHERE p.stockStatus = 'OUT_OF_STOCK' AND p.active = true")
+    List<ProductResponse> findOutOfStockProducts();
 
     @Query(
-            "SELECT p FROM Product p WHERE p.currentStock BETWEEN :minStock AND :maxStock AND p.active = true")
-    List<Product> findProductsByStockRange(
+            PRODUCT_RESPONSE
+                    + "WHERE p.currentStock BETWEEN :minStock AND :maxStock AND p.active = true")
+    List<ProductResponse> findProductsByStockRange(
             @Param("minStock") Integer minStock, @Param("maxStock") Integer maxStock);
 
+    /**
+     * Datos del reporte de niveles de stock con las entradas, salidas y último movimiento de cada
+     * producto en el rango, calculados en la misma consulta agrupada. Los movimientos se unen por
+     * el índice de producto y fecha, por lo que el costo depende de los movimientos del rango.
+     *
+     * <p>Cada filtro de lista solo se aplica si su indicador es {@code true}; la lista de un
+     * filtro no usado debe ser vacía. Los productos sin movimientos en el rango se incluyen con
+     * entradas y salidas en 0.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(
+            "SELECT p.id AS productId, p.code AS productCode, p.name AS productName, "
+                    + "c.name AS categoryName, p.currentStock AS currentStock, "
+                    + "p.minStock AS minStock, p.maxStock AS maxStock, p.unitPrice AS unitPrice, "
+                    + "COALESCE(SUM(CASE WHEN m.movementType = 'IN' THEN m.quantity ELSE 0 END), "
+                    + "0L) AS inboundQuantity, "
+                    + "COALESCE(SUM(CASE WHEN m.movementType = 'OUT' THEN m.quantity ELSE 0 END), "
+                    + "0L) AS outboundQuantity, "
+                    + "MAX(m.createdAt) AS lastMovementDate "
+                    + "FROM Product p LEFT JOIN p.category c "
+                    + "LEFT JOIN InventoryMovement m ON m.product = p "
+                    + "AND m.createdAt BETWEEN :startDate AND :endDate "
+                    + "WHERE (:activeOnly = false OR p.active = true) "
+                    + "AND (:byIds = false OR p.id IN :productIds) "
+                    + "AND (:byCodes = false OR p.code IN :productCodes) "
+                    + "AND (:byCategories = false OR c.id IN :categoryIds) "
+                    + "GROUP BY p.id, p.code, p.name, c.name, p.currentStock, p.minStock, "
+                    + "p.maxStock, p.unitPrice "
+                    + "ORDER BY p.id")
+    Stream<StockLevelRow> streamStockLevelsWithMovementsBetween(
+            @Param("activeOnly") boolean activeOnly,
+            @Param("byIds") boolean byIds,
+            @Param("productIds") Collection<Long> productIds,
+            @Param("byCodes") boolean byCodes,
+            @Param("productCodes") Collection<String> productCodes,
+            @Param("byCategories") boolean byCategories,
+            @Param("categoryIds") Collection<Long> categoryIds,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Igual que {@link #streamStockLevelsWithMovementsBetween} sin rango de fechas: no lee
+     * movimientos y devuelve entradas y salidas en 0.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(
+            "SELECT p.id AS productId, p.code AS productCode, p.name AS productName, "
+                    + "c.name AS categoryName, p.currentStock AS currentStock, "
+                    + "p.minStock AS minStock, p.maxStock AS maxStock, p.unitPrice AS unitPrice, "
+                    + "0L AS inboundQuantity, 0L AS outboundQuantity, "
+                    + "CAST(NULL AS LocalDateTime) AS lastMovementDate "
+                    + "FROM Product p LEFT JOIN p.category c "
+                    + "WHERE (:activeOnly = false OR p.active = true) "
+                    + "AND (:byIds = false OR p.id IN :productIds) "
+                    + "AND (:byCodes = false OR p.code IN :productCodes) "
+                    + "AND (:byCategories = false OR c.id IN :categoryIds) "
+                    + "ORDER BY p.id")
+    Stream<StockLevelRow> streamStockLevels(
+            @Param("activeOnly") boolean activeOnly,
+            @Param("byIds") boolean byIds,
+            @Param("productIds") Collection<Long> productIds,
+            @Param("byCodes") boolean byCodes,
+            @Param("productCodes") Collection<String> productCodes,
+            @Param("byCategories") boolean byCategories,
+            @Param("categoryIds") Collection<Long> categoryIds);
+
+    /**
+     * Descuenta stock de forma atómica en una sola sentencia. La condición del WHERE valida que el
+     * producto exista, esté activo y tenga stock disponible (no reservado) suficiente, por lo que
+     * no se requiere una lectura previa ni bloqueos explícitos.
+     *
+     * @return estado del producto tras el descuento, o vacío si no se aplicó ningún cambio
+     */
+    @Query(
+            value =
+                    "UPDATE products SET current_stock = current_stock - :quantity "
+                            + "WHERE code = :code AND active = true "
+                            + "AND current_stock - reserved_stock >= :quantity "
+                            + "AND ledger_owned = false "
+                            + "RETURNING id, code, name, current_stock AS \"currentStock\"",
+            nativeQuery = true)
+    Optional<StockDeductionResult> deductStockByCode(
+            @Param("code") String code, @Param("quantity") Integer quantity);
+
+    /**
+     * Marca el producto como gestionado por el libro de stock en memoria. El UPDATE espera a que
+     * terminen los descuentos en curso sobre la fila, por lo que el stock devuelto ya los incluye.
+     * Los productos con reservas activas siguen en base de datos: el libro no las contempla.
+     *
+     * @return stock actual del producto, o vacío si no existe, está inactivo, tiene stock reservado
+     *     o ya estaba marcado
+     */
+    @Query(
+            value =
+                    "UPDATE products SET ledger_owned = true "
+                            + "WHERE id = :id AND active = true AND ledger_owned = false "
+                            + "AND reserved_stock = 0 "
+                            + "RETURNING current_stock",
+            nativeQuery = true)
+    Optional<Integer> claimForLedger(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE products SET ledger_owned = false WHERE id = :id", nativeQuery = true)
+    int releaseFromLedger(@Param("id") Long id);
+
+    @Modifying
+    @Query(
+            value = "UPDATE products SET ledger_owned = false WHERE ledger_owned = true",
+            nativeQuery = true)
+    int releaseAllFromLedger();
+
+    boolean existsByLedgerOwnedTrue();
+
+    /**
+     * Habilita, hasta el final de la transacción actual, la modificación del stock de productos
+     * gestionados por el libro de stock (ver trigger protect_ledger_owned_stock).
+     */
+    @Query(
+            value = "SELECT set_config('kinvex.stock_ledger_flush', 'on', true)",
+            nativeQuery = true)
+    String allowLedgerFlush();
+
+    /** Aplica el descuento neto acumulado por el libro de stock en memoria. */
+    @Modifying
+    @Query("UPDATE Product p SET p.currentStock = p.currentStock - :quantity WHERE p.id = :id")
+    int applyLedgerDeduction(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    /**
+     * Reserva stock disponible de forma atómica. Igual que el descuento atómico, la condición del
+     * WHERE valida existencia, estado y disponibilidad sin lectura previa.
+     *
+     * @return estado del producto tras la reserva, o vacío si no se reservó
+     */
+    @Query(
+            value =
+                    "UPDATE products SET reserved_stock = reserved_stock + :quantity "
+                            + "WHERE code = :code AND active = true "
+                            + "AND current_stock - reserved_stock >= :quantity "
+                            + "AND ledger_owned = false "
+                            + "RETURNING id, code, name, current_stock AS \"currentStock\"",
+            nativeQuery = true)
+    Optional<StockDeductionResult> reserveStockByCode(
+            @Param("code") String code, @Param("quantity") Integer quantity);
+
+    /** Devuelve al stock disponible unidades de una reserva liberada o vencida. */
+    @Modifying
+    @Query(
+            value =
+                    "UPDATE products SET reserved_stock = reserved_stock - :quantity "
+                            + "WHERE id = :id",
+            nativeQuery = true)
+    int releaseReservedStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    /**
+     * Convierte unidades reservadas en una salida de stock.
+     *
+     * @return filas modificadas; 0 si el stock actual ya no cubre la reserva (ajuste manual)
+     */
+    @Modifying
+    @Query(
+            value =
+                    "UPDATE products SET current_stock = current_stock - :quantity, "
+                            + "reserved_stock = reserved_stock - :quantity "
+                            + "WHERE id = :id AND current_stock >= :quantity",
+            nativeQuery = true)
+    int commitReservedStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
     // Price-related queries
     @Query(
-            "SELECT p FROM Product p WHERE p.unitPrice BETWEEN :minPrice AND :maxPrice AND p.active = true")
-    List<Product> findProductsByPriceRange(
+            PRODUCT_RESPONSE
+                    + "WHERE p.unitPrice BETWEEN :minPrice AND :maxPrice AND p.active = true")
+    List<ProductResponse> findProductsByPriceRange(
             @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
 
     // Custom queries for reports (Requirement 1.3, 4.4)
@@ -90,15 +394,161 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT COUNT(p) FROM Product p WHERE p.active = true")
     long countActiveProducts();
 
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.currentStock <= p.minStock AND p.active = true")
+    @Query(
+            "SELECT COUNT(p) FROM Product p "
+                    + "WHERE p.stockStatus IN ('LOW_STOCK', 'OUT_OF_STOCK') AND p.active = true")
     long countLowStockProducts();
 
-    @Query("SELECT SUM(p.currentStock * p.unitPrice) FROM Product p WHERE p.active = true")
+    // ========== Valoración de inventario ==========
+    // inventory_valuation la mantiene un trigger sobre products (V13); estas lecturas suman unas
+    // pocas filas por categoría en lugar de recorrer los productos. Sin el trigger (esquemas no
+    // migrados con Flyway) la valoración se calcula desde los productos
+
+    @Query(
+            value = "SELECT COALESCE(SUM(total_value), 0) FROM inventory_valuation",
+            nativeQuery = true)
     BigDecimal calculateTotalInventoryValue();
 
+    /** Valoración por categoría; los productos sin categoría se agrupan con ID y nombre nulos. */
+    @Query(
+            value =
+                    "SELECT c.id AS categoryId, c.name AS categoryName, "
+                            + "CAST(SUM(v.product_count) AS BIGINT) AS productCount, "
+                            + "CAST(SUM(v.total_units) AS BIGINT) AS totalUnits, "
+                            + "SUM(v.total_value) AS totalValue "
+                            + "FROM inventory_valuation v "
+                            + "LEFT JOIN categories c ON c.id = v.category_id "
+                            + "GROUP BY c.id, c.name "
+                            + "HAVING SUM(v.product_count) > 0 "
+                            + "ORDER BY c.name NULLS LAST",
+            nativeQuery = true)
+    List<CategoryValuation> findInventoryStatsByCategory();
+
+    /** Valoración por categoría recorriendo los productos activos, con la forma de la anterior. */
+    @Query(
+            "SELECT c.id AS categoryId, c.name AS categoryName, COUNT(p) AS productCount, "
+                    + "COALESCE(SUM(p.currentStock), 0) AS totalUnits, "
+                    + "COALESCE(SUM(p.currentStock * p.unitPrice), 0) AS totalValue "
+                    + "FROM Product p LEFT JOIN p.category c WHERE p.active = true "
+                    + "GROUP BY c.id, c.name "
+                    + "ORDER BY c.name NULLS LAST")
+    List<CategoryValuation> aggregateInventoryStatsByCategory();
+
+    /**
+     * Bloquea la valoración frente a los triggers de productos hasta el fin de la transacción. Las
+     * lecturas no se bloquean.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE inventory_valuation IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockInventoryValuation();
+
+    /**
+     * Cuenta las filas de la valoración que no coinciden con un recálculo completo desde los
+     * productos activos, en ambos sentidos.
+     */
+    @Query(
+            value =
+                    "WITH actual AS ("
+                            + "SELECT COALESCE(category_id, 0) AS category_id, "
+                            + "CAST(id % 16 AS SMALLINT) AS slot, "
+                            + "COUNT(*) AS product_count, "
+                            + "CAST(SUM(current_stock) AS BIGINT) AS total_units, "
+                            + "SUM(current_stock * unit_price) AS total_value "
+                            + "FROM products WHERE active = true "
+                            + "GROUP BY COALESCE(category_id, 0), CAST(id % 16 AS SMALLINT)), "
+                            + "stored AS ("
+                            + "SELECT category_id, slot, product_count, total_units, total_value "
+                            + "FROM inventory_valuation "
+                            + "WHERE product_count <> 0 OR total_units <> 0 OR total_value <> 0) "
+                            + "SELECT COUNT(*) FROM ("
+                            + "(SELECT * FROM actual EXCEPT SELECT * FROM stored) "
+                            + "UNION ALL "
+                            + "(SELECT * FROM stored EXCEPT SELECT * FROM actual)) drift",
+            nativeQuery = true)
+    long countInventoryValuationDrift();
+
+    @Modifying
+    @Query(value = "DELETE FROM inventory_valuation", nativeQuery = true)
+    int clearInventoryValuation();
+
+    /** Recalcula la valoración completa desde los productos activos. */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO inventory_valuation "
+                            + "(category_id, slot, product_count, total_units, total_value) "
+                            + "SELECT COALESCE(category_id, 0), CAST(id % 16 AS SMALLINT), "
+                            + "COUNT(*), SUM(current_stock), SUM(current_stock * unit_price) "
+                            + "FROM products WHERE active = true "
+                            + "GROUP BY COALESCE(category_id, 0), CAST(id % 16 AS SMALLINT)",
+            nativeQuery = true)
+    int rebuildInventoryValuation();
+
+    // ========== Conciliación de stock ==========
+    @Query(
+            "SELECT MIN(p.id) AS minId, MAX(p.id) AS maxId, COUNT(p) AS productCount "
+                    + "FROM Product p")
+    ProductIdRange findIdRange();
+
+    /**
+     * Productos de un rango de IDs cuyo stock no coincide con la suma de sus movimientos. Agrega
+     * los movimientos del rango en una sola pasada sobre el índice por producto.
+     *
+     * <p>El stock comparado descuenta los descuentos del libro de stock pendientes de volcar: su
+     * movimiento ya está registrado, pero {@code current_stock} no cambia hasta el volcado.
+     */
+    @Query(
+            value =
+                    "SELECT p.id AS \"productId\", p.code AS \"productCode\", "
+                            + "CAST(p.current_stock - COALESCE(d.pending_quantity, 0) AS INTEGER) "
+                            + "AS \"currentStock\", "
+                            + "COALESCE(m.net_quantity, 0) AS \"ledgerStock\" "
+                            + "FROM products p LEFT JOIN ("
+                            + "SELECT product_id, SUM(CASE WHEN movement_type = 'IN' "
+                            + "THEN quantity ELSE -quantity END) AS net_quantity "
+                            + "FROM inventory_movements WHERE product_id BETWEEN :fromId AND :toId "
+                            + "GROUP BY product_id) m ON m.product_id = p.id "
+                            + "LEFT JOIN ("
+                            + "SELECT product_id, SUM(quantity) AS pending_quantity "
+                            + "FROM stock_ledger_deductions "
+                            + "WHERE product_id BETWEEN :fromId AND :toId "
+                            + "GROUP BY product_id) d ON d.product_id = p.id "
+                            + "WHERE p.id BETWEEN :fromId AND :toId "
+                            + "AND p.current_stock - COALESCE(d.pending_quantity, 0) "
+                            + "<> COALESCE(m.net_quantity, 0) "
+                            + "ORDER BY p.id",
+            nativeQuery = true)
+    List<StockMismatch> findStockMismatchesBetween(
+            @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /** Igual que {@link #findStockMismatchesBetween} para un conjunto de productos. */
+    @Query(
+            value =
+                    "SELECT p.id AS \"productId\", p.code AS \"productCode\", "
+                            + "CAST(p.current_stock - COALESCE(d.pending_quantity, 0) AS INTEGER) "
+                            + "AS \"currentStock\", "
+                            + "COALESCE(m.net_quantity, 0) AS \"ledgerStock\" "
+                            + "FROM products p LEFT JOIN ("
+                            + "SELECT product_id, SUM(CASE WHEN movement_type = 'IN' "
+                            + "THEN quantity ELSE -quantity END) AS net_quantity "
+                            + "FROM inventory_movements WHERE product_id IN (:ids) "
+                            + "GROUP BY product_id) m ON m.product_id = p.id "
+                            + "LEFT JOIN ("
+                            + "SELECT product_id, SUM(quantity) AS pending_quantity "
+                            + "FROM stock_ledger_deductions WHERE product_id IN (:ids) "
+                            + "GROUP BY product_id) d ON d.product_id = p.id "
+                            + "WHERE p.id IN (:ids) "
+                            + "AND p.current_stock - COALESCE(d.pending_quantity, 0) "
+                            + "<> COALESCE(m.net_quantity, 0) "
+                            + "ORDER BY p.id",
+            nativeQuery = true)
+    List<StockMismatch> findStockMismatchesIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bloquea las filas de los productos indicados, en orden de ID, hasta el fin de la transacción.
+     */
     @Query(
-            "SELECT c.name, COUNT(p), AVG(p.currentStock), SUM(p.currentStock * p.unitPrice) "
-                    + "FROM Product p JOIN p.category c WHERE p.active = true "
-                    + "GROUP BY c.id, c.name ORDER BY c.name")
-    List<Object[]> findInventoryStatsByCategory();
+            value = "SELECT id FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
 }
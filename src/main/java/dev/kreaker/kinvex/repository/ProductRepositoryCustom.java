@@ -0,0 +1,42 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest.ProductFieldUpdate;
+import dev.kreaker.kinvex.entity.Product;
+import java.util.List;
+
+/** Operaciones de escritura masiva de productos que no pasan por el contexto de persistencia. */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Carga los productos con {@code COPY} en una tabla temporal y los inserta desde ella con una
+     * sola sentencia, omitiendo los que tengan un código ya existente. A cada producto se le
+     * asigna un ID reservado de la secuencia de productos.
+     *
+     * <p>Debe ejecutarse dentro de una transacción: la tabla temporal se vacía con el commit. Los
+     * productos se insertan activos y sin stock reservado; la inserción no pasa por los callbacks
+     * de Hibernate.
+     *
+     * @param products Productos a insertar, con códigos distintos entre sí
+     * @return Productos insertados; los omitidos por código existente no se incluyen
+     */
+    List<Product> insertAllSkippingExistingCodes(List<Product> products);
+
+    /**
+     * Reserva IDs de la secuencia de productos sin insertar filas.
+     *
+     * @param count Cantidad de IDs a reservar
+     * @return IDs reservados, consecutivos dentro de cada bloque de la secuencia
+     */
+    List<Long> allocateIds(int count);
+
+    /**
+     * Aplica cambios parciales a varios productos con sentencias {@code UPDATE ... FROM (VALUES
+     * ...)}, una por cada bloque de filas. Los campos nulos de cada cambio conservan el valor
+     * actual; el stock no se modifica. Los cambios que dejarían el stock máximo por debajo del
+     * mínimo no se aplican.
+     *
+     * @param updates Cambios por código de producto, con códigos distintos entre sí
+     * @return Códigos de los productos actualizados
+     */
+    List<String> applyFieldUpdates(List<ProductFieldUpdate> updates);
+}
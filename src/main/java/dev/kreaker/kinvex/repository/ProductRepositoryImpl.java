@@ -0,0 +1,211 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest.ProductFieldUpdate;
+import dev.kreaker.kinvex.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Implementación JDBC de {@link ProductRepositoryCustom}. Al ejecutarse dentro de una transacción
+ * JPA usa la misma conexión, por lo que los productos se confirman o revierten junto con el resto
+ * de cambios.
+ *
+ * <p>Los IDs se reservan de {@code products_id_seq} con el esquema pooled-lo: cada valor de la
+ * secuencia es el primero de un bloque de {@link Product#ID_ALLOCATION_SIZE} IDs, el mismo
+ * esquema que {@code hibernate.id.optimizer.pooled.preferred} selecciona para Hibernate.
+ */
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String ID_SEQUENCE = "products_id_seq";
+
+    // Se conserva por conexión y se vacía en cada commit
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS product_import_staging ("
+                    + "id BIGINT NOT NULL, code VARCHAR(50) NOT NULL, name VARCHAR(100) NOT NULL, "
+                    + "description VARCHAR(500), category_id BIGINT, "
+                    + "unit_price NUMERIC(10, 2) NOT NULL, current_stock INTEGER NOT NULL, "
+                    + "min_stock INTEGER NOT NULL, max_stock INTEGER) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_STAGING =
+            "COPY product_import_staging (id, code, name, description, category_id, unit_price, "
+                    + "current_stock, min_stock, max_stock) FROM STDIN (FORMAT csv)";
+
+    private static final String INSERT_FROM_STAGING =
+            "INSERT INTO products (id, code, name, description, category_id, unit_price, "
+                    + "current_stock, min_stock, max_stock, active, created_at, updated_at) "
+                    + "SELECT id, code, name, description, category_id, unit_price, "
+                    + "current_stock, min_stock, max_stock, true, now(), now() "
+                    + "FROM product_import_staging "
+                    + "ON CONFLICT (code) DO NOTHING "
+                    + "RETURNING id";
+
+    private static final String FIELD_UPDATE_PREFIX =
+            "UPDATE products p SET "
+                    + "unit_price = COALESCE(v.unit_price, p.unit_price), "
+                    + "min_stock = COALESCE(v.min_stock, p.min_stock), "
+                    + "max_stock = COALESCE(v.max_stock, p.max_stock), "
+                    + "active = COALESCE(v.active, p.active), "
+                    + "category_id = COALESCE(v.category_id, p.category_id), "
+                    + "updated_at = now() "
+                    + "FROM (VALUES ";
+
+    // Tipos explícitos: una columna con todos sus valores nulos se tomaría como texto
+    private static final String FIELD_UPDATE_ROW =
+            "(CAST(? AS VARCHAR(50)), CAST(? AS NUMERIC(10, 2)), CAST(? AS INTEGER), "
+                    + "CAST(? AS INTEGER), CAST(? AS BOOLEAN), CAST(? AS BIGINT))";
+
+    // Omite los cambios que dejarían el stock máximo por debajo del mínimo (CHECK de la tabla)
+    private static final String FIELD_UPDATE_SUFFIX =
+            ") AS v (code, unit_price, min_stock, max_stock, active, category_id) "
+                    + "WHERE p.code = v.code "
+                    + "AND (COALESCE(v.max_stock, p.max_stock) IS NULL "
+                    + "OR COALESCE(v.max_stock, p.max_stock) "
+                    + ">= COALESCE(v.min_stock, p.min_stock)) "
+                    + "RETURNING p.code";
+
+    private static final int FIELD_UPDATE_COLUMN_COUNT = 6;
+
+    /** Filas por sentencia; mantiene los parámetros por debajo del límite del protocolo de PG. */
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextIdSql;
+
+    ProductRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextIdSql =
+                entityManagerFactory
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getJdbcServices()
+                        .getDialect()
+                        .getSequenceSupport()
+                        .getSequenceNextValString(ID_SEQUENCE);
+    }
+
+    @Override
+    public List<Product> insertAllSkippingExistingCodes(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = allocateIds(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        jdbcTemplate.execute(
+                (ConnectionCallback<Long>)
+                        connection -> copyRows(connection.unwrap(PGConnection.class), products));
+        Set<Long> inserted =
+                new HashSet<>(jdbcTemplate.queryForList(INSERT_FROM_STAGING, Long.class));
+
+        return products.stream().filter(product -> inserted.contains(product.getId())).toList();
+    }
+
+    @Override
+    public List<String> applyFieldUpdates(List<ProductFieldUpdate> updates) {
+        List<String> updatedCodes = new ArrayList<>(updates.size());
+        for (int from = 0; from < updates.size(); from += MAX_ROWS_PER_STATEMENT) {
+            int to = Math.min(from + MAX_ROWS_PER_STATEMENT, updates.size());
+            updatedCodes.addAll(updateRows(updates.subList(from, to)));
+        }
+        return updatedCodes;
+    }
+
+    private List<String> updateRows(List<ProductFieldUpdate> rows) {
+        String sql =
+                FIELD_UPDATE_PREFIX
+                        + String.join(", ", Collections.nCopies(rows.size(), FIELD_UPDATE_ROW))
+                        + FIELD_UPDATE_SUFFIX;
+        return jdbcTemplate.query(
+                sql,
+                ps -> {
+                    for (int i = 0; i < rows.size(); i++) {
+                        setFieldUpdateParameters(ps, i * FIELD_UPDATE_COLUMN_COUNT, rows.get(i));
+                    }
+                },
+                (rs, rowNum) -> rs.getString(1));
+    }
+
+    private static void setFieldUpdateParameters(
+            PreparedStatement ps, int offset, ProductFieldUpdate update) throws SQLException {
+        ps.setString(offset + 1, update.code());
+        ps.setObject(offset + 2, update.unitPrice(), Types.NUMERIC);
+        ps.setObject(offset + 3, update.minStock(), Types.INTEGER);
+        ps.setObject(offset + 4, update.maxStock(), Types.INTEGER);
+        ps.setObject(offset + 5, update.active(), Types.BOOLEAN);
+        ps.setObject(offset + 6, update.categoryId(), Types.BIGINT);
+    }
+
+    private static long copyRows(PGConnection connection, List<Product> products)
+            throws SQLException {
+        CopyIn copy = connection.getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            for (Product product : products) {
+                byte[] line = toCsvLine(product).getBytes(StandardCharsets.UTF_8);
+                copy.writeToCopy(line, 0, line.length);
+            }
+            return copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    /** Fila CSV de COPY: los campos vacíos sin comillas se cargan como NULL. */
+    private static String toCsvLine(Product product) {
+        StringBuilder line = new StringBuilder();
+        line.append(product.getId()).append(',');
+        appendText(line, product.getCode());
+        line.append(',');
+        appendText(line, product.getName());
+        line.append(',');
+        appendText(line, product.getDescription());
+        line.append(',');
+        if (product.getCategory() != null) {
+            line.append(product.getCategory().getId());
+        }
+        line.append(',').append(product.getUnitPrice().toPlainString());
+        line.append(',').append(product.getCurrentStock());
+        line.append(',').append(product.getMinStock());
+        line.append(',');
+        if (product.getMaxStock() != null) {
+            line.append(product.getMaxStock());
+        }
+        return line.append('\n').toString();
+    }
+
+    private static void appendText(StringBuilder line, String value) {
+        if (value != null) {
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    /** Reserva IDs consecutivos por bloques: un valor de la secuencia por cada bloque. */
+    @Override
+    public List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long low = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+            long high = low + Product.ID_ALLOCATION_SIZE;
+            for (long id = low; id < high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
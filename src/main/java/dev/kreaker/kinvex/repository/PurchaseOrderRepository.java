@@ -1,8 +1,10 @@
 package dev.kreaker.kinvex.repository;
 
+import dev.kreaker.kinvex.dto.order.PurchaseOrderSummary;
 import dev.kreaker.kinvex.entity.PurchaseOrder;
 import dev.kreaker.kinvex.entity.PurchaseOrder.OrderStatus;
 import dev.kreaker.kinvex.entity.Supplier;
+import dev.kreaker.kinvex.repository.projection.SupplierPerformance;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -10,6 +12,8 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,9 +22,41 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
 
+    /** Proyección de órdenes para listados, con el proveedor en la misma consulta. */
+    String ORDER_SUMMARY =
+            "SELECT new dev.kreaker.kinvex.dto.order.PurchaseOrderSummary("
+                    + "o.id, o.orderNumber, s.id, s.name, o.status, o.orderDate, o.expectedDate, "
+                    + "o.receivedDate, o.totalAmount, o.createdAt) "
+                    + "FROM PurchaseOrder o JOIN o.supplier s ";
+
     // Basic finder methods
     Optional<PurchaseOrder> findByOrderNumber(String orderNumber);
 
+    /** Carga la orden con su proveedor, sus detalles y los productos de cada detalle. */
+    @EntityGraph(attributePaths = {"supplier", "orderDetails", "orderDetails.product"})
+    Optional<PurchaseOrder> findDetailedById(Long id);
+
+    @EntityGraph(attributePaths = {"supplier", "orderDetails", "orderDetails.product"})
+    Optional<PurchaseOrder> findDetailedByOrderNumber(String orderNumber);
+
+    @Query(
+            value = ORDER_SUMMARY,
+            countQuery = "SELECT COUNT(o) FROM PurchaseOrder o")
+    Page<PurchaseOrderSummary> findAllSummaries(Pageable pageable);
+
+    @Query(
+            value = ORDER_SUMMARY + "WHERE o.status = :status",
+            countQuery = "SELECT COUNT(o) FROM PurchaseOrder o WHERE o.status = :status")
+    Page<PurchaseOrderSummary> findSummariesByStatus(
+            @Param("status") OrderStatus status, Pageable pageable);
+
+    @Query(ORDER_SUMMARY + "WHERE s.id = :supplierId")
+    List<PurchaseOrderSummary> findSummariesBySupplierId(@Param("supplierId") Long supplierId);
+
+    @Query(ORDER_SUMMARY + "WHERE o.orderDate BETWEEN :startDate AND :endDate")
+    List<PurchaseOrderSummary> findSummariesByOrderDateBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
     boolean existsByOrderNumber(String orderNumber);
 
     // Status-based queries
@@ -28,6 +64,34 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
 
     Page<PurchaseOrder> findByStatus(OrderStatus status, Pageable pageable);
 
+    // Paginación por cursor (fecha de orden, id), de la más reciente a la más antigua, sin COUNT
+    @Query(ORDER_SUMMARY + "ORDER BY o.orderDate DESC, o.id DESC")
+    Slice<PurchaseOrderSummary> findLatestByOrderDate(Pageable pageable);
+
+    @Query(
+            ORDER_SUMMARY
+                    + "WHERE o.orderDate <= :orderDate "
+                    + "AND (o.orderDate < :orderDate OR o.id < :id) "
+                    + "ORDER BY o.orderDate DESC, o.id DESC")
+    Slice<PurchaseOrderSummary> findBeforeOrderDate(
+            @Param("orderDate") LocalDate orderDate, @Param("id") Long id, Pageable pageable);
+
+    @Query(ORDER_SUMMARY + "WHERE o.status = :status ORDER BY o.orderDate DESC, o.id DESC")
+    Slice<PurchaseOrderSummary> findLatestByStatus(
+            @Param("status") OrderStatus status, Pageable pageable);
+
+    @Query(
+            ORDER_SUMMARY
+                    + "WHERE o.status = :status "
+                    + "AND o.orderDate <= :orderDate "
+                    + "AND (o.orderDate < :orderDate OR o.id < :id) "
+                    + "ORDER BY o.orderDate DESC, o.id DESC")
+    Slice<PurchaseOrderSummary> findByStatusBeforeOrderDate(
+            @Param("status") OrderStatus status,
+            @Param("orderDate") LocalDate orderDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
     List<PurchaseOrder> findByStatusIn(List<OrderStatus> statuses);
 
     // Supplier-based queries
@@ -45,13 +109,17 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
 
     List<PurchaseOrder> findByReceivedDateBetween(LocalDate startDate, LocalDate endDate);
 
-    // Overdue orders
+    // Overdue orders. El proveedor se carga en la misma consulta: las alertas lo muestran
     @Query(
-            "SELECT po FROM PurchaseOrder po WHERE po.expectedDate < CURRENT_DATE AND po.status IN ('PENDING', 'CONFIRMED', 'PARTIAL')")
+            "SELECT po FROM PurchaseOrder po JOIN FETCH po.supplier "
+                    + "WHERE po.expectedDate < CURRENT_DATE "
+                    + "AND po.status IN ('PENDING', 'CONFIRMED', 'PARTIAL')")
     List<PurchaseOrder> findOverdueOrders();
 
     @Query(
-            "SELECT po FROM PurchaseOrder po WHERE po.expectedDate BETWEEN CURRENT_DATE AND :futureDate AND po.status IN ('PENDING', 'CONFIRMED')")
+            "SELECT po FROM PurchaseOrder po JOIN FETCH po.supplier "
+                    + "WHERE po.expectedDate BETWEEN CURRENT_DATE AND :futureDate "
+                    + "AND po.status IN ('PENDING', 'CONFIRMED')")
     List<PurchaseOrder> findOrdersDueSoon(@Param("futureDate") LocalDate futureDate);
 
     // Custom queries for reports (Requirement 4.4)
@@ -60,6 +128,30 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     List<PurchaseOrder> findOrdersCreatedBetween(
             @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Métricas de las órdenes creadas en el rango, agrupadas por proveedor en una sola pasada.
+     * Solo incluye proveedores con al menos una orden en el rango.
+     */
+    @Query(
+            "SELECT po.supplier.id AS supplierId, COUNT(po) AS totalOrders, "
+                    + "COUNT(CASE WHEN po.status = 'COMPLETED' THEN 1 END) AS completedOrders, "
+                    + "COUNT(CASE WHEN po.status IN ('PENDING', 'CONFIRMED', 'PARTIAL') "
+                    + "THEN 1 END) AS pendingOrders, "
+                    + "COUNT(CASE WHEN po.status = 'CANCELLED' THEN 1 END) AS cancelledOrders, "
+                    + "COUNT(CASE WHEN po.status IN ('PENDING', 'CONFIRMED', 'PARTIAL') "
+                    + "AND po.expectedDate < CURRENT_DATE THEN 1 END) AS overdueOrders, "
+                    + "SUM(po.totalAmount) AS totalOrderValue, "
+                    + "AVG(po.totalAmount) AS averageOrderValue, "
+                    + "AVG(CASE WHEN po.receivedDate IS NOT NULL "
+                    + "THEN TIMESTAMPDIFF(DAY, po.orderDate, po.receivedDate) END) "
+                    + "AS averageDeliveryDays, "
+                    + "MAX(po.createdAt) AS lastOrderDate "
+                    + "FROM PurchaseOrder po "
+                    + "WHERE po.createdAt BETWEEN :startDate AND :endDate "
+                    + "GROUP BY po.supplier.id")
+    List<SupplierPerformance> findSupplierPerformanceBetween(
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
     @Query(
             "SELECT po.status, COUNT(po), SUM(po.totalAmount) "
                     + "FROM PurchaseOrder po "
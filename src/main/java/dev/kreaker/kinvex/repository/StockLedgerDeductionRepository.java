@@ -0,0 +1,42 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.entity.StockLedgerDeduction;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerDeductionRepository
+        extends JpaRepository<StockLedgerDeduction, Long> {
+
+    /**
+     * Registra un descuento del libro en la transacción actual. Se inserta sin cargar la entidad:
+     * el ID es el del movimiento y un {@code save} consultaría antes si ya existe.
+     */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO stock_ledger_deductions "
+                            + "(movement_id, product_id, quantity, created_at) "
+                            + "VALUES (:movementId, :productId, :quantity, :createdAt)",
+            nativeQuery = true)
+    int record(
+            @Param("movementId") Long movementId,
+            @Param("productId") Long productId,
+            @Param("quantity") Integer quantity,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    /** Unidades descontadas por el libro de un producto que aún no llegaron a su stock. */
+    @Query(
+            "SELECT COALESCE(SUM(d.quantity), 0L) FROM StockLedgerDeduction d "
+                    + "WHERE d.productId = :productId")
+    long sumPendingQuantity(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM StockLedgerDeduction d WHERE d.movementId IN :movementIds")
+    int deleteByMovementIds(@Param("movementIds") Collection<Long> movementIds);
+}
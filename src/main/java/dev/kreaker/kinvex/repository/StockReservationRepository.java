@@ -0,0 +1,65 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.repository.projection.ReservationExpiration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Obtiene una reserva con sus líneas y productos. Las líneas se ordenan por código de producto,
+     * el mismo orden en que la reserva bloqueó las filas de {@code products}, para que operaciones
+     * concurrentes adquieran los bloqueos en el mismo orden.
+     */
+    @Query(
+            "SELECT DISTINCT r FROM StockReservation r "
+                    + "LEFT JOIN FETCH r.items i LEFT JOIN FETCH i.product p "
+                    + "WHERE r.id = :id ORDER BY p.code")
+    Optional<StockReservation> findByIdWithItems(@Param("id") Long id);
+
+    /**
+     * Vencimientos de reservas activas hasta el instante indicado, en orden de vencimiento. Usa el
+     * índice parcial sobre reservas activas.
+     */
+    @Query(
+            "SELECT r.id AS id, r.expiresAt AS expiresAt FROM StockReservation r "
+                    + "WHERE r.status = 'ACTIVE' AND r.expiresAt <= :until ORDER BY r.expiresAt")
+    List<ReservationExpiration> findActiveExpiringBefore(
+            @Param("until") LocalDateTime until, Pageable pageable);
+
+    /*
+     * Transiciones de una reserva activa. Las condiciones del WHERE resuelven la carrera entre
+     * confirmar, liberar y vencer la misma reserva: solo una de ellas modifica la fila y las demás
+     * devuelven 0.
+     */
+
+    /** Confirma una reserva activa que aún no venció. */
+    @Modifying
+    @Query(
+            "UPDATE StockReservation r SET r.status = 'COMMITTED', r.resolvedAt = :now "
+                    + "WHERE r.id = :id AND r.status = 'ACTIVE' AND r.expiresAt > :now")
+    int markCommitted(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /** Libera una reserva activa, haya vencido o no. */
+    @Modifying
+    @Query(
+            "UPDATE StockReservation r SET r.status = 'RELEASED', r.resolvedAt = :now "
+                    + "WHERE r.id = :id AND r.status = 'ACTIVE'")
+    int markReleased(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /** Vence una reserva activa cuyo plazo ya terminó. */
+    @Modifying
+    @Query(
+            "UPDATE StockReservation r SET r.status = 'EXPIRED', r.resolvedAt = :now "
+                    + "WHERE r.id = :id AND r.status = 'ACTIVE' AND r.expiresAt <= :now")
+    int markExpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,79 @@
+package dev.kreaker.kinvex.repository;
+
+import dev.kreaker.kinvex.entity.StockSnapshot;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    /** Fecha de la foto más reciente de cualquier producto. */
+    @Query("SELECT MAX(s.snapshotDate) FROM StockSnapshot s")
+    Optional<LocalDate> findLatestSnapshotDate();
+
+    /** Foto más reciente de un producto anterior a la fecha indicada. */
+    Optional<StockSnapshot> findFirstByProductIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+            Long productId, LocalDate date);
+
+    /** Foto más antigua de un producto en la fecha indicada o posterior. */
+    Optional<StockSnapshot> findFirstByProductIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(
+            Long productId, LocalDate date);
+
+    /**
+     * Inserta la foto de un día para todos los productos existentes al cierre de ese día, en una
+     * sola sentencia. El stock de cierre es el de la foto del día anterior más las entradas y menos
+     * las salidas del día; los productos sin foto anterior parten del stock actual, menos los
+     * descuentos del libro de stock pendientes de volcar y el efecto de los movimientos posteriores
+     * al día. Las fotos ya existentes no se modifican.
+     *
+     * @return Número de fotos insertadas
+     */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO stock_snapshots "
+                            + "(product_id, snapshot_date, closing_stock, "
+                            + "quantity_in, quantity_out) "
+                            + "SELECT p.id, :day, "
+                            + "CASE WHEN prev.closing_stock IS NOT NULL "
+                            + "THEN prev.closing_stock + COALESCE(d.quantity_in, 0) "
+                            + "- COALESCE(d.quantity_out, 0) "
+                            + "ELSE p.current_stock - COALESCE(pending.quantity, 0) "
+                            + "- COALESCE(later.net_quantity, 0) END, "
+                            + "COALESCE(d.quantity_in, 0), COALESCE(d.quantity_out, 0) "
+                            + "FROM products p "
+                            + "LEFT JOIN stock_snapshots prev "
+                            + "ON prev.product_id = p.id AND prev.snapshot_date = :previousDay "
+                            + "LEFT JOIN (SELECT product_id, "
+                            + "SUM(CASE WHEN movement_type = 'IN' THEN quantity ELSE 0 END) "
+                            + "AS quantity_in, "
+                            + "SUM(CASE WHEN movement_type = 'OUT' THEN quantity ELSE 0 END) "
+                            + "AS quantity_out "
+                            + "FROM inventory_movements "
+                            + "WHERE created_at >= :dayStart AND created_at < :dayEnd "
+                            + "GROUP BY product_id) d ON d.product_id = p.id "
+                            + "LEFT JOIN (SELECT product_id, "
+                            + "SUM(CASE WHEN movement_type = 'IN' THEN quantity "
+                            + "ELSE -quantity END) "
+                            + "AS net_quantity "
+                            + "FROM inventory_movements WHERE created_at >= :dayEnd "
+                            + "GROUP BY product_id) later "
+                            + "ON later.product_id = p.id AND prev.closing_stock IS NULL "
+                            + "LEFT JOIN (SELECT product_id, SUM(quantity) AS quantity "
+                            + "FROM stock_ledger_deductions GROUP BY product_id) pending "
+                            + "ON pending.product_id = p.id AND prev.closing_stock IS NULL "
+                            + "WHERE p.created_at < :dayEnd "
+                            + "ON CONFLICT (product_id, snapshot_date) DO NOTHING",
+            nativeQuery = true)
+    int insertDailySnapshots(
+            @Param("day") LocalDate day,
+            @Param("previousDay") LocalDate previousDay,
+            @Param("dayStart") LocalDateTime dayStart,
+            @Param("dayEnd") LocalDateTime dayEnd);
+}
@@ -31,16 +31,6 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     List<Supplier> findByEmailContainingIgnoreCase(String email);
 
     // Custom queries for reports (Requirement 4.4)
-    @Query(
-            "SELECT s, COUNT(po), AVG(po.totalAmount), "
-                    + "COUNT(CASE WHEN po.status = 'COMPLETED' THEN 1 END) as completedOrders, "
-                    + "COUNT(CASE WHEN po.status = 'CANCELLED' THEN 1 END) as cancelledOrders "
-                    + "FROM Supplier s LEFT JOIN s.purchaseOrders po "
-                    + "WHERE po.createdAt BETWEEN :startDate AND :endDate "
-                    + "GROUP BY s ORDER BY COUNT(po) DESC")
-    List<Object[]> findSupplierPerformanceBetween(
-            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
     @Query(
             "SELECT s FROM Supplier s "
                     + "JOIN s.purchaseOrders po "
@@ -0,0 +1,11 @@
+package dev.kreaker.kinvex.repository.projection;
+
+/** Proyección con los datos de una categoría necesarios para armar el árbol. */
+public interface CategoryNode {
+
+    Long getId();
+
+    String getName();
+
+    Long getParentId();
+}
@@ -0,0 +1,11 @@
+package dev.kreaker.kinvex.repository.projection;
+
+/** Proyección con la cantidad de productos asignados directamente a una categoría. */
+public interface CategoryProductCount {
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+}
@@ -0,0 +1,11 @@
+package dev.kreaker.kinvex.repository.projection;
+
+import java.time.LocalDateTime;
+
+/** Proyección con la cantidad de categorías y su última modificación. */
+public interface CategoryTreeVersion {
+
+    Long getCategoryCount();
+
+    LocalDateTime getLastUpdatedAt();
+}
@@ -0,0 +1,17 @@
+package dev.kreaker.kinvex.repository.projection;
+
+import java.math.BigDecimal;
+
+/** Proyección con la valoración de los productos activos de una categoría. */
+public interface CategoryValuation {
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+
+    Long getTotalUnits();
+
+    BigDecimal getTotalValue();
+}
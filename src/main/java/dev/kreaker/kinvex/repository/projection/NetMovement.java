@@ -0,0 +1,10 @@
+package dev.kreaker.kinvex.repository.projection;
+
+/** Proyección con el efecto neto sobre el stock de los movimientos de un producto en un rango. */
+public interface NetMovement {
+
+    /** Entradas menos salidas. */
+    Long getNetQuantity();
+
+    Long getMovementCount();
+}
@@ -0,0 +1,11 @@
+package dev.kreaker.kinvex.repository.projection;
+
+/** Proyección con el rango de IDs y la cantidad de productos. */
+public interface ProductIdRange {
+
+    Long getMinId();
+
+    Long getMaxId();
+
+    Long getProductCount();
+}
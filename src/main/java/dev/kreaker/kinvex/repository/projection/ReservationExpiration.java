@@ -0,0 +1,11 @@
+package dev.kreaker.kinvex.repository.projection;
+
+import java.time.LocalDateTime;
+
+/** Proyección con el vencimiento de una reserva de stock activa. */
+public interface ReservationExpiration {
+
+    Long getId();
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,16 @@
+package dev.kreaker.kinvex.repository.projection;
+
+/**
+ * Proyección con el estado de un producto inmediatamente después de un descuento o una reserva
+ * atómica de stock.
+ */
+public interface StockDeductionResult {
+
+    Long getId();
+
+    String getCode();
+
+    String getName();
+
+    Integer getCurrentStock();
+}
@@ -0,0 +1,33 @@
+package dev.kreaker.kinvex.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Proyección con los datos de stock de un producto y sus movimientos agregados en un rango. */
+public interface StockLevelRow {
+
+    Long getProductId();
+
+    String getProductCode();
+
+    String getProductName();
+
+    String getCategoryName();
+
+    Integer getCurrentStock();
+
+    Integer getMinStock();
+
+    Integer getMaxStock();
+
+    BigDecimal getUnitPrice();
+
+    /** Unidades de las entradas del rango; 0 si no hubo. */
+    Long getInboundQuantity();
+
+    /** Unidades de las salidas del rango; 0 si no hubo. */
+    Long getOutboundQuantity();
+
+    /** Fecha del último movimiento del rango, de cualquier tipo; nula si no hubo. */
+    LocalDateTime getLastMovementDate();
+}
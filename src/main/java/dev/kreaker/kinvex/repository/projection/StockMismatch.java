@@ -0,0 +1,17 @@
+package dev.kreaker.kinvex.repository.projection;
+
+/**
+ * Proyección con un producto cuyo stock no coincide con la suma de sus movimientos de inventario.
+ */
+public interface StockMismatch {
+
+    Long getProductId();
+
+    String getProductCode();
+
+    /** Stock actual menos los descuentos del libro de stock pendientes de volcar. */
+    Integer getCurrentStock();
+
+    /** Entradas menos salidas registradas para el producto. */
+    Long getLedgerStock();
+}
@@ -0,0 +1,31 @@
+package dev.kreaker.kinvex.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Proyección con las métricas de las órdenes de compra de un proveedor en un rango de fechas. */
+public interface SupplierPerformance {
+
+    Long getSupplierId();
+
+    Long getTotalOrders();
+
+    Long getCompletedOrders();
+
+    /** Órdenes abiertas: pendientes, confirmadas o recibidas parcialmente. */
+    Long getPendingOrders();
+
+    Long getCancelledOrders();
+
+    /** Órdenes abiertas con la fecha esperada ya vencida. */
+    Long getOverdueOrders();
+
+    BigDecimal getTotalOrderValue();
+
+    Double getAverageOrderValue();
+
+    /** Días promedio entre la fecha de la orden y su recepción; nulo si no hubo recepciones. */
+    Double getAverageDeliveryDays();
+
+    LocalDateTime getLastOrderDate();
+}
@@ -0,0 +1,151 @@
+package dev.kreaker.kinvex.repository.specification;
+
+import dev.kreaker.kinvex.dto.report.ReportFilterDto;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.PurchaseOrder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Especificaciones para los reportes de movimientos de inventario.
+ *
+ * <p>Traduce los filtros de {@link ReportFilterDto} a una sola consulta, de modo que la base de
+ * datos devuelve solo los movimientos pedidos, ya ordenados. El rango de fechas usa los índices
+ * por fecha de {@code inventory_movements}.
+ */
+public final class InventoryMovementSpecifications {
+
+    /** Campos de ordenamiento admitidos en el filtro y la propiedad de la entidad de cada uno. */
+    public static final Map<String, String> SORTABLE_PROPERTIES =
+            Map.of(
+                    "id", "id",
+                    "createdAt", "createdAt",
+                    "quantity", "quantity",
+                    "movementType", "movementType",
+                    "referenceType", "referenceType",
+                    "sourceSystem", "sourceSystem",
+                    "productCode", "product.code",
+                    "productName", "product.name");
+
+    private InventoryMovementSpecifications() {}
+
+    /**
+     * Combina todos los filtros informados. El producto y el usuario que registró cada movimiento
+     * se cargan en la misma consulta.
+     *
+     * <p>El filtro por proveedores admite solo los movimientos de órdenes de compra de esos
+     * proveedores. Los indicadores de productos y proveedores activos no se aplican: solo
+     * determinan qué productos y proveedores se listan en los demás reportes.
+     *
+     * @param filter Filtros del reporte, con rango de fechas
+     * @return Especificación con todos los filtros
+     */
+    public static Specification<InventoryMovement> matching(ReportFilterDto filter) {
+        return (root, query, cb) -> {
+            Join<InventoryMovement, Product> product = joinProduct(root, query);
+            List<Predicate> predicates = new ArrayList<>();
+
+            predicates.add(
+                    cb.between(root.get("createdAt"), filter.getStartDate(), filter.getEndDate()));
+
+            if (filter.getProductIds() != null && !filter.getProductIds().isEmpty()) {
+                predicates.add(product.get("id").in(filter.getProductIds()));
+            }
+            if (filter.getProductCodes() != null && !filter.getProductCodes().isEmpty()) {
+                predicates.add(product.get("code").in(filter.getProductCodes()));
+            }
+            if (filter.hasCategoryFilter()) {
+                predicates.add(product.get("category").get("id").in(filter.getCategoryIds()));
+            }
+            if (filter.hasMovementTypeFilter()) {
+                predicates.add(root.get("movementType").in(filter.getMovementTypes()));
+            }
+            if (filter.hasReferenceTypeFilter()) {
+                predicates.add(root.get("referenceType").in(filter.getReferenceTypes()));
+            }
+            if (filter.hasSourceSystemFilter()) {
+                predicates.add(root.get("sourceSystem").in(filter.getSourceSystems()));
+            }
+            if (filter.hasSupplierFilter()) {
+                Subquery<Long> orders = query.subquery(Long.class);
+                Root<PurchaseOrder> order = orders.from(PurchaseOrder.class);
+                orders.select(order.get("id"))
+                        .where(order.get("supplier").get("id").in(filter.getSupplierIds()));
+                predicates.add(cb.equal(root.get("referenceType"), ReferenceType.PURCHASE_ORDER));
+                predicates.add(root.get("referenceId").in(orders));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Ordenamiento del reporte según el filtro; por defecto del movimiento más reciente al más
+     * antiguo. El ID se agrega como último criterio para que el límite devuelva siempre las mismas
+     * filas cuando varios movimientos comparten los valores de orden.
+     *
+     * @param filter Filtros del reporte
+     * @return Ordenamiento validado
+     * @throws IllegalArgumentException si el campo o la dirección de orden no son válidos
+     */
+    public static Sort sortFor(ReportFilterDto filter) {
+        Sort.Direction direction =
+                filter.getSortDirection() != null && !filter.getSortDirection().isBlank()
+                        ? Sort.Direction.fromString(filter.getSortDirection().trim())
+                        : Sort.Direction.DESC;
+        String sortBy =
+                filter.getSortBy() != null && !filter.getSortBy().isBlank()
+                        ? filter.getSortBy().trim()
+                        : "createdAt";
+
+        String property = SORTABLE_PROPERTIES.get(sortBy);
+        if (property == null) {
+            throw new IllegalArgumentException(
+                    "No se pueden ordenar movimientos por '" + sortBy + "'");
+        }
+        Sort sort = Sort.by(direction, property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Unión con el producto del movimiento, reutilizando la existente si la consulta ya la tiene.
+     * Las consultas que proyectan columnas del producto la usan para no unirlo dos veces.
+     *
+     * @param root Raíz de movimientos de la consulta
+     * @return Unión interna con el producto
+     */
+    @SuppressWarnings("unchecked")
+    public static Join<InventoryMovement, Product> productJoin(Root<InventoryMovement> root) {
+        return root.getJoins().stream()
+                .filter(join -> "product".equals(join.getAttribute().getName()))
+                .map(join -> (Join<InventoryMovement, Product>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("product"));
+    }
+
+    /**
+     * Une el producto de cada movimiento. Si la consulta devuelve entidades también carga el
+     * producto y el usuario, que se leen al armar el reporte; en las consultas de conteo o de
+     * proyección solo une el producto.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<InventoryMovement, Product> joinProduct(
+            Root<InventoryMovement> root, CriteriaQuery<?> query) {
+        if (!InventoryMovement.class.equals(query.getResultType())) {
+            return productJoin(root);
+        }
+        root.fetch("createdBy", JoinType.LEFT);
+        return (Join<InventoryMovement, Product>) root.<InventoryMovement, Product>fetch("product");
+    }
+}
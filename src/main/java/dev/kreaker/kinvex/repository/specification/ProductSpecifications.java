@@ -0,0 +1,181 @@
+package dev.kreaker.kinvex.repository.specification;
+
+import dev.kreaker.kinvex.dto.inventory.ProductSearchCriteria;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.Product.StockStatus;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Especificaciones para la búsqueda de productos.
+ *
+ * <p>Todos los criterios informados se combinan en una sola consulta. Los filtros siguen la forma
+ * de los índices creados en {@code V9__Create_product_search_indexes.sql}: índices parciales sobre
+ * productos activos y un índice por prefijo de código en minúsculas. Los filtros de stock bajo y
+ * sin stock usan la columna generada {@code stock_status} y su índice parcial de {@code V12}.
+ */
+public final class ProductSpecifications {
+
+    /** Propiedades por las que puede ordenarse una búsqueda. */
+    public static final Set<String> SORTABLE_PROPERTIES =
+            Set.of(
+                    "id",
+                    "code",
+                    "name",
+                    "unitPrice",
+                    "currentStock",
+                    "minStock",
+                    "createdAt",
+                    "updatedAt");
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ProductSpecifications() {}
+
+    /**
+     * Combina todos los criterios informados. Sin criterio de estado se buscan solo productos
+     * activos; los indicadores de stock bajo y sin stock solo filtran cuando son {@code true}.
+     *
+     * @param criteria Criterios de búsqueda
+     * @return Especificación con todos los criterios
+     */
+    public static Specification<Product> matching(ProductSearchCriteria criteria) {
+        List<Long> categoryIds =
+                criteria.getCategoryId() != null ? List.of(criteria.getCategoryId()) : null;
+        return matching(criteria, categoryIds);
+    }
+
+    /**
+     * Combina todos los criterios informados, filtrando por un conjunto de categorías en lugar de
+     * la categoría de los criterios; se usa para buscar en todo un subárbol de categorías.
+     *
+     * @param criteria Criterios de búsqueda
+     * @param categoryIds IDs de las categorías admitidas, o {@code null} para no filtrar
+     * @return Especificación con todos los criterios
+     */
+    public static Specification<Product> matching(
+            ProductSearchCriteria criteria, Collection<Long> categoryIds) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            boolean active = criteria.getActive() == null || criteria.getActive();
+            predicates.add(cb.equal(root.get("active"), active));
+
+            if (hasText(criteria.getCode())) {
+                predicates.add(
+                        cb.like(
+                                cb.lower(root.get("code")),
+                                escapeLike(criteria.getCode()) + "%",
+                                LIKE_ESCAPE));
+            }
+            if (hasText(criteria.getName())) {
+                predicates.add(
+                        cb.like(
+                                cb.lower(root.get("name")),
+                                containsPattern(criteria.getName()),
+                                LIKE_ESCAPE));
+            }
+            if (categoryIds != null) {
+                predicates.add(root.get("category").get("id").in(categoryIds));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(
+                        cb.greaterThanOrEqualTo(root.get("unitPrice"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("unitPrice"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinStock() != null) {
+                predicates.add(
+                        cb.greaterThanOrEqualTo(root.get("currentStock"), criteria.getMinStock()));
+            }
+            if (criteria.getMaxStock() != null) {
+                predicates.add(
+                        cb.lessThanOrEqualTo(root.get("currentStock"), criteria.getMaxStock()));
+            }
+            if (Boolean.TRUE.equals(criteria.getLowStock())) {
+                predicates.add(
+                        root.get("stockStatus")
+                                .in(StockStatus.LOW_STOCK, StockStatus.OUT_OF_STOCK));
+            }
+            if (Boolean.TRUE.equals(criteria.getOutOfStock())) {
+                predicates.add(cb.equal(root.get("stockStatus"), StockStatus.OUT_OF_STOCK));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Valida el ordenamiento solicitado y agrega el ID como último criterio, para que la paginación
+     * sea estable entre páginas cuando varios productos comparten los valores de orden.
+     *
+     * @param pageable Paginación solicitada
+     * @return Paginación con orden estable
+     * @throws IllegalArgumentException si se ordena por una propiedad no permitida
+     */
+    public static Pageable withStableSort(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException(
+                        "No se puede ordenar productos por '" + order.getProperty() + "'");
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    /**
+     * Productos activos en los que cada término aparece como subcadena de alguno de los campos
+     * indicados, sin distinguir mayúsculas. Es la búsqueda por texto para esquemas sin los índices
+     * de trigramas y texto completo de {@code V10}, y recorre todos los productos activos.
+     *
+     * @param terms Términos buscados
+     * @param fields Propiedades de texto del producto en las que buscar
+     * @return Especificación con todos los términos
+     */
+    public static Specification<Product> containingAll(
+            Collection<String> terms, String... fields) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("active")));
+            for (String term : terms) {
+                String pattern = containsPattern(term);
+                List<Predicate> anyField = new ArrayList<>();
+                for (String field : fields) {
+                    anyField.add(cb.like(cb.lower(root.get(field)), pattern, LIKE_ESCAPE));
+                }
+                predicates.add(cb.or(anyField.toArray(new Predicate[0])));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /** Patrón LIKE que busca el texto como subcadena, en minúsculas y con comodines escapados. */
+    public static String containsPattern(String value) {
+        return "%" + escapeLike(value) + "%";
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.trim()
+                .toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
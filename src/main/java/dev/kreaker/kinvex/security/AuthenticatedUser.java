@@ -0,0 +1,23 @@
+package dev.kreaker.kinvex.security;
+
+import java.security.Principal;
+
+/**
+ * Principal de una request autenticada con JWT. Lleva el ID del usuario tomado del token para que
+ * los servicios puedan asociar registros al usuario sin consultarlo por username.
+ *
+ * @param id ID del usuario, o null si el token fue emitido antes de incluir el claim
+ * @param username Nombre de usuario
+ */
+public record AuthenticatedUser(Long id, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,99 @@
+package dev.kreaker.kinvex.security;
+
+import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.UserRepository;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resuelve el usuario autenticado para asociarlo a movimientos, órdenes y registros de auditoría.
+ *
+ * <p>Con autenticación JWT el ID viaja en el token y el usuario se devuelve como referencia de JPA,
+ * sin consultar la base de datos. En otros contextos (tokens emitidos antes del claim, tests,
+ * procesos internos) el ID se busca por username una vez y se guarda en una caché con expiración
+ * corta.
+ */
+@Component
+public class CurrentUserProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrentUserProvider.class);
+
+    static final Duration CACHE_TTL = Duration.ofMinutes(5);
+
+    static final int CACHE_MAX_ENTRIES = 10_000;
+
+    private record CachedUserId(Long id, long expiresAtNanos) {}
+
+    private final UserRepository userRepository;
+
+    private final Map<String, CachedUserId> userIdsByUsername = new ConcurrentHashMap<>();
+
+    public CurrentUserProvider(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Obtiene el usuario autenticado. Salvo en la primera búsqueda por username, el usuario es una
+     * referencia sin inicializar: leer algo distinto de su ID dispara la consulta.
+     *
+     * @return Usuario actual, o vacío si no hay un usuario autenticado
+     */
+    public Optional<User> getCurrentUser() {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null
+                    || !authentication.isAuthenticated()
+                    || "anonymousUser".equals(authentication.getPrincipal())) {
+                return Optional.empty();
+            }
+
+            if (authentication.getPrincipal() instanceof AuthenticatedUser user
+                    && user.id() != null) {
+                return Optional.of(userRepository.getReferenceById(user.id()));
+            }
+            return resolveByUsername(authentication.getName());
+        } catch (Exception e) {
+            logger.debug("No se pudo obtener el usuario actual", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Obtiene el ID del usuario autenticado.
+     *
+     * @return ID del usuario actual, o vacío si no hay un usuario autenticado
+     */
+    public Optional<Long> getCurrentUserId() {
+        return getCurrentUser().map(User::getId);
+    }
+
+    private Optional<User> resolveByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        CachedUserId cached = userIdsByUsername.get(username);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            return Optional.of(userRepository.getReferenceById(cached.id()));
+        }
+
+        Optional<User> user = userRepository.findByUsername(username);
+        user.ifPresent(found -> cache(username, found.getId()));
+        return user;
+    }
+
+    private void cache(String username, Long userId) {
+        if (userIdsByUsername.size() >= CACHE_MAX_ENTRIES) {
+            userIdsByUsername.clear();
+        }
+        userIdsByUsername.put(
+                username, new CachedUserId(userId, System.nanoTime() + CACHE_TTL.toNanos()));
+    }
+}
@@ -50,6 +50,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (jwtTokenProvider.validateToken(jwt)) {
                 // Extraer información del usuario del token
                 String username = jwtTokenProvider.getUsernameFromToken(jwt);
+                Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
                 List<String> roles = jwtTokenProvider.getRolesFromToken(jwt);
 
                 // Crear authorities de Spring Security
@@ -58,9 +59,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                                 .toList();
 
-                // Crear el objeto de autenticación
+                // Crear el objeto de autenticación; el principal lleva el ID del usuario
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+                        new UsernamePasswordAuthenticationToken(
+                                new AuthenticatedUser(userId, username), null, authorities);
 
                 // Establecer detalles adicionales de la request
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
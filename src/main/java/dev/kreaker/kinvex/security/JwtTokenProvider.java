@@ -22,6 +22,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class JwtTokenProvider {
 
+    static final String USER_ID_CLAIM = "uid";
+
     private final JwtProperties jwtProperties;
     private final SecretKey signingKey;
 
@@ -34,6 +36,11 @@ public class JwtTokenProvider {
 
     /** Genera un token JWT para el usuario especificado */
     public String generateToken(String username, List<String> roles) {
+        return generateToken(null, username, roles);
+    }
+
+    /** Genera un token JWT que incluye el ID del usuario en el claim {@code uid} */
+    public String generateToken(Long userId, String username, List<String> roles) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.expiration() * 1000);
 
@@ -46,6 +53,7 @@ public class JwtTokenProvider {
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .claim("roles", roles)
+                .claim(USER_ID_CLAIM, userId)
                 .signWith(signingKey)
                 .compact();
     }
@@ -80,6 +88,12 @@ public class JwtTokenProvider {
         return (List<String>) claims.get("roles");
     }
 
+    /** Extrae el ID del usuario del token JWT, o null si el token no lo incluye */
+    public Long getUserIdFromToken(String token) {
+        Number userId = getClaimFromToken(token, claims -> claims.get(USER_ID_CLAIM, Number.class));
+        return userId != null ? userId.longValue() : null;
+    }
+
     /** Extrae la fecha de expiración del token JWT */
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
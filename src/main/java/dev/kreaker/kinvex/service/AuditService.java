@@ -6,6 +6,7 @@ import dev.kreaker.kinvex.entity.AuditLog;
 import dev.kreaker.kinvex.entity.User;
 import dev.kreaker.kinvex.repository.AuditLogRepository;
 import dev.kreaker.kinvex.repository.UserRepository;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,8 +15,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,14 +34,17 @@ public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
     private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
     private final ObjectMapper objectMapper;
 
     public AuditService(
             AuditLogRepository auditLogRepository,
             UserRepository userRepository,
+            CurrentUserProvider currentUserProvider,
             ObjectMapper objectMapper) {
         this.auditLogRepository = auditLogRepository;
         this.userRepository = userRepository;
+        this.currentUserProvider = currentUserProvider;
         this.objectMapper = objectMapper;
     }
 
@@ -71,7 +73,7 @@ public class AuditService {
     public void logOperation(
             String action, String entityType, Long entityId, Object oldValues, Object newValues) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserProvider.getCurrentUser().orElse(null);
             HttpServletRequest request = getCurrentRequest();
 
             AuditLog auditLog = new AuditLog();
@@ -96,11 +98,11 @@ public class AuditService {
             auditLogRepository.save(auditLog);
 
             logger.debug(
-                    "Audit log created: action={}, entityType={}, entityId={}, user={}",
+                    "Audit log created: action={}, entityType={}, entityId={}, userId={}",
                     action,
                     entityType,
                     entityId,
-                    currentUser != null ? currentUser.getUsername() : "system");
+                    currentUser != null ? currentUser.getId() : "system");
 
         } catch (Exception e) {
             logger.error(
@@ -179,7 +181,7 @@ public class AuditService {
             String movementType,
             String sourceSystem) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserProvider.getCurrentUser().orElse(null);
             HttpServletRequest request = getCurrentRequest();
 
             AuditLog auditLog = new AuditLog();
@@ -292,27 +294,6 @@ public class AuditService {
         return auditLogRepository.findLoginActivityBetween(startDate, endDate);
     }
 
-    /**
-     * Obtiene el usuario actual del contexto de seguridad.
-     *
-     * @return Usuario actual o null si no está autenticado
-     */
-    private User getCurrentUser() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null
-                    && authentication.isAuthenticated()
-                    && !"anonymousUser".equals(authentication.getPrincipal())) {
-
-                String username = authentication.getName();
-                return userRepository.findByUsername(username).orElse(null);
-            }
-        } catch (Exception e) {
-            logger.debug("Could not get current user from security context", e);
-        }
-        return null;
-    }
-
     /**
      * Obtiene la request HTTP actual.
      *
@@ -91,7 +91,8 @@ public class AuthService {
 
         // Generar tokens
         List<String> roles = List.of("ROLE_" + user.getRole().name());
-        String accessToken = jwtTokenProvider.generateToken(user.getUsername(), roles);
+        String accessToken =
+                jwtTokenProvider.generateToken(user.getId(), user.getUsername(), roles);
         String refreshToken = jwtTokenProvider.generateRefreshToken(user.getUsername());
 
         // Crear información del usuario para la respuesta
@@ -149,7 +150,8 @@ public class AuthService {
 
         // Generar nuevo access token
         List<String> roles = List.of("ROLE_" + user.getRole().name());
-        String newAccessToken = jwtTokenProvider.generateToken(user.getUsername(), roles);
+        String newAccessToken =
+                jwtTokenProvider.generateToken(user.getId(), user.getUsername(), roles);
 
         // Crear información del usuario para la respuesta
         AuthResponse.UserInfo userInfo =
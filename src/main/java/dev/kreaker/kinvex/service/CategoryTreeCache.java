@@ -0,0 +1,144 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.dto.inventory.CategoryTreeNode;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.projection.CategoryNode;
+import dev.kreaker.kinvex.repository.projection.CategoryTreeVersion;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Árbol de categorías en memoria.
+ *
+ * <p>El árbol completo se lee con una sola consulta en el primer uso y se reconstruye cuando
+ * cambia la cantidad de categorías o su última modificación, comprobadas periódicamente con una
+ * consulta de agregados. Con el árbol en memoria, las subcategorías de una categoría se resuelven
+ * sin consultas y los productos de todo un subárbol se leen con una sola consulta por IDs de
+ * categoría.
+ *
+ * <p>La aplicación no modifica categorías: se administran directamente en la base de datos, por lo
+ * que la comprobación periódica es la única vía de actualización del árbol.
+ */
+@Service
+public class CategoryTreeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree;
+
+    public CategoryTreeCache(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Obtiene las categorías raíz con todas sus subcategorías.
+     *
+     * @return Categorías raíz ordenadas por nombre
+     */
+    public List<CategoryTreeNode> getRoots() {
+        return currentTree().roots();
+    }
+
+    /**
+     * Obtiene el ID de una categoría y los de todas sus subcategorías, a cualquier profundidad.
+     *
+     * @param categoryId ID de la categoría
+     * @return IDs del subárbol, empezando por la propia categoría
+     */
+    public List<Long> getSubtreeIds(Long categoryId) {
+        Map<Long, List<Long>> childIds = currentTree().childIds();
+        Set<Long> subtree = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.add(categoryId);
+        while (!pending.isEmpty()) {
+            Long id = pending.poll();
+            if (subtree.add(id)) {
+                pending.addAll(childIds.getOrDefault(id, List.of()));
+            }
+        }
+        return List.copyOf(subtree);
+    }
+
+    /** Reconstruye el árbol si las categorías cambiaron desde la última carga. */
+    @Scheduled(fixedDelayString = "${app.inventory.category-tree.refresh-interval:PT1M}")
+    public void refreshIfChanged() {
+        CategoryTree loaded = tree;
+        if (loaded == null) {
+            return;
+        }
+        Version version = readVersion();
+        if (!loaded.version().equals(version)) {
+            logger.info("Categorías modificadas; se reconstruye el árbol en memoria");
+            tree = load(version);
+        }
+    }
+
+    private CategoryTree currentTree() {
+        CategoryTree loaded = tree;
+        if (loaded == null) {
+            loaded = load(readVersion());
+            tree = loaded;
+        }
+        return loaded;
+    }
+
+    private Version readVersion() {
+        CategoryTreeVersion version = categoryRepository.findTreeVersion();
+        return new Version(version.getCategoryCount(), version.getLastUpdatedAt());
+    }
+
+    private CategoryTree load(Version version) {
+        List<CategoryNode> nodes = new ArrayList<>(categoryRepository.findAllNodes());
+        nodes.sort(Comparator.comparing(CategoryNode::getName).thenComparing(CategoryNode::getId));
+
+        Set<Long> ids = new LinkedHashSet<>();
+        nodes.forEach(node -> ids.add(node.getId()));
+        Map<Long, List<CategoryNode>> children = new HashMap<>();
+        List<CategoryNode> rootNodes = new ArrayList<>();
+        for (CategoryNode node : nodes) {
+            // Una categoría cuyo padre no existe se muestra como raíz
+            if (node.getParentId() == null || !ids.contains(node.getParentId())) {
+                rootNodes.add(node);
+            } else {
+                children.computeIfAbsent(node.getParentId(), id -> new ArrayList<>()).add(node);
+            }
+        }
+
+        Map<Long, List<Long>> childIds = new HashMap<>();
+        children.forEach(
+                (parentId, list) ->
+                        childIds.put(parentId, list.stream().map(CategoryNode::getId).toList()));
+        List<CategoryTreeNode> roots =
+                rootNodes.stream().map(node -> toTreeNode(node, children)).toList();
+        logger.debug("Árbol de categorías cargado: {} categorías", nodes.size());
+        return new CategoryTree(version, roots, childIds);
+    }
+
+    private static CategoryTreeNode toTreeNode(
+            CategoryNode node, Map<Long, List<CategoryNode>> children) {
+        List<CategoryTreeNode> subtree =
+                children.getOrDefault(node.getId(), List.of()).stream()
+                        .map(child -> toTreeNode(child, children))
+                        .toList();
+        return new CategoryTreeNode(node.getId(), node.getName(), node.getParentId(), subtree);
+    }
+
+    private record Version(Long categoryCount, LocalDateTime lastUpdatedAt) {}
+
+    private record CategoryTree(
+            Version version, List<CategoryTreeNode> roots, Map<Long, List<Long>> childIds) {}
+}
@@ -0,0 +1,82 @@
+package dev.kreaker.kinvex.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de archivos CSV separados por comas (RFC 4180) en UTF-8. Los campos entre comillas
+ * pueden contener comas, saltos de línea y comillas duplicadas. El número de fila de cada registro
+ * es el de la línea donde empieza.
+ */
+class CsvProductRowReader implements ProductRowReader {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    @Override
+    public void read(InputStream input, RowHandler handler) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        long line = 1;
+        long rowStart = 1;
+
+        int c = reader.read();
+        if (c == BYTE_ORDER_MARK) {
+            c = reader.read();
+        }
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        // Fin del campo entre comillas: el carácter siguiente se procesa fuera
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    cell.append('"');
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    cell.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n') {
+                cells.add(cell.toString());
+                emit(handler, rowStart, cells);
+                cells = new ArrayList<>();
+                cell.setLength(0);
+                line++;
+                rowStart = line;
+            } else if (c != '\r') {
+                cell.append((char) c);
+            }
+            c = reader.read();
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la fila " + rowStart);
+        }
+        cells.add(cell.toString());
+        emit(handler, rowStart, cells);
+    }
+
+    private static void emit(RowHandler handler, long rowNumber, List<String> cells) {
+        boolean blank = cells.stream().allMatch(String::isBlank);
+        if (!blank) {
+            handler.row(rowNumber, cells);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package dev.kreaker.kinvex.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.entity.IdempotencyKey;
+import dev.kreaker.kinvex.exception.IdempotencyKeyConflictException;
+import dev.kreaker.kinvex.exception.InvalidIdempotencyKeyException;
+import dev.kreaker.kinvex.repository.IdempotencyKeyRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio de claves de idempotencia para operaciones de sistemas externos.
+ *
+ * <p>La clave se reserva dentro de la misma transacción que descuenta el stock: si la operación
+ * falla, la reserva se revierte junto con ella y el cliente puede reintentar; si tiene éxito, la
+ * respuesta queda registrada y los reintentos la reciben sin volver a descontar. Dos solicitudes
+ * concurrentes con la misma clave se serializan en el índice único de la tabla.
+ */
+@Service
+@Transactional
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final InventoryProperties inventoryProperties;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyService(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            InventoryProperties inventoryProperties,
+            ObjectMapper objectMapper) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.inventoryProperties = inventoryProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ejecuta una operación de sistema externo respetando su clave de idempotencia. La clave se
+     * reserva en la misma transacción que la operación, por lo que un fallo la libera. Sin clave,
+     * la operación se ejecuta directamente.
+     *
+     * @param key Clave de idempotencia enviada por el cliente, o {@code null}
+     * @param scope Operación a la que pertenece la clave
+     * @param request Solicitud recibida
+     * @param responseType Tipo de la respuesta
+     * @param operation Operación a ejecutar si la clave no fue procesada
+     * @return Respuesta de la operación o la respuesta original de un reintento
+     * @throws IdempotencyKeyConflictException si la clave se usó con una solicitud distinta
+     */
+    public <T> T execute(
+            String key,
+            String scope,
+            Object request,
+            Class<T> responseType,
+            Supplier<T> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+
+        Optional<T> replayed = claimOrReplay(key, scope, request, responseType);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+
+        T response = operation.get();
+        recordResponse(key, response);
+        return response;
+    }
+
+    /**
+     * Reserva la clave para la solicitud o, si ya fue procesada, devuelve la respuesta original.
+     *
+     * @param key Clave de idempotencia enviada por el cliente
+     * @param scope Operación a la que pertenece la clave
+     * @param request Solicitud recibida, usada para detectar reutilización con otro contenido
+     * @param responseType Tipo de la respuesta registrada
+     * @return Respuesta original si la clave ya fue procesada, vacío si debe procesarse ahora
+     * @throws IdempotencyKeyConflictException si la clave se usó con una solicitud distinta
+     */
+    public <T> Optional<T> claimOrReplay(
+            String key, String scope, Object request, Class<T> responseType) {
+        validateKey(key);
+
+        String requestHash = hash(toJson(request));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(inventoryProperties.idempotency().ttl());
+
+        if (idempotencyKeyRepository.claim(key, scope, requestHash, now, expiresAt) == 1) {
+            return Optional.empty();
+        }
+
+        IdempotencyKey existing =
+                idempotencyKeyRepository
+                        .findById(key)
+                        .orElseThrow(() -> new IdempotencyKeyConflictException(key));
+
+        if (!existing.matches(scope, requestHash) || existing.getResponseBody() == null) {
+            throw new IdempotencyKeyConflictException(key);
+        }
+
+        logger.info("Reintento con clave de idempotencia {} - devolviendo respuesta original", key);
+        return Optional.of(fromJson(existing.getResponseBody(), responseType));
+    }
+
+    /**
+     * Registra la respuesta de una solicitud cuya clave fue reservada con {@link #claimOrReplay}.
+     *
+     * @param key Clave de idempotencia
+     * @param response Respuesta devuelta al cliente
+     */
+    public void recordResponse(String key, Object response) {
+        idempotencyKeyRepository.storeResponse(key, toJson(response));
+    }
+
+    /** Elimina las claves expiradas. */
+    @Scheduled(fixedDelayString = "${app.inventory.idempotency.purge-interval:PT1H}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Eliminadas {} claves de idempotencia expiradas", purged);
+        }
+    }
+
+    private void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "La clave de idempotencia debe tener entre 1 y "
+                            + MAX_KEY_LENGTH
+                            + " caracteres");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar a JSON", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta registrada", e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of()
+                    .formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.config.InventoryProperties.MovementWriteMode;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Escritura de movimientos de inventario.
+ *
+ * <p>En modo {@link MovementWriteMode#DIRECT} cada movimiento se guarda con el repositorio en la
+ * transacción que lo genera. En modo {@link MovementWriteMode#TRANSACTION_BATCH} los movimientos
+ * de una transacción se acumulan y se insertan justo antes de su commit, con sentencias INSERT de
+ * varias filas; si la transacción acumula el tamaño máximo de lote, ese lote se inserta en el
+ * momento. Los movimientos se confirman o revierten siempre junto con el cambio de stock que los
+ * generó, por lo que no se agrupan movimientos de transacciones distintas: una transacción con un
+ * solo movimiento sigue insertando una fila, y el commit conjunto de transacciones concurrentes
+ * queda a cargo de la base de datos ({@code commit_delay} en PostgreSQL).
+ *
+ * <p>El ID se asigna al escribir, de bloques reservados de la secuencia de movimientos, por lo que
+ * el llamador puede usarlo aunque la fila aún no esté insertada. Hasta el volcado, las consultas
+ * de la misma transacción no ven los movimientos acumulados.
+ */
+@Service
+public class InventoryMovementWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryMovementWriter.class);
+
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final InventoryProperties.Movements properties;
+
+    private final Queue<Long> reservedIds = new ConcurrentLinkedQueue<>();
+    private final DistributionSummary batchFill;
+    private final Timer flushTimer;
+
+    public InventoryMovementWriter(
+            InventoryMovementRepository inventoryMovementRepository,
+            InventoryProperties inventoryProperties,
+            MeterRegistry meterRegistry) {
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.properties = inventoryProperties.movements();
+
+        this.batchFill =
+                DistributionSummary.builder("kinvex.movements.writer.batch.size")
+                        .description("Inventory movements written per multi-row insert")
+                        .baseUnit("movements")
+                        .register(meterRegistry);
+        this.flushTimer =
+                Timer.builder("kinvex.movements.writer.flush.duration")
+                        .description("Duration of each inventory movement multi-row insert")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Escribe un movimiento de inventario y le asigna su ID.
+     *
+     * @param movement Movimiento a escribir
+     * @return El movimiento escrito
+     */
+    public InventoryMovement write(InventoryMovement movement) {
+        if (properties.writeMode() != MovementWriteMode.TRANSACTION_BATCH
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return inventoryMovementRepository.save(movement);
+        }
+
+        // La inserción por lotes no pasa por los callbacks de Hibernate
+        if (movement.getCreatedAt() == null) {
+            movement.setCreatedAt(LocalDateTime.now());
+        }
+        movement.setId(nextId());
+
+        PendingBatch batch = currentBatch();
+        batch.movements.add(movement);
+        if (batch.movements.size() >= properties.maxBatchSize()) {
+            batch.flush();
+        }
+        return movement;
+    }
+
+    /**
+     * Toma un ID de los bloques reservados; al agotarse, reserva un bloque nuevo sin bloquear al
+     * resto de hilos. Si varios lo agotan a la vez cada uno reserva el suyo y los IDs sobrantes
+     * quedan para escrituras posteriores.
+     */
+    private Long nextId() {
+        Long id = reservedIds.poll();
+        if (id != null) {
+            return id;
+        }
+        List<Long> block =
+                inventoryMovementRepository.allocateIds(InventoryMovement.ID_ALLOCATION_SIZE);
+        reservedIds.addAll(block.subList(1, block.size()));
+        return block.get(0);
+    }
+
+    /**
+     * Lote de la transacción actual; se registra con la transacción la primera vez. Se busca entre
+     * las sincronizaciones, que Spring suspende y restaura con cada transacción anidada.
+     */
+    private PendingBatch currentBatch() {
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBatch batch && batch.writer() == this) {
+                return batch;
+            }
+        }
+        PendingBatch batch = new PendingBatch();
+        TransactionSynchronizationManager.registerSynchronization(batch);
+        return batch;
+    }
+
+    /**
+     * Movimientos acumulados por una transacción. Se insertan antes del commit; si la transacción
+     * se revierte se descartan sin haber llegado a la base de datos.
+     */
+    private final class PendingBatch implements TransactionSynchronization {
+
+        private final List<InventoryMovement> movements = new ArrayList<>();
+
+        void flush() {
+            if (movements.isEmpty()) {
+                return;
+            }
+            List<InventoryMovement> batch = List.copyOf(movements);
+            movements.clear();
+            flushTimer.record(() -> inventoryMovementRepository.insertAll(batch));
+            batchFill.record(batch.size());
+            logger.debug("Lote de {} movimientos de inventario insertado", batch.size());
+        }
+
+        InventoryMovementWriter writer() {
+            return InventoryMovementWriter.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            flush();
+        }
+    }
+}
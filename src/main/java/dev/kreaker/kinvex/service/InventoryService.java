@@ -1,32 +1,58 @@
 package dev.kreaker.kinvex.service;
 
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.config.InventoryProperties.DeductionMode;
+import dev.kreaker.kinvex.dto.inventory.CategoryTreeNode;
 import dev.kreaker.kinvex.dto.inventory.CreateProductRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionResponse;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionRequest;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionResponse;
+import dev.kreaker.kinvex.dto.inventory.InventoryMovementResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
+import dev.kreaker.kinvex.dto.inventory.ProductResponse;
 import dev.kreaker.kinvex.dto.inventory.ProductSearchCriteria;
+import dev.kreaker.kinvex.dto.inventory.ProductSearchMode;
 import dev.kreaker.kinvex.dto.inventory.StockUpdateRequest;
 import dev.kreaker.kinvex.dto.inventory.UpdateProductRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
+import dev.kreaker.kinvex.dto.pagination.PageCursor;
 import dev.kreaker.kinvex.entity.Category;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
 import dev.kreaker.kinvex.entity.Product;
 import dev.kreaker.kinvex.entity.User;
 import dev.kreaker.kinvex.exception.DuplicateProductCodeException;
+import dev.kreaker.kinvex.exception.IdempotencyKeyConflictException;
 import dev.kreaker.kinvex.exception.InsufficientStockException;
 import dev.kreaker.kinvex.exception.ProductNotFoundException;
 import dev.kreaker.kinvex.repository.CategoryRepository;
 import dev.kreaker.kinvex.repository.InventoryMovementRepository;
 import dev.kreaker.kinvex.repository.ProductRepository;
-import dev.kreaker.kinvex.repository.UserRepository;
+import dev.kreaker.kinvex.repository.projection.StockDeductionResult;
+import dev.kreaker.kinvex.repository.specification.ProductSpecifications;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,20 +68,44 @@ public class InventoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
 
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Ámbitos de las claves de idempotencia de sistemas externos
+    static final String STOCK_DEDUCTION_SCOPE = "STOCK_DEDUCTION";
+    static final String INVOICE_DEDUCTION_SCOPE = "INVOICE_DEDUCTION";
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final InventoryProperties inventoryProperties;
+    private final IdempotencyService idempotencyService;
+    private final StockLedger stockLedger;
+    private final InventoryMovementWriter movementWriter;
+    private final ProductCatalogCache productCatalogCache;
+    private final CategoryTreeCache categoryTreeCache;
 
     public InventoryService(
             ProductRepository productRepository,
             CategoryRepository categoryRepository,
             InventoryMovementRepository inventoryMovementRepository,
-            UserRepository userRepository) {
+            CurrentUserProvider currentUserProvider,
+            InventoryProperties inventoryProperties,
+            IdempotencyService idempotencyService,
+            StockLedger stockLedger,
+            InventoryMovementWriter movementWriter,
+            ProductCatalogCache productCatalogCache,
+            CategoryTreeCache categoryTreeCache) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.inventoryMovementRepository = inventoryMovementRepository;
-        this.userRepository = userRepository;
+        this.currentUserProvider = currentUserProvider;
+        this.inventoryProperties = inventoryProperties;
+        this.idempotencyService = idempotencyService;
+        this.stockLedger = stockLedger;
+        this.movementWriter = movementWriter;
+        this.productCatalogCache = productCatalogCache;
+        this.categoryTreeCache = categoryTreeCache;
     }
 
     // ========== CRUD Operations ==========
@@ -101,16 +151,18 @@ public class InventoryService {
         // Guardar producto
         Product savedProduct = productRepository.save(product);
 
-        // Crear movimiento de inventario inicial si hay stock inicial
+        // Crear movimiento de inventario inicial si hay stock inicial. Se inserta en esta misma
+        // transacción: el producto todavía no está confirmado y un lote externo no lo vería
         if (request.getInitialStock() > 0) {
-            createInventoryMovement(
-                    savedProduct,
-                    MovementType.IN,
-                    request.getInitialStock(),
-                    InventoryMovement.ReferenceType.ADJUSTMENT,
-                    null,
-                    "SYSTEM",
-                    "Stock inicial del producto");
+            inventoryMovementRepository.save(
+                    buildInventoryMovement(
+                            savedProduct,
+                            MovementType.IN,
+                            request.getInitialStock(),
+                            InventoryMovement.ReferenceType.ADJUSTMENT,
+                            null,
+                            "SYSTEM",
+                            "Stock inicial del producto"));
         }
 
         logger.info(
@@ -131,10 +183,13 @@ public class InventoryService {
      */
     public Product updateProduct(Long productId, UpdateProductRequest request) {
         logger.info("Actualizando producto ID: {}", productId);
+        // El guardado escribe el stock completo: volcar antes lo que tenga el libro en memoria
+        stockLedger.release(productId);
 
+        // La categoría se carga con el producto: la respuesta la incluye
         Product product =
                 productRepository
-                        .findById(productId)
+                        .findWithCategoryById(productId)
                         .orElseThrow(() -> new ProductNotFoundException(productId));
 
         // Actualizar campos
@@ -162,6 +217,7 @@ public class InventoryService {
         }
 
         Product updatedProduct = productRepository.save(product);
+        productCatalogCache.evict(updatedProduct.getCode());
         logger.info("Producto actualizado exitosamente: {}", updatedProduct.getCode());
         return updatedProduct;
     }
@@ -174,9 +230,9 @@ public class InventoryService {
      * @throws ProductNotFoundException si el producto no existe
      */
     @Transactional(readOnly = true)
-    public Product getProductById(Long productId) {
+    public ProductResponse getProductById(Long productId) {
         return productRepository
-                .findById(productId)
+                .findResponseById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId));
     }
 
@@ -188,21 +244,88 @@ public class InventoryService {
      * @throws ProductNotFoundException si el producto no existe
      */
     @Transactional(readOnly = true)
-    public Product getProductByCode(String code) {
+    public ProductResponse getProductByCode(String code) {
         return productRepository
-                .findByCode(code)
+                .findResponseByCode(code)
                 .orElseThrow(() -> new ProductNotFoundException("código", code));
     }
 
     /**
-     * Obtiene todos los productos activos con paginación.
+     * Obtiene los datos maestros de un producto por su código desde la caché de catálogo. No
+     * incluye stock, que debe consultarse siempre en el producto.
      *
-     * @param pageable Configuración de paginación
-     * @return Página de productos
+     * @param code Código del producto
+     * @return Código, nombre, precio y estado del producto
+     * @throws ProductNotFoundException si el producto no existe
+     */
+    @Transactional(readOnly = true)
+    public ProductCatalogEntry getCatalogEntryByCode(String code) {
+        return productCatalogCache
+                .getByCode(code, () -> productRepository.findCatalogEntryByCode(code))
+                .orElseThrow(() -> new ProductNotFoundException("código", code));
+    }
+
+    /**
+     * Recorre los productos activos ordenados por nombre con paginación por cursor. Cada página
+     * continúa después del último producto de la anterior, sin contar el total.
+     *
+     * @param cursor Cursor devuelto por la página anterior, nulo para la primera
+     * @param size Tamaño de página
+     * @return Página de productos con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos
      */
     @Transactional(readOnly = true)
-    public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable);
+    public CursorPage<ProductResponse> scrollProducts(String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        Slice<ProductResponse> slice;
+        if (cursor == null) {
+            slice = productRepository.findActiveOrderedByName(limit);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            slice = productRepository.findActiveAfterName(position.sortKey(), position.id(), limit);
+        }
+        return CursorPage.of(
+                slice, product -> PageCursor.encode(product.name(), product.id()));
+    }
+
+    /**
+     * Recorre los movimientos de un producto del más antiguo al más reciente con paginación por
+     * cursor, pensado para procesos de sincronización que leen el historial completo.
+     *
+     * <p>Los movimientos se confirman un tiempo después de su fecha de creación (el resto de la
+     * transacción que los registra). Para que un movimiento confirmado tarde no quede detrás de un
+     * cursor ya entregado, solo se devuelven los creados hasta {@code ahora - commit-lag}; los más
+     * recientes aparecen en lecturas posteriores con el mismo cursor.
+     *
+     * @param productId ID del producto
+     * @param cursor Cursor devuelto por la página anterior, nulo para la primera
+     * @param size Tamaño de página
+     * @return Página de movimientos con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InventoryMovementResponse> scrollProductMovements(
+            Long productId, String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        LocalDateTime settledBefore =
+                LocalDateTime.now().minus(inventoryProperties.movements().commitLag());
+        Slice<InventoryMovementResponse> slice;
+        if (cursor == null) {
+            slice =
+                    inventoryMovementRepository.findOldestByProductId(
+                            productId, settledBefore, limit);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            slice =
+                    inventoryMovementRepository.findByProductIdAfterCreatedAt(
+                            productId,
+                            position.sortKeyAsDateTime(),
+                            position.id(),
+                            settledBefore,
+                            limit);
+        }
+        return CursorPage.of(
+                slice, movement -> PageCursor.encode(movement.createdAt(), movement.id()));
     }
 
     /**
@@ -213,6 +336,7 @@ public class InventoryService {
      */
     public void deleteProduct(Long productId) {
         logger.info("Eliminando producto ID: {}", productId);
+        stockLedger.release(productId);
 
         Product product =
                 productRepository
@@ -221,6 +345,7 @@ public class InventoryService {
 
         product.setActive(false);
         productRepository.save(product);
+        productCatalogCache.evict(product.getCode());
 
         logger.info("Producto eliminado (desactivado): {}", product.getCode());
     }
@@ -240,6 +365,7 @@ public class InventoryService {
                 "Incrementando stock del producto ID: {} en {} unidades",
                 productId,
                 request.getQuantity());
+        stockLedger.release(productId);
 
         Product product =
                 productRepository
@@ -280,6 +406,7 @@ public class InventoryService {
                 "Decrementando stock del producto ID: {} en {} unidades",
                 productId,
                 request.getQuantity());
+        stockLedger.release(productId);
 
         Product product =
                 productRepository
@@ -291,7 +418,7 @@ public class InventoryService {
             throw new InsufficientStockException(
                     product.getId(),
                     product.getCode(),
-                    product.getCurrentStock(),
+                    product.getAvailableStock(),
                     request.getQuantity());
         }
 
@@ -325,6 +452,7 @@ public class InventoryService {
      */
     public InventoryMovement adjustStock(Long productId, Integer newStock, String notes) {
         logger.info("Ajustando stock del producto ID: {} a {} unidades", productId, newStock);
+        stockLedger.release(productId);
 
         Product product =
                 productRepository
@@ -369,60 +497,106 @@ public class InventoryService {
      * Busca productos por diferentes criterios. Requerimiento 1.3: Consultar productos por código,
      * nombre o categoría
      *
+     * <p>Todos los criterios informados se combinan en una sola consulta paginada, que carga
+     * también la categoría; el orden solicitado se completa con el ID para que las páginas sean
+     * estables. Al incluir subcategorías, los IDs del subárbol salen del árbol en memoria y la
+     * consulta sigue siendo una sola.
+     *
      * @param criteria Criterios de búsqueda
      * @param pageable Configuración de paginación
      * @return Página de productos que coinciden con los criterios
+     * @throws IllegalArgumentException si se ordena por una propiedad no permitida
      */
     @Transactional(readOnly = true)
-    public Page<Product> searchProducts(ProductSearchCriteria criteria, Pageable pageable) {
+    public Page<ProductResponse> searchProducts(
+            ProductSearchCriteria criteria, Pageable pageable) {
         logger.debug("Buscando productos con criterios: {}", criteria);
 
-        // Si no hay criterios específicos, retornar productos activos
-        if (isEmptyCriteria(criteria)) {
-            return productRepository.findByActiveTrue(pageable);
+        Pageable stable = ProductSpecifications.withStableSort(pageable);
+        List<Long> categoryIds = null;
+        if (criteria.getCategoryId() != null) {
+            categoryIds =
+                    Boolean.TRUE.equals(criteria.getIncludeSubcategories())
+                            ? categoryTreeCache.getSubtreeIds(criteria.getCategoryId())
+                            : List.of(criteria.getCategoryId());
         }
-
-        // Implementar búsqueda básica por nombre
-        if (criteria.getName() != null && !criteria.getName().trim().isEmpty()) {
-            return productRepository.findByNameContainingIgnoreCase(
-                    criteria.getName().trim(), pageable);
-        }
-
-        // Para criterios más complejos, usar método personalizado
-        return searchProductsWithComplexCriteria(criteria, pageable);
+        return productRepository
+                .findAll(ProductSpecifications.matching(criteria, categoryIds), stable)
+                .map(ProductResponse::from);
     }
 
     /**
-     * Busca productos por nombre. Requerimiento 1.3: Consultar productos por nombre
+     * Busca productos activos por texto, ordenados por relevancia.
+     *
+     * <p>En modo {@link ProductSearchMode#CONTAINS} busca el texto como subcadena del nombre o el
+     * código; en modo {@link ProductSearchMode#FULL_TEXT} busca todas las palabras en el nombre o
+     * la descripción, y la última como prefijo para búsquedas mientras se escribe. Ambos modos
+     * usan índices GIN, por lo que su costo no crece con el tamaño del catálogo. En esquemas sin
+     * esos índices ({@link InventoryProperties.Search#databaseIndexes()}) se buscan las mismas
+     * subcadenas con LIKE, ordenadas por nombre.
      *
-     * @param name Nombre o parte del nombre del producto
-     * @return Lista de productos que coinciden
+     * @param text Texto buscado
+     * @param mode Modo de búsqueda
+     * @param pageable Configuración de paginación; el orden es siempre por relevancia
+     * @return Página de productos que coinciden
+     * @throws IllegalArgumentException si el texto no contiene términos de búsqueda
      */
     @Transactional(readOnly = true)
-    public List<Product> findProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    public Page<ProductResponse> searchProductsByText(
+            String text, ProductSearchMode mode, Pageable pageable) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda es obligatorio");
+        }
+        if (!inventoryProperties.search().databaseIndexes()) {
+            return searchProductsByLike(text, mode, pageable);
+        }
+        Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        Page<Long> ids;
+        if (mode == ProductSearchMode.FULL_TEXT) {
+            ids = productRepository.searchByFullText(toPrefixTsQuery(text), byRelevance);
+        } else {
+            String term = text.trim().toLowerCase(Locale.ROOT);
+            ids =
+                    productRepository.searchByTrigram(
+                            term, ProductSpecifications.containsPattern(text), byRelevance);
+        }
+        return inRelevanceOrder(ids);
     }
 
-    /**
-     * Busca productos por código. Requerimiento 1.3: Consultar productos por código
-     *
-     * @param code Código o parte del código del producto
-     * @return Lista de productos que coinciden
-     */
-    @Transactional(readOnly = true)
-    public List<Product> findProductsByCode(String code) {
-        return productRepository.findByCodeContainingIgnoreCase(code);
+    /** Búsqueda por texto sin los índices de V10: compara subcadenas y ordena por nombre. */
+    private Page<ProductResponse> searchProductsByLike(
+            String text, ProductSearchMode mode, Pageable pageable) {
+        Specification<Product> specification =
+                mode == ProductSearchMode.FULL_TEXT
+                        ? ProductSpecifications.containingAll(
+                                searchTerms(text), "name", "description")
+                        : ProductSpecifications.containingAll(List.of(text), "name", "code");
+        Pageable byName =
+                PageRequest.of(
+                        pageable.getPageNumber(), pageable.getPageSize(), Sort.by("name", "id"));
+        return productRepository.findAll(specification, byName).map(ProductResponse::from);
+    }
+
+    /** Lee los productos de una página de IDs en una sola consulta, conservando su orden. */
+    private Page<ProductResponse> inRelevanceOrder(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, ProductResponse> byId = new HashMap<>();
+        for (ProductResponse product : productRepository.findResponsesByIdIn(ids.getContent())) {
+            byId.put(product.id(), product);
+        }
+        return ids.map(byId::get);
     }
 
     /**
-     * Busca productos por categoría. Requerimiento 1.3: Consultar productos por categoría
+     * Obtiene el árbol de categorías desde memoria.
      *
-     * @param categoryId ID de la categoría
-     * @return Lista de productos de la categoría
+     * @return Categorías raíz con todas sus subcategorías
      */
-    @Transactional(readOnly = true)
-    public List<Product> findProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryId(categoryId);
+    public List<CategoryTreeNode> getCategoryTree() {
+        return categoryTreeCache.getRoots();
     }
 
     /**
@@ -431,7 +605,7 @@ public class InventoryService {
      * @return Lista de productos con stock menor o igual al mínimo
      */
     @Transactional(readOnly = true)
-    public List<Product> getLowStockProducts() {
+    public List<ProductResponse> getLowStockProducts() {
         return productRepository.findLowStockProducts();
     }
 
@@ -441,7 +615,7 @@ public class InventoryService {
      * @return Lista de productos con stock cero
      */
     @Transactional(readOnly = true)
-    public List<Product> getOutOfStockProducts() {
+    public List<ProductResponse> getOutOfStockProducts() {
         return productRepository.findOutOfStockProducts();
     }
 
@@ -451,7 +625,7 @@ public class InventoryService {
      * @return Lista de productos con stock mayor al máximo
      */
     @Transactional(readOnly = true)
-    public List<Product> getOverStockProducts() {
+    public List<ProductResponse> getOverStockProducts() {
         return productRepository.findOverStockProducts();
     }
 
@@ -463,7 +637,8 @@ public class InventoryService {
      * @return Lista de productos en el rango de precios
      */
     @Transactional(readOnly = true)
-    public List<Product> findProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+    public List<ProductResponse> findProductsByPriceRange(
+            BigDecimal minPrice, BigDecimal maxPrice) {
         return productRepository.findProductsByPriceRange(minPrice, maxPrice);
     }
 
@@ -475,7 +650,7 @@ public class InventoryService {
      * @return Lista de productos en el rango de stock
      */
     @Transactional(readOnly = true)
-    public List<Product> findProductsByStockRange(Integer minStock, Integer maxStock) {
+    public List<ProductResponse> findProductsByStockRange(Integer minStock, Integer maxStock) {
         return productRepository.findProductsByStockRange(minStock, maxStock);
     }
 
@@ -489,18 +664,223 @@ public class InventoryService {
      * disponible es insuficiente - 2.4: Registrar cada movimiento de salida con timestamp,
      * producto, cantidad y sistema origen
      *
+     * <p>Por defecto el descuento se resuelve con un único UPDATE condicional, evitando la lectura
+     * previa del producto y la ventana entre validación y escritura.
+     *
+     * <p>Si la solicitud trae clave de idempotencia, un reintento con la misma clave devuelve la
+     * respuesta original sin volver a descontar stock.
+     *
      * @param request Solicitud de descuento de stock desde sistema externo
      * @return Respuesta con detalles del descuento realizado
      * @throws ProductNotFoundException si el producto no existe
      * @throws InsufficientStockException si no hay suficiente stock
+     * @throws IdempotencyKeyConflictException si la clave se usó con otra solicitud
      */
     public ExternalStockDeductionResponse deductStockForExternalSystem(
             ExternalStockDeductionRequest request) {
+        return idempotencyService.execute(
+                request.getIdempotencyKey(),
+                STOCK_DEDUCTION_SCOPE,
+                request,
+                ExternalStockDeductionResponse.class,
+                () -> applyExternalStockDeduction(request));
+    }
+
+    /**
+     * Descuenta stock para todas las líneas de una factura de un sistema externo en una sola
+     * transacción. Si alguna línea no puede aplicarse no se descuenta ninguna.
+     *
+     * <p>Los productos se resuelven y bloquean con una única consulta ordenada por ID, y los
+     * movimientos de salida se insertan en un único batch JDBC. Admite clave de idempotencia igual
+     * que el descuento individual.
+     *
+     * @param request Factura con las líneas a descontar
+     * @return Resultado por línea con la misma forma que el descuento individual
+     * @throws ProductNotFoundException si algún producto no existe o está inactivo
+     * @throws InsufficientStockException si alguna línea no tiene stock suficiente
+     * @throws IdempotencyKeyConflictException si la clave se usó con otra solicitud
+     */
+    public ExternalInvoiceDeductionResponse deductInvoiceForExternalSystem(
+            ExternalInvoiceDeductionRequest request) {
+        return idempotencyService.execute(
+                request.getIdempotencyKey(),
+                INVOICE_DEDUCTION_SCOPE,
+                request,
+                ExternalInvoiceDeductionResponse.class,
+                () -> applyExternalInvoiceDeduction(request));
+    }
+
+    // ========== Helper Methods ==========
+    private ExternalStockDeductionResponse applyExternalStockDeduction(
+            ExternalStockDeductionRequest request) {
         logger.info(
                 "Procesando descuento de stock externo para producto: {} desde sistema: {}",
                 request.getProductCode(),
                 request.getSourceSystem());
 
+        if (inventoryProperties.deduction().mode() == DeductionMode.ENTITY) {
+            return deductStockLoadingEntity(request);
+        }
+
+        // Productos con alta frecuencia de descuentos se descuentan en memoria
+        Optional<ExternalStockDeductionResponse> ledgerResponse = deductFromLedger(request);
+        if (ledgerResponse.isPresent()) {
+            return ledgerResponse.get();
+        }
+
+        // Validar y reducir stock en una sola sentencia (Requerimientos 2.2 y 2.3)
+        Optional<StockDeductionResult> deducted =
+                productRepository.deductStockByCode(
+                        request.getProductCode(), request.getQuantity());
+        if (deducted.isEmpty()) {
+            Product product = findActiveProductByCode(request.getProductCode());
+            if (Boolean.TRUE.equals(product.getLedgerOwned())) {
+                // El libro tomó el producto entre ambas comprobaciones
+                ledgerResponse = deductFromLedger(request);
+                if (ledgerResponse.isPresent()) {
+                    return ledgerResponse.get();
+                }
+                deducted =
+                        productRepository.deductStockByCode(
+                                request.getProductCode(), request.getQuantity());
+            }
+            if (deducted.isEmpty()) {
+                throw new InsufficientStockException(
+                        product.getId(),
+                        product.getCode(),
+                        product.getAvailableStock(),
+                        request.getQuantity());
+            }
+        }
+
+        StockDeductionResult result = deducted.get();
+        stockLedger.recordDeduction(result.getId(), result.getCode(), result.getName());
+        Integer previousStock = result.getCurrentStock() + request.getQuantity();
+
+        // Registrar movimiento de inventario sin volver a cargar el producto (Requerimiento 2.4)
+        InventoryMovement movement =
+                createExternalDeductionMovement(
+                        productRepository.getReferenceById(result.getId()), request);
+
+        logger.info(
+                "Stock deducido exitosamente para producto: {}. Stock anterior: {}, nuevo stock: {}",
+                result.getCode(),
+                previousStock,
+                result.getCurrentStock());
+
+        return ExternalStockDeductionResponse.success(
+                result.getCode(),
+                result.getName(),
+                request.getQuantity(),
+                previousStock,
+                result.getCurrentStock(),
+                movement.getSourceSystem(),
+                movement.getCreatedAt(),
+                movement.getId());
+    }
+
+    private ExternalInvoiceDeductionResponse applyExternalInvoiceDeduction(
+            ExternalInvoiceDeductionRequest request) {
+        logger.info(
+                "Procesando descuento de factura: {} con {} líneas desde sistema: {}",
+                request.getInvoiceNumber(),
+                request.getLines().size(),
+                request.getSourceSystem());
+
+        // Agrupar cantidades por código: una factura puede repetir un producto en varias líneas
+        Map<String, Integer> requestedByCode = new LinkedHashMap<>();
+        for (ExternalStockDeductionRequest line : request.getLines()) {
+            requestedByCode.merge(line.getProductCode(), line.getQuantity(), Integer::sum);
+        }
+
+        // Resolver y bloquear todos los productos con una sola consulta
+        stockLedger.release(requestedByCode.keySet());
+        Map<String, Product> productsByCode = new HashMap<>();
+        for (Product product : productRepository.findByCodeInForUpdate(requestedByCode.keySet())) {
+            productsByCode.put(product.getCode(), product);
+        }
+
+        // Validar la factura completa antes de modificar cualquier producto
+        requestedByCode.forEach(
+                (code, quantity) -> {
+                    Product product = productsByCode.get(code);
+                    if (product == null || !product.getActive()) {
+                        throw new ProductNotFoundException("código", code);
+                    }
+                    if (!product.hasAvailableStock(quantity)) {
+                        throw new InsufficientStockException(
+                                product.getId(), code, product.getAvailableStock(), quantity);
+                    }
+                });
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        User currentUser = currentUserProvider.getCurrentUser().orElse(null);
+        String invoiceSourceSystem =
+                Objects.requireNonNullElse(request.getSourceSystem(), "EXTERNAL_BILLING");
+        String invoiceNotes =
+                Objects.requireNonNullElse(
+                        request.getNotes(),
+                        "Factura " + request.getInvoiceNumber() + " desde sistema de facturación");
+
+        List<InventoryMovement> movements = new ArrayList<>(request.getLines().size());
+        List<Integer> previousStocks = new ArrayList<>(request.getLines().size());
+        for (ExternalStockDeductionRequest line : request.getLines()) {
+            Product product = productsByCode.get(line.getProductCode());
+            previousStocks.add(product.getCurrentStock());
+            product.decreaseStock(line.getQuantity());
+
+            InventoryMovement movement =
+                    new InventoryMovement(
+                            product,
+                            MovementType.OUT,
+                            line.getQuantity(),
+                            InventoryMovement.ReferenceType.SALE,
+                            null,
+                            currentUser);
+            movement.setSourceSystem(
+                    Objects.requireNonNullElse(line.getSourceSystem(), invoiceSourceSystem));
+            movement.setNotes(Objects.requireNonNullElse(line.getNotes(), invoiceNotes));
+            movement.setCreatedAt(timestamp);
+            movements.add(movement);
+        }
+
+        // Los productos bloqueados se actualizan al confirmar la transacción
+        inventoryMovementRepository.insertAll(movements);
+
+        List<ExternalStockDeductionResponse> lines = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            InventoryMovement movement = movements.get(i);
+            Product product = movement.getProduct();
+            lines.add(
+                    ExternalStockDeductionResponse.success(
+                            product.getCode(),
+                            product.getName(),
+                            movement.getQuantity(),
+                            previousStocks.get(i),
+                            previousStocks.get(i) - movement.getQuantity(),
+                            movement.getSourceSystem(),
+                            movement.getCreatedAt(),
+                            movement.getId()));
+        }
+
+        logger.info(
+                "Factura {} descontada exitosamente: {} líneas, {} productos",
+                request.getInvoiceNumber(),
+                lines.size(),
+                productsByCode.size());
+
+        return ExternalInvoiceDeductionResponse.success(
+                request.getInvoiceNumber(), timestamp, lines);
+    }
+
+    /**
+     * Descuento de stock cargando la entidad y validando en memoria. Se conserva como alternativa
+     * configurable al descuento atómico.
+     */
+    private ExternalStockDeductionResponse deductStockLoadingEntity(
+            ExternalStockDeductionRequest request) {
+        stockLedger.release(List.of(request.getProductCode()));
+
         // Buscar producto por código (Requerimiento 2.1)
         Product product =
                 productRepository
@@ -523,7 +903,7 @@ public class InventoryService {
             throw new InsufficientStockException(
                     product.getId(),
                     product.getCode(),
-                    product.getCurrentStock(),
+                    product.getAvailableStock(),
                     request.getQuantity());
         }
 
@@ -532,19 +912,7 @@ public class InventoryService {
         productRepository.save(product);
 
         // Registrar movimiento de inventario (Requerimiento 2.4)
-        InventoryMovement movement =
-                createInventoryMovement(
-                        product,
-                        MovementType.OUT,
-                        request.getQuantity(),
-                        InventoryMovement.ReferenceType.SALE,
-                        null,
-                        request.getSourceSystem() != null
-                                ? request.getSourceSystem()
-                                : "EXTERNAL_BILLING",
-                        request.getNotes() != null
-                                ? request.getNotes()
-                                : "Descuento desde sistema de facturación externo");
+        InventoryMovement movement = createExternalDeductionMovement(product, request);
 
         logger.info(
                 "Stock deducido exitosamente para producto: {}. Stock anterior: {}, nuevo stock: {}",
@@ -564,9 +932,69 @@ public class InventoryService {
                 movement.getId());
     }
 
-    // ========== Helper Methods ==========
     /**
-     * Crea un movimiento de inventario.
+     * Obtiene el producto de un descuento atómico rechazado para determinar el motivo. Solo se
+     * ejecuta en el camino de error, por lo que la lectura adicional no afecta a los descuentos
+     * exitosos.
+     */
+    private Product findActiveProductByCode(String productCode) {
+        return productRepository
+                .findByCode(productCode)
+                .filter(Product::getActive)
+                .orElseThrow(() -> new ProductNotFoundException("código", productCode));
+    }
+
+    /**
+     * Descuenta del libro de stock en memoria si el producto está gestionado por él. El movimiento
+     * se inserta en esta transacción, igual que la clave de idempotencia.
+     */
+    private Optional<ExternalStockDeductionResponse> deductFromLedger(
+            ExternalStockDeductionRequest request) {
+        return stockLedger
+                .tryDeduct(
+                        request.getProductCode(),
+                        request.getQuantity(),
+                        productId ->
+                                createExternalDeductionMovement(
+                                        productRepository.getReferenceById(productId), request))
+                .map(
+                        deduction ->
+                                ExternalStockDeductionResponse.success(
+                                        deduction.productCode(),
+                                        deduction.productName(),
+                                        deduction.quantity(),
+                                        deduction.previousStock(),
+                                        deduction.currentStock(),
+                                        deduction.movement().getSourceSystem(),
+                                        deduction.movement().getCreatedAt(),
+                                        deduction.movement().getId()));
+    }
+
+    /** Registra el movimiento de salida asociado a un descuento desde un sistema externo. */
+    private InventoryMovement createExternalDeductionMovement(
+            Product product, ExternalStockDeductionRequest request) {
+        return createInventoryMovement(
+                product,
+                MovementType.OUT,
+                request.getQuantity(),
+                InventoryMovement.ReferenceType.SALE,
+                null,
+                externalSourceSystem(request),
+                externalDeductionNotes(request));
+    }
+
+    private static String externalSourceSystem(ExternalStockDeductionRequest request) {
+        return request.getSourceSystem() != null ? request.getSourceSystem() : "EXTERNAL_BILLING";
+    }
+
+    private static String externalDeductionNotes(ExternalStockDeductionRequest request) {
+        return request.getNotes() != null
+                ? request.getNotes()
+                : "Descuento desde sistema de facturación externo";
+    }
+
+    /**
+     * Crea un movimiento de inventario a través del escritor de movimientos.
      *
      * @param product Producto
      * @param movementType Tipo de movimiento
@@ -585,6 +1013,48 @@ public class InventoryService {
             Long referenceId,
             String sourceSystem,
             String notes) {
+        return movementWriter.write(
+                buildInventoryMovement(
+                        product,
+                        movementType,
+                        quantity,
+                        referenceType,
+                        referenceId,
+                        sourceSystem,
+                        notes));
+    }
+
+    /**
+     * Convierte texto libre en una consulta {@code to_tsquery} con todas las palabras requeridas y
+     * la última como prefijo. Descarta la puntuación para que la entrada del usuario no pueda
+     * alterar la sintaxis de la consulta.
+     */
+    static String toPrefixTsQuery(String text) {
+        return String.join(" & ", searchTerms(text)) + ":*";
+    }
+
+    /** Palabras del texto en minúsculas, sin signos ni operadores. */
+    private static List<String> searchTerms(String text) {
+        List<String> terms =
+                Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+                        .filter(term -> !term.isEmpty())
+                        .toList();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "El texto de búsqueda no contiene palabras: " + text);
+        }
+        return terms;
+    }
+
+    /** Construye un movimiento de inventario asociado al usuario actual, sin persistirlo. */
+    private InventoryMovement buildInventoryMovement(
+            Product product,
+            MovementType movementType,
+            Integer quantity,
+            InventoryMovement.ReferenceType referenceType,
+            Long referenceId,
+            String sourceSystem,
+            String notes) {
 
         InventoryMovement movement = new InventoryMovement();
         movement.setProduct(product);
@@ -596,59 +1066,8 @@ public class InventoryService {
         movement.setNotes(notes);
 
         // Obtener usuario actual si está disponible
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getName() != null) {
-                Optional<User> user = userRepository.findByUsername(authentication.getName());
-                user.ifPresent(movement::setCreatedBy);
-            }
-        } catch (Exception e) {
-            logger.debug(
-                    "No se pudo obtener el usuario actual para el movimiento de inventario", e);
-        }
-
-        return inventoryMovementRepository.save(movement);
-    }
+        currentUserProvider.getCurrentUser().ifPresent(movement::setCreatedBy);
 
-    /** Verifica si los criterios de búsqueda están vacíos. */
-    private boolean isEmptyCriteria(ProductSearchCriteria criteria) {
-        return criteria.getCode() == null
-                && criteria.getName() == null
-                && criteria.getCategoryId() == null
-                && criteria.getMinPrice() == null
-                && criteria.getMaxPrice() == null
-                && criteria.getMinStock() == null
-                && criteria.getMaxStock() == null
-                && criteria.getLowStock() == null
-                && criteria.getOutOfStock() == null;
-    }
-
-    /**
-     * Implementa búsqueda con criterios complejos. Esta es una implementación básica que puede
-     * expandirse según necesidades.
-     */
-    private Page<Product> searchProductsWithComplexCriteria(
-            ProductSearchCriteria criteria, Pageable pageable) {
-        // Implementación básica - puede expandirse con Specifications o Criteria API
-
-        if (criteria.getLowStock() != null && criteria.getLowStock()) {
-            // Para low stock, retornamos productos activos ya que no hay paginación específica
-            return productRepository.findByActiveTrue(pageable);
-        } else if (criteria.getOutOfStock() != null && criteria.getOutOfStock()) {
-            // Para out of stock, retornamos productos activos ya que no hay paginación específica
-            return productRepository.findByActiveTrue(pageable);
-        } else if (criteria.getCategoryId() != null) {
-            // Buscar por categoría con paginación
-            Category category = categoryRepository.findById(criteria.getCategoryId()).orElse(null);
-            if (category != null) {
-                return productRepository.findByCategoryAndActiveTrue(category, pageable);
-            }
-        } else if (criteria.getCode() != null) {
-            // Para búsqueda por código, usar búsqueda por nombre como fallback con paginación
-            return productRepository.findByNameContainingIgnoreCase(criteria.getCode(), pageable);
-        }
-
-        // Fallback a productos activos
-        return productRepository.findByActiveTrue(pageable);
+        return movement;
     }
 }
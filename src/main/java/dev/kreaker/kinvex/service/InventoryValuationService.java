@@ -0,0 +1,131 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.InventoryValuationResponse;
+import dev.kreaker.kinvex.dto.inventory.InventoryValuationResponse.CategoryValuationResponse;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.projection.CategoryValuation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Valoración del inventario a partir de los agregados incrementales de {@code
+ * inventory_valuation}.
+ *
+ * <p>Un trigger sobre {@code products} aplica a los agregados la diferencia de cada cambio de
+ * stock, precio, categoría o estado, en la misma transacción que el cambio; las consultas solo
+ * suman unas pocas filas por categoría, sin importar la cantidad de productos. Una verificación
+ * periódica recalcula los agregados desde los productos y los reemplaza si encuentra diferencias.
+ *
+ * <p>El trigger solo existe en esquemas migrados con Flyway. Sin él ({@code
+ * app.inventory.aggregates.database-triggers=false}) la valoración se calcula recorriendo los
+ * productos activos y la verificación no se ejecuta.
+ */
+@Service
+public class InventoryValuationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryValuationService.class);
+
+    private final ProductRepository productRepository;
+    private final boolean databaseTriggers;
+    private final TransactionTemplate verificationTransaction;
+    private final Counter driftCounter;
+
+    public InventoryValuationService(
+            ProductRepository productRepository,
+            InventoryProperties inventoryProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.databaseTriggers = inventoryProperties.aggregates().databaseTriggers();
+        this.verificationTransaction = new TransactionTemplate(transactionManager);
+        this.driftCounter =
+                Counter.builder("kinvex.inventory.valuation.drift")
+                        .description("Valuation rows that differed from a full recomputation")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Obtiene la valoración actual de los productos activos, total y por categoría.
+     *
+     * @return Valoración del inventario
+     */
+    @Transactional(readOnly = true)
+    public InventoryValuationResponse getValuation() {
+        List<CategoryValuation> valuations =
+                databaseTriggers
+                        ? productRepository.findInventoryStatsByCategory()
+                        : productRepository.aggregateInventoryStatsByCategory();
+        List<CategoryValuationResponse> categories =
+                valuations.stream().map(InventoryValuationService::toResponse).toList();
+
+        long productCount = 0;
+        long totalUnits = 0;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (CategoryValuationResponse category : categories) {
+            productCount += category.productCount();
+            totalUnits += category.totalUnits();
+            totalValue = totalValue.add(category.totalValue());
+        }
+        return new InventoryValuationResponse(productCount, totalUnits, totalValue, categories);
+    }
+
+    /**
+     * Compara los agregados con un recálculo completo desde los productos y, si difieren, los
+     * reemplaza. Durante la verificación los cambios de productos esperan al bloqueo de los
+     * agregados, para que el recálculo y el reemplazo vean el mismo estado.
+     *
+     * @return Filas de agregados que no coincidían con el recálculo
+     */
+    @Scheduled(cron = "${app.inventory.valuation.verify-cron:0 45 3 * * *}")
+    public long verifyValuation() {
+        if (!databaseTriggers) {
+            logger.debug("Valoración sin trigger de base de datos; no hay agregados que verificar");
+            return 0;
+        }
+        Long drift =
+                verificationTransaction.execute(
+                        status -> {
+                            productRepository.lockInventoryValuation();
+                            long rows = productRepository.countInventoryValuationDrift();
+                            if (rows > 0) {
+                                productRepository.clearInventoryValuation();
+                                productRepository.rebuildInventoryValuation();
+                            }
+                            return rows;
+                        });
+        long rows = drift != null ? drift : 0;
+        if (rows > 0) {
+            driftCounter.increment(rows);
+            logger.warn("Valoración de inventario corregida: {} filas no coincidían", rows);
+        } else {
+            logger.info("Valoración de inventario verificada sin diferencias");
+        }
+        return rows;
+    }
+
+    private static CategoryValuationResponse toResponse(CategoryValuation valuation) {
+        long productCount = valuation.getProductCount();
+        long totalUnits = valuation.getTotalUnits();
+        BigDecimal averageStock =
+                BigDecimal.valueOf(totalUnits)
+                        .divide(BigDecimal.valueOf(productCount), 2, RoundingMode.HALF_UP);
+        return new CategoryValuationResponse(
+                valuation.getCategoryId(),
+                valuation.getCategoryName(),
+                productCount,
+                totalUnits,
+                averageStock,
+                valuation.getTotalValue());
+    }
+}
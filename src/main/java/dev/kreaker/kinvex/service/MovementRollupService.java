@@ -0,0 +1,102 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.repository.MovementRollupDailyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verificación de los totales diarios de movimientos de {@code movement_rollup_daily}.
+ *
+ * <p>Los triggers de {@code inventory_movements} mantienen los totales en la misma transacción que
+ * cada movimiento. Una verificación periódica recalcula los últimos días desde los movimientos y
+ * los reemplaza si encuentra diferencias; los días anteriores solo cambian si se modifican
+ * movimientos antiguos, y pueden recalcularse con {@link #verifyRollup(LocalDate, LocalDate)}.
+ *
+ * <p>Sin los triggers ({@link InventoryProperties.Aggregates#databaseTriggers()}) la tabla no se
+ * mantiene y los reportes leen los movimientos, por lo que no hay nada que verificar.
+ */
+@Service
+public class MovementRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovementRollupService.class);
+
+    /** Días verificados por la tarea periódica, incluido el actual. */
+    static final int VERIFY_DAYS = 7;
+
+    private final MovementRollupDailyRepository rollupRepository;
+    private final boolean databaseTriggers;
+    private final TransactionTemplate verificationTransaction;
+    private final Counter driftCounter;
+
+    public MovementRollupService(
+            MovementRollupDailyRepository rollupRepository,
+            InventoryProperties inventoryProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.databaseTriggers = inventoryProperties.aggregates().databaseTriggers();
+        this.verificationTransaction = new TransactionTemplate(transactionManager);
+        this.driftCounter =
+                Counter.builder("kinvex.movements.rollup.drift")
+                        .description("Movement rollup rows that differed from a recomputation")
+                        .register(meterRegistry);
+    }
+
+    /** Verifica los totales de los últimos días. */
+    @Scheduled(cron = "${app.inventory.movement-rollup.verify-cron:0 30 3 * * *}")
+    public long verifyRecentRollup() {
+        LocalDate today = LocalDate.now();
+        return verifyRollup(today.minusDays(VERIFY_DAYS - 1), today);
+    }
+
+    /**
+     * Compara los totales de los días indicados con un recálculo desde los movimientos y, si
+     * difieren, los reemplaza. Durante la verificación las escrituras de movimientos esperan al
+     * bloqueo de los totales, para que el recálculo y el reemplazo vean el mismo estado.
+     *
+     * @param startDate Primer día a verificar
+     * @param endDate Último día a verificar, incluido
+     * @return Filas de totales que no coincidían con el recálculo; 0 sin triggers
+     */
+    public long verifyRollup(LocalDate startDate, LocalDate endDate) {
+        if (!databaseTriggers) {
+            logger.debug("Totales diarios sin triggers de base de datos; nada que verificar");
+            return 0;
+        }
+        Long drift =
+                verificationTransaction.execute(
+                        status -> {
+                            rollupRepository.lockRollup();
+                            long rows = rollupRepository.countRollupDrift(startDate, endDate);
+                            if (rows > 0) {
+                                rollupRepository.clearRollup(startDate, endDate);
+                                rollupRepository.rebuildRollup(startDate, endDate);
+                            }
+                            return rows;
+                        });
+        long rows = drift != null ? drift : 0;
+        if (rows > 0) {
+            driftCounter.increment(rows);
+            logger.warn(
+                    "Totales diarios de movimientos corregidos entre {} y {}: {} filas no "
+                            + "coincidían",
+                    startDate,
+                    endDate,
+                    rows);
+        } else {
+            logger.info(
+                    "Totales diarios de movimientos verificados sin diferencias entre {} y {}",
+                    startDate,
+                    endDate);
+        }
+        return rows;
+    }
+}
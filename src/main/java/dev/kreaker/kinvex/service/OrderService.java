@@ -4,8 +4,12 @@ import dev.kreaker.kinvex.dto.order.CreateOrderRequest;
 import dev.kreaker.kinvex.dto.order.OrderDetailReceiptRequest;
 import dev.kreaker.kinvex.dto.order.OrderDetailReceiptResponse;
 import dev.kreaker.kinvex.dto.order.OrderReceiptResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderSummary;
 import dev.kreaker.kinvex.dto.order.ReceiveOrderRequest;
 import dev.kreaker.kinvex.dto.order.UpdateOrderStatusRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
+import dev.kreaker.kinvex.dto.pagination.PageCursor;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.OrderDetail;
 import dev.kreaker.kinvex.entity.Product;
@@ -19,22 +23,19 @@ import dev.kreaker.kinvex.exception.OrderNotFoundException;
 import dev.kreaker.kinvex.exception.OrderStateConflictException;
 import dev.kreaker.kinvex.exception.ProductNotFoundException;
 import dev.kreaker.kinvex.exception.SupplierNotFoundException;
-import dev.kreaker.kinvex.repository.InventoryMovementRepository;
 import dev.kreaker.kinvex.repository.OrderDetailRepository;
 import dev.kreaker.kinvex.repository.ProductRepository;
 import dev.kreaker.kinvex.repository.PurchaseOrderRepository;
 import dev.kreaker.kinvex.repository.SupplierRepository;
-import dev.kreaker.kinvex.repository.UserRepository;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -57,22 +58,25 @@ public class OrderService {
     private final OrderDetailRepository orderDetailRepository;
     private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
-    private final InventoryMovementRepository inventoryMovementRepository;
-    private final UserRepository userRepository;
+    private final InventoryMovementWriter movementWriter;
+    private final CurrentUserProvider currentUserProvider;
+    private final StockLedger stockLedger;
 
     public OrderService(
             PurchaseOrderRepository purchaseOrderRepository,
             OrderDetailRepository orderDetailRepository,
             SupplierRepository supplierRepository,
             ProductRepository productRepository,
-            InventoryMovementRepository inventoryMovementRepository,
-            UserRepository userRepository) {
+            InventoryMovementWriter movementWriter,
+            CurrentUserProvider currentUserProvider,
+            StockLedger stockLedger) {
         this.purchaseOrderRepository = purchaseOrderRepository;
         this.orderDetailRepository = orderDetailRepository;
         this.supplierRepository = supplierRepository;
         this.productRepository = productRepository;
-        this.inventoryMovementRepository = inventoryMovementRepository;
-        this.userRepository = userRepository;
+        this.movementWriter = movementWriter;
+        this.currentUserProvider = currentUserProvider;
+        this.stockLedger = stockLedger;
     }
 
     // ========== CRUD Operations ==========
@@ -107,7 +111,7 @@ public class OrderService {
         }
 
         // Obtener usuario actual
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser().orElse(null);
 
         // Crear orden de compra
         PurchaseOrder order =
@@ -171,9 +175,10 @@ public class OrderService {
      * @throws OrderNotFoundException si la orden no existe
      */
     @Transactional(readOnly = true)
-    public PurchaseOrder getOrderById(Long orderId) {
+    public PurchaseOrderResponse getOrderById(Long orderId) {
         return purchaseOrderRepository
-                .findById(orderId)
+                .findDetailedById(orderId)
+                .map(PurchaseOrderResponse::from)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
     }
 
@@ -185,9 +190,10 @@ public class OrderService {
      * @throws OrderNotFoundException si la orden no existe
      */
     @Transactional(readOnly = true)
-    public PurchaseOrder getOrderByNumber(String orderNumber) {
+    public PurchaseOrderResponse getOrderByNumber(String orderNumber) {
         return purchaseOrderRepository
-                .findByOrderNumber(orderNumber)
+                .findDetailedByOrderNumber(orderNumber)
+                .map(PurchaseOrderResponse::from)
                 .orElseThrow(() -> new OrderNotFoundException(orderNumber));
     }
 
@@ -198,8 +204,8 @@ public class OrderService {
      * @return Página de órdenes de compra
      */
     @Transactional(readOnly = true)
-    public Page<PurchaseOrder> getAllOrders(Pageable pageable) {
-        return purchaseOrderRepository.findAll(pageable);
+    public Page<PurchaseOrderSummary> getAllOrders(Pageable pageable) {
+        return purchaseOrderRepository.findAllSummaries(pageable);
     }
 
     /**
@@ -210,8 +216,42 @@ public class OrderService {
      * @return Página de órdenes con el estado especificado
      */
     @Transactional(readOnly = true)
-    public Page<PurchaseOrder> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return purchaseOrderRepository.findByStatus(status, pageable);
+    public Page<PurchaseOrderSummary> getOrdersByStatus(OrderStatus status, Pageable pageable) {
+        return purchaseOrderRepository.findSummariesByStatus(status, pageable);
+    }
+
+    /**
+     * Recorre las órdenes de compra de la más reciente a la más antigua con paginación por cursor.
+     * Cada página continúa después de la última orden de la anterior, sin contar el total.
+     *
+     * @param status Estado de las órdenes, nulo para todas
+     * @param cursor Cursor devuelto por la página anterior, nulo para la primera
+     * @param size Tamaño de página
+     * @return Página de órdenes con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PurchaseOrderSummary> scrollOrders(
+            OrderStatus status, String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        PageCursor position = cursor != null ? PageCursor.decode(cursor) : null;
+        Slice<PurchaseOrderSummary> slice;
+        if (position == null) {
+            slice =
+                    status == null
+                            ? purchaseOrderRepository.findLatestByOrderDate(limit)
+                            : purchaseOrderRepository.findLatestByStatus(status, limit);
+        } else {
+            LocalDate orderDate = position.sortKeyAsDate();
+            slice =
+                    status == null
+                            ? purchaseOrderRepository.findBeforeOrderDate(
+                                    orderDate, position.id(), limit)
+                            : purchaseOrderRepository.findByStatusBeforeOrderDate(
+                                    status, orderDate, position.id(), limit);
+        }
+        return CursorPage.of(
+                slice, order -> PageCursor.encode(order.orderDate(), order.id()));
     }
 
     /**
@@ -222,12 +262,12 @@ public class OrderService {
      * @throws SupplierNotFoundException si el proveedor no existe
      */
     @Transactional(readOnly = true)
-    public List<PurchaseOrder> getOrdersBySupplier(Long supplierId) {
+    public List<PurchaseOrderSummary> getOrdersBySupplier(Long supplierId) {
         // Validar que el proveedor existe
         if (!supplierRepository.existsById(supplierId)) {
             throw new SupplierNotFoundException(supplierId);
         }
-        return purchaseOrderRepository.findBySupplierId(supplierId);
+        return purchaseOrderRepository.findSummariesBySupplierId(supplierId);
     }
 
     // ========== Order Status Management ==========
@@ -244,9 +284,10 @@ public class OrderService {
     public PurchaseOrder updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
         logger.info("Actualizando estado de orden ID: {} a {}", orderId, request.getStatus());
 
+        // Los detalles se cargan con la orden: la respuesta los incluye
         PurchaseOrder order =
                 purchaseOrderRepository
-                        .findById(orderId)
+                        .findDetailedById(orderId)
                         .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         // Validar transición de estado
@@ -324,6 +365,9 @@ public class OrderService {
                         "El detalle de orden no pertenece a la orden especificada");
             }
 
+            // Volcar el stock que gestione el libro en memoria antes de cargar el producto
+            stockLedger.release(orderDetail.getProduct().getId());
+
             // Validar cantidad a recibir
             Integer quantityToReceive = receiptRequest.getQuantityReceived();
             Integer quantityPending = orderDetail.getQuantityPending();
@@ -406,8 +450,10 @@ public class OrderService {
      * @return Lista de órdenes vencidas
      */
     @Transactional(readOnly = true)
-    public List<PurchaseOrder> getOverdueOrders() {
-        return purchaseOrderRepository.findOverdueOrders();
+    public List<PurchaseOrderSummary> getOverdueOrders() {
+        return purchaseOrderRepository.findOverdueOrders().stream()
+                .map(PurchaseOrderSummary::from)
+                .toList();
     }
 
     /**
@@ -417,9 +463,11 @@ public class OrderService {
      * @return Lista de órdenes que vencen pronto
      */
     @Transactional(readOnly = true)
-    public List<PurchaseOrder> getOrdersDueSoon(int daysAhead) {
+    public List<PurchaseOrderSummary> getOrdersDueSoon(int daysAhead) {
         LocalDate futureDate = LocalDate.now().plusDays(daysAhead);
-        return purchaseOrderRepository.findOrdersDueSoon(futureDate);
+        return purchaseOrderRepository.findOrdersDueSoon(futureDate).stream()
+                .map(PurchaseOrderSummary::from)
+                .toList();
     }
 
     /**
@@ -430,25 +478,12 @@ public class OrderService {
      * @return Lista de órdenes en el rango de fechas
      */
     @Transactional(readOnly = true)
-    public List<PurchaseOrder> getOrdersByDateRange(LocalDate startDate, LocalDate endDate) {
-        return purchaseOrderRepository.findByOrderDateBetween(startDate, endDate);
+    public List<PurchaseOrderSummary> getOrdersByDateRange(
+            LocalDate startDate, LocalDate endDate) {
+        return purchaseOrderRepository.findSummariesByOrderDateBetween(startDate, endDate);
     }
 
     // ========== Helper Methods ==========
-    /** Obtiene el usuario actual del contexto de seguridad. */
-    private User getCurrentUser() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getName() != null) {
-                Optional<User> user = userRepository.findByUsername(authentication.getName());
-                return user.orElse(null);
-            }
-        } catch (Exception e) {
-            logger.debug("No se pudo obtener el usuario actual", e);
-        }
-        return null;
-    }
-
     /** Valida que la transición de estado sea válida. */
     private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
         // Reglas de transición de estado
@@ -524,8 +559,8 @@ public class OrderService {
         movement.setReferenceId(orderId);
         movement.setSourceSystem("ORDER_RECEIPT");
         movement.setNotes(notes != null ? notes : "Recepción de orden de compra");
-        movement.setCreatedBy(getCurrentUser());
+        currentUserProvider.getCurrentUser().ifPresent(movement::setCreatedBy);
 
-        inventoryMovementRepository.save(movement);
+        movementWriter.write(movement);
     }
 }
@@ -0,0 +1,151 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest.ProductFieldUpdate;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateResponse;
+import dev.kreaker.kinvex.entity.AuditLog;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Actualización masiva de datos de productos (precio, límites de stock, estado y categoría), por
+ * ejemplo desde listas de precios de proveedores.
+ *
+ * <p>A diferencia de {@link InventoryService#updateProduct}, no carga ni guarda cada entidad: los
+ * cambios se aplican con sentencias {@code UPDATE ... FROM (VALUES ...)} por bloques, se registra
+ * un único evento de auditoría por solicitud y la caché de catálogo se invalida con una sola
+ * operación para todos los códigos.
+ *
+ * <p>Los productos que se desactivan se devuelven antes del libro de stock ({@link StockLedger}),
+ * igual que en {@link InventoryService#deleteProduct}: un producto inactivo no puede quedar con
+ * descuentos pendientes en memoria.
+ */
+@Service
+@Transactional
+public class ProductBulkUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkUpdateService.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final StockLedger stockLedger;
+    private final AuditService auditService;
+
+    public ProductBulkUpdateService(
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            ProductCatalogCache productCatalogCache,
+            StockLedger stockLedger,
+            AuditService auditService) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productCatalogCache = productCatalogCache;
+        this.stockLedger = stockLedger;
+        this.auditService = auditService;
+    }
+
+    /**
+     * Aplica los cambios de todos los productos de la solicitud en una sola transacción. Los
+     * códigos inexistentes y los cambios que dejarían el stock máximo por debajo del mínimo se
+     * informan sin detener el resto.
+     *
+     * @param request Cambios por código de producto
+     * @return Resultado con los productos actualizados y los códigos no aplicados
+     * @throws IllegalArgumentException si un código se repite o una categoría no existe
+     */
+    public BulkProductUpdateResponse bulkUpdateProducts(BulkProductUpdateRequest request) {
+        List<ProductFieldUpdate> updates = request.products();
+        logger.info("Actualización masiva de {} productos", updates.size());
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (ProductFieldUpdate update : updates) {
+            if (!codes.add(update.code())) {
+                throw new IllegalArgumentException(
+                        "Código repetido en la solicitud: " + update.code());
+            }
+        }
+        validateCategories(updates);
+
+        // Vuelca a base de datos los descuentos pendientes de los productos que se desactivan
+        List<String> deactivatedCodes =
+                updates.stream()
+                        .filter(update -> Boolean.FALSE.equals(update.active()))
+                        .map(ProductFieldUpdate::code)
+                        .toList();
+        if (!deactivatedCodes.isEmpty()) {
+            stockLedger.release(deactivatedCodes);
+        }
+
+        List<String> updatedCodes = productRepository.applyFieldUpdates(updates);
+        productCatalogCache.evictAll(updatedCodes);
+
+        Set<String> updated = new HashSet<>(updatedCodes);
+        List<String> notUpdated = codes.stream().filter(code -> !updated.contains(code)).toList();
+        // Solo si hubo códigos sin aplicar: distingue los inexistentes de los límites inválidos
+        Set<String> existing =
+                notUpdated.isEmpty()
+                        ? Set.of()
+                        : new HashSet<>(productRepository.findExistingCodes(notUpdated));
+        List<String> notFound = notUpdated.stream().filter(c -> !existing.contains(c)).toList();
+        List<String> invalidLimits = notUpdated.stream().filter(existing::contains).toList();
+
+        auditService.logOperation(
+                AuditLog.ACTION_BULK_UPDATE,
+                AuditLog.ENTITY_PRODUCT,
+                null,
+                null,
+                auditValues(updates, updated));
+
+        logger.info(
+                "Actualización masiva finalizada: {} actualizados, {} inexistentes, "
+                        + "{} con límites de stock inválidos",
+                updatedCodes.size(),
+                notFound.size(),
+                invalidLimits.size());
+        return new BulkProductUpdateResponse(
+                updates.size(), updatedCodes.size(), notFound, invalidLimits);
+    }
+
+    private void validateCategories(List<ProductFieldUpdate> updates) {
+        Set<Long> categoryIds =
+                updates.stream()
+                        .map(ProductFieldUpdate::categoryId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = new HashSet<>(categoryRepository.findExistingIds(categoryIds));
+        categoryIds.stream()
+                .filter(id -> !existing.contains(id))
+                .findFirst()
+                .ifPresent(
+                        id -> {
+                            throw new IllegalArgumentException("Categoría no encontrada: " + id);
+                        });
+    }
+
+    /** Registro consolidado: cantidad de productos y los cambios aplicados a cada uno. */
+    private static Map<String, Object> auditValues(
+            List<ProductFieldUpdate> updates, Set<String> updatedCodes) {
+        List<ProductFieldUpdate> applied =
+                updates.stream().filter(update -> updatedCodes.contains(update.code())).toList();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("updatedCount", applied.size());
+        values.put("changes", applied);
+        return values;
+    }
+}
@@ -0,0 +1,344 @@
+package dev.kreaker.kinvex.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caché de dos niveles de los datos maestros de productos por código.
+ *
+ * <p>El primer nivel es una caché local acotada por tamaño y vigencia en cada instancia; el segundo
+ * es Redis, compartido entre instancias. Las invalidaciones se aplican en ambos niveles y se
+ * publican por un canal de Redis para que las demás instancias descarten su copia local. Sin Redis
+ * disponible la caché funciona solo con el nivel local, y cualquier error de Redis se resuelve
+ * leyendo de base de datos.
+ *
+ * <p>Cada producto tiene en Redis un contador de versión que se incrementa con cada invalidación.
+ * Una instancia que carga el producto de base de datos solo lo publica en Redis si la versión
+ * sigue siendo la que leyó antes de la carga; así no se vuelve a publicar un valor anterior cuando
+ * otra instancia invalidó el producto durante la carga y el mensaje de invalidación aún no llegó.
+ *
+ * <p>Solo contiene código, nombre, precio y estado: el stock nunca se cachea y siempre se consulta
+ * en base de datos o en el libro de stock.
+ */
+@Service
+public class ProductCatalogCache implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    static final String KEY_PREFIX = "kinvex:catalog:product:";
+    static final String VERSION_KEY_PREFIX = "kinvex:catalog:version:";
+    static final String INVALIDATION_CHANNEL = "kinvex:catalog:invalidations";
+    // Un mensaje de invalidación lleva uno o varios códigos separados por salto de línea
+    static final String CODE_SEPARATOR = "\n";
+
+    // KEYS: pares (producto, versión); borra cada producto e incrementa su versión
+    static final RedisScript<Long> EVICT_SCRIPT =
+            RedisScript.of(
+                    """
+                    for i = 1, #KEYS, 2 do
+                        redis.call('DEL', KEYS[i])
+                        redis.call('INCR', KEYS[i + 1])
+                    end
+                    return #KEYS / 2
+                    """,
+                    Long.class);
+
+    // KEYS: producto, versión; ARGV: versión leída antes de la carga, valor, vigencia en ms
+    static final RedisScript<Long> WRITE_SCRIPT =
+            RedisScript.of(
+                    """
+                    if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then
+                        return 0
+                    end
+                    redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                    return 1
+                    """,
+                    Long.class);
+
+    private final InventoryProperties.CatalogCache properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, ProductCatalogEntry> nearCache;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // Cambia con cada invalidación: una carga iniciada antes no debe guardar un valor anterior
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile boolean running;
+
+    @Autowired
+    public ProductCatalogCache(
+            InventoryProperties inventoryProperties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        this(
+                inventoryProperties,
+                objectMapper,
+                meterRegistry,
+                redisTemplate(connectionFactory(inventoryProperties, redisConnectionFactory)),
+                listenerContainer(connectionFactory(inventoryProperties, redisConnectionFactory)));
+    }
+
+    ProductCatalogCache(
+            InventoryProperties inventoryProperties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer) {
+        this.properties = inventoryProperties.catalogCache();
+        this.objectMapper = objectMapper;
+        this.nearCache =
+                Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSize())
+                        .expireAfterWrite(properties.nearTtl())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "productCatalog");
+
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(
+                    (message, pattern) ->
+                            evictLocal(
+                                    List.of(
+                                            new String(message.getBody(), StandardCharsets.UTF_8)
+                                                    .split(CODE_SEPARATOR))),
+                    new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    private static RedisConnectionFactory connectionFactory(
+            InventoryProperties inventoryProperties,
+            ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        return inventoryProperties.catalogCache().remoteEnabled()
+                ? redisConnectionFactory.getIfAvailable()
+                : null;
+    }
+
+    private static StringRedisTemplate redisTemplate(RedisConnectionFactory connectionFactory) {
+        return connectionFactory != null ? new StringRedisTemplate(connectionFactory) : null;
+    }
+
+    private static RedisMessageListenerContainer listenerContainer(
+            RedisConnectionFactory connectionFactory) {
+        if (connectionFactory == null) {
+            return null;
+        }
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Obtiene los datos maestros de un producto, consultando la caché local, Redis y por último el
+     * cargador. Los productos inexistentes no se cachean.
+     *
+     * @param code Código del producto
+     * @param loader Lectura de base de datos usada si ningún nivel tiene el producto
+     * @return Datos maestros del producto, vacío si no existe
+     */
+    public Optional<ProductCatalogEntry> getByCode(
+            String code, Supplier<Optional<ProductCatalogEntry>> loader) {
+        ProductCatalogEntry cached = nearCache.getIfPresent(code);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long loadGeneration = generation.get();
+        RemoteEntry remote = readRemote(code);
+        if (remote.entry() != null) {
+            putLocal(code, remote.entry(), loadGeneration);
+            return Optional.of(remote.entry());
+        }
+
+        Optional<ProductCatalogEntry> loaded = loader.get();
+        loaded.ifPresent(
+                entry -> {
+                    if (putLocal(code, entry, loadGeneration) && remote.version() != null) {
+                        writeRemote(code, entry, remote.version());
+                    }
+                });
+        return loaded;
+    }
+
+    /**
+     * Invalida un producto en todas las instancias. Dentro de una transacción la invalidación se
+     * repite tras el commit, para descartar lo que otra lectura haya cargado mientras tanto.
+     *
+     * @param code Código del producto modificado
+     */
+    public void evict(String code) {
+        evictAll(List.of(code));
+    }
+
+    /**
+     * Invalida varios productos en todas las instancias con un único borrado en Redis y un único
+     * mensaje de invalidación. Dentro de una transacción se repite tras el commit, como {@link
+     * #evict(String)}.
+     *
+     * @param codes Códigos de los productos modificados
+     */
+    public void evictAll(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return;
+        }
+        List<String> evicted = List.copyOf(codes);
+        evictEverywhere(evicted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            evictEverywhere(evicted);
+                        }
+                    });
+        }
+    }
+
+    private void evictEverywhere(List<String> codes) {
+        evictLocal(codes);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>(codes.size() * 2);
+            for (String code : codes) {
+                keys.add(KEY_PREFIX + code);
+                keys.add(VERSION_KEY_PREFIX + code);
+            }
+            redisTemplate.execute(EVICT_SCRIPT, keys);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join(CODE_SEPARATOR, codes));
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron invalidar {} productos en Redis", codes.size(), e);
+        }
+    }
+
+    private void evictLocal(List<String> codes) {
+        generation.incrementAndGet();
+        nearCache.invalidateAll(codes);
+    }
+
+    private boolean putLocal(String code, ProductCatalogEntry entry, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return false;
+        }
+        nearCache.put(code, entry);
+        return true;
+    }
+
+    /**
+     * Lee el producto y su versión de Redis en una sola operación. Sin Redis o ante un error la
+     * versión queda vacía y el valor cargado de base de datos no se publica.
+     */
+    private RemoteEntry readRemote(String code) {
+        if (redisTemplate == null) {
+            return RemoteEntry.UNKNOWN;
+        }
+        try {
+            List<String> values =
+                    redisTemplate
+                            .opsForValue()
+                            .multiGet(List.of(KEY_PREFIX + code, VERSION_KEY_PREFIX + code));
+            if (values == null) {
+                return RemoteEntry.UNKNOWN;
+            }
+            String json = values.get(0);
+            return new RemoteEntry(
+                    json != null ? objectMapper.readValue(json, ProductCatalogEntry.class) : null,
+                    Objects.requireNonNullElse(values.get(1), ""));
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("No se pudo leer el producto {} de Redis", code, e);
+            return RemoteEntry.UNKNOWN;
+        }
+    }
+
+    /** Publica el producto en Redis si nadie lo invalidó desde que se leyó su versión. */
+    private void writeRemote(String code, ProductCatalogEntry entry, String readVersion) {
+        try {
+            Long written =
+                    redisTemplate.execute(
+                            WRITE_SCRIPT,
+                            List.of(KEY_PREFIX + code, VERSION_KEY_PREFIX + code),
+                            readVersion,
+                            objectMapper.writeValueAsString(entry),
+                            String.valueOf(properties.remoteTtl().toMillis()));
+            if (written == null || written == 0) {
+                logger.debug("Producto {} invalidado durante la carga; no se publica", code);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("No se pudo guardar el producto {} en Redis", code, e);
+        }
+    }
+
+    /**
+     * Lectura de Redis: el producto, si estaba, y la versión leída ({@code ""} si el producto nunca
+     * se invalidó, {@code null} si no se pudo leer).
+     */
+    private record RemoteEntry(ProductCatalogEntry entry, String version) {
+
+        static final RemoteEntry UNKNOWN = new RemoteEntry(null, null);
+    }
+
+    // ========== Lifecycle ==========
+    @Override
+    public void start() {
+        running = true;
+        if (listenerContainer == null) {
+            logger.info("Caché de catálogo de productos solo local");
+            return;
+        }
+        try {
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            logger.info("Caché de catálogo de productos con Redis e invalidación entre instancias");
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo suscribir a las invalidaciones del catálogo en Redis", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                logger.warn("Error deteniendo el listener de invalidaciones del catálogo", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,432 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.CreateProductRequest;
+import dev.kreaker.kinvex.dto.inventory.ProductImportFormat;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse.RowError;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Importación masiva de productos desde archivos CSV o XLSX.
+ *
+ * <p>El archivo se lee en streaming y las filas se procesan por bloques: cada bloque se valida en
+ * memoria, comprueba sus códigos y categorías con una consulta de cada tipo, carga los productos
+ * válidos con {@code COPY} e inserta los movimientos de stock inicial con INSERT de varias filas.
+ * Cada bloque se confirma en su propia transacción, de modo que la memoria y la duración de las
+ * transacciones no dependen del tamaño del archivo; si la importación se interrumpe, los bloques
+ * anteriores quedan creados.
+ *
+ * <p>Las filas rechazadas no detienen la importación: se informan al final con su número de fila y
+ * el motivo.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    /**
+     * Columnas reconocidas en la fila de encabezados. Los nombres no distinguen mayúsculas y
+     * admiten separadores: unitPrice, unit_price y Unit Price son la misma columna.
+     */
+    enum Column {
+        CODE("code", true),
+        NAME("name", true),
+        DESCRIPTION("description", false),
+        CATEGORY_ID("categoryId", false),
+        UNIT_PRICE("unitPrice", true),
+        INITIAL_STOCK("initialStock", false),
+        MIN_STOCK("minStock", false),
+        MAX_STOCK("maxStock", false);
+
+        private final String header;
+        private final boolean required;
+
+        Column(String header, boolean required) {
+            this.header = header;
+            this.required = required;
+        }
+
+        boolean matches(String normalizedHeader) {
+            return header.toLowerCase(Locale.ROOT).equals(normalizedHeader);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final InventoryProperties.ProductImport properties;
+    private final Validator validator;
+    private final TransactionTemplate chunkTransaction;
+
+    public ProductImportService(
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            InventoryMovementRepository inventoryMovementRepository,
+            CurrentUserProvider currentUserProvider,
+            InventoryProperties inventoryProperties,
+            Validator validator,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.currentUserProvider = currentUserProvider;
+        this.properties = inventoryProperties.productImport();
+        this.validator = validator;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importa los productos de un archivo. La primera fila debe contener los encabezados; son
+     * obligatorias las columnas code, name y unitPrice, y opcionales description, categoryId,
+     * initialStock, minStock y maxStock.
+     *
+     * @param input Contenido del archivo
+     * @param format Formato del archivo
+     * @return Resultado con los productos creados y los errores de las filas rechazadas
+     * @throws IllegalArgumentException si el archivo no es válido o le faltan columnas obligatorias
+     */
+    public ProductImportResponse importProducts(InputStream input, ProductImportFormat format)
+            throws IOException {
+        logger.info("Iniciando importación de productos ({})", format);
+        ProductRowReader reader =
+                format == ProductImportFormat.XLSX
+                        ? new XlsxProductRowReader()
+                        : new CsvProductRowReader();
+
+        ImportRun run = new ImportRun(currentUserProvider.getCurrentUser().orElse(null));
+        reader.read(input, run::accept);
+        ProductImportResponse response = run.finish();
+
+        logger.info(
+                "Importación de productos finalizada: {} filas, {} creados, {} rechazados",
+                response.totalRows(),
+                response.importedCount(),
+                response.failedCount());
+        return response;
+    }
+
+    /** Estado de una importación en curso. */
+    private final class ImportRun {
+
+        private final User user;
+        private final List<SourceRow> pending = new ArrayList<>();
+        // Códigos ya aceptados en la importación, para detectar repetidos dentro del archivo
+        private final Set<String> seenCodes = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private Map<Column, Integer> columns;
+        private long totalRows;
+        private long importedCount;
+        private long failedCount;
+
+        ImportRun(User user) {
+            this.user = user;
+        }
+
+        void accept(long rowNumber, List<String> cells) {
+            if (columns == null) {
+                columns = mapHeader(cells);
+                return;
+            }
+            totalRows++;
+            pending.add(new SourceRow(rowNumber, cells));
+            if (pending.size() >= properties.chunkSize()) {
+                flush();
+            }
+        }
+
+        ProductImportResponse finish() {
+            if (columns == null) {
+                throw new IllegalArgumentException("El archivo no contiene encabezados");
+            }
+            flush();
+            return new ProductImportResponse(
+                    totalRows,
+                    importedCount,
+                    failedCount,
+                    List.copyOf(errors),
+                    failedCount > errors.size());
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<RowError> rejected = new ArrayList<>();
+            List<Candidate> candidates = new ArrayList<>();
+            for (SourceRow row : pending) {
+                Candidate candidate = validate(row, rejected);
+                if (candidate != null) {
+                    candidates.add(candidate);
+                }
+            }
+            pending.clear();
+
+            if (!candidates.isEmpty()) {
+                Integer inserted =
+                        chunkTransaction.execute(status -> insertChunk(candidates, rejected));
+                importedCount += inserted != null ? inserted : 0;
+            }
+
+            rejected.sort(Comparator.comparingLong(RowError::rowNumber));
+            failedCount += rejected.size();
+            for (RowError error : rejected) {
+                if (errors.size() >= properties.maxReportedErrors()) {
+                    break;
+                }
+                errors.add(error);
+            }
+        }
+
+        /**
+         * Validación sin base de datos: formato de los valores y restricciones, incluida la
+         * precisión NUMERIC(10, 2) del precio. Los repetidos se detectan al insertar, para no
+         * contar como visto un código cuya fila se rechaza después.
+         */
+        private Candidate validate(SourceRow row, List<RowError> rejected) {
+            String code = value(row, Column.CODE);
+            CreateProductRequest request;
+            try {
+                request = toRequest(row);
+            } catch (IllegalArgumentException e) {
+                rejected.add(new RowError(row.number(), code, e.getMessage()));
+                return null;
+            }
+
+            Set<ConstraintViolation<CreateProductRequest>> violations =
+                    validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message =
+                        violations.stream()
+                                .map(ConstraintViolation::getMessage)
+                                .sorted()
+                                .collect(Collectors.joining("; "));
+                rejected.add(new RowError(row.number(), code, message));
+                return null;
+            }
+            // La tabla lo exige con un CHECK; una sola fila así haría fallar todo el bloque
+            if (request.getMaxStock() != null && request.getMaxStock() < request.getMinStock()) {
+                rejected.add(
+                        new RowError(
+                                row.number(),
+                                code,
+                                "El stock máximo no puede ser menor que el stock mínimo"));
+                return null;
+            }
+            return new Candidate(row.number(), request);
+        }
+
+        private int insertChunk(List<Candidate> candidates, List<RowError> rejected) {
+            List<String> codes = candidates.stream().map(c -> c.request().getCode()).toList();
+            Set<String> existingCodes = new HashSet<>(productRepository.findExistingCodes(codes));
+            Set<Long> categoryIds =
+                    candidates.stream()
+                            .map(c -> c.request().getCategoryId())
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet());
+            Set<Long> existingCategories =
+                    categoryIds.isEmpty()
+                            ? Set.of()
+                            : new HashSet<>(categoryRepository.findExistingIds(categoryIds));
+
+            List<Candidate> accepted = new ArrayList<>();
+            List<Product> products = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                CreateProductRequest request = candidate.request();
+                if (existingCodes.contains(request.getCode())) {
+                    rejected.add(duplicateCode(candidate));
+                } else if (request.getCategoryId() != null
+                        && !existingCategories.contains(request.getCategoryId())) {
+                    rejected.add(
+                            new RowError(
+                                    candidate.rowNumber(),
+                                    request.getCode(),
+                                    "Categoría no encontrada: " + request.getCategoryId()));
+                } else if (!seenCodes.add(request.getCode())) {
+                    rejected.add(
+                            new RowError(
+                                    candidate.rowNumber(),
+                                    request.getCode(),
+                                    "Código repetido en el archivo"));
+                } else {
+                    accepted.add(candidate);
+                    products.add(toProduct(request));
+                }
+            }
+
+            if (products.isEmpty()) {
+                return 0;
+            }
+            List<Product> inserted = productRepository.insertAllSkippingExistingCodes(products);
+            if (inserted.size() < products.size()) {
+                // Códigos creados por otra transacción después de la comprobación
+                Set<String> insertedCodes = new HashSet<>();
+                inserted.forEach(product -> insertedCodes.add(product.getCode()));
+                accepted.stream()
+                        .filter(c -> !insertedCodes.contains(c.request().getCode()))
+                        .forEach(c -> rejected.add(duplicateCode(c)));
+            }
+
+            List<InventoryMovement> movements =
+                    inserted.stream()
+                            .filter(product -> product.getCurrentStock() > 0)
+                            .map(this::initialStockMovement)
+                            .toList();
+            if (!movements.isEmpty()) {
+                inventoryMovementRepository.insertAll(movements);
+            }
+            return inserted.size();
+        }
+
+        private Product toProduct(CreateProductRequest request) {
+            Product product = new Product();
+            product.setCode(request.getCode());
+            product.setName(request.getName());
+            product.setDescription(request.getDescription());
+            product.setUnitPrice(request.getUnitPrice());
+            product.setCurrentStock(request.getInitialStock());
+            product.setMinStock(request.getMinStock());
+            product.setMaxStock(request.getMaxStock());
+            if (request.getCategoryId() != null) {
+                product.setCategory(categoryRepository.getReferenceById(request.getCategoryId()));
+            }
+            return product;
+        }
+
+        private InventoryMovement initialStockMovement(Product product) {
+            InventoryMovement movement =
+                    new InventoryMovement(product, MovementType.IN, product.getCurrentStock());
+            movement.setReferenceType(InventoryMovement.ReferenceType.ADJUSTMENT);
+            movement.setSourceSystem("SYSTEM");
+            movement.setNotes("Stock inicial del producto");
+            movement.setCreatedBy(user);
+            movement.setCreatedAt(LocalDateTime.now());
+            return movement;
+        }
+
+        private CreateProductRequest toRequest(SourceRow row) {
+            CreateProductRequest request = new CreateProductRequest();
+            request.setCode(value(row, Column.CODE));
+            request.setName(value(row, Column.NAME));
+            request.setDescription(value(row, Column.DESCRIPTION));
+            request.setCategoryId(parseLong(row, Column.CATEGORY_ID));
+            request.setUnitPrice(parseDecimal(row, Column.UNIT_PRICE));
+            Integer initialStock = parseInteger(row, Column.INITIAL_STOCK);
+            request.setInitialStock(initialStock != null ? initialStock : 0);
+            Integer minStock = parseInteger(row, Column.MIN_STOCK);
+            request.setMinStock(minStock != null ? minStock : 0);
+            request.setMaxStock(parseInteger(row, Column.MAX_STOCK));
+            return request;
+        }
+
+        /** Valor recortado de la celda, o null si la columna no existe o la celda está vacía. */
+        private String value(SourceRow row, Column column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= row.cells().size()) {
+                return null;
+            }
+            String value = row.cells().get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private Long parseLong(SourceRow row, Column column) {
+            String value = value(row, column);
+            try {
+                return value != null ? Long.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalidNumber(column, value);
+            }
+        }
+
+        private Integer parseInteger(SourceRow row, Column column) {
+            String value = value(row, column);
+            try {
+                return value != null ? Integer.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalidNumber(column, value);
+            }
+        }
+
+        private BigDecimal parseDecimal(SourceRow row, Column column) {
+            String value = value(row, column);
+            try {
+                return value != null ? new BigDecimal(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalidNumber(column, value);
+            }
+        }
+    }
+
+    private static Map<Column, Integer> mapHeader(List<String> cells) {
+        Map<Column, Integer> columns = new EnumMap<>(Column.class);
+        for (int i = 0; i < cells.size(); i++) {
+            String header =
+                    NON_ALPHANUMERIC
+                            .matcher(cells.get(i).toLowerCase(Locale.ROOT))
+                            .replaceAll("");
+            for (Column column : Column.values()) {
+                if (column.matches(header)) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+        }
+        List<String> missing = new ArrayList<>();
+        for (Column column : Column.values()) {
+            if (column.required && !columns.containsKey(column)) {
+                missing.add(column.header);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Faltan columnas obligatorias en el encabezado: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static RowError duplicateCode(Candidate candidate) {
+        String code = candidate.request().getCode();
+        return new RowError(
+                candidate.rowNumber(), code, "Ya existe un producto con el código: " + code);
+    }
+
+    private static IllegalArgumentException invalidNumber(Column column, String value) {
+        return new IllegalArgumentException(
+                "Valor numérico inválido en la columna " + column.header + ": " + value);
+    }
+
+    private record SourceRow(long number, List<String> cells) {}
+
+    private record Candidate(long rowNumber, CreateProductRequest request) {}
+}
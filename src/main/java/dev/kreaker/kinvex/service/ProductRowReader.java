@@ -0,0 +1,32 @@
+package dev.kreaker.kinvex.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Lectura secuencial de las filas de un archivo de importación de productos. Cada fila se entrega
+ * en cuanto se lee, sin cargar el archivo completo en memoria.
+ */
+interface ProductRowReader {
+
+    /**
+     * Lee todas las filas del archivo, incluida la de encabezados. Las filas vacías se omiten.
+     *
+     * @param input Contenido del archivo
+     * @param handler Receptor de cada fila
+     * @throws IllegalArgumentException si el archivo no tiene un formato válido
+     */
+    void read(InputStream input, RowHandler handler) throws IOException;
+
+    /** Receptor de las filas leídas. */
+    @FunctionalInterface
+    interface RowHandler {
+
+        /**
+         * @param rowNumber Número de fila en el archivo, empezando en 1
+         * @param cells Valores de las celdas, en orden de columna
+         */
+        void row(long rowNumber, List<String> cells);
+    }
+}
@@ -1,21 +1,36 @@
 package dev.kreaker.kinvex.service;
 
+import dev.kreaker.kinvex.config.InventoryProperties;
 import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
 import dev.kreaker.kinvex.dto.report.ReportFilterDto;
 import dev.kreaker.kinvex.dto.report.StockLevelReportDto;
 import dev.kreaker.kinvex.dto.report.SupplierPerformanceReportDto;
 import dev.kreaker.kinvex.entity.InventoryMovement;
-import dev.kreaker.kinvex.entity.Product;
 import dev.kreaker.kinvex.entity.Supplier;
 import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.MovementRollupDailyRepository;
 import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.PurchaseOrderRepository;
 import dev.kreaker.kinvex.repository.SupplierRepository;
+import dev.kreaker.kinvex.repository.projection.StockLevelRow;
+import dev.kreaker.kinvex.repository.projection.SupplierPerformance;
+import dev.kreaker.kinvex.repository.specification.InventoryMovementSpecifications;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,14 +46,23 @@ public class ReportService {
     private final InventoryMovementRepository inventoryMovementRepository;
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final MovementRollupDailyRepository movementRollupRepository;
+    private final boolean databaseTriggers;
 
     public ReportService(
             InventoryMovementRepository inventoryMovementRepository,
             ProductRepository productRepository,
-            SupplierRepository supplierRepository) {
+            SupplierRepository supplierRepository,
+            PurchaseOrderRepository purchaseOrderRepository,
+            MovementRollupDailyRepository movementRollupRepository,
+            InventoryProperties inventoryProperties) {
         this.inventoryMovementRepository = inventoryMovementRepository;
         this.productRepository = productRepository;
         this.supplierRepository = supplierRepository;
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.movementRollupRepository = movementRollupRepository;
+        this.databaseTriggers = inventoryProperties.aggregates().databaseTriggers();
     }
 
     /**
@@ -53,12 +77,7 @@ public class ReportService {
                     "Valid date range is required for inventory movement reports");
         }
 
-        List<InventoryMovement> movements =
-                inventoryMovementRepository.findByCreatedAtBetween(
-                        filter.getStartDate(), filter.getEndDate());
-
-        return movements.stream()
-                .filter(movement -> applyMovementFilters(movement, filter))
+        return findMovements(filter).stream()
                 .map(this::convertToInventoryMovementReportDto)
                 .collect(Collectors.toList());
     }
@@ -76,46 +95,55 @@ public class ReportService {
                     "Valid date range is required for detailed inventory movement reports");
         }
 
-        List<InventoryMovement> movements =
-                inventoryMovementRepository.findMovementsBetween(
-                        filter.getStartDate(), filter.getEndDate());
-
-        List<InventoryMovementReportDto> reportData =
-                movements.stream()
-                        .filter(movement -> applyMovementFilters(movement, filter))
-                        .map(this::convertToDetailedInventoryMovementReportDto)
-                        .collect(Collectors.toList());
-
-        // Apply limit if specified
-        if (filter.getLimit() != null && filter.getLimit() > 0) {
-            return reportData.stream().limit(filter.getLimit()).collect(Collectors.toList());
-        }
-
-        return reportData;
+        return findMovements(filter).stream()
+                .map(this::convertToDetailedInventoryMovementReportDto)
+                .collect(Collectors.toList());
     }
 
     /**
      * Generate stock level reports Requirement 4.2: Generate reports of stock levels by time period
+     *
+     * <p>Product filters and the per-product inbound/outbound totals for the date range are
+     * computed by a single grouped query, whose rows are streamed straight into the DTOs.
      */
     public List<StockLevelReportDto> getStockLevelReport(ReportFilterDto filter) {
         logger.info("Generating stock level report with filter: {}", filter);
 
-        List<Product> products;
-        if (filter.getActiveProductsOnly() != null && filter.getActiveProductsOnly()) {
-            products = productRepository.findByActiveTrue();
-        } else {
-            products = productRepository.findAll();
+        boolean activeOnly = Boolean.TRUE.equals(filter.getActiveProductsOnly());
+        List<Long> productIds = orEmpty(filter.getProductIds());
+        List<String> productCodes = orEmpty(filter.getProductCodes());
+        List<Long> categoryIds = orEmpty(filter.getCategoryIds());
+
+        try (Stream<StockLevelRow> rows =
+                filter.hasDateRange()
+                        ? productRepository.streamStockLevelsWithMovementsBetween(
+                                activeOnly,
+                                !productIds.isEmpty(),
+                                productIds,
+                                !productCodes.isEmpty(),
+                                productCodes,
+                                !categoryIds.isEmpty(),
+                                categoryIds,
+                                filter.getStartDate(),
+                                filter.getEndDate())
+                        : productRepository.streamStockLevels(
+                                activeOnly,
+                                !productIds.isEmpty(),
+                                productIds,
+                                !productCodes.isEmpty(),
+                                productCodes,
+                                !categoryIds.isEmpty(),
+                                categoryIds)) {
+            return rows.map(this::convertToStockLevelReportDto).collect(Collectors.toList());
         }
-
-        return products.stream()
-                .filter(product -> applyProductFilters(product, filter))
-                .map(product -> convertToStockLevelReportDto(product, filter))
-                .collect(Collectors.toList());
     }
 
     /**
      * Generate supplier performance reports Requirement 4.3: Show supplier information for each
      * movement Requirement 4.4: Allow filtering reports by supplier
+     *
+     * <p>Runs two queries regardless of the number of suppliers: one for the suppliers and one
+     * aggregate over the purchase orders of the period, matched to the suppliers by id.
      */
     public List<SupplierPerformanceReportDto> getSupplierPerformanceReport(ReportFilterDto filter) {
         logger.info("Generating supplier performance report with filter: {}", filter);
@@ -134,14 +162,28 @@ public class ReportService {
             suppliers = supplierRepository.findAll();
         }
 
+        Map<Long, SupplierPerformance> performanceBySupplier = new HashMap<>();
+        for (SupplierPerformance performance :
+                purchaseOrderRepository.findSupplierPerformanceBetween(
+                        filter.getStartDate(), filter.getEndDate())) {
+            performanceBySupplier.put(performance.getSupplierId(), performance);
+        }
+
         return suppliers.stream()
-                .map(supplier -> convertToSupplierPerformanceReportDto(supplier, filter))
+                .map(
+                        supplier ->
+                                convertToSupplierPerformanceReportDto(
+                                        supplier, performanceBySupplier.get(supplier.getId())))
                 .collect(Collectors.toList());
     }
 
     /**
      * Get product movement summary for a specific time period Requirement 4.4: Allow filtering
      * reports by product, supplier, or date ranges
+     *
+     * <p>Read from the daily movement rollup, so the period covers whole days from the start date
+     * to the end date. Without the rollup triggers the same whole days are summed from the
+     * movements.
      */
     public List<Object[]> getProductMovementSummary(ReportFilterDto filter) {
         logger.info("Generating product movement summary with filter: {}", filter);
@@ -151,11 +193,15 @@ public class ReportService {
                     "Valid date range is required for product movement summary");
         }
 
-        return inventoryMovementRepository.findProductMovementSummaryBetween(
-                filter.getStartDate(), filter.getEndDate());
+        LocalDate startDate = filter.getStartDate().toLocalDate();
+        LocalDate endDate = filter.getEndDate().toLocalDate();
+        return databaseTriggers
+                ? movementRollupRepository.findProductMovementSummaryBetween(startDate, endDate)
+                : inventoryMovementRepository.findProductMovementSummaryBetween(
+                        startDate.atStartOfDay(), endOfDay(endDate));
     }
 
-    /** Get movement statistics by type and reference */
+    /** Get movement statistics by type and reference for whole days, from the daily rollup */
     public List<Object[]> getMovementStatisticsByType(ReportFilterDto filter) {
         logger.info("Generating movement statistics by type with filter: {}", filter);
 
@@ -164,11 +210,15 @@ public class ReportService {
                     "Valid date range is required for movement statistics");
         }
 
-        return inventoryMovementRepository.findMovementStatisticsByTypeBetween(
-                filter.getStartDate(), filter.getEndDate());
+        LocalDate startDate = filter.getStartDate().toLocalDate();
+        LocalDate endDate = filter.getEndDate().toLocalDate();
+        return databaseTriggers
+                ? movementRollupRepository.findMovementStatisticsByTypeBetween(startDate, endDate)
+                : inventoryMovementRepository.findMovementStatisticsByTypeBetween(
+                        startDate.atStartOfDay(), endOfDay(endDate));
     }
 
-    /** Get daily movement summary */
+    /** Get daily movement summary for whole days, from the daily rollup */
     public List<Object[]> getDailyMovementSummary(ReportFilterDto filter) {
         logger.info("Generating daily movement summary with filter: {}", filter);
 
@@ -177,74 +227,41 @@ public class ReportService {
                     "Valid date range is required for daily movement summary");
         }
 
-        return inventoryMovementRepository.findDailyMovementSummaryBetween(
-                filter.getStartDate(), filter.getEndDate());
+        LocalDate startDate = filter.getStartDate().toLocalDate();
+        LocalDate endDate = filter.getEndDate().toLocalDate();
+        return databaseTriggers
+                ? movementRollupRepository.findDailyMovementSummaryBetween(startDate, endDate)
+                : inventoryMovementRepository.findDailyMovementSummaryBetween(
+                        startDate.atStartOfDay(), endOfDay(endDate));
     }
 
     // Private helper methods
-    private boolean applyMovementFilters(InventoryMovement movement, ReportFilterDto filter) {
-        // Filter by product IDs
-        if (filter.hasProductFilter() && filter.getProductIds() != null) {
-            if (!filter.getProductIds().contains(movement.getProduct().getId())) {
-                return false;
-            }
-        }
-
-        // Filter by product codes
-        if (filter.hasProductFilter() && filter.getProductCodes() != null) {
-            if (!filter.getProductCodes().contains(movement.getProduct().getCode())) {
-                return false;
-            }
-        }
-
-        // Filter by movement types
-        if (filter.hasMovementTypeFilter()) {
-            if (!filter.getMovementTypes().contains(movement.getMovementType())) {
-                return false;
-            }
-        }
-
-        // Filter by reference types
-        if (filter.hasReferenceTypeFilter()) {
-            if (!filter.getReferenceTypes().contains(movement.getReferenceType())) {
-                return false;
-            }
-        }
 
-        // Filter by source systems
-        if (filter.hasSourceSystemFilter()) {
-            if (!filter.getSourceSystems().contains(movement.getSourceSystem())) {
-                return false;
-            }
-        }
-
-        return true;
+    /**
+     * Loads the movements matching every filter, already sorted and limited by the database, with
+     * their product and creator fetched in the same query.
+     */
+    private List<InventoryMovement> findMovements(ReportFilterDto filter) {
+        Specification<InventoryMovement> specification =
+                InventoryMovementSpecifications.matching(filter);
+        Sort sort = InventoryMovementSpecifications.sortFor(filter);
+        Integer limit = filter.getLimit();
+
+        return inventoryMovementRepository.findBy(
+                specification,
+                query -> {
+                    FetchableFluentQuery<InventoryMovement> sorted = query.sortBy(sort);
+                    return limit != null && limit > 0 ? sorted.limit(limit).all() : sorted.all();
+                });
     }
 
-    private boolean applyProductFilters(Product product, ReportFilterDto filter) {
-        // Filter by product IDs
-        if (filter.hasProductFilter() && filter.getProductIds() != null) {
-            if (!filter.getProductIds().contains(product.getId())) {
-                return false;
-            }
-        }
-
-        // Filter by product codes
-        if (filter.hasProductFilter() && filter.getProductCodes() != null) {
-            if (!filter.getProductCodes().contains(product.getCode())) {
-                return false;
-            }
-        }
-
-        // Filter by category IDs
-        if (filter.hasCategoryFilter()) {
-            if (product.getCategory() == null
-                    || !filter.getCategoryIds().contains(product.getCategory().getId())) {
-                return false;
-            }
-        }
+    /** Last instant of the day, at the microsecond precision of the movement timestamps */
+    private static LocalDateTime endOfDay(LocalDate date) {
+        return date.atTime(LocalTime.MAX).truncatedTo(ChronoUnit.MICROS);
+    }
 
-        return true;
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values != null ? values : List.of();
     }
 
     private InventoryMovementReportDto convertToInventoryMovementReportDto(
@@ -276,81 +293,44 @@ public class ReportService {
                 movement.getProduct().getUnitPrice());
     }
 
-    private StockLevelReportDto convertToStockLevelReportDto(
-            Product product, ReportFilterDto filter) {
-        // Get movement data for the period if date range is provided
-        Integer inboundMovements = 0;
-        Integer outboundMovements = 0;
-        LocalDateTime lastMovementDate = null;
-
-        if (filter.hasDateRange()) {
-            List<InventoryMovement> movements =
-                    inventoryMovementRepository.findByProductAndCreatedAtBetween(
-                            product, filter.getStartDate(), filter.getEndDate());
-
-            inboundMovements =
-                    movements.stream()
-                            .filter(m -> m.getMovementType() == InventoryMovement.MovementType.IN)
-                            .mapToInt(InventoryMovement::getQuantity)
-                            .sum();
-
-            outboundMovements =
-                    movements.stream()
-                            .filter(m -> m.getMovementType() == InventoryMovement.MovementType.OUT)
-                            .mapToInt(InventoryMovement::getQuantity)
-                            .sum();
-
-            lastMovementDate =
-                    movements.stream()
-                            .map(InventoryMovement::getCreatedAt)
-                            .max(LocalDateTime::compareTo)
-                            .orElse(null);
-        }
-
+    private StockLevelReportDto convertToStockLevelReportDto(StockLevelRow row) {
         return new StockLevelReportDto(
-                product.getId(),
-                product.getCode(),
-                product.getName(),
-                product.getCategory() != null ? product.getCategory().getName() : null,
-                product.getCurrentStock(),
-                product.getMinStock(),
-                product.getMaxStock(),
-                product.getUnitPrice(),
-                inboundMovements,
-                outboundMovements,
-                lastMovementDate);
+                row.getProductId(),
+                row.getProductCode(),
+                row.getProductName(),
+                row.getCategoryName(),
+                row.getCurrentStock(),
+                row.getMinStock(),
+                row.getMaxStock(),
+                row.getUnitPrice(),
+                Math.toIntExact(row.getInboundQuantity()),
+                Math.toIntExact(row.getOutboundQuantity()),
+                row.getLastMovementDate());
     }
 
     private SupplierPerformanceReportDto convertToSupplierPerformanceReportDto(
-            Supplier supplier, ReportFilterDto filter) {
-        // Get supplier performance data from purchase orders
-        List<Object[]> performanceData =
-                supplierRepository.findSupplierPerformanceBetween(
-                        filter.getStartDate(), filter.getEndDate());
-
-        // Find data for this supplier
-        Object[] supplierData =
-                performanceData.stream()
-                        .filter(data -> ((Supplier) data[0]).getId().equals(supplier.getId()))
-                        .findFirst()
-                        .orElse(null);
-
-        if (supplierData != null) {
-            return new SupplierPerformanceReportDto(
-                    supplier.getId(),
-                    supplier.getName(),
-                    supplier.getContactPerson(),
-                    supplier.getEmail(),
-                    supplier.getPhone(),
-                    ((Number) supplierData[1]).intValue(), // totalOrders
-                    ((Number) supplierData[3]).intValue(), // completedOrders
-                    0, // pendingOrders - would need additional query
-                    ((Number) supplierData[4]).intValue(), // cancelledOrders
-                    (BigDecimal) supplierData[2], // totalOrderValue (averageOrderValue from query)
-                    (BigDecimal) supplierData[2], // averageOrderValue
-                    null, // averageDeliveryDays - would need additional query
-                    null // lastOrderDate - would need additional query
-                    );
+            Supplier supplier, SupplierPerformance performance) {
+        if (performance != null) {
+            SupplierPerformanceReportDto reportDto =
+                    new SupplierPerformanceReportDto(
+                            supplier.getId(),
+                            supplier.getName(),
+                            supplier.getContactPerson(),
+                            supplier.getEmail(),
+                            supplier.getPhone(),
+                            performance.getTotalOrders().intValue(),
+                            performance.getCompletedOrders().intValue(),
+                            performance.getPendingOrders().intValue(),
+                            performance.getCancelledOrders().intValue(),
+                            performance.getTotalOrderValue(),
+                            performance.getAverageOrderValue() != null
+                                    ? BigDecimal.valueOf(performance.getAverageOrderValue())
+                                            .setScale(2, RoundingMode.HALF_UP)
+                                    : null,
+                            performance.getAverageDeliveryDays(),
+                            performance.getLastOrderDate());
+            reportDto.setOverdueOrders(performance.getOverdueOrders().intValue());
+            return reportDto;
         } else {
             // Supplier with no orders in the period
             return new SupplierPerformanceReportDto(
@@ -0,0 +1,190 @@
+package dev.kreaker.kinvex.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
+import dev.kreaker.kinvex.dto.report.ReportFilterDto;
+import dev.kreaker.kinvex.dto.report.ReportStreamFormat;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.specification.InventoryMovementSpecifications;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for streaming large reports row by row. Rows are read through a forward-only database
+ * cursor and written to the output as they arrive, so memory use does not depend on the size of
+ * the report and the first rows are sent before the query finishes.
+ */
+@Service
+public class ReportStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportStreamService.class);
+
+    /** Rows fetched from the database per round trip; the output is also flushed at this pace. */
+    static final int FETCH_SIZE = 1000;
+
+    private static final String[] MOVEMENT_CSV_HEADER = {
+        "movementId",
+        "productCode",
+        "productName",
+        "movementType",
+        "quantity",
+        "referenceType",
+        "referenceId",
+        "sourceSystem",
+        "notes",
+        "createdBy",
+        "createdAt",
+        "unitPrice",
+        "totalValue"
+    };
+
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReportStreamService(
+            InventoryMovementRepository inventoryMovementRepository, ObjectMapper objectMapper) {
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Validate an inventory movement report filter before the response is committed, so that
+     * invalid requests can still be answered with an error status.
+     *
+     * @throws IllegalArgumentException if the date range or the sort are not valid
+     */
+    public void validateInventoryMovementFilter(ReportFilterDto filter) {
+        if (!filter.isValidDateRange()) {
+            throw new IllegalArgumentException(
+                    "Valid date range is required for inventory movement reports");
+        }
+        InventoryMovementSpecifications.sortFor(filter);
+    }
+
+    /**
+     * Write the detailed inventory movement report in the given format. Filters, sort and limit
+     * are applied by the database, as in {@link ReportService#getDetailedInventoryMovementReport}.
+     *
+     * <p>The transaction keeps the cursor open while the rows are written, so it lasts as long as
+     * the client takes to read the response.
+     *
+     * @return Number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long writeInventoryMovementReport(
+            ReportFilterDto filter, ReportStreamFormat format, OutputStream output)
+            throws IOException {
+        validateInventoryMovementFilter(filter);
+        logger.info("Streaming inventory movement report as {} with filter: {}", format, filter);
+
+        Specification<InventoryMovement> specification =
+                InventoryMovementSpecifications.matching(filter);
+        Sort sort = InventoryMovementSpecifications.sortFor(filter);
+        Integer limit =
+                filter.getLimit() != null && filter.getLimit() > 0 ? filter.getLimit() : null;
+
+        long rowCount;
+        try (Stream<InventoryMovementReportDto> rows =
+                inventoryMovementRepository.streamReportRows(
+                        specification, sort, limit, FETCH_SIZE)) {
+            rowCount =
+                    switch (format) {
+                        case NDJSON -> writeNdjson(rows.iterator(), output);
+                        case CSV -> writeMovementCsv(rows.iterator(), output);
+                    };
+        }
+
+        logger.info("Streamed {} inventory movement rows", rowCount);
+        return rowCount;
+    }
+
+    private long writeNdjson(Iterator<?> rows, OutputStream output) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rows.hasNext()) {
+                generator.writeObject(rows.next());
+                generator.writeRaw('\n');
+                if (shouldFlush(++count)) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeMovementCsv(Iterator<InventoryMovementReportDto> rows, OutputStream output)
+            throws IOException {
+        // Not closed: the servlet container owns the response stream
+        Writer writer =
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writeCsvRow(writer, (Object[]) MOVEMENT_CSV_HEADER);
+
+        long count = 0;
+        while (rows.hasNext()) {
+            InventoryMovementReportDto row = rows.next();
+            writeCsvRow(
+                    writer,
+                    row.getMovementId(),
+                    row.getProductCode(),
+                    row.getProductName(),
+                    row.getMovementType(),
+                    row.getQuantity(),
+                    row.getReferenceType(),
+                    row.getReferenceId(),
+                    row.getSourceSystem(),
+                    row.getNotes(),
+                    row.getCreatedByUsername(),
+                    row.getCreatedAt(),
+                    row.getUnitPrice(),
+                    row.getTotalValue());
+            if (shouldFlush(++count)) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /** Flush after the first row, for a fast first byte, and then once per fetched batch. */
+    private static boolean shouldFlush(long count) {
+        return count == 1 || count % FETCH_SIZE == 0;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0
+                && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
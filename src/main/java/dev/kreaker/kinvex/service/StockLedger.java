@@ -0,0 +1,541 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.exception.InsufficientStockException;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockLedgerDeductionRepository;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Libro de stock en memoria para productos con alta frecuencia de descuentos.
+ *
+ * <p>Cuando un producto supera {@code app.inventory.ledger.hot-threshold} descuentos por ventana,
+ * el libro toma su stock disponible y lo mantiene en un contador atómico: los descuentos se validan
+ * y aplican con compare-and-set, sin bloquear la fila de {@code products}. Cada descuento inserta
+ * su movimiento y una fila en {@code stock_ledger_deductions} en la transacción de quien lo
+ * solicita, y solo al confirmarse esa transacción entra en el volcado: cada {@code flush-interval}
+ * los descuentos acumulados se aplican en una sola transacción con un UPDATE del neto por producto
+ * que borra también sus filas pendientes. Tras una caída, al arrancar se aplican las filas que
+ * quedaron.
+ *
+ * <p>Mientras el libro gestiona un producto, {@code products.ledger_owned} impide que el descuento
+ * atómico lo modifique y un trigger rechaza cualquier otro cambio de su stock fuera del volcado.
+ * Las operaciones que cambian el stock por otra vía deben llamar antes a {@link #release}, que
+ * vuelca lo pendiente y devuelve el producto a base de datos.
+ *
+ * <p>El estado vive en la memoria de una instancia: solo debe habilitarse con una única instancia
+ * de la aplicación. Deshabilitado, todos los métodos son no-op.
+ */
+@Service
+public class StockLedger implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final long SETTLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Descuento aceptado por el libro. El movimiento ya está insertado en la transacción actual; el
+     * stock de {@code products} se actualiza en el volcado posterior al commit.
+     */
+    public record AcceptedDeduction(
+            String productCode,
+            String productName,
+            int quantity,
+            int previousStock,
+            int currentStock,
+            InventoryMovement movement) {}
+
+    /** Descuento confirmado pendiente de aplicar a {@code products.current_stock}. */
+    private record PendingDeduction(Long movementId, Long productId, int quantity) {}
+
+    private enum State {
+        PROMOTING,
+        HOT,
+        DRAINING,
+        RELEASED
+    }
+
+    private static final class HotProduct {
+        final Long id;
+        final String code;
+        final String name;
+        final AtomicInteger available = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger windowDeductions = new AtomicInteger();
+        final CountDownLatch promoted = new CountDownLatch(1);
+        volatile State state = State.PROMOTING;
+
+        HotProduct(Long id, String code, String name) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+        }
+    }
+
+    private record Candidate(Long id, String code, String name, AtomicInteger deductions) {}
+
+    private final ProductRepository productRepository;
+    private final StockLedgerDeductionRepository deductionRepository;
+    private final InventoryProperties.Ledger properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, HotProduct> hotProducts = new ConcurrentHashMap<>();
+    private final Map<Long, Candidate> candidates = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> cooldowns = new ConcurrentHashMap<>();
+    private final Queue<PendingDeduction> pending = new ConcurrentLinkedQueue<>();
+    private final List<PendingDeduction> unflushed = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public StockLedger(
+            ProductRepository productRepository,
+            StockLedgerDeductionRepository deductionRepository,
+            InventoryProperties inventoryProperties,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.deductionRepository = deductionRepository;
+        this.properties = inventoryProperties.ledger();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // El volcado no debe participar en la transacción de quien lo provoca
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ========== Deductions ==========
+    /**
+     * Descuenta stock de un producto gestionado por el libro dentro de la transacción actual.
+     *
+     * <p>El descuento se valida contra el contador en memoria y {@code recordMovement} inserta su
+     * movimiento en la misma transacción, junto con una fila en {@code stock_ledger_deductions}
+     * que conserva el descuento hasta el volcado. Si la transacción se revierte, el contador
+     * recupera la cantidad; solo al confirmarse pasa el descuento al siguiente volcado. Mientras
+     * tanto el producto no puede liberarse, por lo que la misma transacción no debe llamar después
+     * a {@link #release} para ese producto.
+     *
+     * @param recordMovement registra el movimiento de salida del producto con el ID recibido; solo
+     *     se invoca si el producto está en memoria
+     * @return descuento aplicado, o vacío si el producto no está en memoria y debe descontarse en
+     *     base de datos
+     * @throws InsufficientStockException si el producto está en memoria y no tiene stock suficiente
+     * @throws IllegalStateException si no hay una transacción activa
+     */
+    public Optional<AcceptedDeduction> tryDeduct(
+            String productCode, int quantity, Function<Long, InventoryMovement> recordMovement) {
+        if (!running) {
+            return Optional.empty();
+        }
+        HotProduct hot = hotProducts.get(productCode);
+        if (hot == null || !awaitPromotion(hot)) {
+            return Optional.empty();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException(
+                    "El libro de stock solo descuenta dentro de una transacción: " + productCode);
+        }
+
+        // Registrarse como descuento en curso; si el producto se está liberando, esperar
+        while (true) {
+            hot.inFlight.incrementAndGet();
+            State state = hot.state;
+            if (state == State.HOT) {
+                break;
+            }
+            hot.inFlight.decrementAndGet();
+            if (state == State.RELEASED) {
+                return Optional.empty();
+            }
+            awaitSettled(hot);
+        }
+
+        int previous;
+        try {
+            do {
+                previous = hot.available.get();
+                if (previous < quantity) {
+                    throw new InsufficientStockException(hot.id, hot.code, previous, quantity);
+                }
+            } while (!hot.available.compareAndSet(previous, previous - quantity));
+        } catch (RuntimeException e) {
+            hot.inFlight.decrementAndGet();
+            throw e;
+        }
+        hot.windowDeductions.incrementAndGet();
+
+        // Desde aquí el resultado de la transacción decide si el descuento se vuelca o se devuelve
+        DeductionSynchronization synchronization = new DeductionSynchronization(hot, quantity);
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+
+        InventoryMovement movement = recordMovement.apply(hot.id);
+        deductionRepository.record(movement.getId(), hot.id, quantity, LocalDateTime.now());
+        synchronization.recorded = new PendingDeduction(movement.getId(), hot.id, quantity);
+
+        return Optional.of(
+                new AcceptedDeduction(
+                        hot.code, hot.name, quantity, previous, previous - quantity, movement));
+    }
+
+    /**
+     * Resuelve un descuento al terminar la transacción que lo hizo: confirmado pasa al volcado,
+     * revertido devuelve la cantidad al contador. En ambos casos deja de contar como en curso.
+     */
+    private final class DeductionSynchronization implements TransactionSynchronization {
+
+        private final HotProduct hot;
+        private final int quantity;
+        private PendingDeduction recorded;
+
+        DeductionSynchronization(HotProduct hot, int quantity) {
+            this.hot = hot;
+            this.quantity = quantity;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (status == STATUS_COMMITTED && recorded != null) {
+                    pending.add(recorded);
+                    return;
+                }
+                if (status == STATUS_UNKNOWN && recorded != null) {
+                    // Si llegó a confirmarse, la fila pendiente se aplica en el próximo arranque
+                    logger.warn(
+                            "Resultado desconocido del descuento del movimiento {} del producto {}",
+                            recorded.movementId(),
+                            hot.code);
+                }
+                hot.available.addAndGet(quantity);
+            } finally {
+                hot.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Registra un descuento aplicado en base de datos para medir la frecuencia de descuentos del
+     * producto y promoverlo al libro si la supera.
+     */
+    public void recordDeduction(Long productId, String productCode, String productName) {
+        if (!running) {
+            return;
+        }
+        candidates
+                .computeIfAbsent(
+                        productId,
+                        id -> new Candidate(id, productCode, productName, new AtomicInteger()))
+                .deductions()
+                .incrementAndGet();
+    }
+
+    // ========== Release ==========
+    /**
+     * Devuelve un producto a base de datos antes de modificar su stock por otra vía. Vuelca los
+     * descuentos pendientes en una transacción propia, por lo que debe llamarse antes de cargar el
+     * producto.
+     */
+    public void release(Long productId) {
+        if (!running) {
+            return;
+        }
+        hotProducts.values().stream()
+                .filter(hot -> hot.id.equals(productId))
+                .findFirst()
+                .ifPresent(this::releaseHotProduct);
+    }
+
+    /** Devuelve a base de datos los productos indicados por código. */
+    public void release(Collection<String> productCodes) {
+        if (!running) {
+            return;
+        }
+        for (String productCode : productCodes) {
+            HotProduct hot = hotProducts.get(productCode);
+            if (hot != null) {
+                releaseHotProduct(hot);
+            }
+        }
+    }
+
+    private void releaseHotProduct(HotProduct hot) {
+        if (!awaitPromotion(hot)) {
+            return;
+        }
+        synchronized (hot) {
+            if (hot.state != State.HOT) {
+                awaitSettled(hot);
+                return;
+            }
+            hot.state = State.DRAINING;
+        }
+
+        // Esperar a que terminen las transacciones con descuentos ya validados en memoria
+        while (hot.inFlight.get() > 0) {
+            LockSupport.parkNanos(SETTLE_PARK_NANOS);
+        }
+
+        flushLock.lock();
+        try {
+            flushPending();
+            transactionTemplate.executeWithoutResult(
+                    status -> productRepository.releaseFromLedger(hot.id));
+        } catch (RuntimeException e) {
+            // Sin volcar no se puede devolver el producto: sigue gestionado por el libro
+            hot.state = State.HOT;
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+
+        hotProducts.remove(hot.code, hot);
+        cooldowns.put(hot.id, Instant.now().plus(properties.hotWindow()));
+        hot.state = State.RELEASED;
+        logger.info("Producto {} devuelto a base de datos por el libro de stock", hot.code);
+    }
+
+    // ========== Background work ==========
+    /** Vuelca a base de datos los descuentos acumulados. */
+    void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } catch (RuntimeException e) {
+            logger.error("Error volcando el libro de stock; se reintentará", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        PendingDeduction deduction;
+        while ((deduction = pending.poll()) != null) {
+            unflushed.add(deduction);
+        }
+        if (unflushed.isEmpty()) {
+            return;
+        }
+
+        applyDeductions(unflushed);
+        unflushed.clear();
+    }
+
+    /**
+     * Aplica en una sola transacción el descuento neto por producto y borra las filas pendientes
+     * de los descuentos aplicados.
+     */
+    private void applyDeductions(List<PendingDeduction> deductions) {
+        Map<Long, Integer> netByProduct = new LinkedHashMap<>();
+        List<Long> movementIds = new ArrayList<>(deductions.size());
+        for (PendingDeduction deduction : deductions) {
+            netByProduct.merge(deduction.productId(), deduction.quantity(), Integer::sum);
+            movementIds.add(deduction.movementId());
+        }
+
+        transactionTemplate.executeWithoutResult(
+                status -> {
+                    productRepository.allowLedgerFlush();
+                    netByProduct.forEach(productRepository::applyLedgerDeduction);
+                    for (int from = 0; from < movementIds.size(); from += DELETE_BATCH_SIZE) {
+                        int to = Math.min(from + DELETE_BATCH_SIZE, movementIds.size());
+                        deductionRepository.deleteByMovementIds(movementIds.subList(from, to));
+                    }
+                });
+
+        logger.debug(
+                "Libro de stock volcado: {} descuentos en {} productos",
+                deductions.size(),
+                netByProduct.size());
+    }
+
+    /**
+     * Cierra una ventana de medición: promueve los productos que superaron el umbral y devuelve a
+     * base de datos los que bajaron de la mitad.
+     */
+    void evaluateHotProducts() {
+        try {
+            evaluateWindow();
+        } catch (RuntimeException e) {
+            logger.error("Error evaluando los productos del libro de stock", e);
+        }
+    }
+
+    private void evaluateWindow() {
+        int threshold = properties.hotThreshold();
+        Instant now = Instant.now();
+        cooldowns.values().removeIf(until -> until.isBefore(now));
+
+        for (HotProduct hot : hotProducts.values()) {
+            if (hot.state == State.HOT && hot.windowDeductions.getAndSet(0) < threshold / 2) {
+                releaseHotProduct(hot);
+            }
+        }
+
+        List<Candidate> window = new ArrayList<>(candidates.values());
+        candidates.clear();
+        for (Candidate candidate : window) {
+            if (candidate.deductions().get() >= threshold
+                    && !cooldowns.containsKey(candidate.id())
+                    && !hotProducts.containsKey(candidate.code())) {
+                promote(candidate);
+            }
+        }
+    }
+
+    private void promote(Candidate candidate) {
+        HotProduct hot = new HotProduct(candidate.id(), candidate.code(), candidate.name());
+        if (hotProducts.putIfAbsent(hot.code, hot) != null) {
+            return;
+        }
+
+        Optional<Integer> stock = Optional.empty();
+        try {
+            stock =
+                    transactionTemplate.execute(
+                            status -> productRepository.claimForLedger(candidate.id()));
+        } finally {
+            if (stock != null && stock.isPresent()) {
+                hot.available.set(stock.get());
+                hot.state = State.HOT;
+                logger.info(
+                        "Producto {} gestionado en memoria por el libro de stock (stock {})",
+                        hot.code,
+                        stock.get());
+            } else {
+                hot.state = State.RELEASED;
+                hotProducts.remove(hot.code, hot);
+            }
+            hot.promoted.countDown();
+        }
+    }
+
+    /** Espera a que termine la promoción en curso; devuelve false si no llegó a completarse. */
+    private boolean awaitPromotion(HotProduct hot) {
+        try {
+            hot.promoted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return hot.state != State.RELEASED;
+    }
+
+    /** Espera a que termine una liberación en curso, con éxito o sin él. */
+    private static void awaitSettled(HotProduct hot) {
+        while (hot.state == State.DRAINING) {
+            LockSupport.parkNanos(SETTLE_PARK_NANOS);
+        }
+    }
+
+    // ========== Lifecycle ==========
+    @Override
+    public void start() {
+        recoverPendingDeductions();
+        if (!properties.enabled()) {
+            return;
+        }
+
+        long flushMillis = properties.flushInterval().toMillis();
+        long windowMillis = properties.hotWindow().toMillis();
+        scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "stock-ledger");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        scheduler.scheduleWithFixedDelay(
+                this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(
+                this::evaluateHotProducts, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info(
+                "Libro de stock habilitado: umbral {} descuentos cada {}, volcado cada {}",
+                properties.hotThreshold(),
+                properties.hotWindow(),
+                properties.flushInterval());
+    }
+
+    /**
+     * Aplica los descuentos confirmados que una ejecución anterior no llegó a volcar y libera los
+     * productos que quedaron marcados. Se ejecuta aunque el libro esté deshabilitado, para no dejar
+     * productos gestionados por un libro que ya no existe.
+     */
+    private void recoverPendingDeductions() {
+        List<PendingDeduction> deductions =
+                deductionRepository.findAll().stream()
+                        .map(
+                                deduction ->
+                                        new PendingDeduction(
+                                                deduction.getMovementId(),
+                                                deduction.getProductId(),
+                                                deduction.getQuantity()))
+                        .toList();
+        if (!deductions.isEmpty()) {
+            logger.warn("Aplicando {} descuentos pendientes del libro de stock", deductions.size());
+            applyDeductions(deductions);
+        }
+
+        if (properties.enabled()
+                || !deductions.isEmpty()
+                || productRepository.existsByLedgerOwnedTrue()) {
+            transactionTemplate.executeWithoutResult(
+                    status -> productRepository.releaseAllFromLedger());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        hotProducts.values().forEach(this::releaseHotProduct);
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Arranca antes que el servidor web para no aceptar descuentos antes de la recuperación
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,377 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.StockMismatchResponse;
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse;
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse.ReconciliationStatus;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import dev.kreaker.kinvex.exception.ReconciliationInProgressException;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.projection.ProductIdRange;
+import dev.kreaker.kinvex.repository.projection.StockMismatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Conciliación de {@code products.current_stock} contra la suma de los movimientos de inventario.
+ *
+ * <p>Los productos se dividen en particiones por rango de ID y cada partición se procesa en un
+ * hilo propio, con su propia conexión de lectura: una sola consulta agrega los movimientos del
+ * rango y devuelve los productos cuyo stock no coincide. Opcionalmente, para cada diferencia se
+ * registra un movimiento de ajuste que lleva la suma de movimientos al stock actual; antes de
+ * corregir se bloquean las filas de los productos y se vuelve a comprobar la diferencia, para no
+ * corregir diferencias transitorias de operaciones concurrentes. Los descuentos del libro de stock
+ * no bloquean la fila del producto, pero su movimiento y su descuento pendiente se confirman
+ * juntos, por lo que el stock comparado ya los descuenta.
+ *
+ * <p>Solo se ejecuta una conciliación a la vez por instancia; el avance de la ejecución en curso o
+ * de la última finalizada puede consultarse mientras tanto.
+ */
+@Service
+public class StockReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReconciliationService.class);
+
+    static final String CORRECTION_NOTES = "Ajuste por conciliación de stock";
+
+    private final ProductRepository productRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final InventoryProperties.Reconciliation properties;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate correctionTransaction;
+
+    private final Counter partitionsCounter;
+    private final Counter mismatchesCounter;
+    private final Counter correctionsCounter;
+    private final Timer partitionTimer;
+
+    private final AtomicLong runIds = new AtomicLong();
+    private final AtomicReference<ReconciliationRun> latestRun = new AtomicReference<>();
+
+    public StockReconciliationService(
+            ProductRepository productRepository,
+            InventoryMovementRepository inventoryMovementRepository,
+            InventoryProperties inventoryProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.properties = inventoryProperties.reconciliation();
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.correctionTransaction = new TransactionTemplate(transactionManager);
+
+        this.partitionsCounter =
+                Counter.builder("kinvex.reconciliation.partitions")
+                        .description("Product partitions reconciled")
+                        .register(meterRegistry);
+        this.mismatchesCounter =
+                Counter.builder("kinvex.reconciliation.mismatches")
+                        .description("Products whose stock does not match their movements")
+                        .register(meterRegistry);
+        this.correctionsCounter =
+                Counter.builder("kinvex.reconciliation.corrections")
+                        .description("Adjustment movements written by the reconciliation")
+                        .register(meterRegistry);
+        this.partitionTimer =
+                Timer.builder("kinvex.reconciliation.partition.duration")
+                        .description("Duration of the reconciliation of one product partition")
+                        .register(meterRegistry);
+        Gauge.builder(
+                        "kinvex.reconciliation.progress",
+                        latestRun,
+                        StockReconciliationService::progress)
+                .description("Fraction of partitions processed by the current reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia una conciliación en segundo plano.
+     *
+     * @param applyCorrections registra movimientos de ajuste para las diferencias encontradas
+     * @return Estado inicial de la ejecución
+     * @throws ReconciliationInProgressException si ya hay una conciliación en ejecución
+     */
+    public StockReconciliationResponse startReconciliation(boolean applyCorrections) {
+        ReconciliationRun run = claimRun(applyCorrections);
+        Thread thread = new Thread(() -> execute(run), "stock-reconciliation-" + run.id);
+        thread.setDaemon(true);
+        thread.start();
+        return run.toResponse();
+    }
+
+    /** Conciliación programada para la ventana de mantenimiento; solo informa diferencias. */
+    @Scheduled(cron = "${app.inventory.reconciliation.cron:-}")
+    public void runScheduledReconciliation() {
+        try {
+            execute(claimRun(false));
+        } catch (ReconciliationInProgressException e) {
+            logger.warn("Conciliación programada omitida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el estado de una conciliación.
+     *
+     * @param runId ID de la ejecución
+     * @return Estado de la ejecución, o vacío si no es la última ejecutada en esta instancia
+     */
+    public Optional<StockReconciliationResponse> getReconciliation(Long runId) {
+        ReconciliationRun run = latestRun.get();
+        if (run == null || !run.id.equals(runId)) {
+            return Optional.empty();
+        }
+        return Optional.of(run.toResponse());
+    }
+
+    /**
+     * Ejecuta una conciliación completa en el hilo actual.
+     *
+     * @param applyCorrections registra movimientos de ajuste para las diferencias encontradas
+     * @return Resultado de la ejecución
+     */
+    public StockReconciliationResponse reconcile(boolean applyCorrections) {
+        ReconciliationRun run = claimRun(applyCorrections);
+        execute(run);
+        return run.toResponse();
+    }
+
+    private ReconciliationRun claimRun(boolean applyCorrections) {
+        ReconciliationRun run =
+                new ReconciliationRun(
+                        runIds.incrementAndGet(),
+                        applyCorrections,
+                        properties.maxReportedMismatches());
+        ReconciliationRun previous =
+                latestRun.getAndUpdate(
+                        current ->
+                                current != null && current.status == ReconciliationStatus.RUNNING
+                                        ? current
+                                        : run);
+        if (previous != null && previous.status == ReconciliationStatus.RUNNING) {
+            throw new ReconciliationInProgressException(previous.id);
+        }
+        return run;
+    }
+
+    private void execute(ReconciliationRun run) {
+        logger.info(
+                "Iniciando conciliación de stock {} (correcciones: {})",
+                run.id,
+                run.applyCorrections);
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        properties.parallelism(),
+                        task -> {
+                            Thread thread = new Thread(task, "stock-reconciliation-worker");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            ProductIdRange range =
+                    readTransaction.execute(status -> productRepository.findIdRange());
+            List<long[]> partitions = partitions(range);
+            run.totalProducts = range != null ? range.getProductCount() : 0;
+            run.totalPartitions = partitions.size();
+
+            List<Future<?>> results = new ArrayList<>(partitions.size());
+            for (long[] partition : partitions) {
+                results.add(
+                        executor.submit(() -> reconcilePartition(run, partition[0], partition[1])));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            run.finish(ReconciliationStatus.COMPLETED, null);
+            logger.info(
+                    "Conciliación de stock {} finalizada: {} productos, {} diferencias, "
+                            + "{} corregidas",
+                    run.id,
+                    run.totalProducts,
+                    run.mismatchesFound.get(),
+                    run.correctionsApplied.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.finish(ReconciliationStatus.FAILED, "Conciliación interrumpida");
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            logger.error("Error en la conciliación de stock {}", run.id, cause);
+            run.finish(ReconciliationStatus.FAILED, cause.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Divide el rango de IDs de producto en particiones contiguas de tamaño fijo. */
+    private List<long[]> partitions(ProductIdRange range) {
+        List<long[]> partitions = new ArrayList<>();
+        if (range == null || range.getMinId() == null) {
+            return partitions;
+        }
+        long size = properties.partitionSize();
+        for (long from = range.getMinId(); from <= range.getMaxId(); from += size) {
+            partitions.add(new long[] {from, Math.min(from + size - 1, range.getMaxId())});
+        }
+        return partitions;
+    }
+
+    private void reconcilePartition(ReconciliationRun run, long fromId, long toId) {
+        partitionTimer.record(
+                () -> {
+                    List<StockMismatch> mismatches =
+                            readTransaction.execute(
+                                    status ->
+                                            productRepository.findStockMismatchesBetween(
+                                                    fromId, toId));
+                    if (mismatches != null && !mismatches.isEmpty()) {
+                        if (run.applyCorrections) {
+                            mismatches = correct(mismatches);
+                            run.correctionsApplied.addAndGet(mismatches.size());
+                            correctionsCounter.increment(mismatches.size());
+                        }
+                        for (StockMismatch mismatch : mismatches) {
+                            run.report(mismatch);
+                        }
+                        mismatchesCounter.increment(mismatches.size());
+                    }
+                });
+        run.completedPartitions.incrementAndGet();
+        partitionsCounter.increment();
+    }
+
+    /**
+     * Registra los movimientos de ajuste de una partición. Bloquea los productos y vuelve a
+     * calcular las diferencias en una nueva lectura, de modo que solo se corrigen las que persisten
+     * una vez confirmadas las operaciones concurrentes sobre esos productos.
+     *
+     * @return Diferencias corregidas
+     */
+    private List<StockMismatch> correct(List<StockMismatch> candidates) {
+        List<Long> productIds = candidates.stream().map(StockMismatch::getProductId).toList();
+        List<StockMismatch> corrected =
+                correctionTransaction.execute(
+                        status -> {
+                            productRepository.lockByIds(productIds);
+                            List<StockMismatch> confirmed =
+                                    productRepository.findStockMismatchesIn(productIds);
+                            if (!confirmed.isEmpty()) {
+                                inventoryMovementRepository.insertAll(
+                                        confirmed.stream()
+                                                .map(this::buildCorrection)
+                                                .toList());
+                            }
+                            return confirmed;
+                        });
+        return corrected != null ? corrected : List.of();
+    }
+
+    private InventoryMovement buildCorrection(StockMismatch mismatch) {
+        long difference = mismatch.getCurrentStock() - mismatch.getLedgerStock();
+        InventoryMovement movement =
+                new InventoryMovement(
+                        productRepository.getReferenceById(mismatch.getProductId()),
+                        difference > 0 ? MovementType.IN : MovementType.OUT,
+                        Math.toIntExact(Math.abs(difference)));
+        movement.setReferenceType(ReferenceType.ADJUSTMENT);
+        movement.setNotes(CORRECTION_NOTES);
+        movement.setCreatedAt(LocalDateTime.now());
+        return movement;
+    }
+
+    private static double progress(AtomicReference<ReconciliationRun> latestRun) {
+        ReconciliationRun run = latestRun.get();
+        return run != null ? run.toResponse().getProgress() : 0.0;
+    }
+
+    /** Estado de una ejecución, actualizado por los hilos de las particiones. */
+    private static final class ReconciliationRun {
+
+        private final Long id;
+        private final boolean applyCorrections;
+        private final int maxReportedMismatches;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private final AtomicLong mismatchesFound = new AtomicLong();
+        private final AtomicLong correctionsApplied = new AtomicLong();
+        private final List<StockMismatchResponse> mismatches = new ArrayList<>();
+
+        private volatile ReconciliationStatus status = ReconciliationStatus.RUNNING;
+        private volatile long totalProducts;
+        private volatile int totalPartitions;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private ReconciliationRun(Long id, boolean applyCorrections, int maxReportedMismatches) {
+            this.id = id;
+            this.applyCorrections = applyCorrections;
+            this.maxReportedMismatches = maxReportedMismatches;
+        }
+
+        private void report(StockMismatch mismatch) {
+            mismatchesFound.incrementAndGet();
+            logger.warn(
+                    "Stock de {} no coincide con sus movimientos: actual {}, movimientos {}",
+                    mismatch.getProductCode(),
+                    mismatch.getCurrentStock(),
+                    mismatch.getLedgerStock());
+            synchronized (mismatches) {
+                if (mismatches.size() < maxReportedMismatches) {
+                    mismatches.add(
+                            new StockMismatchResponse(
+                                    mismatch.getProductId(),
+                                    mismatch.getProductCode(),
+                                    mismatch.getCurrentStock(),
+                                    mismatch.getLedgerStock(),
+                                    applyCorrections));
+                }
+            }
+        }
+
+        private void finish(ReconciliationStatus finalStatus, String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private StockReconciliationResponse toResponse() {
+            StockReconciliationResponse response = new StockReconciliationResponse();
+            response.setRunId(id);
+            response.setStatus(status);
+            response.setApplyCorrections(applyCorrections);
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            response.setTotalProducts(totalProducts);
+            response.setTotalPartitions(totalPartitions);
+            response.setCompletedPartitions(completedPartitions.get());
+            response.setMismatchesFound(mismatchesFound.get());
+            response.setCorrectionsApplied(correctionsApplied.get());
+            response.setError(error);
+            synchronized (mismatches) {
+                response.setMismatches(List.copyOf(mismatches));
+            }
+            return response;
+        }
+    }
+}
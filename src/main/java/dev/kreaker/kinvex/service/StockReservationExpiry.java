@@ -0,0 +1,195 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.entity.StockReservationItem;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockReservationRepository;
+import dev.kreaker.kinvex.repository.projection.ReservationExpiration;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Vencimiento de reservas de stock.
+ *
+ * <p>Cada reserva creada en esta instancia se agrega a una cola ordenada por vencimiento; un hilo
+ * toma cada reserva en el momento en que vence y devuelve sus unidades al stock disponible, sin
+ * recorrer la tabla de reservas. Al arrancar se cargan en la cola las reservas activas existentes.
+ * Un barrido periódico sobre el índice parcial de reservas activas cubre las reservas creadas por
+ * otras instancias y los vencimientos que fallaron.
+ *
+ * <p>Vencer una reserva es idempotente: si ya fue confirmada o liberada, no se modifica nada.
+ */
+@Service
+public class StockReservationExpiry implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationExpiry.class);
+
+    static final int SWEEP_BATCH_SIZE = 500;
+
+    /** Reserva pendiente de vencer en la cola. */
+    record PendingExpiration(Long reservationId, LocalDateTime expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(
+                    Duration.between(LocalDateTime.now(), expiresAt).toNanos(),
+                    TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((PendingExpiration) other).expiresAt);
+        }
+    }
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final InventoryProperties.Reservation properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final DelayQueue<PendingExpiration> queue = new DelayQueue<>();
+    private Thread worker;
+    private volatile boolean running;
+
+    public StockReservationExpiry(
+            StockReservationRepository reservationRepository,
+            ProductRepository productRepository,
+            InventoryProperties inventoryProperties,
+            PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.properties = inventoryProperties.reservation();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Programa el vencimiento de una reserva. Si la transacción que la creó se revierte, el
+     * vencimiento no encuentra una reserva activa y no hace nada.
+     */
+    public void schedule(Long reservationId, LocalDateTime expiresAt) {
+        queue.add(new PendingExpiration(reservationId, expiresAt));
+    }
+
+    /**
+     * Vence una reserva y devuelve sus unidades al stock disponible.
+     *
+     * @return true si la reserva estaba activa y vencida
+     */
+    boolean expire(Long reservationId) {
+        Boolean expired =
+                transactionTemplate.execute(
+                        status -> {
+                            LocalDateTime now = LocalDateTime.now();
+                            if (reservationRepository.markExpired(reservationId, now) == 0) {
+                                return false;
+                            }
+                            StockReservation reservation =
+                                    reservationRepository
+                                            .findByIdWithItems(reservationId)
+                                            .orElseThrow();
+                            for (StockReservationItem item : reservation.getItems()) {
+                                productRepository.releaseReservedStock(
+                                        item.getProduct().getId(), item.getQuantity());
+                            }
+                            return true;
+                        });
+        if (Boolean.TRUE.equals(expired)) {
+            logger.info("Reserva de stock {} vencida", reservationId);
+        }
+        return Boolean.TRUE.equals(expired);
+    }
+
+    /** Barrido de respaldo de reservas vencidas que no están en la cola de esta instancia. */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.sweep-interval:PT1M}")
+    public void sweepExpiredReservations() {
+        int expired = 0;
+        List<ReservationExpiration> batch;
+        do {
+            batch =
+                    reservationRepository.findActiveExpiringBefore(
+                            LocalDateTime.now(), PageRequest.of(0, SWEEP_BATCH_SIZE));
+            int expiredInBatch = 0;
+            for (ReservationExpiration expiration : batch) {
+                if (expireQuietly(expiration.getId())) {
+                    expiredInBatch++;
+                }
+            }
+            expired += expiredInBatch;
+            // Sin avance el lote siguiente sería el mismo: se reintenta en el próximo barrido
+            if (expiredInBatch == 0) {
+                break;
+            }
+        } while (batch.size() == SWEEP_BATCH_SIZE);
+
+        if (expired > 0) {
+            logger.info("Barrido de reservas: {} reservas vencidas", expired);
+        }
+    }
+
+    private boolean expireQuietly(Long reservationId) {
+        try {
+            return expire(reservationId);
+        } catch (RuntimeException e) {
+            logger.error("Error venciendo la reserva de stock {}", reservationId, e);
+            return false;
+        }
+    }
+
+    private void expireLoop() {
+        while (running) {
+            try {
+                expireQuietly(queue.take().reservationId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // ========== Lifecycle ==========
+    @Override
+    public void start() {
+        try {
+            // Ninguna reserva activa vence después de la vigencia máxima
+            LocalDateTime until = LocalDateTime.now().plus(properties.maxTtl());
+            for (ReservationExpiration expiration :
+                    reservationRepository.findActiveExpiringBefore(until, Pageable.unpaged())) {
+                schedule(expiration.getId(), expiration.getExpiresAt());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron cargar las reservas activas; se vencerán por barrido", e);
+        }
+
+        running = true;
+        worker = new Thread(this::expireLoop, "stock-reservation-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
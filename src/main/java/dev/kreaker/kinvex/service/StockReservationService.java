@@ -0,0 +1,317 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.StockReservationItemRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationItemResponse;
+import dev.kreaker.kinvex.dto.inventory.StockReservationRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationResponse;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.entity.StockReservation.ReservationStatus;
+import dev.kreaker.kinvex.entity.StockReservationItem;
+import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.exception.InsufficientStockException;
+import dev.kreaker.kinvex.exception.ProductNotFoundException;
+import dev.kreaker.kinvex.exception.ReservationNotFoundException;
+import dev.kreaker.kinvex.exception.ReservationStateConflictException;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockReservationRepository;
+import dev.kreaker.kinvex.repository.projection.StockDeductionResult;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio de reservas de stock para el flujo de checkout de sistemas externos.
+ *
+ * <p>Una reserva aparta stock al armar el carrito sin descontarlo: sus unidades se suman a {@code
+ * products.reserved_stock}, de modo que el stock disponible ({@code current_stock -
+ * reserved_stock}) se lee directamente de la fila del producto. Al facturar, la reserva se confirma
+ * y las unidades pasan a ser una salida de stock con su movimiento; si se libera o vence, vuelven
+ * al stock disponible sin generar movimientos.
+ */
+@Service
+@Transactional
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    static final String RESERVATION_SCOPE = "STOCK_RESERVATION";
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final InventoryProperties inventoryProperties;
+    private final IdempotencyService idempotencyService;
+    private final StockLedger stockLedger;
+    private final StockReservationExpiry reservationExpiry;
+
+    public StockReservationService(
+            ProductRepository productRepository,
+            StockReservationRepository reservationRepository,
+            InventoryMovementRepository inventoryMovementRepository,
+            CurrentUserProvider currentUserProvider,
+            InventoryProperties inventoryProperties,
+            IdempotencyService idempotencyService,
+            StockLedger stockLedger,
+            StockReservationExpiry reservationExpiry) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.currentUserProvider = currentUserProvider;
+        this.inventoryProperties = inventoryProperties;
+        this.idempotencyService = idempotencyService;
+        this.stockLedger = stockLedger;
+        this.reservationExpiry = reservationExpiry;
+    }
+
+    /**
+     * Reserva stock para todas las líneas de un carrito. La reserva es atómica: si alguna línea no
+     * tiene stock disponible o referencia un producto inexistente, no se reserva ninguna.
+     *
+     * @param request Solicitud de reserva
+     * @return Reserva creada
+     * @throws ProductNotFoundException si algún producto no existe o está inactivo
+     * @throws InsufficientStockException si algún producto no tiene stock disponible suficiente
+     */
+    public StockReservationResponse reserveStock(StockReservationRequest request) {
+        return idempotencyService.execute(
+                request.getIdempotencyKey(),
+                RESERVATION_SCOPE,
+                request,
+                StockReservationResponse.class,
+                () -> applyReservation(request));
+    }
+
+    /**
+     * Confirma una reserva activa: descuenta sus unidades del stock y registra los movimientos de
+     * salida.
+     *
+     * @param reservationId ID de la reserva
+     * @return Reserva confirmada
+     * @throws ReservationNotFoundException si la reserva no existe
+     * @throws ReservationStateConflictException si la reserva ya no está activa o venció
+     */
+    public StockReservationResponse commitReservation(Long reservationId) {
+        logger.info("Confirmando reserva de stock ID: {}", reservationId);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (reservationRepository.markCommitted(reservationId, now) == 0) {
+            throw rejectedTransition(reservationId, now);
+        }
+
+        StockReservation reservation = loadReservation(reservationId);
+        User currentUser = currentUserProvider.getCurrentUser().orElse(null);
+        String sourceSystem =
+                Objects.requireNonNullElse(reservation.getSourceSystem(), "EXTERNAL_BILLING");
+        String notes =
+                Objects.requireNonNullElse(
+                        reservation.getNotes(), "Reserva " + reservationId + " confirmada");
+
+        List<InventoryMovement> movements = new ArrayList<>(reservation.getItems().size());
+        for (StockReservationItem item : itemsInLockOrder(reservation)) {
+            Product product = item.getProduct();
+            // Solo falla si un ajuste manual dejó el stock por debajo de lo reservado
+            if (productRepository.commitReservedStock(product.getId(), item.getQuantity()) == 0) {
+                throw new InsufficientStockException(
+                        product.getId(),
+                        product.getCode(),
+                        product.getCurrentStock(),
+                        item.getQuantity());
+            }
+
+            InventoryMovement movement =
+                    new InventoryMovement(
+                            product,
+                            MovementType.OUT,
+                            item.getQuantity(),
+                            InventoryMovement.ReferenceType.SALE,
+                            reservationId,
+                            currentUser);
+            movement.setSourceSystem(sourceSystem);
+            movement.setNotes(notes);
+            movement.setCreatedAt(now);
+            movements.add(movement);
+        }
+        inventoryMovementRepository.insertAll(movements);
+
+        logger.info(
+                "Reserva de stock {} confirmada: {} productos",
+                reservationId,
+                reservation.getItems().size());
+
+        return StockReservationResponse.from(reservation);
+    }
+
+    /**
+     * Libera una reserva activa y devuelve sus unidades al stock disponible.
+     *
+     * @param reservationId ID de la reserva
+     * @return Reserva liberada
+     * @throws ReservationNotFoundException si la reserva no existe
+     * @throws ReservationStateConflictException si la reserva ya fue confirmada, liberada o vencida
+     */
+    public StockReservationResponse releaseReservation(Long reservationId) {
+        logger.info("Liberando reserva de stock ID: {}", reservationId);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (reservationRepository.markReleased(reservationId, now) == 0) {
+            throw rejectedTransition(reservationId, now);
+        }
+
+        StockReservation reservation = loadReservation(reservationId);
+        for (StockReservationItem item : itemsInLockOrder(reservation)) {
+            productRepository.releaseReservedStock(item.getProduct().getId(), item.getQuantity());
+        }
+
+        return StockReservationResponse.from(reservation);
+    }
+
+    /**
+     * Obtiene una reserva por su ID.
+     *
+     * @param reservationId ID de la reserva
+     * @return Reserva encontrada
+     * @throws ReservationNotFoundException si la reserva no existe
+     */
+    @Transactional(readOnly = true)
+    public StockReservationResponse getReservation(Long reservationId) {
+        return StockReservationResponse.from(loadReservation(reservationId));
+    }
+
+    // ========== Helper Methods ==========
+
+    /**
+     * Líneas de una reserva en orden de ID de producto, el mismo en que bloquea las filas de
+     * products el descuento de facturas, para que confirmaciones y liberaciones concurrentes de
+     * reservas con productos comunes no se interbloqueen.
+     */
+    private static List<StockReservationItem> itemsInLockOrder(StockReservation reservation) {
+        return reservation.getItems().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .toList();
+    }
+
+    private StockReservationResponse applyReservation(StockReservationRequest request) {
+        logger.info(
+                "Procesando reserva de stock: referencia={}, líneas={}, sistema={}",
+                request.getReference(),
+                request.getItems().size(),
+                request.getSourceSystem());
+
+        // Agrupar por código y reservar en orden de código: reservas concurrentes bloquean las
+        // filas de products en el mismo orden y no se interbloquean
+        Map<String, Integer> requestedByCode = new TreeMap<>();
+        for (StockReservationItemRequest item : request.getItems()) {
+            requestedByCode.merge(item.getProductCode(), item.getQuantity(), Integer::sum);
+        }
+
+        // Las reservas se validan en base de datos: los productos no pueden quedar en el libro
+        stockLedger.release(requestedByCode.keySet());
+
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation =
+                new StockReservation(
+                        request.getReference(),
+                        now.plus(resolveTtl(request.getTtlSeconds())),
+                        currentUserProvider.getCurrentUser().orElse(null));
+        reservation.setSourceSystem(request.getSourceSystem());
+        reservation.setNotes(request.getNotes());
+
+        List<StockReservationItemResponse> items = new ArrayList<>(requestedByCode.size());
+        requestedByCode.forEach(
+                (code, quantity) -> {
+                    StockDeductionResult reserved = reserveProduct(code, quantity);
+                    reservation.addItem(
+                            new StockReservationItem(
+                                    productRepository.getReferenceById(reserved.getId()),
+                                    quantity));
+                    items.add(
+                            new StockReservationItemResponse(
+                                    reserved.getCode(), reserved.getName(), quantity));
+                });
+
+        StockReservation savedReservation = reservationRepository.save(reservation);
+        reservationExpiry.schedule(savedReservation.getId(), savedReservation.getExpiresAt());
+
+        logger.info(
+                "Reserva de stock {} creada: {} productos, vence {}",
+                savedReservation.getId(),
+                items.size(),
+                savedReservation.getExpiresAt());
+
+        return StockReservationResponse.of(savedReservation, items);
+    }
+
+    /** Reserva stock de un producto con un UPDATE condicional. */
+    private StockDeductionResult reserveProduct(String productCode, Integer quantity) {
+        Optional<StockDeductionResult> reserved =
+                productRepository.reserveStockByCode(productCode, quantity);
+        if (reserved.isPresent()) {
+            return reserved.get();
+        }
+
+        // Camino de error: determinar el motivo
+        Product product =
+                productRepository
+                        .findByCode(productCode)
+                        .filter(Product::getActive)
+                        .orElseThrow(() -> new ProductNotFoundException("código", productCode));
+        if (Boolean.TRUE.equals(product.getLedgerOwned())) {
+            // El libro tomó el producto después de liberarlo
+            stockLedger.release(List.of(productCode));
+            reserved = productRepository.reserveStockByCode(productCode, quantity);
+            if (reserved.isPresent()) {
+                return reserved.get();
+            }
+        }
+        throw new InsufficientStockException(
+                product.getId(), productCode, product.getAvailableStock(), quantity);
+    }
+
+    private Duration resolveTtl(Long ttlSeconds) {
+        InventoryProperties.Reservation properties = inventoryProperties.reservation();
+        if (ttlSeconds == null) {
+            return properties.defaultTtl();
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(properties.maxTtl()) > 0 ? properties.maxTtl() : requested;
+    }
+
+    private StockReservation loadReservation(Long reservationId) {
+        return reservationRepository
+                .findByIdWithItems(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+    }
+
+    /** Determina por qué no se aplicó una transición de estado. Solo se ejecuta en el error. */
+    private RuntimeException rejectedTransition(Long reservationId, LocalDateTime now) {
+        StockReservation reservation =
+                reservationRepository
+                        .findById(reservationId)
+                        .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (reservation.isExpired(now) || reservation.getStatus() == ReservationStatus.EXPIRED) {
+            return new ReservationStateConflictException(
+                    reservationId,
+                    "La reserva " + reservationId + " venció el " + reservation.getExpiresAt());
+        }
+        return new ReservationStateConflictException(
+                reservationId,
+                "La reserva " + reservationId + " ya está en estado " + reservation.getStatus());
+    }
+}
@@ -0,0 +1,213 @@
+package dev.kreaker.kinvex.service;
+
+import dev.kreaker.kinvex.dto.inventory.StockAsOfResponse;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.StockSnapshot;
+import dev.kreaker.kinvex.exception.ProductNotFoundException;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockLedgerDeductionRepository;
+import dev.kreaker.kinvex.repository.StockSnapshotRepository;
+import dev.kreaker.kinvex.repository.projection.NetMovement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fotos diarias de stock y consultas de stock a una fecha.
+ *
+ * <p>Cada noche se guarda el stock de cierre de cada producto, calculado a partir de la foto del
+ * día anterior y los movimientos del día. El stock en un momento dado se obtiene de la foto más
+ * cercana y los movimientos entre el cierre de esa foto y el momento consultado, sin recorrer el
+ * historial completo de movimientos del producto.
+ */
+@Service
+public class StockSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockSnapshotService.class);
+
+    /** Días pendientes que se recuperan como máximo en una ejecución. */
+    static final int MAX_CATCH_UP_DAYS = 31;
+
+    /**
+     * Días hacia atrás que se reconstruyen desde el stock actual para un producto sin fotos. La
+     * foto diaria incluye a todos los productos creados hasta su cierre, así que un producto sin
+     * fotos es posterior a la última o las fotos no se están generando; el límite acota el rango
+     * de movimientos que se suman en el segundo caso.
+     */
+    static final int MAX_DAYS_WITHOUT_SNAPSHOT = MAX_CATCH_UP_DAYS;
+
+    private final StockSnapshotRepository snapshotRepository;
+    private final ProductRepository productRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final StockLedgerDeductionRepository deductionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockSnapshotService(
+            StockSnapshotRepository snapshotRepository,
+            ProductRepository productRepository,
+            InventoryMovementRepository inventoryMovementRepository,
+            StockLedgerDeductionRepository deductionRepository,
+            PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.productRepository = productRepository;
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.deductionRepository = deductionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Guarda las fotos de los días cerrados que aún no la tienen, hasta ayer. */
+    @Scheduled(cron = "${app.inventory.snapshot.cron:0 15 0 * * *}")
+    public void takeDailySnapshots() {
+        takeSnapshotsThrough(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Guarda las fotos de cada día desde la última foto existente hasta el día indicado, un día por
+     * transacción. Sin fotos previas solo se guarda el último día; si el atraso supera {@link
+     * #MAX_CATCH_UP_DAYS}, los días más antiguos se omiten y la primera foto parte del stock
+     * actual.
+     *
+     * @param lastDay Último día a fotografiar
+     * @return Número de fotos insertadas
+     */
+    public int takeSnapshotsThrough(LocalDate lastDay) {
+        LocalDate firstDay =
+                snapshotRepository
+                        .findLatestSnapshotDate()
+                        .map(latest -> latest.plusDays(1))
+                        .orElse(lastDay);
+        LocalDate oldestAllowed = lastDay.minusDays(MAX_CATCH_UP_DAYS - 1L);
+        if (firstDay.isBefore(oldestAllowed)) {
+            logger.warn(
+                    "Fotos de stock atrasadas desde {}; se generan solo desde {}",
+                    firstDay,
+                    oldestAllowed);
+            firstDay = oldestAllowed;
+        }
+
+        int inserted = 0;
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            LocalDate snapshotDay = day;
+            Integer rows =
+                    transactionTemplate.execute(
+                            status ->
+                                    snapshotRepository.insertDailySnapshots(
+                                            snapshotDay,
+                                            snapshotDay.minusDays(1),
+                                            snapshotDay.atStartOfDay(),
+                                            snapshotDay.plusDays(1).atStartOfDay()));
+            int dayRows = rows != null ? rows : 0;
+            logger.info("Foto de stock del {}: {} productos", snapshotDay, dayRows);
+            inserted += dayRows;
+        }
+        return inserted;
+    }
+
+    /**
+     * Obtiene el stock de un producto en un momento dado.
+     *
+     * <p>Parte de la última foto cerrada antes del momento consultado y le suma los movimientos
+     * posteriores a su cierre. Si el momento es anterior a todas las fotos del producto, parte de
+     * la siguiente foto y le resta los movimientos intermedios; sin fotos, parte del stock actual
+     * menos los descuentos del libro de stock pendientes de volcar y le resta los movimientos
+     * desde el momento consultado, o desde la creación del producto si es posterior, con un
+     * máximo de {@link #MAX_DAYS_WITHOUT_SNAPSHOT} días.
+     *
+     * @param productId ID del producto
+     * @param at Momento consultado
+     * @return Stock del producto en ese momento
+     * @throws ProductNotFoundException si el producto no existe
+     * @throws IllegalArgumentException si el producto no tiene fotos y el momento consultado supera
+     *     el máximo de días sin foto
+     */
+    // Stock, descuentos pendientes y movimientos se leen de la misma instantánea
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public StockAsOfResponse getStockAsOf(Long productId, LocalDateTime at) {
+        Product product =
+                productRepository
+                        .findById(productId)
+                        .orElseThrow(() -> new ProductNotFoundException(productId));
+
+        Optional<StockSnapshot> before =
+                snapshotRepository
+                        .findFirstByProductIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+                                productId, at.toLocalDate());
+        if (before.isPresent()) {
+            StockSnapshot snapshot = before.get();
+            NetMovement delta =
+                    inventoryMovementRepository.sumNetMovementBetween(
+                            productId, snapshot.getClosingTime(), at);
+            return response(
+                    product,
+                    at,
+                    snapshot.getClosingStock() + delta.getNetQuantity(),
+                    snapshot.getSnapshotDate(),
+                    delta.getMovementCount());
+        }
+
+        Optional<StockSnapshot> after =
+                snapshotRepository
+                        .findFirstByProductIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(
+                                productId, at.toLocalDate());
+        if (after.isPresent()) {
+            StockSnapshot snapshot = after.get();
+            NetMovement delta =
+                    inventoryMovementRepository.sumNetMovementBetween(
+                            productId, at, snapshot.getClosingTime());
+            return response(
+                    product,
+                    at,
+                    snapshot.getClosingStock() - delta.getNetQuantity(),
+                    snapshot.getSnapshotDate(),
+                    delta.getMovementCount());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = at;
+        if (product.getCreatedAt() != null && from.isBefore(product.getCreatedAt())) {
+            // No hay movimientos anteriores a la creación del producto
+            from = product.getCreatedAt();
+        }
+        if (from.isBefore(now.minusDays(MAX_DAYS_WITHOUT_SNAPSHOT))) {
+            throw new IllegalArgumentException(
+                    "El producto "
+                            + productId
+                            + " no tiene fotos de stock; solo se puede consultar hasta "
+                            + MAX_DAYS_WITHOUT_SNAPSHOT
+                            + " días atrás");
+        }
+        NetMovement delta = inventoryMovementRepository.sumNetMovementBetween(productId, from, now);
+        // El movimiento de un descuento del libro ya está registrado aunque el stock no lo refleje
+        long stock = product.getCurrentStock() - deductionRepository.sumPendingQuantity(productId);
+        return response(
+                product,
+                at,
+                stock - delta.getNetQuantity(),
+                null,
+                delta.getMovementCount());
+    }
+
+    private static StockAsOfResponse response(
+            Product product,
+            LocalDateTime at,
+            long stock,
+            LocalDate snapshotDate,
+            Long movementsApplied) {
+        return new StockAsOfResponse(
+                product.getId(),
+                product.getCode(),
+                at,
+                Math.toIntExact(stock),
+                snapshotDate,
+                movementsApplied);
+    }
+}
@@ -0,0 +1,108 @@
+package dev.kreaker.kinvex.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Lector de libros XLSX con la API de eventos (SAX) de POI: la hoja se recorre como XML y cada
+ * fila se entrega al leerse, sin construir el libro en memoria. Solo se lee la primera hoja y los
+ * valores se obtienen con el formato de cada celda.
+ *
+ * <p>El archivo se copia a un temporal porque el paquete ZIP se abre por acceso aleatorio; abrirlo
+ * desde el flujo de entrada cargaría todas sus partes en memoria.
+ */
+class XlsxProductRowReader implements ProductRowReader {
+
+    @Override
+    public void read(InputStream input, RowHandler handler) throws IOException {
+        Path file = Files.createTempFile("kinvex-product-import-", ".xlsx");
+        try {
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                readFirstSheet(pkg, handler);
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("El archivo XLSX no es válido", e);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void readFirstSheet(OPCPackage pkg, RowHandler handler)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        XSSFReader reader = new XSSFReader(pkg);
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            throw new IllegalArgumentException("El archivo XLSX no contiene hojas");
+        }
+
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(
+                new XSSFSheetXMLHandler(
+                        reader.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pkg),
+                        new RowCollector(handler),
+                        new DataFormatter(),
+                        false));
+        try (InputStream sheet = sheets.next()) {
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    /** Reúne las celdas de cada fila; las celdas vacías no generan eventos y se rellenan. */
+    private static final class RowCollector implements SheetContentsHandler {
+
+        private final RowHandler handler;
+        private List<String> cells = new ArrayList<>();
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            boolean blank = cells.stream().allMatch(String::isBlank);
+            if (!blank) {
+                handler.row(rowNum + 1L, cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column =
+                    cellReference != null
+                            ? new CellReference(cellReference).getCol()
+                            : cells.size();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue != null ? formattedValue : "");
+        }
+    }
+}
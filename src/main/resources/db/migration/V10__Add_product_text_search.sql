@@ -0,0 +1,19 @@
+-- Búsqueda de texto en productos
+-- Las búsquedas por subcadena (LOWER(x) LIKE '%term%') usan índices GIN de trigramas en lugar de
+-- recorrer la tabla; la búsqueda por palabras usa un tsvector de nombre y descripción
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_products_code_trgm ON products USING gin (lower(code) gin_trgm_ops);
+
+-- Configuración 'simple': sin stemming, para que nombres comerciales y códigos se indexen tal cual
+ALTER TABLE products ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A')
+            || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_products_search_vector ON products USING gin (search_vector);
+
+COMMENT ON COLUMN products.search_vector IS 'Full-text document: name (weight A) and description (weight B)';
@@ -0,0 +1,13 @@
+-- Índices para la paginación por cursor de órdenes y movimientos
+-- Cada página se lee con un rango sobre (clave de ordenamiento, id) a partir del cursor, sin
+-- OFFSET ni COUNT. Los productos usan idx_products_active_name (name, id) de V9
+
+-- Órdenes de compra de la más reciente a la más antigua, con y sin filtro por estado
+CREATE INDEX idx_purchase_orders_date_id ON purchase_orders(order_date, id);
+CREATE INDEX idx_purchase_orders_status_date_id ON purchase_orders(status, order_date, id);
+
+-- Movimientos de un producto en orden cronológico; también cubre los rangos por fecha de V8
+CREATE INDEX idx_inventory_movements_product_date_id
+    ON inventory_movements(product_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_inventory_movements_product_date;
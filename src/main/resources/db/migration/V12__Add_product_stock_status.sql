@@ -0,0 +1,24 @@
+-- Clasificación del stock de cada producto
+-- Las consultas de stock bajo, sin stock y sobre stock comparaban columnas entre sí
+-- (current_stock <= min_stock), algo que un índice B-tree no resuelve. La columna generada se
+-- recalcula en cada UPDATE de stock o de límites, incluidas las consultas nativas de descuento y
+-- reserva, y el índice parcial contiene solo los productos activos fuera de rango
+
+ALTER TABLE products ADD COLUMN stock_status VARCHAR(12)
+    GENERATED ALWAYS AS (
+        CASE
+            WHEN current_stock = 0 THEN 'OUT_OF_STOCK'
+            WHEN current_stock <= min_stock THEN 'LOW_STOCK'
+            WHEN max_stock IS NOT NULL AND current_stock > max_stock THEN 'OVER_STOCK'
+            ELSE 'NORMAL'
+        END
+    ) STORED;
+
+CREATE INDEX idx_products_active_stock_status ON products(stock_status, name, id)
+    WHERE active = true AND stock_status <> 'NORMAL';
+
+-- Reemplazados por idx_products_active_stock_status
+DROP INDEX IF EXISTS idx_products_active_low_stock;
+DROP INDEX IF EXISTS idx_products_active_out_of_stock;
+
+COMMENT ON COLUMN products.stock_status IS 'NORMAL, LOW_STOCK, OUT_OF_STOCK or OVER_STOCK, derived from current/min/max stock';
@@ -0,0 +1,74 @@
+-- Valoración de inventario mantenida por deltas
+-- El valor total y las estadísticas por categoría recorrían todos los productos en cada consulta.
+-- Un trigger sobre products aplica la diferencia de cada alta, baja o cambio de stock, precio,
+-- categoría o estado, de modo que las lecturas solo suman unas pocas filas.
+--
+-- Cada categoría se reparte en 16 filas (slot = id % 16): productos distintos de la misma
+-- categoría actualizan filas distintas y los descuentos concurrentes no esperan unos a otros por
+-- el bloqueo de una única fila hasta el commit. category_id = 0 agrupa los productos sin categoría
+
+CREATE TABLE inventory_valuation (
+    category_id BIGINT NOT NULL,
+    slot SMALLINT NOT NULL,
+    product_count BIGINT NOT NULL DEFAULT 0,
+    total_units BIGINT NOT NULL DEFAULT 0,
+    total_value NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (category_id, slot)
+);
+
+CREATE FUNCTION add_inventory_valuation(
+    p_category_id BIGINT, p_slot SMALLINT, p_count BIGINT, p_units BIGINT, p_value NUMERIC)
+RETURNS void AS $$
+BEGIN
+    INSERT INTO inventory_valuation AS v (category_id, slot, product_count, total_units, total_value)
+    VALUES (p_category_id, p_slot, p_count, p_units, p_value)
+    ON CONFLICT (category_id, slot) DO UPDATE
+        SET product_count = v.product_count + EXCLUDED.product_count,
+            total_units = v.total_units + EXCLUDED.total_units,
+            total_value = v.total_value + EXCLUDED.total_value;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION apply_inventory_valuation_delta() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.active AND NEW.active
+            AND OLD.category_id IS NOT DISTINCT FROM NEW.category_id THEN
+        -- Caso habitual (cambio de stock o precio): una sola actualización con la diferencia
+        IF OLD.current_stock <> NEW.current_stock OR OLD.unit_price <> NEW.unit_price THEN
+            PERFORM add_inventory_valuation(
+                COALESCE(NEW.category_id, 0), CAST(NEW.id % 16 AS SMALLINT), 0,
+                CAST(NEW.current_stock - OLD.current_stock AS BIGINT),
+                NEW.current_stock * NEW.unit_price - OLD.current_stock * OLD.unit_price);
+        END IF;
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.active THEN
+        PERFORM add_inventory_valuation(
+            COALESCE(OLD.category_id, 0), CAST(OLD.id % 16 AS SMALLINT), -1,
+            CAST(-OLD.current_stock AS BIGINT), -(OLD.current_stock * OLD.unit_price));
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.active THEN
+        PERFORM add_inventory_valuation(
+            COALESCE(NEW.category_id, 0), CAST(NEW.id % 16 AS SMALLINT), 1,
+            CAST(NEW.current_stock AS BIGINT), NEW.current_stock * NEW.unit_price);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_inventory_valuation
+    AFTER INSERT OR DELETE OR UPDATE OF current_stock, unit_price, category_id, active
+    ON products
+    FOR EACH ROW EXECUTE FUNCTION apply_inventory_valuation_delta();
+
+-- Carga inicial desde los productos existentes
+INSERT INTO inventory_valuation (category_id, slot, product_count, total_units, total_value)
+SELECT COALESCE(category_id, 0), CAST(id % 16 AS SMALLINT), COUNT(*), SUM(current_stock),
+       SUM(current_stock * unit_price)
+FROM products
+WHERE active = true
+GROUP BY COALESCE(category_id, 0), CAST(id % 16 AS SMALLINT);
+
+COMMENT ON TABLE inventory_valuation IS 'Running count, units and value of active products per category and slot, maintained by trigger';
+COMMENT ON COLUMN inventory_valuation.category_id IS 'Category id, or 0 for products without category';
@@ -0,0 +1,4 @@
+-- Índice para los reportes de órdenes de compra por período
+-- El rendimiento de proveedores y las estadísticas de órdenes filtran por created_at; sin este
+-- índice cada reporte recorre la tabla completa
+CREATE INDEX idx_purchase_orders_created_at ON purchase_orders(created_at);
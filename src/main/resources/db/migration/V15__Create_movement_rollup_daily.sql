@@ -0,0 +1,111 @@
+-- Totales diarios de movimientos para los reportes agregados
+-- Los resúmenes por producto, tipo, día y sistema de origen recorrían inventory_movements en cada
+-- consulta. Triggers sobre inventory_movements suman a esta tabla cada alta, baja o cambio de
+-- movimientos en la misma transacción, de modo que un reporte de un año lee una fila por día y
+-- combinación de producto, tipo, referencia y origen en lugar de cada movimiento.
+--
+-- Los triggers son por sentencia y usan tablas de transición: un INSERT de varias filas (escritura
+-- por lotes, importaciones, conciliación) aplica una sola actualización agrupada. Solo compiten
+-- por una fila los movimientos del mismo día, producto, tipo, referencia y origen.
+
+CREATE TABLE movement_rollup_daily (
+    id BIGSERIAL PRIMARY KEY,
+    movement_date DATE NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    movement_type VARCHAR(20) NOT NULL,
+    reference_type VARCHAR(20),
+    source_system VARCHAR(50),
+    movement_count BIGINT NOT NULL DEFAULT 0,
+    total_quantity BIGINT NOT NULL DEFAULT 0
+);
+
+-- Clave de los totales; las referencias y orígenes nulos se agrupan entre sí. La fecha va primero
+-- para que los reportes por rango de fechas recorran solo esa parte del índice
+CREATE UNIQUE INDEX uk_movement_rollup_daily_key ON movement_rollup_daily (
+    movement_date, product_id, movement_type,
+    COALESCE(reference_type, ''), COALESCE(source_system, ''));
+
+CREATE INDEX idx_movement_rollup_daily_product ON movement_rollup_daily(product_id);
+
+-- Un origen vacío se agrupa con los nulos: ambos comparten la misma clave
+CREATE FUNCTION apply_movement_rollup_delta() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO movement_rollup_daily AS r (movement_date, product_id, movement_type,
+            reference_type, source_system, movement_count, total_quantity)
+        SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+               NULLIF(source_system, ''), COUNT(*), SUM(quantity)
+        FROM new_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY 1, 2, 3, 4, 5
+        ON CONFLICT (movement_date, product_id, movement_type,
+                     COALESCE(reference_type, ''), COALESCE(source_system, ''))
+        DO UPDATE SET movement_count = r.movement_count + EXCLUDED.movement_count,
+                      total_quantity = r.total_quantity + EXCLUDED.total_quantity;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO movement_rollup_daily AS r (movement_date, product_id, movement_type,
+            reference_type, source_system, movement_count, total_quantity)
+        SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+               NULLIF(source_system, ''), -COUNT(*), -SUM(quantity)
+        FROM old_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY 1, 2, 3, 4, 5
+        ON CONFLICT (movement_date, product_id, movement_type,
+                     COALESCE(reference_type, ''), COALESCE(source_system, ''))
+        DO UPDATE SET movement_count = r.movement_count + EXCLUDED.movement_count,
+                      total_quantity = r.total_quantity + EXCLUDED.total_quantity;
+    ELSE
+        -- Resta la versión anterior y suma la nueva en una sola actualización por clave
+        INSERT INTO movement_rollup_daily AS r (movement_date, product_id, movement_type,
+            reference_type, source_system, movement_count, total_quantity)
+        SELECT movement_date, product_id, movement_type, reference_type, source_system,
+               SUM(movement_count), SUM(total_quantity)
+        FROM (
+            SELECT CAST(created_at AS DATE) AS movement_date, product_id, movement_type,
+                   reference_type, NULLIF(source_system, '') AS source_system,
+                   -1 AS movement_count, -quantity AS total_quantity
+            FROM old_rows
+            WHERE created_at IS NOT NULL
+            UNION ALL
+            SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+                   NULLIF(source_system, ''), 1, quantity
+            FROM new_rows
+            WHERE created_at IS NOT NULL
+        ) delta
+        GROUP BY 1, 2, 3, 4, 5
+        ON CONFLICT (movement_date, product_id, movement_type,
+                     COALESCE(reference_type, ''), COALESCE(source_system, ''))
+        DO UPDATE SET movement_count = r.movement_count + EXCLUDED.movement_count,
+                      total_quantity = r.total_quantity + EXCLUDED.total_quantity;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Las tablas de transición solo admiten un evento por trigger
+CREATE TRIGGER trg_inventory_movements_rollup_insert
+    AFTER INSERT ON inventory_movements
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_movement_rollup_delta();
+
+CREATE TRIGGER trg_inventory_movements_rollup_delete
+    AFTER DELETE ON inventory_movements
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_movement_rollup_delta();
+
+CREATE TRIGGER trg_inventory_movements_rollup_update
+    AFTER UPDATE ON inventory_movements
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_movement_rollup_delta();
+
+-- Carga inicial desde los movimientos existentes
+INSERT INTO movement_rollup_daily (movement_date, product_id, movement_type, reference_type,
+    source_system, movement_count, total_quantity)
+SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+       NULLIF(source_system, ''), COUNT(*), SUM(quantity)
+FROM inventory_movements
+WHERE created_at IS NOT NULL
+GROUP BY 1, 2, 3, 4, 5;
+
+COMMENT ON TABLE movement_rollup_daily IS 'Movement count and quantity per day, product, type, reference type and source system, maintained by trigger';
+COMMENT ON COLUMN movement_rollup_daily.total_quantity IS 'Sum of movement quantities; always positive per movement, the type gives the direction';
@@ -0,0 +1,14 @@
+-- Descuentos del libro de stock pendientes de volcar a products.current_stock
+-- Cada descuento en memoria inserta su movimiento y una fila aquí en la transacción de quien lo
+-- solicita: si esa transacción se revierte no queda rastro, y si se confirma la fila sobrevive a
+-- una caída hasta que el volcado aplica el neto por producto y la borra en una misma transacción.
+-- Sustituye al registro de durabilidad en disco y a su punto de control
+
+CREATE TABLE stock_ledger_deductions (
+    movement_id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+DROP TABLE stock_ledger_checkpoints;
@@ -0,0 +1,91 @@
+-- Reparto de los totales diarios de movimientos en 16 filas por clave
+-- Con una sola fila por día, producto, tipo, referencia y origen (V15), todas las ventas
+-- concurrentes de un producto muy vendido actualizaban la misma fila y esperaban su bloqueo hasta
+-- el commit, aunque el descuento de stock no bloqueara la fila del producto. Como en
+-- inventory_valuation (V13), cada clave se reparte en 16 filas (slot = id % 16 del movimiento):
+-- movimientos consecutivos actualizan filas distintas y las lecturas suman los slots.
+--
+-- Las filas de una sentencia se actualizan en el orden de la clave, para que dos inserciones de
+-- varias filas no bloqueen los mismos slots en orden inverso
+
+ALTER TABLE movement_rollup_daily ADD COLUMN slot SMALLINT NOT NULL DEFAULT 0;
+
+DROP INDEX uk_movement_rollup_daily_key;
+
+CREATE UNIQUE INDEX uk_movement_rollup_daily_key ON movement_rollup_daily (
+    movement_date, product_id, movement_type,
+    COALESCE(reference_type, ''), COALESCE(source_system, ''), slot);
+
+CREATE OR REPLACE FUNCTION apply_movement_rollup_delta() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO movement_rollup_daily AS r (movement_date, product_id, movement_type,
+            reference_type, source_system, slot, movement_count, total_quantity)
+        SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+               NULLIF(source_system, ''), CAST(id % 16 AS SMALLINT), COUNT(*), SUM(quantity)
+        FROM new_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY 1, 2, 3, 4, 5, 6
+        ORDER BY 1, 2, 3, 4, 5, 6
+        ON CONFLICT (movement_date, product_id, movement_type,
+                     COALESCE(reference_type, ''), COALESCE(source_system, ''), slot)
+        DO UPDATE SET movement_count = r.movement_count + EXCLUDED.movement_count,
+                      total_quantity = r.total_quantity + EXCLUDED.total_quantity;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO movement_rollup_daily AS r (movement_date, product_id, movement_type,
+            reference_type, source_system, slot, movement_count, total_quantity)
+        SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+               NULLIF(source_system, ''), CAST(id % 16 AS SMALLINT), -COUNT(*), -SUM(quantity)
+        FROM old_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY 1, 2, 3, 4, 5, 6
+        ORDER BY 1, 2, 3, 4, 5, 6
+        ON CONFLICT (movement_date, product_id, movement_type,
+                     COALESCE(reference_type, ''), COALESCE(source_system, ''), slot)
+        DO UPDATE SET movement_count = r.movement_count + EXCLUDED.movement_count,
+                      total_quantity = r.total_quantity + EXCLUDED.total_quantity;
+    ELSE
+        -- Resta la versión anterior y suma la nueva en una sola actualización por clave
+        INSERT INTO movement_rollup_daily AS r (movement_date, product_id, movement_type,
+            reference_type, source_system, slot, movement_count, total_quantity)
+        SELECT movement_date, product_id, movement_type, reference_type, source_system, slot,
+               SUM(movement_count), SUM(total_quantity)
+        FROM (
+            SELECT CAST(created_at AS DATE) AS movement_date, product_id, movement_type,
+                   reference_type, NULLIF(source_system, '') AS source_system,
+                   CAST(id % 16 AS SMALLINT) AS slot,
+                   -1 AS movement_count, -quantity AS total_quantity
+            FROM old_rows
+            WHERE created_at IS NOT NULL
+            UNION ALL
+            SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+                   NULLIF(source_system, ''), CAST(id % 16 AS SMALLINT), 1, quantity
+            FROM new_rows
+            WHERE created_at IS NOT NULL
+        ) delta
+        GROUP BY 1, 2, 3, 4, 5, 6
+        ORDER BY 1, 2, 3, 4, 5, 6
+        ON CONFLICT (movement_date, product_id, movement_type,
+                     COALESCE(reference_type, ''), COALESCE(source_system, ''), slot)
+        DO UPDATE SET movement_count = r.movement_count + EXCLUDED.movement_count,
+                      total_quantity = r.total_quantity + EXCLUDED.total_quantity;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recarga con el reparto en slots; los triggers no cambian los totales mientras la tabla está
+-- bloqueada
+LOCK TABLE movement_rollup_daily IN EXCLUSIVE MODE;
+
+DELETE FROM movement_rollup_daily;
+
+INSERT INTO movement_rollup_daily (movement_date, product_id, movement_type, reference_type,
+    source_system, slot, movement_count, total_quantity)
+SELECT CAST(created_at AS DATE), product_id, movement_type, reference_type,
+       NULLIF(source_system, ''), CAST(id % 16 AS SMALLINT), COUNT(*), SUM(quantity)
+FROM inventory_movements
+WHERE created_at IS NOT NULL
+GROUP BY 1, 2, 3, 4, 5, 6;
+
+COMMENT ON COLUMN movement_rollup_daily.slot IS 'Movement id % 16; spreads concurrent updates of one key over several rows';
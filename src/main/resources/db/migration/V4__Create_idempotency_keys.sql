@@ -0,0 +1,18 @@
+-- Claves de idempotencia para operaciones de sistemas externos
+-- Permite que los reintentos de un cliente devuelvan la respuesta original
+-- sin volver a descontar stock ni registrar movimientos
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    scope VARCHAR(30) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Índice para la purga periódica de claves expiradas
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
+
+COMMENT ON COLUMN idempotency_keys.request_hash IS 'SHA-256 of the original request, used to reject key reuse with a different payload';
+COMMENT ON COLUMN idempotency_keys.response_body IS 'JSON response returned to the original request';
@@ -0,0 +1,32 @@
+-- Libro de stock en memoria para productos con alta frecuencia de descuentos
+-- Un producto gestionado por el libro solo acepta descuentos a través de él hasta ser liberado
+
+ALTER TABLE products ADD COLUMN ledger_owned BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN products.ledger_owned IS 'TRUE while the in-memory stock ledger owns deductions for this product';
+
+-- Solo el volcado del libro puede modificar el stock de un producto gestionado por él
+CREATE OR REPLACE FUNCTION protect_ledger_owned_stock()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF OLD.ledger_owned
+        AND NEW.current_stock <> OLD.current_stock
+        AND current_setting('kinvex.stock_ledger_flush', true) IS DISTINCT FROM 'on' THEN
+        RAISE EXCEPTION 'Stock of product % is managed by the in-memory stock ledger', OLD.code
+            USING ERRCODE = 'check_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER protect_ledger_owned_stock BEFORE UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION protect_ledger_owned_stock();
+
+-- Última secuencia del registro de durabilidad aplicada a base de datos
+CREATE TABLE stock_ledger_checkpoints (
+    id SMALLINT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO stock_ledger_checkpoints (id, last_sequence) VALUES (1, 0);
@@ -0,0 +1,31 @@
+-- Reservas de stock: el stock reservado deja de estar disponible hasta confirmarse o liberarse
+-- Stock disponible = current_stock - reserved_stock
+
+ALTER TABLE products ADD COLUMN reserved_stock INTEGER NOT NULL DEFAULT 0 CHECK (reserved_stock >= 0);
+
+COMMENT ON COLUMN products.reserved_stock IS 'Units held by active stock reservations';
+
+CREATE TABLE stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    reference VARCHAR(100),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CHECK (status IN ('ACTIVE', 'COMMITTED', 'RELEASED', 'EXPIRED')),
+    source_system VARCHAR(50),
+    notes VARCHAR(500),
+    expires_at TIMESTAMP NOT NULL,
+    created_by BIGINT REFERENCES users(id),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    resolved_at TIMESTAMP
+);
+
+CREATE TABLE stock_reservation_items (
+    id BIGSERIAL PRIMARY KEY,
+    reservation_id BIGINT NOT NULL REFERENCES stock_reservations(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    CONSTRAINT uk_stock_reservation_items_product UNIQUE (reservation_id, product_id)
+);
+
+-- Solo las reservas activas se consultan por vencimiento
+CREATE INDEX idx_stock_reservations_active_expires ON stock_reservations(expires_at) WHERE status = 'ACTIVE';
+CREATE INDEX idx_stock_reservations_reference ON stock_reservations(reference);
+CREATE INDEX idx_stock_reservation_items_product ON stock_reservation_items(product_id);
@@ -0,0 +1,13 @@
+-- Generación de IDs por secuencia con optimizador pooled-lo para las tablas de mayor volumen.
+-- Hibernate toma un valor de la secuencia y usa el bloque [valor, valor + 49] sin volver a la
+-- base de datos, lo que permite agrupar los INSERT en batches JDBC (con IDENTITY cada INSERT
+-- debía ejecutarse por separado para obtener su ID).
+--
+-- El INCREMENT BY debe coincidir con el allocationSize de cada entidad. Los INSERT que usan el
+-- DEFAULT de la columna siguen funcionando: cada nextval reserva un bloque completo.
+
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE purchase_orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_details_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_movements_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
@@ -0,0 +1,22 @@
+-- Foto diaria del stock de cada producto al cierre del día
+-- Cada foto se calcula a partir de la del día anterior más los movimientos del día, de modo que
+-- las consultas de stock a una fecha solo aplican los movimientos posteriores a la última foto
+
+CREATE TABLE stock_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    snapshot_date DATE NOT NULL,
+    closing_stock INTEGER NOT NULL,
+    quantity_in INTEGER NOT NULL DEFAULT 0,
+    quantity_out INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_stock_snapshots_product_date UNIQUE (product_id, snapshot_date)
+);
+
+CREATE INDEX idx_stock_snapshots_date ON stock_snapshots(snapshot_date);
+
+-- Movimientos de un producto en un rango de fechas (delta desde la foto y totales diarios)
+CREATE INDEX idx_inventory_movements_product_date ON inventory_movements(product_id, created_at);
+
+COMMENT ON TABLE stock_snapshots IS 'Closing stock per product and day, computed incrementally from the previous snapshot';
+COMMENT ON COLUMN stock_snapshots.closing_stock IS 'Stock at the end of snapshot_date';
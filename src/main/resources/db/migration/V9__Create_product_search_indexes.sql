@@ -0,0 +1,25 @@
+-- Índices para la búsqueda combinada de productos (GET /api/inventory/products)
+-- La búsqueda filtra por defecto productos activos y ordena por nombre; los índices parciales
+-- cubren ese caso y los filtros de stock bajo y sin stock sin recorrer los productos inactivos
+
+-- Listado por defecto y ordenamiento por nombre
+CREATE INDEX idx_products_active_name ON products(name, id) WHERE active = true;
+
+-- Filtro por categoría ordenado por nombre
+CREATE INDEX idx_products_active_category_name ON products(category_id, name, id) WHERE active = true;
+
+-- Rangos y ordenamiento por precio y por stock
+CREATE INDEX idx_products_active_price ON products(unit_price, id) WHERE active = true;
+CREATE INDEX idx_products_active_stock ON products(current_stock, id) WHERE active = true;
+
+-- Productos con stock bajo y sin stock
+CREATE INDEX idx_products_active_low_stock ON products(name, id)
+    WHERE active = true AND current_stock <= min_stock;
+CREATE INDEX idx_products_active_out_of_stock ON products(name, id)
+    WHERE active = true AND current_stock = 0;
+
+-- Búsqueda por prefijo de código sin distinguir mayúsculas
+CREATE INDEX idx_products_code_lower_prefix ON products(lower(code) text_pattern_ops);
+
+-- Reemplazado por los índices parciales anteriores
+DROP INDEX IF EXISTS idx_products_active;
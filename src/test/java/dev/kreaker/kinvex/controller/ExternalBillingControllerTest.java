@@ -1,18 +1,26 @@
 package dev.kreaker.kinvex.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionResponse;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionRequest;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
+import dev.kreaker.kinvex.exception.IdempotencyKeyConflictException;
 import dev.kreaker.kinvex.exception.InsufficientStockException;
 import dev.kreaker.kinvex.exception.ProductNotFoundException;
 import dev.kreaker.kinvex.service.InventoryService;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -87,6 +95,42 @@ class ExternalBillingControllerTest {
                 .andExpect(jsonPath("$.movementId").value(123));
     }
 
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void deductStock_WithIdempotencyKeyHeader_ShouldPassKeyToService() throws Exception {
+        // Arrange
+        when(inventoryService.deductStockForExternalSystem(
+                        argThat(request -> "retry-001".equals(request.getIdempotencyKey()))))
+                .thenReturn(successResponse);
+
+        // Act & Assert
+        mockMvc.perform(
+                        post("/api/external/billing/stock/deduct")
+                                .header("Idempotency-Key", "retry-001")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movementId").value(123));
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void deductStock_WithReusedIdempotencyKey_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(inventoryService.deductStockForExternalSystem(
+                        any(ExternalStockDeductionRequest.class)))
+                .thenThrow(new IdempotencyKeyConflictException("retry-001"));
+
+        // Act & Assert
+        mockMvc.perform(
+                        post("/api/external/billing/stock/deduct")
+                                .header("Idempotency-Key", "retry-001")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_CONFLICT"));
+    }
+
     @Test
     @WithMockUser(roles = "OPERATOR")
     void deductStock_WithInsufficientStock_ShouldReturnBadRequest() throws Exception {
@@ -207,4 +251,91 @@ class ExternalBillingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("SUCCESS"));
     }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void deductInvoice_WithValidRequest_ShouldReturnLineResults() throws Exception {
+        // Arrange
+        ExternalInvoiceDeductionRequest invoice =
+                new ExternalInvoiceDeductionRequest("FAC-001", List.of(validRequest));
+        when(inventoryService.deductInvoiceForExternalSystem(
+                        any(ExternalInvoiceDeductionRequest.class)))
+                .thenReturn(
+                        ExternalInvoiceDeductionResponse.success(
+                                "FAC-001", LocalDateTime.now(), List.of(successResponse)));
+
+        // Act & Assert
+        mockMvc.perform(
+                        post("/api/external/billing/invoices/deduct")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(invoice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.invoiceNumber").value("FAC-001"))
+                .andExpect(jsonPath("$.totalLines").value(1))
+                .andExpect(jsonPath("$.lines[0].productCode").value("TEST001"))
+                .andExpect(jsonPath("$.lines[0].movementId").value(123));
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void deductInvoice_WithoutLines_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        ExternalInvoiceDeductionRequest invoice =
+                new ExternalInvoiceDeductionRequest("FAC-001", List.of());
+
+        // Act & Assert
+        mockMvc.perform(
+                        post("/api/external/billing/invoices/deduct")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(invoice)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void deductInvoice_WithInsufficientStock_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        ExternalInvoiceDeductionRequest invoice =
+                new ExternalInvoiceDeductionRequest("FAC-001", List.of(validRequest));
+        when(inventoryService.deductInvoiceForExternalSystem(
+                        any(ExternalInvoiceDeductionRequest.class)))
+                .thenThrow(new InsufficientStockException(1L, "TEST001", 2, 5));
+
+        // Act & Assert
+        mockMvc.perform(
+                        post("/api/external/billing/invoices/deduct")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(invoice)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void getProductByCode_ShouldReturnCatalogEntryWithoutStock() throws Exception {
+        // Arrange
+        when(inventoryService.getCatalogEntryByCode("TEST001"))
+                .thenReturn(
+                        new ProductCatalogEntry(
+                                1L, "TEST001", "Test Product", new BigDecimal("10.99"), true));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/external/billing/products/TEST001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("TEST001"))
+                .andExpect(jsonPath("$.unitPrice").value(10.99))
+                .andExpect(jsonPath("$.currentStock").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void getProductByCode_WithNonExistentProduct_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(inventoryService.getCatalogEntryByCode("NONEXISTENT"))
+                .thenThrow(new ProductNotFoundException("código", "NONEXISTENT"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/external/billing/products/NONEXISTENT"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -4,18 +4,41 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest.ProductFieldUpdate;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateResponse;
+import dev.kreaker.kinvex.dto.inventory.CategoryTreeNode;
 import dev.kreaker.kinvex.dto.inventory.CreateProductRequest;
+import dev.kreaker.kinvex.dto.inventory.InventoryValuationResponse;
+import dev.kreaker.kinvex.dto.inventory.InventoryValuationResponse.CategoryValuationResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductImportFormat;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse.RowError;
+import dev.kreaker.kinvex.dto.inventory.ProductResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductSearchMode;
+import dev.kreaker.kinvex.dto.inventory.StockAsOfResponse;
 import dev.kreaker.kinvex.dto.inventory.UpdateProductRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
 import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.exception.ProductNotFoundException;
 import dev.kreaker.kinvex.service.InventoryService;
+import dev.kreaker.kinvex.service.InventoryValuationService;
+import dev.kreaker.kinvex.service.ProductBulkUpdateService;
+import dev.kreaker.kinvex.service.ProductImportService;
+import dev.kreaker.kinvex.service.StockSnapshotService;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,7 +48,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -40,9 +65,18 @@ class InventoryControllerTest {
 
     @MockBean private InventoryService inventoryService;
 
+    @MockBean private StockSnapshotService stockSnapshotService;
+
+    @MockBean private InventoryValuationService inventoryValuationService;
+
+    @MockBean private ProductImportService productImportService;
+
+    @MockBean private ProductBulkUpdateService productBulkUpdateService;
+
     @Autowired private ObjectMapper objectMapper;
 
     private Product testProduct;
+    private ProductResponse testProductResponse;
     private CreateProductRequest createRequest;
     private UpdateProductRequest updateRequest;
 
@@ -58,6 +92,7 @@ class InventoryControllerTest {
         testProduct.setMinStock(10);
         testProduct.setMaxStock(500);
         testProduct.setActive(true);
+        testProductResponse = ProductResponse.from(testProduct);
 
         createRequest = new CreateProductRequest();
         createRequest.setCode("TEST001");
@@ -80,8 +115,8 @@ class InventoryControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getProducts_ShouldReturnPagedProducts() throws Exception {
         // Arrange
-        Page<Product> productPage =
-                new PageImpl<>(Arrays.asList(testProduct), PageRequest.of(0, 20), 1);
+        Page<ProductResponse> productPage =
+                new PageImpl<>(Arrays.asList(testProductResponse), PageRequest.of(0, 20), 1);
         when(inventoryService.searchProducts(any(), any())).thenReturn(productPage);
 
         // Act & Assert
@@ -98,21 +133,23 @@ class InventoryControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getProductById_ShouldReturnProduct() throws Exception {
         // Arrange
-        when(inventoryService.getProductById(1L)).thenReturn(testProduct);
+        when(inventoryService.getProductById(1L)).thenReturn(testProductResponse);
 
         // Act & Assert
         mockMvc.perform(get("/api/inventory/products/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.code").value("TEST001"))
-                .andExpect(jsonPath("$.name").value("Test Product"));
+                .andExpect(jsonPath("$.name").value("Test Product"))
+                .andExpect(jsonPath("$.availableStock").value(100))
+                .andExpect(jsonPath("$.lowStock").value(false));
     }
 
     @Test
     @WithMockUser(roles = "VIEWER")
     void getProductByCode_ShouldReturnProduct() throws Exception {
         // Arrange
-        when(inventoryService.getProductByCode("TEST001")).thenReturn(testProduct);
+        when(inventoryService.getProductByCode("TEST001")).thenReturn(testProductResponse);
 
         // Act & Assert
         mockMvc.perform(
@@ -175,7 +212,8 @@ class InventoryControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getLowStockProducts_ShouldReturnLowStockProducts() throws Exception {
         // Arrange
-        when(inventoryService.getLowStockProducts()).thenReturn(Arrays.asList(testProduct));
+        when(inventoryService.getLowStockProducts())
+                .thenReturn(Arrays.asList(testProductResponse));
 
         // Act & Assert
         mockMvc.perform(
@@ -191,7 +229,8 @@ class InventoryControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getOutOfStockProducts_ShouldReturnOutOfStockProducts() throws Exception {
         // Arrange
-        when(inventoryService.getOutOfStockProducts()).thenReturn(Arrays.asList(testProduct));
+        when(inventoryService.getOutOfStockProducts())
+                .thenReturn(Arrays.asList(testProductResponse));
 
         // Act & Assert
         mockMvc.perform(
@@ -203,6 +242,168 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$[0].code").value("TEST001"));
     }
 
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getCategoryTree_ShouldReturnNestedCategories() throws Exception {
+        // Arrange
+        when(inventoryService.getCategoryTree())
+                .thenReturn(
+                        List.of(
+                                new CategoryTreeNode(
+                                        1L,
+                                        "Electrónicos",
+                                        null,
+                                        List.of(
+                                                new CategoryTreeNode(
+                                                        2L, "Periféricos", 1L, List.of())))));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/categories/tree")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Electrónicos"))
+                .andExpect(jsonPath("$[0].children[0].parentId").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void getInventoryValuation_ShouldReturnTotalsAndCategories() throws Exception {
+        // Arrange
+        when(inventoryValuationService.getValuation())
+                .thenReturn(
+                        new InventoryValuationResponse(
+                                2,
+                                150,
+                                new BigDecimal("1500.00"),
+                                List.of(
+                                        new CategoryValuationResponse(
+                                                1L,
+                                                "Electronics",
+                                                2,
+                                                150,
+                                                new BigDecimal("75.00"),
+                                                new BigDecimal("1500.00")))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/inventory/valuation").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalValue").value(1500.00))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Electronics"))
+                .andExpect(jsonPath("$.categories[0].averageStock").value(75.00));
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getInventoryValuation_AsViewer_ShouldBeForbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/inventory/valuation").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getStockAsOf_ShouldReturnStockAtRequestedTime() throws Exception {
+        // Arrange
+        LocalDateTime at = LocalDateTime.of(2024, 3, 10, 12, 0);
+        when(stockSnapshotService.getStockAsOf(1L, at))
+                .thenReturn(
+                        new StockAsOfResponse(
+                                1L, "TEST001", at, 80, LocalDate.of(2024, 3, 9), 3L));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/products/1/stock/as-of")
+                                .param("at", "2024-03-10T12:00:00")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productCode").value("TEST001"))
+                .andExpect(jsonPath("$.stock").value(80))
+                .andExpect(jsonPath("$.movementsApplied").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getStockAsOf_WhenProductNotFound_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(stockSnapshotService.getStockAsOf(eq(99L), any(LocalDateTime.class)))
+                .thenThrow(new ProductNotFoundException(99L));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/products/99/stock/as-of")
+                                .param("at", "2024-03-10T12:00:00")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void searchProductsByText_ShouldReturnRankedProducts() throws Exception {
+        // Arrange
+        when(inventoryService.searchProductsByText(
+                        eq("cable"), eq(ProductSearchMode.FULL_TEXT), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testProductResponse)));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/products/search")
+                                .param("q", "cable")
+                                .param("mode", "FULL_TEXT")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].code").value("TEST001"));
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void searchProductsByText_WithoutWords_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(inventoryService.searchProductsByText(
+                        eq("!!"), eq(ProductSearchMode.CONTAINS), any(Pageable.class)))
+                .thenThrow(new IllegalArgumentException("sin palabras"));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/products/search")
+                                .param("q", "!!")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void scrollProducts_ShouldReturnPageWithNextCursor() throws Exception {
+        // Arrange
+        when(inventoryService.scrollProducts(null, 1))
+                .thenReturn(new CursorPage<>(List.of(testProductResponse), 1, true, "MTpUZXN0"));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/products/scroll")
+                                .param("size", "1")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].code").value("TEST001"))
+                .andExpect(jsonPath("$.nextCursor").value("MTpUZXN0"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void scrollProducts_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(inventoryService.scrollProducts("invalid", 50))
+                .thenThrow(new IllegalArgumentException("Cursor de paginación inválido"));
+
+        // Act & Assert
+        mockMvc.perform(
+                        get("/api/inventory/products/scroll")
+                                .param("cursor", "invalid")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getProducts_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
         mockMvc.perform(get("/api/inventory/products").contentType(MediaType.APPLICATION_JSON))
@@ -218,4 +419,118 @@ class InventoryControllerTest {
                                 .content(objectMapper.writeValueAsString(createRequest)))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void importProducts_WithCsvFile_ShouldReturnRowErrors() throws Exception {
+        // Arrange
+        MockMultipartFile file =
+                new MockMultipartFile(
+                        "file",
+                        "products.csv",
+                        "text/csv",
+                        "code,name,unitPrice\nP1,Product,10.00\n".getBytes(StandardCharsets.UTF_8));
+        when(productImportService.importProducts(any(), eq(ProductImportFormat.CSV)))
+                .thenReturn(
+                        new ProductImportResponse(
+                                2,
+                                1,
+                                1,
+                                List.of(new RowError(3, "P2", "El precio debe ser mayor a 0")),
+                                false));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/inventory/products/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].rowNumber").value(3))
+                .andExpect(jsonPath("$.errors[0].code").value("P2"));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void importProducts_WithUnsupportedFile_ShouldReturnBadRequest() throws Exception {
+        MockMultipartFile file =
+                new MockMultipartFile(
+                        "file",
+                        "products.txt",
+                        "text/plain",
+                        "code".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/inventory/products/import").file(file))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void importProducts_WithOperatorRole_ShouldReturnForbidden() throws Exception {
+        MockMultipartFile file =
+                new MockMultipartFile(
+                        "file",
+                        "products.csv",
+                        "text/csv",
+                        "code".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/inventory/products/import").file(file))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void bulkUpdateProducts_ShouldReturnUpdateSummary() throws Exception {
+        // Arrange
+        BulkProductUpdateRequest request =
+                new BulkProductUpdateRequest(
+                        List.of(
+                                new ProductFieldUpdate(
+                                        "TEST001", new BigDecimal("12.99"), null, null, null, null),
+                                new ProductFieldUpdate("MISSING", null, 5, null, null, null)));
+        when(productBulkUpdateService.bulkUpdateProducts(any()))
+                .thenReturn(new BulkProductUpdateResponse(2, 1, List.of("MISSING"), List.of()));
+
+        // Act & Assert
+        mockMvc.perform(
+                        put("/api/inventory/products/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(1))
+                .andExpect(jsonPath("$.notFoundCodes[0]").value("MISSING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void bulkUpdateProducts_WithNegativeMinStock_ShouldReturnBadRequest() throws Exception {
+        BulkProductUpdateRequest request =
+                new BulkProductUpdateRequest(
+                        List.of(new ProductFieldUpdate("TEST001", null, -1, null, null, null)));
+
+        mockMvc.perform(
+                        put("/api/inventory/products/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void bulkUpdateProducts_WithPriceOutOfColumnPrecision_ShouldReturnBadRequest()
+            throws Exception {
+        BulkProductUpdateRequest request =
+                new BulkProductUpdateRequest(
+                        List.of(
+                                new ProductFieldUpdate(
+                                        "TEST001",
+                                        new BigDecimal("123456789.00"),
+                                        null,
+                                        null,
+                                        null,
+                                        null)));
+
+        mockMvc.perform(
+                        put("/api/inventory/products/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -19,6 +19,8 @@ import dev.kreaker.kinvex.dto.order.OrderDetailReceiptRequest;
 import dev.kreaker.kinvex.dto.order.OrderDetailReceiptResponse;
 import dev.kreaker.kinvex.dto.order.OrderDetailRequest;
 import dev.kreaker.kinvex.dto.order.OrderReceiptResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderSummary;
 import dev.kreaker.kinvex.dto.order.ReceiveOrderRequest;
 import dev.kreaker.kinvex.dto.order.UpdateOrderStatusRequest;
 import dev.kreaker.kinvex.entity.OrderDetail;
@@ -219,7 +221,8 @@ class OrderControllerTest {
     void getAllOrders_ShouldReturnPagedOrders() throws Exception {
         // Arrange
         Pageable pageable = PageRequest.of(0, 20);
-        Page<PurchaseOrder> orderPage = new PageImpl<>(Arrays.asList(testOrder), pageable, 1);
+        Page<PurchaseOrderSummary> orderPage =
+                new PageImpl<>(List.of(PurchaseOrderSummary.from(testOrder)), pageable, 1);
         when(orderService.getAllOrders(any(Pageable.class))).thenReturn(orderPage);
 
         // Act & Assert
@@ -236,7 +239,7 @@ class OrderControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getOrderById_WithExistingId_ShouldReturnOrder() throws Exception {
         // Arrange
-        when(orderService.getOrderById(1L)).thenReturn(testOrder);
+        when(orderService.getOrderById(1L)).thenReturn(PurchaseOrderResponse.from(testOrder));
 
         // Act & Assert
         mockMvc.perform(get("/api/orders/1"))
@@ -244,7 +247,9 @@ class OrderControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.orderNumber", is("PO001")))
-                .andExpect(jsonPath("$.status", is("PENDING")));
+                .andExpect(jsonPath("$.status", is("PENDING")))
+                .andExpect(jsonPath("$.supplierName", is("Test Supplier")))
+                .andExpect(jsonPath("$.orderDetails[0].productCode", is("PROD001")));
     }
 
     @Test
@@ -261,7 +266,8 @@ class OrderControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getOrderByNumber_WithExistingNumber_ShouldReturnOrder() throws Exception {
         // Arrange
-        when(orderService.getOrderByNumber("PO001")).thenReturn(testOrder);
+        when(orderService.getOrderByNumber("PO001"))
+                .thenReturn(PurchaseOrderResponse.from(testOrder));
 
         // Act & Assert
         mockMvc.perform(get("/api/orders/number/PO001"))
@@ -276,7 +282,8 @@ class OrderControllerTest {
     void getOrdersByStatus_ShouldReturnFilteredOrders() throws Exception {
         // Arrange
         Pageable pageable = PageRequest.of(0, 20);
-        Page<PurchaseOrder> orderPage = new PageImpl<>(Arrays.asList(testOrder), pageable, 1);
+        Page<PurchaseOrderSummary> orderPage =
+                new PageImpl<>(List.of(PurchaseOrderSummary.from(testOrder)), pageable, 1);
         when(orderService.getOrdersByStatus(eq(OrderStatus.PENDING), any(Pageable.class)))
                 .thenReturn(orderPage);
 
@@ -417,7 +424,7 @@ class OrderControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getOrdersBySupplier_ShouldReturnSupplierOrders() throws Exception {
         // Arrange
-        List<PurchaseOrder> supplierOrders = Arrays.asList(testOrder);
+        List<PurchaseOrderSummary> supplierOrders = List.of(PurchaseOrderSummary.from(testOrder));
         when(orderService.getOrdersBySupplier(1L)).thenReturn(supplierOrders);
 
         // Act & Assert
@@ -443,7 +450,7 @@ class OrderControllerTest {
     @WithMockUser(roles = "MANAGER")
     void getOverdueOrders_ShouldReturnOverdueOrders() throws Exception {
         // Arrange
-        List<PurchaseOrder> overdueOrders = Arrays.asList(testOrder);
+        List<PurchaseOrderSummary> overdueOrders = List.of(PurchaseOrderSummary.from(testOrder));
         when(orderService.getOverdueOrders()).thenReturn(overdueOrders);
 
         // Act & Assert
@@ -465,7 +472,7 @@ class OrderControllerTest {
     @WithMockUser(roles = "OPERATOR")
     void getOrdersDueSoon_ShouldReturnOrdersDueSoon() throws Exception {
         // Arrange
-        List<PurchaseOrder> ordersDueSoon = Arrays.asList(testOrder);
+        List<PurchaseOrderSummary> ordersDueSoon = List.of(PurchaseOrderSummary.from(testOrder));
         when(orderService.getOrdersDueSoon(anyInt())).thenReturn(ordersDueSoon);
 
         // Act & Assert
@@ -480,7 +487,7 @@ class OrderControllerTest {
     @WithMockUser(roles = "VIEWER")
     void getOrdersByDateRange_ShouldReturnOrdersInRange() throws Exception {
         // Arrange
-        List<PurchaseOrder> ordersInRange = Arrays.asList(testOrder);
+        List<PurchaseOrderSummary> ordersInRange = List.of(PurchaseOrderSummary.from(testOrder));
         when(orderService.getOrdersByDateRange(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(ordersInRange);
 
@@ -3,24 +3,34 @@ package dev.kreaker.kinvex.controller;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
 import dev.kreaker.kinvex.dto.report.ReportExportRequest;
+import dev.kreaker.kinvex.dto.report.ReportStreamFormat;
 import dev.kreaker.kinvex.dto.report.StockLevelReportDto;
 import dev.kreaker.kinvex.dto.report.SupplierPerformanceReportDto;
 import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
 import dev.kreaker.kinvex.service.ReportExportService;
 import dev.kreaker.kinvex.service.ReportService;
+import dev.kreaker.kinvex.service.ReportStreamService;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -34,6 +44,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 /** Unit tests for ReportController Requirements: 4.1, 4.2, 4.4, 4.5 */
 @WebMvcTest(ReportController.class)
@@ -46,6 +57,8 @@ class ReportControllerTest {
 
     @MockBean private ReportExportService reportExportService;
 
+    @MockBean private ReportStreamService reportStreamService;
+
     @MockBean private dev.kreaker.kinvex.security.JwtTokenProvider jwtTokenProvider;
 
     @Autowired private ObjectMapper objectMapper;
@@ -175,6 +188,71 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$[0].productCode", is("PROD001")));
     }
 
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testStreamInventoryMovementsAsCsv() throws Exception {
+        // Given
+        String csv = "movementId,productCode\r\n1,PROD001\r\n";
+        when(reportStreamService.writeInventoryMovementReport(
+                        any(), eq(ReportStreamFormat.CSV), any()))
+                .thenAnswer(
+                        invocation -> {
+                            OutputStream output = invocation.getArgument(2);
+                            output.write(csv.getBytes(StandardCharsets.UTF_8));
+                            return 1L;
+                        });
+
+        // When
+        MvcResult result =
+                mockMvc.perform(
+                                get("/api/reports/inventory-movements/stream")
+                                        .param("startDate", "2024-01-01T00:00:00")
+                                        .param("endDate", "2024-01-31T23:59:59")
+                                        .param("format", "CSV"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(
+                        header().string(
+                                        "Content-Disposition",
+                                        "form-data; name=\"attachment\"; "
+                                                + "filename=\"inventory_movements.csv\""))
+                .andExpect(content().string(csv));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testStreamInventoryMovementsWithInvalidFilter() throws Exception {
+        // Given
+        doThrow(new IllegalArgumentException("No se pueden ordenar movimientos por 'notes'"))
+                .when(reportStreamService)
+                .validateInventoryMovementFilter(any());
+
+        // When & Then
+        mockMvc.perform(
+                        get("/api/reports/inventory-movements/stream")
+                                .param("startDate", "2024-01-01T00:00:00")
+                                .param("endDate", "2024-01-31T23:59:59")
+                                .param("sortBy", "notes"))
+                .andExpect(status().isBadRequest());
+        verify(reportStreamService, never()).writeInventoryMovementReport(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void testStreamInventoryMovementsAccessDenied() throws Exception {
+        // When & Then
+        mockMvc.perform(
+                        get("/api/reports/inventory-movements/stream")
+                                .param("startDate", "2024-01-01T00:00:00")
+                                .param("endDate", "2024-01-31T23:59:59"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = "VIEWER")
     void testGetStockLevels() throws Exception {
@@ -0,0 +1,105 @@
+package dev.kreaker.kinvex.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse;
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse.ReconciliationStatus;
+import dev.kreaker.kinvex.exception.ReconciliationInProgressException;
+import dev.kreaker.kinvex.service.StockReconciliationService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Tests de integración para StockReconciliationController. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StockReconciliationControllerTest {
+
+    private static final String BASE_URL = "/api/inventory/reconciliations";
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean private StockReconciliationService reconciliationService;
+
+    private StockReconciliationResponse runningResponse;
+
+    @BeforeEach
+    void setUp() {
+        runningResponse = new StockReconciliationResponse();
+        runningResponse.setRunId(1L);
+        runningResponse.setStatus(ReconciliationStatus.RUNNING);
+        runningResponse.setStartedAt(LocalDateTime.now());
+        runningResponse.setTotalPartitions(4);
+        runningResponse.setCompletedPartitions(1);
+        runningResponse.setMismatches(List.of());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void startReconciliation_ShouldReturnAccepted() throws Exception {
+        // Arrange
+        when(reconciliationService.startReconciliation(true)).thenReturn(runningResponse);
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL).param("applyCorrections", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.runId").value(1))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void startReconciliation_WhenAlreadyRunning_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(reconciliationService.startReconciliation(false))
+                .thenThrow(new ReconciliationInProgressException(1L));
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("RECONCILIATION_IN_PROGRESS"));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void startReconciliation_WithManagerRole_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(post(BASE_URL)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void getReconciliation_ShouldReturnProgress() throws Exception {
+        // Arrange
+        when(reconciliationService.getReconciliation(1L)).thenReturn(Optional.of(runningResponse));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.progress").value(0.25))
+                .andExpect(jsonPath("$.completedPartitions").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void getReconciliation_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(reconciliationService.getReconciliation(9L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/9")).andExpect(status().isNotFound());
+    }
+}
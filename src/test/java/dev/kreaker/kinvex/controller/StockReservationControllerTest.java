@@ -0,0 +1,186 @@
+package dev.kreaker.kinvex.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.dto.inventory.StockReservationItemRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationItemResponse;
+import dev.kreaker.kinvex.dto.inventory.StockReservationRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationResponse;
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.entity.StockReservation.ReservationStatus;
+import dev.kreaker.kinvex.exception.InsufficientStockException;
+import dev.kreaker.kinvex.exception.ReservationNotFoundException;
+import dev.kreaker.kinvex.exception.ReservationStateConflictException;
+import dev.kreaker.kinvex.service.StockReservationService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Tests de integración para StockReservationController. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StockReservationControllerTest {
+
+    private static final String BASE_URL = "/api/external/billing/reservations";
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean private StockReservationService reservationService;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    private StockReservationRequest validRequest;
+    private StockReservationResponse activeResponse;
+
+    @BeforeEach
+    void setUp() {
+        validRequest =
+                new StockReservationRequest(
+                        "CART-1", List.of(new StockReservationItemRequest("TEST001", 2)));
+        validRequest.setSourceSystem("CHECKOUT");
+
+        StockReservation reservation =
+                new StockReservation("CART-1", LocalDateTime.now().plusMinutes(15), null);
+        reservation.setId(50L);
+        activeResponse =
+                StockReservationResponse.of(
+                        reservation,
+                        List.of(new StockReservationItemResponse("TEST001", "Test Product", 2)));
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void reserveStock_WithValidRequest_ShouldReturnCreated() throws Exception {
+        // Arrange
+        when(reservationService.reserveStock(any(StockReservationRequest.class)))
+                .thenReturn(activeResponse);
+
+        // Act & Assert
+        mockMvc.perform(
+                        post(BASE_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.reservationId").value(50))
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.totalQuantity").value(2))
+                .andExpect(jsonPath("$.items[0].productCode").value("TEST001"));
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void reserveStock_WithIdempotencyKeyHeader_ShouldPassKeyToService() throws Exception {
+        // Arrange
+        when(reservationService.reserveStock(
+                        argThat(request -> "cart-retry".equals(request.getIdempotencyKey()))))
+                .thenReturn(activeResponse);
+
+        // Act & Assert
+        mockMvc.perform(
+                        post(BASE_URL)
+                                .header("Idempotency-Key", "cart-retry")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void reserveStock_WithoutItems_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        validRequest.setItems(List.of());
+
+        // Act & Assert
+        mockMvc.perform(
+                        post(BASE_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void reserveStock_WithInsufficientStock_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(reservationService.reserveStock(any(StockReservationRequest.class)))
+                .thenThrow(new InsufficientStockException(1L, "TEST001", 1, 2));
+
+        // Act & Assert
+        mockMvc.perform(
+                        post(BASE_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void commitReservation_WithActiveReservation_ShouldReturnCommitted() throws Exception {
+        // Arrange
+        activeResponse.setStatus(ReservationStatus.COMMITTED);
+        when(reservationService.commitReservation(50L)).thenReturn(activeResponse);
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL + "/50/commit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMMITTED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void commitReservation_WithExpiredReservation_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(reservationService.commitReservation(50L))
+                .thenThrow(new ReservationStateConflictException(50L, "La reserva 50 venció"));
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL + "/50/commit"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("RESERVATION_STATE_CONFLICT"));
+    }
+
+    @Test
+    @WithMockUser(roles = "OPERATOR")
+    void releaseReservation_WhenNotFound_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(reservationService.releaseReservation(99L))
+                .thenThrow(new ReservationNotFoundException(99L));
+
+        // Act & Assert
+        mockMvc.perform(post(BASE_URL + "/99/release"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("RESERVATION_NOT_FOUND"));
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getReservation_WithInsufficientRole_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/50")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void reserveStock_WithoutAuthentication_ShouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(
+                        post(BASE_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,226 @@
+package dev.kreaker.kinvex.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import dev.kreaker.kinvex.entity.Category;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.OrderDetail;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.PurchaseOrder;
+import dev.kreaker.kinvex.entity.Supplier;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.OrderDetailRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.PurchaseOrderRepository;
+import dev.kreaker.kinvex.repository.SupplierRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Verifica que los endpoints de lectura de inventario y órdenes resuelven cada respuesta con una
+ * sola sentencia SQL, sin cargas perezosas al serializar.
+ */
+@SpringBootTest(
+        properties = {
+            "spring.jpa.properties.hibernate.generate_statistics=true",
+            // Los movimientos del escenario se leen en cuanto se crean
+            "app.inventory.movements.commit-lag=PT0S"
+        })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadEndpointQueryCountIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Autowired private CategoryRepository categoryRepository;
+
+    @Autowired private ProductRepository productRepository;
+
+    @Autowired private SupplierRepository supplierRepository;
+
+    @Autowired private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired private OrderDetailRepository orderDetailRepository;
+
+    @Autowired private InventoryMovementRepository inventoryMovementRepository;
+
+    private Product lowStockProduct;
+    private PurchaseOrder overdueOrder;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category electronics = categoryRepository.save(new Category("Electronics"));
+        Category office = categoryRepository.save(new Category("Office"));
+
+        lowStockProduct = product("QC001", "Cable", electronics, 5);
+        Product mouse = product("QC002", "Mouse", electronics, 100);
+        Product paper = product("QC003", "Paper", office, 50);
+
+        Supplier acme = supplierRepository.save(new Supplier("Acme"));
+        Supplier globex = supplierRepository.save(new Supplier("Globex"));
+
+        overdueOrder =
+                order("PO-QC-001", acme, LocalDate.now().minusDays(2), lowStockProduct, mouse);
+        order("PO-QC-002", globex, LocalDate.now().plusDays(10), mouse, paper);
+
+        inventoryMovementRepository.saveAll(
+                List.of(
+                        new InventoryMovement(lowStockProduct, MovementType.IN, 10),
+                        new InventoryMovement(lowStockProduct, MovementType.OUT, 5),
+                        new InventoryMovement(mouse, MovementType.IN, 100)));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryMovementRepository.deleteAllInBatch();
+        orderDetailRepository.deleteAllInBatch();
+        purchaseOrderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        supplierRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getProductById_ShouldUseSingleStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/inventory/products/{id}", lowStockProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Electronics"));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getProducts_ShouldLoadCategoriesInSameStatement() throws Exception {
+        // Act - la primera página no está llena, así que no se necesita COUNT
+        mockMvc.perform(get("/api/inventory/products").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getLowStockProducts_ShouldUseSingleStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/inventory/products/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("QC001"));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void scrollProductMovements_ShouldUseSingleStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/inventory/products/{id}/movements", lowStockProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productCode").value("QC001"));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getOrderById_ShouldLoadSupplierAndDetailsInSameStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/orders/{id}", overdueOrder.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.supplierName").value("Acme"))
+                .andExpect(jsonPath("$.orderDetails.length()").value(2));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void getAllOrders_ShouldUseSingleStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/orders").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "VIEWER")
+    void scrollOrders_ShouldUseSingleStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/orders/scroll"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void getOverdueOrders_ShouldLoadSupplierInSameStatement() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/orders/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].supplierName").value("Acme"));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Product product(String code, String name, Category category, int stock) {
+        Product product = new Product(code, name, new BigDecimal("10.00"));
+        product.setCategory(category);
+        product.setCurrentStock(stock);
+        product.setMinStock(10);
+        product.setMaxStock(500);
+        return productRepository.save(product);
+    }
+
+    private PurchaseOrder order(
+            String orderNumber, Supplier supplier, LocalDate expectedDate, Product... products) {
+        PurchaseOrder order =
+                new PurchaseOrder(orderNumber, supplier, LocalDate.now().minusDays(7));
+        order.setExpectedDate(expectedDate);
+        order.setTotalAmount(new BigDecimal("50.00"));
+        order = purchaseOrderRepository.save(order);
+        for (Product product : products) {
+            orderDetailRepository.save(
+                    new OrderDetail(order, product, 5, new BigDecimal("5.00")));
+        }
+        return order;
+    }
+}
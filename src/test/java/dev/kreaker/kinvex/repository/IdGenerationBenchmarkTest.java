@@ -0,0 +1,182 @@
+package dev.kreaker.kinvex.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.Product;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Benchmark de inserción de movimientos de inventario sobre PostgreSQL real, antes y después de
+ * pasar de IDENTITY a secuencias pooled-lo.
+ *
+ * <p>"Antes" reproduce lo que Hibernate ejecuta con IDENTITY: un INSERT por fila que devuelve el
+ * ID generado. "Después" usa {@code saveAll} con IDs de secuencia y batches JDBC, y la inserción
+ * de varias filas de {@code insertAll}. Solo se ejecuta con {@code -Dkinvex.benchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+@EnabledIfSystemProperty(named = "kinvex.benchmark", matches = "true")
+class IdGenerationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerationBenchmarkTest.class);
+
+    private static final int ROWS = 10_000;
+
+    private static final String IDENTITY_INSERT_SQL =
+            "INSERT INTO inventory_movements (product_id, movement_type, quantity, created_at) "
+                    + "VALUES (?, 'IN', 1, ?)";
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("kinvex_benchmark")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add(
+                "spring.datasource.url",
+                () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.jdbc.batch_size", () -> "50");
+
+        // JWT configuration for testing
+        registry.add(
+                "jwt.secret",
+                () ->
+                        "dGVzdC1zZWNyZXQta2V5LWZvci1qd3QtdGVzdGluZy1tdXN0LWJlLWF0LWxlYXN0LTI1Ni1iaXRz");
+        registry.add("jwt.expiration", () -> "3600");
+        registry.add("jwt.refresh-expiration", () -> "86400");
+        registry.add("jwt.issuer", () -> "kinvex-test");
+        registry.add("jwt.audience", () -> "kinvex-test-users");
+
+        // Disable Redis for testing
+        registry.add("spring.data.redis.repositories.enabled", () -> "false");
+        registry.add("spring.cache.type", () -> "none");
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private InventoryMovementRepository inventoryMovementRepository;
+
+    @Autowired private ProductRepository productRepository;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        productId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+    }
+
+    @Test
+    void insertMovements_BeforeAndAfterPooledSequences() {
+        // Calentamiento de conexiones, planes y JIT
+        insertOneRowPerStatement(ROWS / 10);
+        saveAllWithSequenceIds(ROWS / 10);
+        insertAllMultiRow(ROWS / 10);
+
+        long before = insertOneRowPerStatement(ROWS);
+        long saveAll = saveAllWithSequenceIds(ROWS);
+        long insertAll = insertAllMultiRow(ROWS);
+
+        logger.info("Inserción de {} movimientos (filas/segundo):", ROWS);
+        logger.info("  IDENTITY, un INSERT por fila:      {}", rowsPerSecond(before));
+        logger.info("  Secuencia pooled-lo, saveAll:      {}", rowsPerSecond(saveAll));
+        logger.info("  Secuencia pooled-lo, insertAll:    {}", rowsPerSecond(insertAll));
+
+        Long total =
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_movements", Long.class);
+        assertThat(total).isGreaterThanOrEqualTo(3L * ROWS);
+    }
+
+    /** Reproduce IDENTITY: cada fila es una sentencia que devuelve su ID. */
+    private long insertOneRowPerStatement(int rows) {
+        return timed(
+                () ->
+                        transactionTemplate.executeWithoutResult(
+                                status -> {
+                                    for (int i = 0; i < rows; i++) {
+                                        jdbcTemplate.update(
+                                                connection -> {
+                                                    PreparedStatement ps =
+                                                            connection.prepareStatement(
+                                                                    IDENTITY_INSERT_SQL,
+                                                                    new String[] {"id"});
+                                                    ps.setLong(1, productId);
+                                                    ps.setObject(2, LocalDateTime.now());
+                                                    return ps;
+                                                },
+                                                new GeneratedKeyHolder());
+                                    }
+                                }));
+    }
+
+    private long saveAllWithSequenceIds(int rows) {
+        return timed(
+                () ->
+                        transactionTemplate.executeWithoutResult(
+                                status -> {
+                                    Product product = productRepository.getReferenceById(productId);
+                                    inventoryMovementRepository.saveAll(movements(product, rows));
+                                    inventoryMovementRepository.flush();
+                                }));
+    }
+
+    private long insertAllMultiRow(int rows) {
+        return timed(
+                () ->
+                        transactionTemplate.executeWithoutResult(
+                                status -> {
+                                    Product product = productRepository.getReferenceById(productId);
+                                    List<InventoryMovement> movements = movements(product, rows);
+                                    movements.forEach(m -> m.setCreatedAt(LocalDateTime.now()));
+                                    inventoryMovementRepository.insertAll(movements);
+                                }));
+    }
+
+    private static List<InventoryMovement> movements(Product product, int rows) {
+        List<InventoryMovement> movements = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            movements.add(new InventoryMovement(product, InventoryMovement.MovementType.IN, 1));
+        }
+        return movements;
+    }
+
+    private static long timed(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return System.nanoTime() - start;
+    }
+
+    private static long rowsPerSecond(long nanos) {
+        return Math.round(ROWS / (nanos / 1_000_000_000.0));
+    }
+}
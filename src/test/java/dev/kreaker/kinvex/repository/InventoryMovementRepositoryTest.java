@@ -2,17 +2,23 @@ package dev.kreaker.kinvex.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.kreaker.kinvex.dto.inventory.InventoryMovementResponse;
+import dev.kreaker.kinvex.dto.report.ReportFilterDto;
 import dev.kreaker.kinvex.entity.Category;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.Product;
 import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.specification.InventoryMovementSpecifications;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -105,4 +111,117 @@ class InventoryMovementRepositoryTest {
         assertThat(outbound).isEqualTo(5L);
         assertThat(netMovement).isEqualTo(15L);
     }
+
+    @Test
+    void findBy_WithReportSpecification_ShouldFilterSortAndLimitInQuery() {
+        // Given
+        Product product = new Product("PROD001", "Test Product", new BigDecimal("99.99"));
+        entityManager.persistAndFlush(product);
+        Product otherProduct = new Product("PROD002", "Other Product", new BigDecimal("5.00"));
+        entityManager.persistAndFlush(otherProduct);
+
+        for (int quantity : new int[] {30, 10, 20}) {
+            InventoryMovement movement =
+                    new InventoryMovement(product, InventoryMovement.MovementType.OUT, quantity);
+            movement.setSourceSystem("POS");
+            entityManager.persist(movement);
+        }
+        entityManager.persist(
+                new InventoryMovement(product, InventoryMovement.MovementType.IN, 5));
+        entityManager.persist(
+                new InventoryMovement(otherProduct, InventoryMovement.MovementType.OUT, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        ReportFilterDto filter = new ReportFilterDto();
+        filter.setStartDate(LocalDateTime.now().minusDays(1));
+        filter.setEndDate(LocalDateTime.now().plusDays(1));
+        filter.setProductCodes(List.of("PROD001"));
+        filter.setMovementTypes(List.of(InventoryMovement.MovementType.OUT));
+        filter.setSortBy("quantity");
+        filter.setSortDirection("ASC");
+
+        // When
+        List<InventoryMovement> movements =
+                inventoryMovementRepository.findBy(
+                        InventoryMovementSpecifications.matching(filter),
+                        query ->
+                                query.sortBy(InventoryMovementSpecifications.sortFor(filter))
+                                        .limit(2)
+                                        .all());
+
+        // Then
+        assertThat(movements).extracting(InventoryMovement::getQuantity).containsExactly(10, 20);
+        assertThat(movements.get(0).getProduct().getCode()).isEqualTo("PROD001");
+    }
+
+    @Test
+    void insertAll_MixedWithSave_ShouldNotReuseIdsAcrossBlocks() {
+        // Given
+        Product product = new Product("PROD001", "Test Product", new BigDecimal("99.99"));
+        entityManager.persistAndFlush(product);
+        List<Long> ids = new ArrayList<>();
+
+        // When - save() toma un bloque, insertAll reserva los dos siguientes y save() vuelve a
+        // agotar su bloque y pide otro
+        ids.add(inventoryMovementRepository.saveAndFlush(movement(product)).getId());
+
+        List<InventoryMovement> batch = new ArrayList<>();
+        for (int i = 0; i < InventoryMovement.ID_ALLOCATION_SIZE + 10; i++) {
+            batch.add(movement(product));
+        }
+        inventoryMovementRepository.insertAll(batch);
+        batch.forEach(movement -> ids.add(movement.getId()));
+
+        for (int i = 0; i < InventoryMovement.ID_ALLOCATION_SIZE; i++) {
+            ids.add(inventoryMovementRepository.saveAndFlush(movement(product)).getId());
+        }
+
+        // Then
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(inventoryMovementRepository.count()).isEqualTo(ids.size());
+    }
+
+    @Test
+    void findByProductIdAfterCreatedAt_ShouldStopAtSettledBoundary() {
+        // Given - el último movimiento es más reciente que la ventana de confirmación
+        Product product = new Product("PROD001", "Test Product", new BigDecimal("99.99"));
+        entityManager.persistAndFlush(product);
+        LocalDateTime now = LocalDateTime.now();
+        InventoryMovement older = movement(product);
+        older.setCreatedAt(now.minusMinutes(2));
+        InventoryMovement settled = movement(product);
+        settled.setCreatedAt(now.minusMinutes(1));
+        InventoryMovement recent = movement(product);
+        recent.setCreatedAt(now);
+        inventoryMovementRepository.insertAll(List.of(older, settled, recent));
+        PageRequest limit = PageRequest.ofSize(10);
+
+        // When
+        Slice<InventoryMovementResponse> firstRead =
+                inventoryMovementRepository.findOldestByProductId(
+                        product.getId(), now.minusSeconds(30), limit);
+        Slice<InventoryMovementResponse> laterRead =
+                inventoryMovementRepository.findByProductIdAfterCreatedAt(
+                        product.getId(),
+                        settled.getCreatedAt(),
+                        settled.getId(),
+                        now.plusSeconds(1),
+                        limit);
+
+        // Then - el movimiento reciente no queda detrás del cursor de la primera lectura
+        assertThat(firstRead.getContent())
+                .extracting(InventoryMovementResponse::id)
+                .containsExactly(older.getId(), settled.getId());
+        assertThat(laterRead.getContent())
+                .extracting(InventoryMovementResponse::id)
+                .containsExactly(recent.getId());
+    }
+
+    private static InventoryMovement movement(Product product) {
+        InventoryMovement movement =
+                new InventoryMovement(product, InventoryMovement.MovementType.IN, 1);
+        movement.setCreatedAt(LocalDateTime.now());
+        return movement;
+    }
 }
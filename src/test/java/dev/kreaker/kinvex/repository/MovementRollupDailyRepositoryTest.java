@@ -0,0 +1,128 @@
+package dev.kreaker.kinvex.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import dev.kreaker.kinvex.entity.MovementRollupDaily;
+import dev.kreaker.kinvex.entity.Product;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class MovementRollupDailyRepositoryTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2024, 3, 2);
+
+    @Autowired private TestEntityManager entityManager;
+
+    @Autowired private MovementRollupDailyRepository rollupRepository;
+
+    private Product product1;
+    private Product product2;
+
+    @BeforeEach
+    void setUp() {
+        product1 = new Product("PROD001", "Test Product 1", new BigDecimal("10.00"));
+        entityManager.persist(product1);
+        product2 = new Product("PROD002", "Test Product 2", new BigDecimal("20.00"));
+        entityManager.persist(product2);
+
+        rollup(DAY_1, product1, MovementType.IN, ReferenceType.PURCHASE_ORDER, null, 2, 30);
+        rollup(DAY_1, product1, MovementType.OUT, ReferenceType.SALE, "BILLING", 3, 12);
+        rollup(DAY_2, product1, MovementType.OUT, ReferenceType.SALE, "POS", 1, 4);
+        rollup(DAY_2, product2, MovementType.OUT, ReferenceType.SALE, "BILLING", 4, 25);
+        // Fila cuyos movimientos se eliminaron: no debe aparecer en los reportes
+        rollup(DAY_2, product2, MovementType.IN, ReferenceType.ADJUSTMENT, null, 0, 0);
+        // Fuera del rango consultado
+        rollup(DAY_2.plusDays(1), product2, MovementType.OUT, ReferenceType.SALE, "POS", 9, 90);
+        entityManager.flush();
+    }
+
+    @Test
+    void findProductMovementSummaryBetween_ShouldAddDaysPerProduct() {
+        // When
+        List<Object[]> summary = rollupRepository.findProductMovementSummaryBetween(DAY_1, DAY_2);
+
+        // Then
+        assertThat(summary).hasSize(2);
+        assertThat(((Product) summary.get(0)[0]).getCode()).isEqualTo("PROD001");
+        assertThat(summary.get(0)).containsSubsequence(30L, 16L, 14L);
+        assertThat(((Product) summary.get(1)[0]).getCode()).isEqualTo("PROD002");
+        assertThat(summary.get(1)).containsSubsequence(0L, 25L, -25L);
+    }
+
+    @Test
+    void findDailyMovementSummaryBetween_ShouldReturnOneRowPerDay() {
+        // When
+        List<Object[]> summary = rollupRepository.findDailyMovementSummaryBetween(DAY_1, DAY_2);
+
+        // Then
+        assertThat(summary).hasSize(2);
+        assertThat(summary.get(0)).containsExactly(DAY_1, 30L, 12L);
+        assertThat(summary.get(1)).containsExactly(DAY_2, 0L, 29L);
+    }
+
+    @Test
+    void findDailyMovementSummaryBetween_ShouldAddSlotsOfSameKey() {
+        // Given - otro slot de las ventas del día 1 del producto 1
+        MovementRollupDaily otherSlot =
+                new MovementRollupDaily(DAY_1, product1, MovementType.OUT, 2L, 5L);
+        otherSlot.setReferenceType(ReferenceType.SALE);
+        otherSlot.setSourceSystem("BILLING");
+        otherSlot.setSlot((short) 7);
+        entityManager.persistAndFlush(otherSlot);
+
+        // When
+        List<Object[]> summary = rollupRepository.findDailyMovementSummaryBetween(DAY_1, DAY_1);
+
+        // Then
+        assertThat(summary)
+                .singleElement()
+                .satisfies(row -> assertThat(row).containsExactly(DAY_1, 30L, 17L));
+    }
+
+    @Test
+    void findMovementStatisticsByTypeBetween_ShouldSkipEmptyRows() {
+        // When
+        List<Object[]> statistics =
+                rollupRepository.findMovementStatisticsByTypeBetween(DAY_1, DAY_2);
+
+        // Then
+        assertThat(statistics)
+                .extracting(row -> row[1])
+                .containsExactlyInAnyOrder(ReferenceType.PURCHASE_ORDER, ReferenceType.SALE);
+        assertThat(statistics)
+                .filteredOn(row -> row[1] == ReferenceType.SALE)
+                .singleElement()
+                .satisfies(
+                        row ->
+                                assertThat(row)
+                                        .containsExactly(
+                                                MovementType.OUT, ReferenceType.SALE, 8L, 41L));
+    }
+
+    private void rollup(
+            LocalDate day,
+            Product product,
+            MovementType movementType,
+            ReferenceType referenceType,
+            String sourceSystem,
+            long movementCount,
+            long totalQuantity) {
+        MovementRollupDaily rollup =
+                new MovementRollupDaily(day, product, movementType, movementCount, totalQuantity);
+        rollup.setReferenceType(referenceType);
+        rollup.setSourceSystem(sourceSystem);
+        entityManager.persist(rollup);
+    }
+}
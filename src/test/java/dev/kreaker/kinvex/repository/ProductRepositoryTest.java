@@ -2,15 +2,31 @@ package dev.kreaker.kinvex.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.kreaker.kinvex.dto.inventory.ProductResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductSearchCriteria;
 import dev.kreaker.kinvex.entity.Category;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryValuation;
 import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.Product.StockStatus;
+import dev.kreaker.kinvex.entity.StockLedgerDeduction;
+import dev.kreaker.kinvex.repository.projection.CategoryValuation;
+import dev.kreaker.kinvex.repository.projection.StockMismatch;
+import dev.kreaker.kinvex.repository.specification.ProductSpecifications;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -62,11 +78,40 @@ class ProductRepositoryTest {
         entityManager.persistAndFlush(normalStockProduct);
 
         // When
-        List<Product> lowStockProducts = productRepository.findLowStockProducts();
+        List<ProductResponse> lowStockProducts = productRepository.findLowStockProducts();
 
         // Then
         assertThat(lowStockProducts).hasSize(1);
-        assertThat(lowStockProducts.get(0).getCode()).isEqualTo("PROD001");
+        assertThat(lowStockProducts.get(0).code()).isEqualTo("PROD001");
+        assertThat(lowStockProducts.get(0).categoryName()).isEqualTo("Electronics");
+        assertThat(lowStockProducts.get(0).availableStock()).isEqualTo(5);
+        assertThat(lowStockProducts.get(0).lowStock()).isTrue();
+    }
+
+    @Test
+    void stockStatus_ShouldFollowStockChanges() {
+        // Given
+        Category category = new Category("Electronics");
+        entityManager.persistAndFlush(category);
+
+        Product product = persist("PROD001", "Cable", "10.00", 0, 10, category, true);
+        product.setMaxStock(100);
+        persist("PROD002", "Mouse", "10.00", 0, 10, category, false);
+
+        // When - pasa de sin stock a sobre stock
+        assertThat(productRepository.findOutOfStockProducts())
+                .extracting(ProductResponse::code)
+                .containsExactly("PROD001");
+        product.setCurrentStock(150);
+        entityManager.flush();
+
+        // Then
+        assertThat(product.getStockStatus()).isEqualTo(StockStatus.OVER_STOCK);
+        assertThat(productRepository.findOverStockProducts())
+                .extracting(ProductResponse::code)
+                .containsExactly("PROD001");
+        assertThat(productRepository.findLowStockProducts()).isEmpty();
+        assertThat(productRepository.countLowStockProducts()).isZero();
     }
 
     @Test
@@ -94,4 +139,293 @@ class ProductRepositoryTest {
         // Then
         assertThat(exists).isFalse();
     }
+
+    @Test
+    void findAllMatching_ShouldCombineAllCriteria() {
+        // Given
+        Category electronics = new Category("Electronics");
+        entityManager.persistAndFlush(electronics);
+        Category office = new Category("Office");
+        entityManager.persistAndFlush(office);
+
+        persist("ELEC-001", "Cable HDMI", "15.00", 2, 10, electronics, true);
+        persist("ELEC-002", "Cable USB", "8.00", 50, 10, electronics, true);
+        persist("ELEC-003", "Cable VGA", "12.00", 0, 10, electronics, false);
+        persist("OFF-001", "Cable Organizer", "9.00", 1, 10, office, true);
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setName("cable");
+        criteria.setCategoryId(electronics.getId());
+        criteria.setLowStock(true);
+        criteria.setMaxPrice(new BigDecimal("20.00"));
+
+        // When
+        Page<Product> page =
+                productRepository.findAll(
+                        ProductSpecifications.matching(criteria),
+                        ProductSpecifications.withStableSort(PageRequest.of(0, 10)));
+
+        // Then - el inactivo y el de otra categoría quedan fuera
+        assertThat(page.getContent()).extracting(Product::getCode).containsExactly("ELEC-001");
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllMatching_WithCategorySubtree_ShouldIncludeSubcategoryProducts() {
+        // Given
+        Category electronics = entityManager.persistAndFlush(new Category("Electronics"));
+        Category peripherals = new Category("Peripherals");
+        peripherals.setParent(electronics);
+        entityManager.persistAndFlush(peripherals);
+        Category office = entityManager.persistAndFlush(new Category("Office"));
+
+        persist("ELEC-001", "Monitor", "150.00", 5, 1, electronics, true);
+        persist("ELEC-002", "Mouse", "15.00", 5, 1, peripherals, true);
+        persist("OFF-001", "Paper", "5.00", 5, 1, office, true);
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setCategoryId(electronics.getId());
+        List<Long> subtree = List.of(electronics.getId(), peripherals.getId());
+
+        // When
+        Page<Product> page =
+                productRepository.findAll(
+                        ProductSpecifications.matching(criteria, subtree),
+                        ProductSpecifications.withStableSort(
+                                PageRequest.of(0, 10, Sort.by("code"))));
+
+        // Then
+        assertThat(page.getContent())
+                .extracting(Product::getCode)
+                .containsExactly("ELEC-001", "ELEC-002");
+    }
+
+    @Test
+    void findAllMatching_ShouldFilterByCodePrefixAndSortByMultipleColumns() {
+        // Given
+        Category category = new Category("Electronics");
+        entityManager.persistAndFlush(category);
+
+        persist("ELEC-001", "Mouse", "20.00", 5, 1, category, true);
+        persist("ELEC-002", "Keyboard", "20.00", 5, 1, category, true);
+        persist("ELEC-003", "Monitor", "150.00", 5, 1, category, true);
+        persist("XELEC-004", "Headset", "30.00", 5, 1, category, true);
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setCode("elec-");
+
+        // When
+        Page<Product> page =
+                productRepository.findAll(
+                        ProductSpecifications.matching(criteria),
+                        ProductSpecifications.withStableSort(
+                                PageRequest.of(
+                                        0,
+                                        10,
+                                        Sort.by(
+                                                Sort.Order.desc("unitPrice"),
+                                                Sort.Order.asc("name")))));
+
+        // Then
+        assertThat(page.getContent())
+                .extracting(Product::getCode)
+                .containsExactly("ELEC-003", "ELEC-002", "ELEC-001");
+    }
+
+    @Test
+    void containingAll_ShouldRequireEveryTermInAnyField() {
+        // Given
+        Product hdmi = persist("ELEC-001", "Cable HDMI", "15.00", 5, 1, null, true);
+        hdmi.setDescription("Cable de 2 metros");
+        entityManager.persistAndFlush(hdmi);
+        persist("ELEC-002", "Cable USB", "8.00", 5, 1, null, true);
+        persist("ELEC-003", "Cable HDMI antiguo", "5.00", 5, 1, null, false);
+        persist("50%-OFF", "Adaptador", "3.00", 5, 1, null, true);
+
+        // When
+        List<Product> byWords =
+                productRepository.findAll(
+                        ProductSpecifications.containingAll(
+                                List.of("cable", "metros"), "name", "description"));
+        List<Product> byCode =
+                productRepository.findAll(
+                        ProductSpecifications.containingAll(List.of("0%-o"), "name", "code"));
+
+        // Then - los productos inactivos no se incluyen
+        assertThat(byWords).extracting(Product::getCode).containsExactly("ELEC-001");
+        assertThat(byCode).extracting(Product::getCode).containsExactly("50%-OFF");
+    }
+
+    @Test
+    void findActiveAfterName_ShouldContinueAfterCursorWithoutSkippingTiedNames() {
+        // Given - dos productos con el mismo nombre que caen en páginas distintas
+        Category category = new Category("Electronics");
+        entityManager.persistAndFlush(category);
+
+        persist("ELEC-001", "Adapter", "10.00", 5, 1, category, true);
+        Product firstCable = persist("ELEC-002", "Cable", "10.00", 5, 1, category, true);
+        persist("ELEC-003", "Cable", "10.00", 5, 1, category, true);
+        persist("ELEC-004", "Charger", "10.00", 5, 1, category, false);
+        persist("ELEC-005", "Dock", "10.00", 5, 1, category, true);
+
+        // When
+        Slice<ProductResponse> first =
+                productRepository.findActiveOrderedByName(PageRequest.of(0, 2));
+        Slice<ProductResponse> second =
+                productRepository.findActiveAfterName(
+                        firstCable.getName(), firstCable.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(first.getContent())
+                .extracting(ProductResponse::code)
+                .containsExactly("ELEC-001", "ELEC-002");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent())
+                .extracting(ProductResponse::code)
+                .containsExactly("ELEC-003", "ELEC-005");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void findInventoryStatsByCategory_ShouldAddSlotsPerCategory() {
+        // Given - filas como las que mantiene el trigger de products
+        Category electronics = entityManager.persistAndFlush(new Category("Electronics"));
+        entityManager.persist(
+                new InventoryValuation(
+                        electronics.getId(), (short) 1, 1L, 10L, new BigDecimal("100.00")));
+        entityManager.persist(
+                new InventoryValuation(
+                        electronics.getId(), (short) 2, 2L, 5L, new BigDecimal("25.50")));
+        entityManager.persist(
+                new InventoryValuation(0L, (short) 3, 1L, 4L, new BigDecimal("8.00")));
+        // Categoría sin productos activos tras las bajas
+        entityManager.persistAndFlush(
+                new InventoryValuation(99L, (short) 0, 0L, 0L, BigDecimal.ZERO));
+
+        // When
+        List<CategoryValuation> valuations = productRepository.findInventoryStatsByCategory();
+
+        // Then - los productos sin categoría van al final
+        assertThat(valuations).hasSize(2);
+        assertThat(valuations.get(0).getCategoryName()).isEqualTo("Electronics");
+        assertThat(valuations.get(0).getProductCount()).isEqualTo(3L);
+        assertThat(valuations.get(0).getTotalUnits()).isEqualTo(15L);
+        assertThat(valuations.get(0).getTotalValue()).isEqualByComparingTo("125.50");
+        assertThat(valuations.get(1).getCategoryId()).isNull();
+        assertThat(valuations.get(1).getTotalValue()).isEqualByComparingTo("8.00");
+    }
+
+    @Test
+    void aggregateInventoryStatsByCategory_ShouldSumActiveProducts() {
+        // Given
+        Category electronics = entityManager.persistAndFlush(new Category("Electronics"));
+        persist("VAL001", "Cable", "2.50", 10, 0, electronics, true);
+        persist("VAL002", "Mouse", "10.00", 3, 0, electronics, true);
+        persist("VAL003", "Old Mouse", "10.00", 50, 0, electronics, false);
+        persist("VAL004", "Paper", "1.00", 7, 0, null, true);
+
+        // When
+        List<CategoryValuation> valuations = productRepository.aggregateInventoryStatsByCategory();
+
+        // Then
+        assertThat(valuations).hasSize(2);
+        assertThat(valuations.get(0).getCategoryId()).isEqualTo(electronics.getId());
+        assertThat(valuations.get(0).getProductCount()).isEqualTo(2L);
+        assertThat(valuations.get(0).getTotalUnits()).isEqualTo(13L);
+        assertThat(valuations.get(0).getTotalValue()).isEqualByComparingTo("55.00");
+        assertThat(valuations.get(1).getCategoryId()).isNull();
+        assertThat(valuations.get(1).getTotalValue()).isEqualByComparingTo("7.00");
+    }
+
+    @Test
+    void countInventoryValuationDrift_ShouldDetectChangesSinceRebuild() {
+        // Given - valoración recalculada desde los productos
+        Category electronics = entityManager.persistAndFlush(new Category("Electronics"));
+        Product cable = persist("VAL001", "Cable", "2.50", 10, 0, electronics, true);
+        persist("VAL002", "Paper", "1.00", 7, 0, null, true);
+        productRepository.rebuildInventoryValuation();
+        long driftAfterRebuild = productRepository.countInventoryValuationDrift();
+
+        // When - un cambio de stock sin trigger que actualice la valoración
+        cable.setCurrentStock(4);
+        entityManager.persistAndFlush(cable);
+        long drift = productRepository.countInventoryValuationDrift();
+
+        // Then - la fila guardada y la recalculada del slot del producto difieren
+        assertThat(driftAfterRebuild).isZero();
+        assertThat(drift).isEqualTo(2L);
+    }
+
+    @Test
+    void findStockMismatches_ShouldSubtractPendingLedgerDeductions() {
+        // Given - el libro de stock registró una salida de 4 que aún no volcó al stock
+        Product ledgerOwned = persist("REC001", "Cable", "1.00", 10, 0, null, true);
+        movement(ledgerOwned, MovementType.IN, 10);
+        InventoryMovement ledgerOut = movement(ledgerOwned, MovementType.OUT, 4);
+        StockLedgerDeduction deduction = new StockLedgerDeduction();
+        deduction.setMovementId(ledgerOut.getId());
+        deduction.setProductId(ledgerOwned.getId());
+        deduction.setQuantity(4);
+        deduction.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(deduction);
+        // Producto con una diferencia real
+        Product drifted = persist("REC002", "Mouse", "1.00", 7, 0, null, true);
+        movement(drifted, MovementType.IN, 10);
+        entityManager.flush();
+
+        // When
+        List<StockMismatch> inRange =
+                productRepository.findStockMismatchesBetween(
+                        ledgerOwned.getId(), drifted.getId());
+        List<StockMismatch> byId =
+                productRepository.findStockMismatchesIn(
+                        List.of(ledgerOwned.getId(), drifted.getId()));
+
+        // Then
+        assertThat(inRange).extracting(StockMismatch::getProductCode).containsExactly("REC002");
+        assertThat(inRange.get(0).getCurrentStock()).isEqualTo(7);
+        assertThat(inRange.get(0).getLedgerStock()).isEqualTo(10L);
+        assertThat(byId).extracting(StockMismatch::getProductCode).containsExactly("REC002");
+    }
+
+    private InventoryMovement movement(Product product, MovementType type, int quantity) {
+        return entityManager.persist(new InventoryMovement(product, type, quantity));
+    }
+
+    private Product persist(
+            String code,
+            String name,
+            String price,
+            int currentStock,
+            int minStock,
+            Category category,
+            boolean active) {
+        Product product = new Product(code, name, new BigDecimal(price));
+        product.setCategory(category);
+        product.setCurrentStock(currentStock);
+        product.setMinStock(minStock);
+        product.setActive(active);
+        return entityManager.persistAndFlush(product);
+    }
+
+    @Test
+    void allocateIds_MixedWithSave_ShouldNotOverlapHibernateIds() {
+        // Given - save() toma el primer bloque de la secuencia
+        List<Long> savedIds = new ArrayList<>();
+        savedIds.add(productRepository.saveAndFlush(product(0)).getId());
+
+        // When - la importación reserva dos bloques y save() agota el suyo y pide otro
+        List<Long> allocatedIds = productRepository.allocateIds(Product.ID_ALLOCATION_SIZE + 10);
+        for (int i = 1; i <= Product.ID_ALLOCATION_SIZE; i++) {
+            savedIds.add(productRepository.saveAndFlush(product(i)).getId());
+        }
+
+        // Then
+        assertThat(allocatedIds).doesNotHaveDuplicates().doesNotContainAnyElementsOf(savedIds);
+        assertThat(savedIds).doesNotHaveDuplicates();
+    }
+
+    private static Product product(int index) {
+        return new Product("ALLOC" + index, "Allocated Product", new BigDecimal("1.00"));
+    }
 }
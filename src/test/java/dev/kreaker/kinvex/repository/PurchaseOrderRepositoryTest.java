@@ -2,9 +2,11 @@ package dev.kreaker.kinvex.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.kreaker.kinvex.dto.order.PurchaseOrderSummary;
 import dev.kreaker.kinvex.entity.PurchaseOrder;
 import dev.kreaker.kinvex.entity.Supplier;
 import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.projection.SupplierPerformance;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,6 +16,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -80,6 +84,52 @@ class PurchaseOrderRepositoryTest {
         assertThat(pendingOrders.get(0).getStatus()).isEqualTo(PurchaseOrder.OrderStatus.PENDING);
     }
 
+    @Test
+    void findBeforeOrderDate_ShouldWalkNewestFirstAcrossOrdersOnSameDate() {
+        // Given
+        Supplier supplier =
+                new Supplier("Test Supplier", "John Doe", "supplier@example.com", "123-456-7890");
+        entityManager.persistAndFlush(supplier);
+
+        LocalDate today = LocalDate.now();
+        PurchaseOrder older = new PurchaseOrder("PO001", supplier, today.minusDays(1));
+        entityManager.persistAndFlush(older);
+        PurchaseOrder first = new PurchaseOrder("PO002", supplier, today);
+        entityManager.persistAndFlush(first);
+        PurchaseOrder second = new PurchaseOrder("PO003", supplier, today);
+        second.setStatus(PurchaseOrder.OrderStatus.COMPLETED);
+        entityManager.persistAndFlush(second);
+
+        // When
+        Slice<PurchaseOrderSummary> firstPage =
+                purchaseOrderRepository.findLatestByOrderDate(PageRequest.of(0, 2));
+        PurchaseOrderSummary last = firstPage.getContent().get(1);
+        Slice<PurchaseOrderSummary> nextPage =
+                purchaseOrderRepository.findBeforeOrderDate(
+                        last.orderDate(), last.id(), PageRequest.of(0, 2));
+        Slice<PurchaseOrderSummary> pending =
+                purchaseOrderRepository.findByStatusBeforeOrderDate(
+                        PurchaseOrder.OrderStatus.PENDING,
+                        today.plusDays(1),
+                        0L,
+                        PageRequest.of(0, 10));
+
+        // Then
+        assertThat(firstPage.getContent())
+                .extracting(PurchaseOrderSummary::orderNumber)
+                .containsExactly("PO003", "PO002");
+        assertThat(firstPage.getContent())
+                .extracting(PurchaseOrderSummary::supplierName)
+                .containsOnly("Test Supplier");
+        assertThat(nextPage.getContent())
+                .extracting(PurchaseOrderSummary::orderNumber)
+                .containsExactly("PO001");
+        assertThat(nextPage.hasNext()).isFalse();
+        assertThat(pending.getContent())
+                .extracting(PurchaseOrderSummary::orderNumber)
+                .containsExactly("PO002", "PO001");
+    }
+
     @Test
     void findOverdueOrders_ShouldReturnOverdueOrders() {
         // Given
@@ -194,6 +244,85 @@ class PurchaseOrderRepositoryTest {
         assertThat(pendingStats[2]).isEqualTo(new BigDecimal("1000.00")); // sum
     }
 
+    @Test
+    void findSupplierPerformanceBetween_ShouldAggregateOrdersPerSupplier() {
+        // Given
+        Supplier acme = entityManager.persistAndFlush(new Supplier("Acme"));
+        Supplier globex = entityManager.persistAndFlush(new Supplier("Globex"));
+        LocalDate today = LocalDate.now();
+
+        PurchaseOrder slowDelivery =
+                order("PO001", acme, PurchaseOrder.OrderStatus.COMPLETED, today.minusDays(10));
+        slowDelivery.setReceivedDate(today.minusDays(4));
+        slowDelivery.setTotalAmount(new BigDecimal("100.00"));
+        entityManager.persist(slowDelivery);
+
+        PurchaseOrder fastDelivery =
+                order("PO002", acme, PurchaseOrder.OrderStatus.COMPLETED, today.minusDays(5));
+        fastDelivery.setReceivedDate(today.minusDays(3));
+        fastDelivery.setTotalAmount(new BigDecimal("300.00"));
+        entityManager.persist(fastDelivery);
+
+        PurchaseOrder overdue =
+                order("PO003", acme, PurchaseOrder.OrderStatus.PENDING, today.minusDays(7));
+        overdue.setExpectedDate(today.minusDays(1));
+        overdue.setTotalAmount(new BigDecimal("200.00"));
+        entityManager.persist(overdue);
+
+        PurchaseOrder cancelled =
+                order("PO004", acme, PurchaseOrder.OrderStatus.CANCELLED, today.minusDays(2));
+        cancelled.setTotalAmount(new BigDecimal("400.00"));
+        entityManager.persist(cancelled);
+
+        PurchaseOrder onTime =
+                order("PO005", globex, PurchaseOrder.OrderStatus.CONFIRMED, today.minusDays(1));
+        onTime.setExpectedDate(today.plusDays(5));
+        onTime.setTotalAmount(new BigDecimal("50.00"));
+        entityManager.persistAndFlush(onTime);
+
+        // When
+        List<SupplierPerformance> performance =
+                purchaseOrderRepository.findSupplierPerformanceBetween(
+                        LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+
+        // Then
+        assertThat(performance).hasSize(2);
+        SupplierPerformance acmePerformance = forSupplier(performance, acme);
+        assertThat(acmePerformance.getTotalOrders()).isEqualTo(4L);
+        assertThat(acmePerformance.getCompletedOrders()).isEqualTo(2L);
+        assertThat(acmePerformance.getPendingOrders()).isEqualTo(1L);
+        assertThat(acmePerformance.getCancelledOrders()).isEqualTo(1L);
+        assertThat(acmePerformance.getOverdueOrders()).isEqualTo(1L);
+        assertThat(acmePerformance.getTotalOrderValue()).isEqualByComparingTo("1000.00");
+        assertThat(acmePerformance.getAverageOrderValue()).isEqualTo(250.0);
+        assertThat(acmePerformance.getAverageDeliveryDays()).isEqualTo(4.0);
+        assertThat(acmePerformance.getLastOrderDate()).isNotNull();
+
+        SupplierPerformance globexPerformance = forSupplier(performance, globex);
+        assertThat(globexPerformance.getTotalOrders()).isEqualTo(1L);
+        assertThat(globexPerformance.getPendingOrders()).isEqualTo(1L);
+        assertThat(globexPerformance.getOverdueOrders()).isZero();
+        assertThat(globexPerformance.getAverageDeliveryDays()).isNull();
+    }
+
+    private static PurchaseOrder order(
+            String orderNumber,
+            Supplier supplier,
+            PurchaseOrder.OrderStatus status,
+            LocalDate orderDate) {
+        PurchaseOrder order = new PurchaseOrder(orderNumber, supplier, orderDate);
+        order.setStatus(status);
+        return order;
+    }
+
+    private static SupplierPerformance forSupplier(
+            List<SupplierPerformance> performance, Supplier supplier) {
+        return performance.stream()
+                .filter(row -> row.getSupplierId().equals(supplier.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
     @Test
     void countByStatus_ShouldReturnCorrectCount() {
         // Given
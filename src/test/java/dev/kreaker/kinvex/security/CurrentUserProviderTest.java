@@ -0,0 +1,138 @@
+package dev.kreaker.kinvex.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.entity.User;
+import dev.kreaker.kinvex.repository.UserRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/** Tests unitarios para CurrentUserProvider. */
+@ExtendWith(MockitoExtension.class)
+class CurrentUserProviderTest {
+
+    @Mock private UserRepository userRepository;
+
+    private CurrentUserProvider currentUserProvider;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        currentUserProvider = new CurrentUserProvider(userRepository);
+
+        testUser = new User("testuser", "test@example.com", "hash", User.UserRole.OPERATOR);
+        testUser.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getCurrentUser_WithJwtPrincipal_ShouldReturnReferenceWithoutQuery() {
+        // Arrange
+        authenticate(new AuthenticatedUser(7L, "testuser"));
+        when(userRepository.getReferenceById(7L)).thenReturn(testUser);
+
+        // Act
+        Optional<User> result = currentUserProvider.getCurrentUser();
+
+        // Assert
+        assertSame(testUser, result.orElseThrow());
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void getCurrentUser_WithUsernamePrincipal_ShouldQueryOnceAndCacheId() {
+        // Arrange
+        authenticate("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(7L)).thenReturn(testUser);
+
+        // Act
+        Optional<User> first = currentUserProvider.getCurrentUser();
+        Optional<Long> second = currentUserProvider.getCurrentUserId();
+
+        // Assert
+        assertSame(testUser, first.orElseThrow());
+        assertEquals(7L, second.orElseThrow());
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository).getReferenceById(7L);
+    }
+
+    @Test
+    void getCurrentUser_WithTokenWithoutUserId_ShouldFallBackToUsername() {
+        // Arrange
+        authenticate(new AuthenticatedUser(null, "testuser"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        Optional<User> result = currentUserProvider.getCurrentUser();
+
+        // Assert
+        assertSame(testUser, result.orElseThrow());
+    }
+
+    @Test
+    void getCurrentUser_WithUnknownUser_ShouldNotCacheMiss() {
+        // Arrange
+        authenticate("ghost");
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // Act
+        currentUserProvider.getCurrentUser();
+        Optional<User> result = currentUserProvider.getCurrentUser();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void getCurrentUser_WithAnonymousAuthentication_ShouldReturnEmpty() {
+        // Arrange
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new AnonymousAuthenticationToken(
+                                "key",
+                                "anonymousUser",
+                                List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS"))));
+
+        // Act
+        Optional<User> result = currentUserProvider.getCurrentUser();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).getReferenceById(anyLong());
+    }
+
+    private static void authenticate(Object principal) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                principal,
+                                null,
+                                List.of(new SimpleGrantedAuthority("ROLE_OPERATOR"))));
+    }
+}
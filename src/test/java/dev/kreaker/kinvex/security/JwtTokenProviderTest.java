@@ -3,6 +3,7 @@ package dev.kreaker.kinvex.security;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import dev.kreaker.kinvex.config.JwtProperties;
@@ -45,6 +46,25 @@ class JwtTokenProviderTest {
         assertEquals(roles, jwtTokenProvider.getRolesFromToken(token));
     }
 
+    @Test
+    void shouldIncludeUserIdInToken() {
+        // When
+        String token = jwtTokenProvider.generateToken(42L, "testuser", List.of("OPERATOR"));
+
+        // Then
+        assertEquals(42L, jwtTokenProvider.getUserIdFromToken(token));
+        assertEquals("testuser", jwtTokenProvider.getUsernameFromToken(token));
+    }
+
+    @Test
+    void shouldReturnNullUserIdForTokenWithoutClaim() {
+        // When
+        String token = jwtTokenProvider.generateToken("testuser", List.of("OPERATOR"));
+
+        // Then
+        assertNull(jwtTokenProvider.getUserIdFromToken(token));
+    }
+
     @Test
     void shouldGenerateValidRefreshToken() {
         // Given
@@ -10,6 +10,7 @@ import dev.kreaker.kinvex.entity.User;
 import dev.kreaker.kinvex.entity.User.UserRole;
 import dev.kreaker.kinvex.repository.AuditLogRepository;
 import dev.kreaker.kinvex.repository.UserRepository;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -42,7 +43,12 @@ class AuditServiceTest {
 
     @BeforeEach
     void setUp() {
-        auditService = new AuditService(auditLogRepository, userRepository, objectMapper);
+        auditService =
+                new AuditService(
+                        auditLogRepository,
+                        userRepository,
+                        new CurrentUserProvider(userRepository),
+                        objectMapper);
 
         testUser = new User();
         testUser.setId(1L);
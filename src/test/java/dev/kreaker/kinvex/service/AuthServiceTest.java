@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import dev.kreaker.kinvex.audit.AuditHelper;
@@ -73,7 +74,7 @@ class AuthServiceTest {
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("password", "hashedpassword")).thenReturn(true);
-        when(jwtTokenProvider.generateToken(anyString(), any(List.class)))
+        when(jwtTokenProvider.generateToken(eq(1L), anyString(), any(List.class)))
                 .thenReturn("access-token");
         when(jwtTokenProvider.generateRefreshToken("testuser")).thenReturn("refresh-token");
         when(jwtProperties.expiration()).thenReturn(3600L);
@@ -137,7 +138,7 @@ class AuthServiceTest {
         when(jwtTokenProvider.validateRefreshToken("valid-refresh-token")).thenReturn(true);
         when(jwtTokenProvider.getUsernameFromToken("valid-refresh-token")).thenReturn("testuser");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(jwtTokenProvider.generateToken(anyString(), any(List.class)))
+        when(jwtTokenProvider.generateToken(eq(1L), anyString(), any(List.class)))
                 .thenReturn("new-access-token");
         when(jwtProperties.expiration()).thenReturn(3600L);
 
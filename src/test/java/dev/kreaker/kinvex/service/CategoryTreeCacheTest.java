@@ -0,0 +1,121 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.dto.inventory.CategoryTreeNode;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.projection.CategoryNode;
+import dev.kreaker.kinvex.repository.projection.CategoryTreeVersion;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Tests unitarios para CategoryTreeCache. */
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeCacheTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 10, 12, 0);
+
+    @Mock private CategoryRepository categoryRepository;
+
+    private CategoryTreeCache categoryTreeCache;
+
+    @BeforeEach
+    void setUp() {
+        categoryTreeCache = new CategoryTreeCache(categoryRepository);
+        when(categoryRepository.findTreeVersion()).thenReturn(version(4L, UPDATED_AT));
+        when(categoryRepository.findAllNodes())
+                .thenReturn(
+                        List.of(
+                                node(1L, "Oficina", null),
+                                node(2L, "Electrónicos", null),
+                                node(3L, "Periféricos", 2L),
+                                node(4L, "Teclados", 3L)));
+    }
+
+    @Test
+    void getRoots_ShouldNestChildrenSortedByName() {
+        // Act
+        List<CategoryTreeNode> roots = categoryTreeCache.getRoots();
+
+        // Assert
+        assertEquals(
+                List.of("Electrónicos", "Oficina"),
+                roots.stream().map(CategoryTreeNode::name).toList());
+        CategoryTreeNode peripherals = roots.get(0).children().get(0);
+        assertEquals("Periféricos", peripherals.name());
+        assertEquals("Teclados", peripherals.children().get(0).name());
+    }
+
+    @Test
+    void getSubtreeIds_ShouldIncludeAllDescendantsWithoutFurtherQueries() {
+        // Act
+        List<Long> subtree = categoryTreeCache.getSubtreeIds(2L);
+        List<Long> leaf = categoryTreeCache.getSubtreeIds(4L);
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 4L), subtree);
+        assertEquals(List.of(4L), leaf);
+        verify(categoryRepository, times(1)).findAllNodes();
+    }
+
+    @Test
+    void refreshIfChanged_ShouldReloadOnlyWhenCategoriesChanged() {
+        // Arrange
+        categoryTreeCache.getRoots();
+
+        // Act - sin cambios
+        categoryTreeCache.refreshIfChanged();
+
+        // Assert
+        verify(categoryRepository, times(1)).findAllNodes();
+
+        // Act - una categoría modificada
+        when(categoryRepository.findTreeVersion())
+                .thenReturn(version(4L, UPDATED_AT.plusMinutes(1)));
+        categoryTreeCache.refreshIfChanged();
+
+        // Assert
+        verify(categoryRepository, times(2)).findAllNodes();
+    }
+
+    private static CategoryNode node(Long id, String name, Long parentId) {
+        return new CategoryNode() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getParentId() {
+                return parentId;
+            }
+        };
+    }
+
+    private static CategoryTreeVersion version(Long categoryCount, LocalDateTime lastUpdatedAt) {
+        return new CategoryTreeVersion() {
+            @Override
+            public Long getCategoryCount() {
+                return categoryCount;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdatedAt() {
+                return lastUpdatedAt;
+            }
+        };
+    }
+}
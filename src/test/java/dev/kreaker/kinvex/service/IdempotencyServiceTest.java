@@ -0,0 +1,222 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionResponse;
+import dev.kreaker.kinvex.entity.IdempotencyKey;
+import dev.kreaker.kinvex.exception.IdempotencyKeyConflictException;
+import dev.kreaker.kinvex.exception.InvalidIdempotencyKeyException;
+import dev.kreaker.kinvex.repository.IdempotencyKeyRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Tests unitarios para IdempotencyService. */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "billing-retry-001";
+
+    @Mock private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Spy private InventoryProperties inventoryProperties = InventoryProperties.defaults();
+
+    @Spy private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks private IdempotencyService idempotencyService;
+
+    private ExternalStockDeductionRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new ExternalStockDeductionRequest("TEST001", 5, "BILLING_SYSTEM", null);
+    }
+
+    @Test
+    void claimOrReplay_WithNewKey_ShouldClaimKeyForTtl() {
+        // Arrange
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(idempotencyKeyRepository.claim(
+                        eq(KEY),
+                        eq("STOCK_DEDUCTION"),
+                        anyString(),
+                        now.capture(),
+                        expiresAt.capture()))
+                .thenReturn(1);
+
+        // Act
+        Optional<ExternalStockDeductionResponse> result =
+                idempotencyService.claimOrReplay(
+                        KEY, "STOCK_DEDUCTION", request, ExternalStockDeductionResponse.class);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(now.getValue().plusHours(24), expiresAt.getValue());
+    }
+
+    @Test
+    void claimOrReplay_WithProcessedKey_ShouldReturnRecordedResponse() throws Exception {
+        // Arrange
+        ExternalStockDeductionResponse original =
+                ExternalStockDeductionResponse.success(
+                        "TEST001",
+                        "Test Product",
+                        5,
+                        100,
+                        95,
+                        "BILLING_SYSTEM",
+                        LocalDateTime.of(2024, 1, 15, 10, 30),
+                        7L);
+        IdempotencyKey stored = storedKey(claimedHash());
+        stored.setResponseBody(objectMapper.writeValueAsString(original));
+        when(idempotencyKeyRepository.claim(any(), any(), any(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+
+        // Act
+        Optional<ExternalStockDeductionResponse> result =
+                idempotencyService.claimOrReplay(
+                        KEY, "STOCK_DEDUCTION", request, ExternalStockDeductionResponse.class);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(95, result.get().getCurrentStock());
+        assertEquals(7L, result.get().getMovementId());
+        assertEquals(original.getTimestamp(), result.get().getTimestamp());
+    }
+
+    @Test
+    void claimOrReplay_WithKeyReusedForDifferentRequest_ShouldThrowConflict() {
+        // Arrange
+        IdempotencyKey stored = storedKey(claimedHash());
+        stored.setResponseBody("{}");
+        request.setQuantity(6);
+        when(idempotencyKeyRepository.claim(any(), any(), any(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThrows(
+                IdempotencyKeyConflictException.class,
+                () ->
+                        idempotencyService.claimOrReplay(
+                                KEY,
+                                "STOCK_DEDUCTION",
+                                request,
+                                ExternalStockDeductionResponse.class));
+    }
+
+    @Test
+    void claimOrReplay_WithTooLongKey_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(
+                InvalidIdempotencyKeyException.class,
+                () ->
+                        idempotencyService.claimOrReplay(
+                                "k".repeat(101),
+                                "STOCK_DEDUCTION",
+                                request,
+                                ExternalStockDeductionResponse.class));
+
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_WithNewKey_ShouldRunOperationAndRecordResponse() {
+        // Arrange
+        ExternalStockDeductionResponse response =
+                ExternalStockDeductionResponse.success(
+                        "TEST001", "Test Product", 5, 100, 95, "BILLING_SYSTEM", null, 7L);
+        when(idempotencyKeyRepository.claim(eq(KEY), any(), any(), any(), any())).thenReturn(1);
+
+        // Act
+        ExternalStockDeductionResponse result =
+                idempotencyService.execute(
+                        KEY,
+                        "STOCK_DEDUCTION",
+                        request,
+                        ExternalStockDeductionResponse.class,
+                        () -> response);
+
+        // Assert
+        assertEquals(response, result);
+        verify(idempotencyKeyRepository).storeResponse(eq(KEY), anyString());
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldRunOperationWithoutClaiming() {
+        // Act
+        String result =
+                idempotencyService.execute(
+                        null, "STOCK_DEDUCTION", request, String.class, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void recordResponse_ShouldStoreResponseAsJson() {
+        // Arrange
+        ExternalStockDeductionResponse response =
+                ExternalStockDeductionResponse.success(
+                        "TEST001", "Test Product", 5, 100, 95, "BILLING_SYSTEM", null, 7L);
+
+        // Act
+        idempotencyService.recordResponse(KEY, response);
+
+        // Assert
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).storeResponse(eq(KEY), json.capture());
+        assertTrue(json.getValue().contains("\"productCode\":\"TEST001\""));
+    }
+
+    @Test
+    void purgeExpiredKeys_ShouldDeleteExpiredKeys() {
+        // Arrange
+        when(idempotencyKeyRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+        // Act
+        idempotencyService.purgeExpiredKeys();
+
+        // Assert
+        verify(idempotencyKeyRepository).deleteExpired(any(LocalDateTime.class));
+    }
+
+    /** Obtiene el hash que el servicio calcula para la solicitud original. */
+    private String claimedHash() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(idempotencyKeyRepository.claim(any(), any(), hash.capture(), any(), any()))
+                .thenReturn(1);
+        idempotencyService.claimOrReplay(
+                KEY, "STOCK_DEDUCTION", request, ExternalStockDeductionResponse.class);
+        return hash.getValue();
+    }
+
+    private IdempotencyKey storedKey(String requestHash) {
+        IdempotencyKey key = new IdempotencyKey();
+        key.setKey(KEY);
+        key.setScope("STOCK_DEDUCTION");
+        key.setRequestHash(requestHash);
+        key.setCreatedAt(LocalDateTime.now());
+        key.setExpiresAt(LocalDateTime.now().plusHours(24));
+        return key;
+    }
+}
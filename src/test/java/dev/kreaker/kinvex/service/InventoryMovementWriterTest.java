@@ -0,0 +1,260 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.config.InventoryProperties.MovementWriteMode;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests unitarios para InventoryMovementWriter. */
+@ExtendWith(MockitoExtension.class)
+class InventoryMovementWriterTest {
+
+    @Mock private InventoryMovementRepository inventoryMovementRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InventoryMovementWriter movementWriter;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void write_InDirectMode_ShouldSaveInCallerTransaction() {
+        // Arrange
+        movementWriter = writer(MovementWriteMode.DIRECT, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        InventoryMovement movement = movement();
+        when(inventoryMovementRepository.save(movement)).thenReturn(movement);
+
+        // Act
+        InventoryMovement result = movementWriter.write(movement);
+
+        // Assert
+        assertEquals(movement, result);
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void write_InTransactionBatchMode_ShouldInsertTransactionMovementsBeforeCommit() {
+        // Arrange
+        movementWriter = writer(MovementWriteMode.TRANSACTION_BATCH, 100);
+        stubAllocateIds();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        InventoryMovement first = movementWriter.write(movement());
+        InventoryMovement second = movementWriter.write(movement());
+
+        // Assert - IDs disponibles antes de insertar
+        assertEquals(1L, first.getId());
+        assertEquals(2L, second.getId());
+        assertNotNull(first.getCreatedAt());
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
+
+        // Act - commit de la transacción
+        completeTransaction(true);
+
+        // Assert - una sola inserción con los movimientos de la transacción
+        verify(inventoryMovementRepository).insertAll(List.of(first, second));
+        verify(inventoryMovementRepository, never()).save(any(InventoryMovement.class));
+        DistributionSummary batchFill =
+                meterRegistry.get("kinvex.movements.writer.batch.size").summary();
+        assertEquals(2, (long) batchFill.totalAmount());
+        assertEquals(
+                1, meterRegistry.get("kinvex.movements.writer.flush.duration").timer().count());
+    }
+
+    @Test
+    void write_InTransactionBatchMode_WhenCallerRollsBack_ShouldNotInsert() {
+        // Arrange
+        movementWriter = writer(MovementWriteMode.TRANSACTION_BATCH, 100);
+        stubAllocateIds();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        movementWriter.write(movement());
+        completeTransaction(false);
+
+        // Assert
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void write_InTransactionBatchMode_WhenBatchIsFull_ShouldInsertWithoutWaitingForCommit() {
+        // Arrange
+        movementWriter = writer(MovementWriteMode.TRANSACTION_BATCH, 2);
+        stubAllocateIds();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        movementWriter.write(movement());
+        movementWriter.write(movement());
+        movementWriter.write(movement());
+        completeTransaction(true);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryMovement>> batches = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMovementRepository, times(2)).insertAll(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+    }
+
+    @Test
+    void write_InTransactionBatchMode_ShouldReuseReservedIdBlock() {
+        // Arrange
+        movementWriter = writer(MovementWriteMode.TRANSACTION_BATCH, 100);
+        stubAllocateIds();
+
+        // Act - dos transacciones consecutivas
+        TransactionSynchronizationManager.initSynchronization();
+        movementWriter.write(movement());
+        completeTransaction(true);
+        TransactionSynchronizationManager.initSynchronization();
+        InventoryMovement written = movementWriter.write(movement());
+        completeTransaction(true);
+
+        // Assert
+        assertEquals(2L, written.getId());
+        verify(inventoryMovementRepository).allocateIds(InventoryMovement.ID_ALLOCATION_SIZE);
+    }
+
+    @Test
+    void write_WhenIdsRunOutInSeveralThreads_ShouldReserveBlocksWithoutWaiting() throws Exception {
+        // Arrange - cada reserva espera a la otra: con un bloqueo compartido nunca terminarían
+        movementWriter = writer(MovementWriteMode.TRANSACTION_BATCH, 100);
+        CountDownLatch bothAllocating = new CountDownLatch(2);
+        AtomicLong blocks = new AtomicLong();
+        when(inventoryMovementRepository.allocateIds(InventoryMovement.ID_ALLOCATION_SIZE))
+                .thenAnswer(
+                        invocation -> {
+                            bothAllocating.countDown();
+                            assertTrue(bothAllocating.await(5, TimeUnit.SECONDS));
+                            long first =
+                                    blocks.getAndAdd(InventoryMovement.ID_ALLOCATION_SIZE) + 1;
+                            return LongStream.range(
+                                            first, first + InventoryMovement.ID_ALLOCATION_SIZE)
+                                    .boxed()
+                                    .toList();
+                        });
+        Callable<Long> writeInTransaction =
+                () -> {
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        return movementWriter.write(movement()).getId();
+                    } finally {
+                        TransactionSynchronizationManager.clearSynchronization();
+                    }
+                };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<Long> first = executor.submit(writeInTransaction);
+            Future<Long> second = executor.submit(writeInTransaction);
+
+            // Assert
+            assertNotEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            verify(inventoryMovementRepository, times(2))
+                    .allocateIds(InventoryMovement.ID_ALLOCATION_SIZE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void write_WithoutTransaction_ShouldFallBackToDirectWrite() {
+        // Arrange
+        movementWriter = writer(MovementWriteMode.TRANSACTION_BATCH, 100);
+        InventoryMovement movement = movement();
+        when(inventoryMovementRepository.save(movement)).thenReturn(movement);
+
+        // Act
+        movementWriter.write(movement);
+
+        // Assert
+        verify(inventoryMovementRepository).save(movement);
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
+    }
+
+    private void stubAllocateIds() {
+        when(inventoryMovementRepository.allocateIds(InventoryMovement.ID_ALLOCATION_SIZE))
+                .thenReturn(
+                        LongStream.rangeClosed(1, InventoryMovement.ID_ALLOCATION_SIZE)
+                                .boxed()
+                                .toList());
+    }
+
+    private static void completeTransaction(boolean commit) {
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        if (commit) {
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        int status =
+                commit
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private InventoryMovementWriter writer(MovementWriteMode mode, int maxBatchSize) {
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        null,
+                        null,
+                        new InventoryProperties.Movements(mode, maxBatchSize, null),
+                        null,
+                        null,
+                        null,
+                        null,
+                        null);
+        return new InventoryMovementWriter(inventoryMovementRepository, properties, meterRegistry);
+    }
+
+    private static InventoryMovement movement() {
+        Product product = new Product("TEST001", "Test Product", new BigDecimal("10.00"));
+        product.setId(1L);
+        return new InventoryMovement(product, MovementType.OUT, 1);
+    }
+}
@@ -5,16 +5,36 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.config.InventoryProperties.DeductionMode;
 import dev.kreaker.kinvex.dto.inventory.CreateProductRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionRequest;
+import dev.kreaker.kinvex.dto.inventory.ExternalInvoiceDeductionResponse;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionRequest;
 import dev.kreaker.kinvex.dto.inventory.ExternalStockDeductionResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
+import dev.kreaker.kinvex.dto.inventory.ProductResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductSearchCriteria;
+import dev.kreaker.kinvex.dto.inventory.ProductSearchMode;
 import dev.kreaker.kinvex.dto.inventory.StockUpdateRequest;
 import dev.kreaker.kinvex.dto.inventory.UpdateProductRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
+import dev.kreaker.kinvex.dto.pagination.PageCursor;
 import dev.kreaker.kinvex.entity.Category;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.Product;
@@ -24,15 +44,30 @@ import dev.kreaker.kinvex.exception.ProductNotFoundException;
 import dev.kreaker.kinvex.repository.CategoryRepository;
 import dev.kreaker.kinvex.repository.InventoryMovementRepository;
 import dev.kreaker.kinvex.repository.ProductRepository;
-import dev.kreaker.kinvex.repository.UserRepository;
+import dev.kreaker.kinvex.repository.projection.StockDeductionResult;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 /**
  * Tests unitarios para InventoryService.
@@ -48,7 +83,19 @@ class InventoryServiceTest {
 
     @Mock private InventoryMovementRepository inventoryMovementRepository;
 
-    @Mock private UserRepository userRepository;
+    @Mock private CurrentUserProvider currentUserProvider;
+
+    @Mock private IdempotencyService idempotencyService;
+
+    @Mock private StockLedger stockLedger;
+
+    @Mock private InventoryMovementWriter movementWriter;
+
+    @Mock private ProductCatalogCache productCatalogCache;
+
+    @Mock private CategoryTreeCache categoryTreeCache;
+
+    @Spy private InventoryProperties inventoryProperties = InventoryProperties.defaults();
 
     @InjectMocks private InventoryService inventoryService;
 
@@ -61,6 +108,11 @@ class InventoryServiceTest {
 
     @BeforeEach
     void setUp() {
+        // El envoltorio de idempotencia delega en los métodos simulados del servicio
+        lenient()
+                .when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenCallRealMethod();
+
         // Setup test product
         testProduct = new Product();
         testProduct.setId(1L);
@@ -193,7 +245,7 @@ class InventoryServiceTest {
     @Test
     void updateProduct_WithValidData_ShouldUpdateProduct() {
         // Arrange
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // Act
@@ -207,14 +259,15 @@ class InventoryServiceTest {
         assertEquals(15, result.getMinStock());
         assertEquals(600, result.getMaxStock());
 
-        verify(productRepository).findById(1L);
+        verify(productRepository).findWithCategoryById(1L);
         verify(productRepository).save(testProduct);
+        verify(productCatalogCache).evict("TEST001");
     }
 
     @Test
     void updateProduct_WithNonExistentId_ShouldThrowException() {
         // Arrange
-        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
@@ -223,7 +276,7 @@ class InventoryServiceTest {
                     inventoryService.updateProduct(999L, updateRequest);
                 });
 
-        verify(productRepository).findById(999L);
+        verify(productRepository).findWithCategoryById(999L);
         verify(productRepository, never()).save(any(Product.class));
     }
 
@@ -233,7 +286,7 @@ class InventoryServiceTest {
         // Arrange
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(inventoryMovementRepository.save(any(InventoryMovement.class)))
+        when(movementWriter.write(any(InventoryMovement.class)))
                 .thenAnswer(
                         invocation -> {
                             InventoryMovement movement = invocation.getArgument(0);
@@ -252,7 +305,7 @@ class InventoryServiceTest {
 
         verify(productRepository).findById(1L);
         verify(productRepository).save(testProduct);
-        verify(inventoryMovementRepository).save(any(InventoryMovement.class));
+        verify(movementWriter).write(any(InventoryMovement.class));
     }
 
     @Test
@@ -260,7 +313,7 @@ class InventoryServiceTest {
         // Arrange
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(inventoryMovementRepository.save(any(InventoryMovement.class)))
+        when(movementWriter.write(any(InventoryMovement.class)))
                 .thenAnswer(
                         invocation -> {
                             InventoryMovement movement = invocation.getArgument(0);
@@ -279,7 +332,7 @@ class InventoryServiceTest {
 
         verify(productRepository).findById(1L);
         verify(productRepository).save(testProduct);
-        verify(inventoryMovementRepository).save(any(InventoryMovement.class));
+        verify(movementWriter).write(any(InventoryMovement.class));
     }
 
     @Test
@@ -298,7 +351,7 @@ class InventoryServiceTest {
 
         verify(productRepository).findById(1L);
         verify(productRepository, never()).save(any(Product.class));
-        verify(inventoryMovementRepository, never()).save(any(InventoryMovement.class));
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
     }
 
     @Test
@@ -306,7 +359,7 @@ class InventoryServiceTest {
         // Arrange
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(inventoryMovementRepository.save(any(InventoryMovement.class)))
+        when(movementWriter.write(any(InventoryMovement.class)))
                 .thenAnswer(
                         invocation -> {
                             InventoryMovement movement = invocation.getArgument(0);
@@ -325,7 +378,7 @@ class InventoryServiceTest {
 
         verify(productRepository).findById(1L);
         verify(productRepository).save(testProduct);
-        verify(inventoryMovementRepository).save(any(InventoryMovement.class));
+        verify(movementWriter).write(any(InventoryMovement.class));
     }
 
     @Test
@@ -342,16 +395,17 @@ class InventoryServiceTest {
 
         verify(productRepository).findById(1L);
         verify(productRepository, never()).save(any(Product.class));
-        verify(inventoryMovementRepository, never()).save(any(InventoryMovement.class));
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
     }
 
     // ========== External API Tests ==========
     @Test
     void deductStockForExternalSystem_WithValidRequest_ShouldReturnSuccess() {
         // Arrange
-        when(productRepository.findByCode("TEST001")).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(inventoryMovementRepository.save(any(InventoryMovement.class)))
+        when(productRepository.deductStockByCode("TEST001", 5))
+                .thenReturn(Optional.of(deductionResult(testProduct, 95)));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(movementWriter.write(any(InventoryMovement.class)))
                 .thenAnswer(
                         invocation -> {
                             InventoryMovement movement = invocation.getArgument(0);
@@ -374,15 +428,17 @@ class InventoryServiceTest {
         assertEquals("BILLING_SYSTEM", result.getSourceSystem());
         assertEquals(1L, result.getMovementId());
 
-        verify(productRepository).findByCode("TEST001");
-        verify(productRepository).save(testProduct);
-        verify(inventoryMovementRepository).save(any(InventoryMovement.class));
+        verify(productRepository).deductStockByCode("TEST001", 5);
+        verify(productRepository, never()).findByCode(any());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(movementWriter).write(any(InventoryMovement.class));
     }
 
     @Test
     void deductStockForExternalSystem_WithInsufficientStock_ShouldThrowException() {
         // Arrange
         testProduct.setCurrentStock(3); // Less than requested quantity
+        when(productRepository.deductStockByCode("TEST001", 5)).thenReturn(Optional.empty());
         when(productRepository.findByCode("TEST001")).thenReturn(Optional.of(testProduct));
 
         // Act & Assert
@@ -398,14 +454,15 @@ class InventoryServiceTest {
         assertEquals(3, exception.getAvailableStock());
         assertEquals(5, exception.getRequestedQuantity());
 
-        verify(productRepository).findByCode("TEST001");
+        verify(productRepository).deductStockByCode("TEST001", 5);
         verify(productRepository, never()).save(any(Product.class));
-        verify(inventoryMovementRepository, never()).save(any(InventoryMovement.class));
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
     }
 
     @Test
     void deductStockForExternalSystem_WithNonExistentProduct_ShouldThrowException() {
         // Arrange
+        when(productRepository.deductStockByCode("NONEXISTENT", 5)).thenReturn(Optional.empty());
         when(productRepository.findByCode("NONEXISTENT")).thenReturn(Optional.empty());
         externalRequest.setProductCode("NONEXISTENT");
 
@@ -418,13 +475,14 @@ class InventoryServiceTest {
 
         verify(productRepository).findByCode("NONEXISTENT");
         verify(productRepository, never()).save(any(Product.class));
-        verify(inventoryMovementRepository, never()).save(any(InventoryMovement.class));
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
     }
 
     @Test
     void deductStockForExternalSystem_WithInactiveProduct_ShouldThrowException() {
         // Arrange
         testProduct.setActive(false);
+        when(productRepository.deductStockByCode("TEST001", 5)).thenReturn(Optional.empty());
         when(productRepository.findByCode("TEST001")).thenReturn(Optional.of(testProduct));
 
         // Act & Assert
@@ -436,28 +494,279 @@ class InventoryServiceTest {
 
         verify(productRepository).findByCode("TEST001");
         verify(productRepository, never()).save(any(Product.class));
-        verify(inventoryMovementRepository, never()).save(any(InventoryMovement.class));
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
+    }
+
+    @Test
+    void deductStockForExternalSystem_WithEntityMode_ShouldLoadAndSaveProduct() {
+        // Arrange
+        doReturn(new InventoryProperties.Deduction(DeductionMode.ENTITY))
+                .when(inventoryProperties)
+                .deduction();
+        when(productRepository.findByCode("TEST001")).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(movementWriter.write(any(InventoryMovement.class)))
+                .thenAnswer(
+                        invocation -> {
+                            InventoryMovement movement = invocation.getArgument(0);
+                            movement.setId(1L);
+                            return movement;
+                        });
+
+        // Act
+        ExternalStockDeductionResponse result =
+                inventoryService.deductStockForExternalSystem(externalRequest);
+
+        // Assert
+        assertEquals("SUCCESS", result.getStatus());
+        assertEquals(100, result.getPreviousStock());
+        assertEquals(95, result.getCurrentStock());
+        assertEquals(95, testProduct.getCurrentStock());
+
+        verify(productRepository).save(testProduct);
+        verify(productRepository, never()).deductStockByCode(any(), any());
+    }
+
+    @Test
+    void deductStockForExternalSystem_WithLedgerManagedProduct_ShouldDeductInMemory() {
+        // Arrange - el libro registra el movimiento en la transacción del descuento
+        when(stockLedger.tryDeduct(eq("TEST001"), eq(5), any()))
+                .thenAnswer(
+                        invocation -> {
+                            Function<Long, InventoryMovement> recordMovement =
+                                    invocation.getArgument(2);
+                            return Optional.of(
+                                    new StockLedger.AcceptedDeduction(
+                                            "TEST001",
+                                            "Test Product",
+                                            5,
+                                            100,
+                                            95,
+                                            recordMovement.apply(1L)));
+                        });
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(movementWriter.write(any(InventoryMovement.class)))
+                .thenAnswer(
+                        invocation -> {
+                            InventoryMovement movement = invocation.getArgument(0);
+                            movement.setId(42L);
+                            return movement;
+                        });
+
+        // Act
+        ExternalStockDeductionResponse result =
+                inventoryService.deductStockForExternalSystem(externalRequest);
+
+        // Assert
+        assertEquals("SUCCESS", result.getStatus());
+        assertEquals(100, result.getPreviousStock());
+        assertEquals(95, result.getCurrentStock());
+        assertEquals(42L, result.getMovementId());
+        assertEquals("BILLING_SYSTEM", result.getSourceSystem());
+        verify(productRepository, never()).deductStockByCode(any(), any());
+    }
+
+    @Test
+    void deductStockForExternalSystem_WithDatabaseDeduction_ShouldRecordDeductionRate() {
+        // Arrange
+        when(productRepository.deductStockByCode("TEST001", 5))
+                .thenReturn(Optional.of(deductionResult(testProduct, 95)));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(movementWriter.write(any(InventoryMovement.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        inventoryService.deductStockForExternalSystem(externalRequest);
+
+        // Assert
+        verify(stockLedger).recordDeduction(1L, "TEST001", "Test Product");
+    }
+
+    @Test
+    void deductStockForExternalSystem_WithNewIdempotencyKey_ShouldDeductAndRecordResponse() {
+        // Arrange
+        externalRequest.setIdempotencyKey("retry-001");
+        when(idempotencyService.claimOrReplay(
+                        "retry-001",
+                        InventoryService.STOCK_DEDUCTION_SCOPE,
+                        externalRequest,
+                        ExternalStockDeductionResponse.class))
+                .thenReturn(Optional.empty());
+        when(productRepository.deductStockByCode("TEST001", 5))
+                .thenReturn(Optional.of(deductionResult(testProduct, 95)));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(movementWriter.write(any(InventoryMovement.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ExternalStockDeductionResponse result =
+                inventoryService.deductStockForExternalSystem(externalRequest);
+
+        // Assert
+        assertEquals(95, result.getCurrentStock());
+        verify(idempotencyService).recordResponse("retry-001", result);
+    }
+
+    @Test
+    void deductStockForExternalSystem_WithReplayedIdempotencyKey_ShouldNotDeductAgain() {
+        // Arrange
+        externalRequest.setIdempotencyKey("retry-001");
+        ExternalStockDeductionResponse original =
+                ExternalStockDeductionResponse.success(
+                        "TEST001", "Test Product", 5, 100, 95, "BILLING_SYSTEM", null, 1L);
+        when(idempotencyService.claimOrReplay(
+                        "retry-001",
+                        InventoryService.STOCK_DEDUCTION_SCOPE,
+                        externalRequest,
+                        ExternalStockDeductionResponse.class))
+                .thenReturn(Optional.of(original));
+
+        // Act
+        ExternalStockDeductionResponse result =
+                inventoryService.deductStockForExternalSystem(externalRequest);
+
+        // Assert
+        assertEquals(original, result);
+        verify(productRepository, never()).deductStockByCode(any(), any());
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
+        verify(idempotencyService, never()).recordResponse(any(), any());
+    }
+
+    @Test
+    void deductStockForExternalSystem_WithoutIdempotencyKey_ShouldSkipIdempotencyCheck() {
+        // Arrange
+        when(productRepository.deductStockByCode("TEST001", 5))
+                .thenReturn(Optional.of(deductionResult(testProduct, 95)));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(movementWriter.write(any(InventoryMovement.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        inventoryService.deductStockForExternalSystem(externalRequest);
+
+        // Assert
+        verify(idempotencyService, never()).claimOrReplay(any(), any(), any(), any());
+        verify(idempotencyService, never()).recordResponse(any(), any());
+    }
+
+    @Test
+    void deductInvoiceForExternalSystem_WithValidInvoice_ShouldDeductAllLines() {
+        // Arrange
+        Product secondProduct = new Product("TEST002", "Second Product", new BigDecimal("5.00"));
+        secondProduct.setId(2L);
+        secondProduct.setCurrentStock(20);
+        ExternalInvoiceDeductionRequest invoice =
+                new ExternalInvoiceDeductionRequest(
+                        "FAC-001",
+                        List.of(
+                                new ExternalStockDeductionRequest("TEST001", 5),
+                                new ExternalStockDeductionRequest("TEST002", 8),
+                                new ExternalStockDeductionRequest("TEST001", 10)));
+        invoice.setSourceSystem("POS");
+
+        when(productRepository.findByCodeInForUpdate(anyCollection()))
+                .thenReturn(List.of(testProduct, secondProduct));
+        doAnswer(
+                        invocation -> {
+                            List<InventoryMovement> movements = invocation.getArgument(0);
+                            for (int i = 0; i < movements.size(); i++) {
+                                movements.get(i).setId(10L + i);
+                            }
+                            return null;
+                        })
+                .when(inventoryMovementRepository)
+                .insertAll(anyList());
+
+        // Act
+        ExternalInvoiceDeductionResponse result =
+                inventoryService.deductInvoiceForExternalSystem(invoice);
+
+        // Assert
+        assertEquals("SUCCESS", result.getStatus());
+        assertEquals("FAC-001", result.getInvoiceNumber());
+        assertEquals(3, result.getTotalLines());
+        assertEquals(23, result.getTotalQuantity());
+
+        ExternalStockDeductionResponse thirdLine = result.getLines().get(2);
+        assertEquals("TEST001", thirdLine.getProductCode());
+        assertEquals(95, thirdLine.getPreviousStock());
+        assertEquals(85, thirdLine.getCurrentStock());
+        assertEquals("POS", thirdLine.getSourceSystem());
+        assertEquals(12L, thirdLine.getMovementId());
+
+        assertEquals(85, testProduct.getCurrentStock());
+        assertEquals(12, secondProduct.getCurrentStock());
+        verify(productRepository).findByCodeInForUpdate(Set.of("TEST001", "TEST002"));
+        verify(inventoryMovementRepository).insertAll(anyList());
+        verify(movementWriter, never()).write(any(InventoryMovement.class));
+    }
+
+    @Test
+    void deductInvoiceForExternalSystem_WithInsufficientAggregatedStock_ShouldNotDeductAnyLine() {
+        // Arrange
+        ExternalInvoiceDeductionRequest invoice =
+                new ExternalInvoiceDeductionRequest(
+                        "FAC-002",
+                        List.of(
+                                new ExternalStockDeductionRequest("TEST001", 60),
+                                new ExternalStockDeductionRequest("TEST001", 50)));
+        when(productRepository.findByCodeInForUpdate(anyCollection()))
+                .thenReturn(List.of(testProduct));
+
+        // Act & Assert
+        InsufficientStockException exception =
+                assertThrows(
+                        InsufficientStockException.class,
+                        () -> inventoryService.deductInvoiceForExternalSystem(invoice));
+
+        assertEquals(100, exception.getAvailableStock());
+        assertEquals(110, exception.getRequestedQuantity());
+        assertEquals(100, testProduct.getCurrentStock());
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void deductInvoiceForExternalSystem_WithUnknownProduct_ShouldThrowException() {
+        // Arrange
+        ExternalInvoiceDeductionRequest invoice =
+                new ExternalInvoiceDeductionRequest(
+                        "FAC-003",
+                        List.of(
+                                new ExternalStockDeductionRequest("TEST001", 1),
+                                new ExternalStockDeductionRequest("MISSING", 1)));
+        when(productRepository.findByCodeInForUpdate(anyCollection()))
+                .thenReturn(List.of(testProduct));
+
+        // Act & Assert
+        assertThrows(
+                ProductNotFoundException.class,
+                () -> inventoryService.deductInvoiceForExternalSystem(invoice));
+
+        assertEquals(100, testProduct.getCurrentStock());
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
     }
 
     // ========== Product Retrieval Tests ==========
     @Test
     void getProductById_WithExistingId_ShouldReturnProduct() {
         // Arrange
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        ProductResponse response = ProductResponse.from(testProduct);
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(response));
 
         // Act
-        Product result = inventoryService.getProductById(1L);
+        ProductResponse result = inventoryService.getProductById(1L);
 
         // Assert
         assertNotNull(result);
-        assertEquals(testProduct, result);
-        verify(productRepository).findById(1L);
+        assertEquals(response, result);
+        verify(productRepository).findResponseById(1L);
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
     void getProductById_WithNonExistentId_ShouldThrowException() {
         // Arrange
-        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        when(productRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
@@ -466,27 +775,80 @@ class InventoryServiceTest {
                     inventoryService.getProductById(999L);
                 });
 
-        verify(productRepository).findById(999L);
+        verify(productRepository).findResponseById(999L);
+    }
+
+    @Test
+    void scrollProducts_WithCursor_ShouldSeekAfterLastProductWithoutCount() {
+        // Arrange
+        String cursor = PageCursor.encode("Cable", 7L);
+        ProductResponse response = ProductResponse.from(testProduct);
+        when(productRepository.findActiveAfterName(eq("Cable"), eq(7L), any()))
+                .thenReturn(new SliceImpl<>(List.of(response), PageRequest.of(0, 1), true));
+
+        // Act
+        CursorPage<ProductResponse> page = inventoryService.scrollProducts(cursor, 1);
+
+        // Assert
+        assertEquals(List.of(response), page.content());
+        assertEquals(
+                new PageCursor(testProduct.getName(), testProduct.getId()),
+                PageCursor.decode(page.nextCursor()));
+        verify(productRepository, never()).findByActiveTrue(any(Pageable.class));
     }
 
     @Test
     void getProductByCode_WithExistingCode_ShouldReturnProduct() {
         // Arrange
-        when(productRepository.findByCode("TEST001")).thenReturn(Optional.of(testProduct));
+        ProductResponse response = ProductResponse.from(testProduct);
+        when(productRepository.findResponseByCode("TEST001")).thenReturn(Optional.of(response));
 
         // Act
-        Product result = inventoryService.getProductByCode("TEST001");
+        ProductResponse result = inventoryService.getProductByCode("TEST001");
 
         // Assert
         assertNotNull(result);
-        assertEquals(testProduct, result);
-        verify(productRepository).findByCode("TEST001");
+        assertEquals(response, result);
+        verify(productRepository).findResponseByCode("TEST001");
+    }
+
+    @Test
+    void getCatalogEntryByCode_ShouldLoadThroughCatalogCache() {
+        // Arrange
+        ProductCatalogEntry entry =
+                new ProductCatalogEntry(
+                        1L, "TEST001", "Test Product", new BigDecimal("10.99"), true);
+        when(productRepository.findCatalogEntryByCode("TEST001")).thenReturn(Optional.of(entry));
+        when(productCatalogCache.getByCode(eq("TEST001"), any()))
+                .thenAnswer(
+                        invocation ->
+                                invocation
+                                        .<Supplier<Optional<ProductCatalogEntry>>>getArgument(1)
+                                        .get());
+
+        // Act
+        ProductCatalogEntry result = inventoryService.getCatalogEntryByCode("TEST001");
+
+        // Assert
+        assertEquals(entry, result);
+        verify(productRepository, never()).findByCode(anyString());
+    }
+
+    @Test
+    void getCatalogEntryByCode_WithNonExistentCode_ShouldThrowException() {
+        // Arrange
+        when(productCatalogCache.getByCode(eq("NONEXISTENT"), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(
+                ProductNotFoundException.class,
+                () -> inventoryService.getCatalogEntryByCode("NONEXISTENT"));
     }
 
     @Test
     void getProductByCode_WithNonExistentCode_ShouldThrowException() {
         // Arrange
-        when(productRepository.findByCode("NONEXISTENT")).thenReturn(Optional.empty());
+        when(productRepository.findResponseByCode("NONEXISTENT")).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
@@ -495,7 +857,7 @@ class InventoryServiceTest {
                     inventoryService.getProductByCode("NONEXISTENT");
                 });
 
-        verify(productRepository).findByCode("NONEXISTENT");
+        verify(productRepository).findResponseByCode("NONEXISTENT");
     }
 
     @Test
@@ -511,5 +873,183 @@ class InventoryServiceTest {
         assertFalse(testProduct.getActive());
         verify(productRepository).findById(1L);
         verify(productRepository).save(testProduct);
+        verify(productCatalogCache).evict("TEST001");
+    }
+
+    private static StockDeductionResult deductionResult(Product product, Integer currentStock) {
+        return new StockDeductionResult() {
+            @Override
+            public Long getId() {
+                return product.getId();
+            }
+
+            @Override
+            public String getCode() {
+                return product.getCode();
+            }
+
+            @Override
+            public String getName() {
+                return product.getName();
+            }
+
+            @Override
+            public Integer getCurrentStock() {
+                return currentStock;
+            }
+        };
+    }
+
+    // ========== Product Search Tests ==========
+    @Test
+    void searchProducts_ShouldRunSingleQueryWithStableSort() {
+        // Arrange
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setLowStock(true);
+        criteria.setCategoryId(1L);
+        Page<Product> page = new PageImpl<>(List.of(testProduct));
+        when(productRepository.findAll(
+                        ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+                .thenReturn(page);
+
+        // Act
+        Page<ProductResponse> result =
+                inventoryService.searchProducts(
+                        criteria,
+                        PageRequest.of(
+                                0,
+                                20,
+                                Sort.by(Sort.Order.asc("name"), Sort.Order.desc("unitPrice"))));
+
+        // Assert
+        assertEquals(List.of(ProductResponse.from(testProduct)), result.getContent());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository)
+                .findAll(ArgumentMatchers.<Specification<Product>>any(), pageable.capture());
+        assertEquals(
+                List.of("name", "unitPrice", "id"),
+                pageable.getValue().getSort().stream().map(Sort.Order::getProperty).toList());
+        verify(productRepository, never()).findByActiveTrue(any(Pageable.class));
+        verifyNoInteractions(categoryTreeCache);
+    }
+
+    @Test
+    void searchProducts_WithSubcategories_ShouldFilterByWholeSubtree() {
+        // Arrange
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setCategoryId(1L);
+        criteria.setIncludeSubcategories(true);
+        when(categoryTreeCache.getSubtreeIds(1L)).thenReturn(List.of(1L, 5L, 6L));
+        when(productRepository.findAll(
+                        ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testProduct)));
+
+        // Act
+        Page<ProductResponse> result =
+                inventoryService.searchProducts(criteria, PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        verify(categoryTreeCache).getSubtreeIds(1L);
+        verify(productRepository)
+                .findAll(ArgumentMatchers.<Specification<Product>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchProducts_WithUnsupportedSort_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        inventoryService.searchProducts(
+                                new ProductSearchCriteria(),
+                                PageRequest.of(0, 20, Sort.by("category.name"))));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProductsByText_InFullTextMode_ShouldUsePrefixQueryOnLastTerm() {
+        // Arrange
+        useSearchIndexes();
+        Product otherProduct = new Product("TEST002", "Cable USB", new BigDecimal("5.00"));
+        otherProduct.setId(2L);
+        when(productRepository.searchByFullText(eq("cable & us:*"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L)));
+        when(productRepository.findResponsesByIdIn(List.of(2L, 1L)))
+                .thenReturn(
+                        List.of(
+                                ProductResponse.from(testProduct),
+                                ProductResponse.from(otherProduct)));
+
+        // Act
+        Page<ProductResponse> result =
+                inventoryService.searchProductsByText(
+                        "Cable, US", ProductSearchMode.FULL_TEXT, PageRequest.of(0, 20));
+
+        // Assert - se conserva el orden de relevancia de la búsqueda
+        assertEquals(
+                List.of(2L, 1L), result.getContent().stream().map(ProductResponse::id).toList());
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void searchProductsByText_InContainsMode_ShouldEscapeLikeWildcards() {
+        // Arrange
+        useSearchIndexes();
+        when(productRepository.searchByTrigram(
+                        eq("50%_off"), eq("%50\\%\\_off%"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(1L)));
+        when(productRepository.findResponsesByIdIn(List.of(1L)))
+                .thenReturn(List.of(ProductResponse.from(testProduct)));
+
+        // Act
+        Page<ProductResponse> result =
+                inventoryService.searchProductsByText(
+                        " 50%_OFF ",
+                        ProductSearchMode.CONTAINS,
+                        PageRequest.of(0, 20, Sort.by("name")));
+
+        // Assert
+        assertEquals(List.of(ProductResponse.from(testProduct)), result.getContent());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository)
+                .searchByTrigram(eq("50%_off"), eq("%50\\%\\_off%"), pageable.capture());
+        assertTrue(pageable.getValue().getSort().isUnsorted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchProductsByText_WithoutSearchIndexes_ShouldMatchSubstringsOrderedByName() {
+        // Arrange - esquema sin pg_trgm ni search_vector
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testProduct)));
+
+        // Act
+        Page<ProductResponse> result =
+                inventoryService.searchProductsByText(
+                        "cable", ProductSearchMode.CONTAINS, PageRequest.of(1, 20));
+
+        // Assert
+        assertEquals(List.of(ProductResponse.from(testProduct)), result.getContent());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(productRepository).findAll(any(Specification.class), pageable.capture());
+        assertEquals(PageRequest.of(1, 20, Sort.by("name", "id")), pageable.getValue());
+        verify(productRepository, never()).searchByTrigram(any(), any(), any());
+        verify(productRepository, never()).searchByFullText(any(), any());
+    }
+
+    @Test
+    void searchProductsByText_WithoutWords_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        inventoryService.searchProductsByText(
+                                "&|!", ProductSearchMode.FULL_TEXT, PageRequest.of(0, 20)));
+        verifyNoInteractions(productRepository);
+    }
+
+    private void useSearchIndexes() {
+        doReturn(new InventoryProperties.Search(true)).when(inventoryProperties).search();
     }
 }
@@ -0,0 +1,170 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.InventoryValuationResponse;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.projection.CategoryValuation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests unitarios para InventoryValuationService. */
+@ExtendWith(MockitoExtension.class)
+class InventoryValuationServiceTest {
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InventoryValuationService valuationService;
+
+    @BeforeEach
+    void setUp() {
+        valuationService = valuationService(true);
+    }
+
+    @Test
+    void getValuation_ShouldAddCategoriesIntoTotals() {
+        // Arrange
+        when(productRepository.findInventoryStatsByCategory())
+                .thenReturn(
+                        List.of(
+                                valuation(1L, "Electronics", 2, 150, "1500.00"),
+                                valuation(null, null, 1, 5, "25.50")));
+
+        // Act
+        InventoryValuationResponse result = valuationService.getValuation();
+
+        // Assert
+        assertEquals(3, result.productCount());
+        assertEquals(155, result.totalUnits());
+        assertEquals(new BigDecimal("1525.50"), result.totalValue());
+        assertEquals(new BigDecimal("75.00"), result.categories().get(0).averageStock());
+        assertNull(result.categories().get(1).categoryId());
+    }
+
+    @Test
+    void verifyValuation_WithDrift_ShouldRebuildUnderLock() {
+        // Arrange
+        when(productRepository.countInventoryValuationDrift()).thenReturn(2L);
+
+        // Act
+        long drift = valuationService.verifyValuation();
+
+        // Assert
+        assertEquals(2, drift);
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).lockInventoryValuation();
+        order.verify(productRepository).countInventoryValuationDrift();
+        order.verify(productRepository).clearInventoryValuation();
+        order.verify(productRepository).rebuildInventoryValuation();
+        assertEquals(
+                2.0, meterRegistry.get("kinvex.inventory.valuation.drift").counter().count());
+    }
+
+    @Test
+    void verifyValuation_WithoutDrift_ShouldKeepAggregates() {
+        // Arrange
+        when(productRepository.countInventoryValuationDrift()).thenReturn(0L);
+
+        // Act
+        long drift = valuationService.verifyValuation();
+
+        // Assert
+        assertEquals(0, drift);
+        verify(productRepository, never()).clearInventoryValuation();
+        verify(productRepository, never()).rebuildInventoryValuation();
+    }
+
+    @Test
+    void getValuation_WithoutDatabaseTriggers_ShouldAggregateProducts() {
+        // Arrange
+        valuationService = valuationService(false);
+        when(productRepository.aggregateInventoryStatsByCategory())
+                .thenReturn(List.of(valuation(1L, "Electronics", 2, 150, "1500.00")));
+
+        // Act
+        InventoryValuationResponse result = valuationService.getValuation();
+
+        // Assert
+        assertEquals(150, result.totalUnits());
+        verify(productRepository, never()).findInventoryStatsByCategory();
+    }
+
+    @Test
+    void verifyValuation_WithoutDatabaseTriggers_ShouldSkipVerification() {
+        // Arrange
+        valuationService = valuationService(false);
+
+        // Act
+        long drift = valuationService.verifyValuation();
+
+        // Assert
+        assertEquals(0, drift);
+        verifyNoInteractions(productRepository, transactionManager);
+    }
+
+    private InventoryValuationService valuationService(boolean databaseTriggers) {
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        new InventoryProperties.Aggregates(databaseTriggers),
+                        null);
+        return new InventoryValuationService(
+                productRepository, properties, transactionManager, meterRegistry);
+    }
+
+    private static CategoryValuation valuation(
+            Long categoryId, String categoryName, long productCount, long units, String value) {
+        return new CategoryValuation() {
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public String getCategoryName() {
+                return categoryName;
+            }
+
+            @Override
+            public Long getProductCount() {
+                return productCount;
+            }
+
+            @Override
+            public Long getTotalUnits() {
+                return units;
+            }
+
+            @Override
+            public BigDecimal getTotalValue() {
+                return new BigDecimal(value);
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.repository.MovementRollupDailyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests unitarios para MovementRollupService. */
+@ExtendWith(MockitoExtension.class)
+class MovementRollupServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 7);
+
+    @Mock private MovementRollupDailyRepository rollupRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MovementRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = rollupService(true);
+    }
+
+    @Test
+    void verifyRollup_WithDrift_ShouldRebuildDaysUnderLock() {
+        // Arrange
+        when(rollupRepository.countRollupDrift(START, END)).thenReturn(3L);
+
+        // Act
+        long drift = rollupService.verifyRollup(START, END);
+
+        // Assert
+        assertEquals(3, drift);
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).lockRollup();
+        order.verify(rollupRepository).countRollupDrift(START, END);
+        order.verify(rollupRepository).clearRollup(START, END);
+        order.verify(rollupRepository).rebuildRollup(START, END);
+        assertEquals(3.0, meterRegistry.get("kinvex.movements.rollup.drift").counter().count());
+    }
+
+    @Test
+    void verifyRollup_WithoutDrift_ShouldKeepTotals() {
+        // Arrange
+        when(rollupRepository.countRollupDrift(START, END)).thenReturn(0L);
+
+        // Act
+        long drift = rollupService.verifyRollup(START, END);
+
+        // Assert
+        assertEquals(0, drift);
+        verify(rollupRepository, never()).clearRollup(START, END);
+        verify(rollupRepository, never()).rebuildRollup(START, END);
+    }
+
+    @Test
+    void verifyRollup_WithoutDatabaseTriggers_ShouldSkipVerification() {
+        // Arrange
+        rollupService = rollupService(false);
+
+        // Act
+        long drift = rollupService.verifyRollup(START, END);
+
+        // Assert
+        assertEquals(0, drift);
+        verifyNoInteractions(rollupRepository, transactionManager);
+    }
+
+    @Test
+    void verifyRecentRollup_ShouldVerifyLastWeekThroughToday() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(MovementRollupService.VERIFY_DAYS - 1);
+        when(rollupRepository.countRollupDrift(firstDay, today)).thenReturn(0L);
+
+        // Act
+        rollupService.verifyRecentRollup();
+
+        // Assert
+        verify(rollupRepository).countRollupDrift(firstDay, today);
+    }
+
+    private MovementRollupService rollupService(boolean databaseTriggers) {
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        new InventoryProperties.Aggregates(databaseTriggers),
+                        null);
+        return new MovementRollupService(
+                rollupRepository, properties, transactionManager, meterRegistry);
+    }
+}
@@ -1,11 +1,14 @@
 package dev.kreaker.kinvex.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,8 +17,12 @@ import dev.kreaker.kinvex.dto.order.CreateOrderRequest;
 import dev.kreaker.kinvex.dto.order.OrderDetailReceiptRequest;
 import dev.kreaker.kinvex.dto.order.OrderDetailRequest;
 import dev.kreaker.kinvex.dto.order.OrderReceiptResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderResponse;
+import dev.kreaker.kinvex.dto.order.PurchaseOrderSummary;
 import dev.kreaker.kinvex.dto.order.ReceiveOrderRequest;
 import dev.kreaker.kinvex.dto.order.UpdateOrderStatusRequest;
+import dev.kreaker.kinvex.dto.pagination.CursorPage;
+import dev.kreaker.kinvex.dto.pagination.PageCursor;
 import dev.kreaker.kinvex.entity.InventoryMovement;
 import dev.kreaker.kinvex.entity.OrderDetail;
 import dev.kreaker.kinvex.entity.Product;
@@ -29,12 +36,11 @@ import dev.kreaker.kinvex.exception.OrderNotFoundException;
 import dev.kreaker.kinvex.exception.OrderStateConflictException;
 import dev.kreaker.kinvex.exception.ProductNotFoundException;
 import dev.kreaker.kinvex.exception.SupplierNotFoundException;
-import dev.kreaker.kinvex.repository.InventoryMovementRepository;
 import dev.kreaker.kinvex.repository.OrderDetailRepository;
 import dev.kreaker.kinvex.repository.ProductRepository;
 import dev.kreaker.kinvex.repository.PurchaseOrderRepository;
 import dev.kreaker.kinvex.repository.SupplierRepository;
-import dev.kreaker.kinvex.repository.UserRepository;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -50,6 +56,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 /**
  * Tests unitarios para OrderService.
@@ -63,8 +70,9 @@ class OrderServiceTest {
     @Mock private OrderDetailRepository orderDetailRepository;
     @Mock private SupplierRepository supplierRepository;
     @Mock private ProductRepository productRepository;
-    @Mock private InventoryMovementRepository inventoryMovementRepository;
-    @Mock private UserRepository userRepository;
+    @Mock private InventoryMovementWriter movementWriter;
+    @Mock private CurrentUserProvider currentUserProvider;
+    @Mock private StockLedger stockLedger;
 
     @InjectMocks private OrderService orderService;
 
@@ -229,21 +237,26 @@ class OrderServiceTest {
     @Test
     void getOrderById_WithExistingId_ShouldReturnOrder() {
         // Arrange
-        when(purchaseOrderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(purchaseOrderRepository.findDetailedById(1L)).thenReturn(Optional.of(testOrder));
 
         // Act
-        PurchaseOrder result = orderService.getOrderById(1L);
+        PurchaseOrderResponse result = orderService.getOrderById(1L);
 
         // Assert
         assertNotNull(result);
-        assertEquals(testOrder, result);
-        verify(purchaseOrderRepository).findById(1L);
+        assertEquals("PO001", result.orderNumber());
+        assertEquals("Test Supplier", result.supplierName());
+        assertEquals(1L, result.createdById());
+        assertEquals(1, result.orderDetails().size());
+        assertEquals("PROD001", result.orderDetails().get(0).productCode());
+        verify(purchaseOrderRepository).findDetailedById(1L);
+        verify(purchaseOrderRepository, never()).findById(anyLong());
     }
 
     @Test
     void getOrderById_WithNonExistentId_ShouldThrowException() {
         // Arrange
-        when(purchaseOrderRepository.findById(999L)).thenReturn(Optional.empty());
+        when(purchaseOrderRepository.findDetailedById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
@@ -252,24 +265,26 @@ class OrderServiceTest {
                     orderService.getOrderById(999L);
                 });
 
-        verify(purchaseOrderRepository).findById(999L);
+        verify(purchaseOrderRepository).findDetailedById(999L);
     }
 
     @Test
     void getAllOrders_ShouldReturnPagedOrders() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<PurchaseOrder> expectedPage = new PageImpl<>(Arrays.asList(testOrder));
-        when(purchaseOrderRepository.findAll(pageable)).thenReturn(expectedPage);
+        Page<PurchaseOrderSummary> expectedPage =
+                new PageImpl<>(List.of(PurchaseOrderSummary.from(testOrder)));
+        when(purchaseOrderRepository.findAllSummaries(pageable)).thenReturn(expectedPage);
 
         // Act
-        Page<PurchaseOrder> result = orderService.getAllOrders(pageable);
+        Page<PurchaseOrderSummary> result = orderService.getAllOrders(pageable);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        assertEquals(testOrder, result.getContent().get(0));
-        verify(purchaseOrderRepository).findAll(pageable);
+        assertEquals("PO001", result.getContent().get(0).orderNumber());
+        verify(purchaseOrderRepository).findAllSummaries(pageable);
+        verify(purchaseOrderRepository, never()).findAll(any(Pageable.class));
     }
 
     // ========== Order Status Management Tests ==========
@@ -280,7 +295,7 @@ class OrderServiceTest {
         updateStatusRequest.setStatus(OrderStatus.CONFIRMED);
         updateStatusRequest.setNotes("Status updated");
 
-        when(purchaseOrderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(purchaseOrderRepository.findDetailedById(1L)).thenReturn(Optional.of(testOrder));
         when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(testOrder);
 
         // Act
@@ -290,7 +305,7 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(OrderStatus.CONFIRMED, result.getStatus());
         assertTrue(result.getNotes().contains("Status updated"));
-        verify(purchaseOrderRepository).findById(1L);
+        verify(purchaseOrderRepository).findDetailedById(1L);
         verify(purchaseOrderRepository).save(testOrder);
     }
 
@@ -301,7 +316,7 @@ class OrderServiceTest {
         UpdateOrderStatusRequest updateStatusRequest = new UpdateOrderStatusRequest();
         updateStatusRequest.setStatus(OrderStatus.PENDING);
 
-        when(purchaseOrderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(purchaseOrderRepository.findDetailedById(1L)).thenReturn(Optional.of(testOrder));
 
         // Act & Assert
         assertThrows(
@@ -310,7 +325,7 @@ class OrderServiceTest {
                     orderService.updateOrderStatus(1L, updateStatusRequest);
                 });
 
-        verify(purchaseOrderRepository).findById(1L);
+        verify(purchaseOrderRepository).findDetailedById(1L);
         verify(purchaseOrderRepository, never()).save(any(PurchaseOrder.class));
     }
 
@@ -410,7 +425,7 @@ class OrderServiceTest {
         when(purchaseOrderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         when(orderDetailRepository.findById(1L)).thenReturn(Optional.of(testOrderDetail));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        when(inventoryMovementRepository.save(any(InventoryMovement.class)))
+        when(movementWriter.write(any(InventoryMovement.class)))
                 .thenAnswer(
                         invocation -> {
                             InventoryMovement movement = invocation.getArgument(0);
@@ -433,7 +448,7 @@ class OrderServiceTest {
         verify(purchaseOrderRepository).findById(1L);
         verify(orderDetailRepository).findById(1L);
         verify(productRepository).save(testProduct);
-        verify(inventoryMovementRepository).save(any(InventoryMovement.class));
+        verify(movementWriter).write(any(InventoryMovement.class));
     }
 
     // ========== Query Methods Tests ==========
@@ -444,31 +459,31 @@ class OrderServiceTest {
         when(purchaseOrderRepository.findOverdueOrders()).thenReturn(overdueOrders);
 
         // Act
-        List<PurchaseOrder> result = orderService.getOverdueOrders();
+        List<PurchaseOrderSummary> result = orderService.getOverdueOrders();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(testOrder, result.get(0));
+        assertEquals(PurchaseOrderSummary.from(testOrder), result.get(0));
         verify(purchaseOrderRepository).findOverdueOrders();
     }
 
     @Test
     void getOrdersBySupplier_WithExistingSupplier_ShouldReturnOrders() {
         // Arrange
-        List<PurchaseOrder> supplierOrders = Arrays.asList(testOrder);
+        List<PurchaseOrderSummary> supplierOrders = List.of(PurchaseOrderSummary.from(testOrder));
         when(supplierRepository.existsById(1L)).thenReturn(true);
-        when(purchaseOrderRepository.findBySupplierId(1L)).thenReturn(supplierOrders);
+        when(purchaseOrderRepository.findSummariesBySupplierId(1L)).thenReturn(supplierOrders);
 
         // Act
-        List<PurchaseOrder> result = orderService.getOrdersBySupplier(1L);
+        List<PurchaseOrderSummary> result = orderService.getOrdersBySupplier(1L);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(testOrder, result.get(0));
+        assertEquals(supplierOrders.get(0), result.get(0));
         verify(supplierRepository).existsById(1L);
-        verify(purchaseOrderRepository).findBySupplierId(1L);
+        verify(purchaseOrderRepository).findSummariesBySupplierId(1L);
     }
 
     @Test
@@ -484,7 +499,7 @@ class OrderServiceTest {
                 });
 
         verify(supplierRepository).existsById(999L);
-        verify(purchaseOrderRepository, never()).findBySupplierId(anyLong());
+        verify(purchaseOrderRepository, never()).findSummariesBySupplierId(anyLong());
     }
 
     @Test
@@ -495,12 +510,12 @@ class OrderServiceTest {
         when(purchaseOrderRepository.findOrdersDueSoon(futureDate)).thenReturn(ordersDueSoon);
 
         // Act
-        List<PurchaseOrder> result = orderService.getOrdersDueSoon(7);
+        List<PurchaseOrderSummary> result = orderService.getOrdersDueSoon(7);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(testOrder, result.get(0));
+        assertEquals("Test Supplier", result.get(0).supplierName());
         verify(purchaseOrderRepository).findOrdersDueSoon(futureDate);
     }
 
@@ -509,17 +524,66 @@ class OrderServiceTest {
         // Arrange
         LocalDate startDate = LocalDate.now().minusDays(7);
         LocalDate endDate = LocalDate.now();
-        List<PurchaseOrder> ordersInRange = Arrays.asList(testOrder);
-        when(purchaseOrderRepository.findByOrderDateBetween(startDate, endDate))
+        List<PurchaseOrderSummary> ordersInRange = List.of(PurchaseOrderSummary.from(testOrder));
+        when(purchaseOrderRepository.findSummariesByOrderDateBetween(startDate, endDate))
                 .thenReturn(ordersInRange);
 
         // Act
-        List<PurchaseOrder> result = orderService.getOrdersByDateRange(startDate, endDate);
+        List<PurchaseOrderSummary> result =
+                orderService.getOrdersByDateRange(startDate, endDate);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(testOrder, result.get(0));
-        verify(purchaseOrderRepository).findByOrderDateBetween(startDate, endDate);
+        assertEquals(ordersInRange.get(0), result.get(0));
+        verify(purchaseOrderRepository).findSummariesByOrderDateBetween(startDate, endDate);
+    }
+
+    @Test
+    void scrollOrders_ShouldReturnCursorThatResumesAfterLastOrder() {
+        // Arrange
+        when(purchaseOrderRepository.findLatestByStatus(eq(OrderStatus.PENDING), any()))
+                .thenReturn(
+                        new SliceImpl<>(
+                                List.of(PurchaseOrderSummary.from(testOrder)),
+                                PageRequest.of(0, 1),
+                                true));
+
+        // Act
+        CursorPage<PurchaseOrderSummary> page =
+                orderService.scrollOrders(OrderStatus.PENDING, null, 1);
+        PageCursor cursor = PageCursor.decode(page.nextCursor());
+
+        // Assert
+        assertTrue(page.hasNext());
+        assertEquals(testOrder.getId(), cursor.id());
+        assertEquals(testOrder.getOrderDate(), cursor.sortKeyAsDate());
+        verify(purchaseOrderRepository, never()).findSummariesByStatus(any(), any(Pageable.class));
+    }
+
+    @Test
+    void scrollOrders_WithCursor_ShouldSeekPastCursorPosition() {
+        // Arrange
+        LocalDate orderDate = LocalDate.of(2024, 3, 15);
+        String cursor = PageCursor.encode(orderDate, 42L);
+        when(purchaseOrderRepository.findBeforeOrderDate(eq(orderDate), eq(42L), any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+
+        // Act
+        CursorPage<PurchaseOrderSummary> page = orderService.scrollOrders(null, cursor, 20);
+
+        // Assert
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void scrollOrders_WithInvalidCursorOrSize_ShouldThrowException() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> orderService.scrollOrders(null, "not-a-cursor", 20));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> orderService.scrollOrders(null, null, CursorPage.MAX_SIZE + 1));
     }
 }
@@ -0,0 +1,157 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateRequest.ProductFieldUpdate;
+import dev.kreaker.kinvex.dto.inventory.BulkProductUpdateResponse;
+import dev.kreaker.kinvex.entity.AuditLog;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Tests unitarios para ProductBulkUpdateService. */
+@ExtendWith(MockitoExtension.class)
+class ProductBulkUpdateServiceTest {
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private CategoryRepository categoryRepository;
+
+    @Mock private ProductCatalogCache productCatalogCache;
+
+    @Mock private StockLedger stockLedger;
+
+    @Mock private AuditService auditService;
+
+    private ProductBulkUpdateService bulkUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        bulkUpdateService =
+                new ProductBulkUpdateService(
+                        productRepository,
+                        categoryRepository,
+                        productCatalogCache,
+                        stockLedger,
+                        auditService);
+    }
+
+    @Test
+    void bulkUpdateProducts_ShouldApplyChangesAndAuditOnce() {
+        // Arrange
+        List<ProductFieldUpdate> updates =
+                List.of(
+                        priceUpdate("P1", "10.50"),
+                        priceUpdate("P2", "7.25"),
+                        new ProductFieldUpdate("P3", null, 50, null, null, null),
+                        priceUpdate("MISSING", "1.00"));
+        when(productRepository.applyFieldUpdates(updates)).thenReturn(List.of("P1", "P2"));
+        when(productRepository.findExistingCodes(List.of("P3", "MISSING")))
+                .thenReturn(List.of("P3"));
+
+        // Act
+        BulkProductUpdateResponse result =
+                bulkUpdateService.bulkUpdateProducts(new BulkProductUpdateRequest(updates));
+
+        // Assert
+        assertEquals(4, result.requestedCount());
+        assertEquals(2, result.updatedCount());
+        assertEquals(List.of("MISSING"), result.notFoundCodes());
+        assertEquals(List.of("P3"), result.invalidStockLimitCodes());
+        verify(productCatalogCache).evictAll(List.of("P1", "P2"));
+        verify(auditService)
+                .logOperation(
+                        eq(AuditLog.ACTION_BULK_UPDATE),
+                        eq(AuditLog.ENTITY_PRODUCT),
+                        isNull(),
+                        isNull(),
+                        any());
+    }
+
+    @Test
+    void bulkUpdateProducts_WhenAllApplied_ShouldNotQueryMissingCodes() {
+        // Arrange
+        List<ProductFieldUpdate> updates = List.of(priceUpdate("P1", "10.50"));
+        when(productRepository.applyFieldUpdates(updates)).thenReturn(List.of("P1"));
+
+        // Act
+        BulkProductUpdateResponse result =
+                bulkUpdateService.bulkUpdateProducts(new BulkProductUpdateRequest(updates));
+
+        // Assert
+        assertEquals(1, result.updatedCount());
+        verify(productRepository, never()).findExistingCodes(anyCollection());
+        verify(stockLedger, never()).release(anyCollection());
+    }
+
+    @Test
+    void bulkUpdateProducts_WithDeactivatedProducts_ShouldReleaseThemFromLedgerFirst() {
+        // Arrange
+        List<ProductFieldUpdate> updates =
+                List.of(
+                        new ProductFieldUpdate("P1", null, null, null, false, null),
+                        new ProductFieldUpdate("P2", null, null, null, true, null),
+                        priceUpdate("P3", "4.00"));
+        when(productRepository.applyFieldUpdates(updates)).thenReturn(List.of("P1", "P2", "P3"));
+
+        // Act
+        bulkUpdateService.bulkUpdateProducts(new BulkProductUpdateRequest(updates));
+
+        // Assert
+        InOrder order = inOrder(stockLedger, productRepository);
+        order.verify(stockLedger).release(List.of("P1"));
+        order.verify(productRepository).applyFieldUpdates(updates);
+    }
+
+    @Test
+    void bulkUpdateProducts_WithRepeatedCode_ShouldThrowException() {
+        // Arrange
+        BulkProductUpdateRequest request =
+                new BulkProductUpdateRequest(
+                        List.of(priceUpdate("P1", "10.50"), priceUpdate("P1", "11.00")));
+
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> bulkUpdateService.bulkUpdateProducts(request));
+        verify(productRepository, never()).applyFieldUpdates(any());
+    }
+
+    @Test
+    void bulkUpdateProducts_WithUnknownCategory_ShouldThrowException() {
+        // Arrange
+        BulkProductUpdateRequest request =
+                new BulkProductUpdateRequest(
+                        List.of(new ProductFieldUpdate("P1", null, null, null, null, 99L)));
+        when(categoryRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        IllegalArgumentException exception =
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () -> bulkUpdateService.bulkUpdateProducts(request));
+        assertEquals("Categoría no encontrada: 99", exception.getMessage());
+        verify(productRepository, never()).applyFieldUpdates(any());
+    }
+
+    private static ProductFieldUpdate priceUpdate(String code, String price) {
+        return new ProductFieldUpdate(code, new BigDecimal(price), null, null, null, null);
+    }
+}
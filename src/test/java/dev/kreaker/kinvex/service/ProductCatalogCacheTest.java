@@ -0,0 +1,251 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.ProductCatalogEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests unitarios para ProductCatalogCache. Salvo los de Redis, usan solo el nivel local; los de
+ * Redis comparten entre instancias un Redis simulado en memoria.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogCacheTest {
+
+    @Mock private ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+
+    @Mock private StringRedisTemplate redisTemplate;
+
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final Map<String, String> redis = new HashMap<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProductCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        catalogCache =
+                new ProductCatalogCache(
+                        InventoryProperties.defaults(),
+                        new ObjectMapper(),
+                        new SimpleMeterRegistry(),
+                        redisConnectionFactory);
+        catalogCache.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogCache.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getByCode_ShouldLoadOnceAndServeFromCache() {
+        // Act
+        catalogCache.getByCode("TEST001", loader(entry("10.00")));
+        Optional<ProductCatalogEntry> result =
+                catalogCache.getByCode("TEST001", loader(entry("10.00")));
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(new BigDecimal("10.00"), result.orElseThrow().unitPrice());
+    }
+
+    @Test
+    void getByCode_WithUnknownCode_ShouldNotCacheMiss() {
+        // Act
+        catalogCache.getByCode("NONEXISTENT", loader(null));
+        Optional<ProductCatalogEntry> result = catalogCache.getByCode("NONEXISTENT", loader(null));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_ShouldReloadUpdatedEntry() {
+        // Arrange
+        catalogCache.getByCode("TEST001", loader(entry("10.00")));
+
+        // Act
+        catalogCache.evict("TEST001");
+        Optional<ProductCatalogEntry> result =
+                catalogCache.getByCode("TEST001", loader(entry("12.50")));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(new BigDecimal("12.50"), result.orElseThrow().unitPrice());
+    }
+
+    @Test
+    void evictAll_ShouldReloadEveryEvictedCode() {
+        // Arrange
+        catalogCache.getByCode("TEST001", loader(entry("10.00")));
+        catalogCache.getByCode("TEST002", loader(entry("10.00")));
+        catalogCache.getByCode("TEST003", loader(entry("10.00")));
+
+        // Act
+        catalogCache.evictAll(List.of("TEST001", "TEST002"));
+        catalogCache.getByCode("TEST001", loader(entry("12.50")));
+        catalogCache.getByCode("TEST002", loader(entry("12.50")));
+        catalogCache.getByCode("TEST003", loader(entry("12.50")));
+
+        // Assert - TEST003 sigue en caché
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evict_InTransaction_ShouldDiscardEntryLoadedBeforeCommit() {
+        // Arrange - una lectura concurrente carga el precio anterior antes del commit
+        TransactionSynchronizationManager.initSynchronization();
+        catalogCache.evict("TEST001");
+        catalogCache.getByCode("TEST001", loader(entry("10.00")));
+
+        // Act
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        Optional<ProductCatalogEntry> result =
+                catalogCache.getByCode("TEST001", loader(entry("12.50")));
+
+        // Assert
+        assertEquals(new BigDecimal("12.50"), result.orElseThrow().unitPrice());
+    }
+
+    @Test
+    void getByCode_WithRedis_ShouldShareLoadedEntryWithOtherInstances() {
+        // Arrange
+        ProductCatalogCache nodeA = remoteCache();
+        ProductCatalogCache nodeB = remoteCache();
+
+        // Act
+        nodeA.getByCode("TEST001", loader(entry("10.00")));
+        Optional<ProductCatalogEntry> result = nodeB.getByCode("TEST001", loader(entry("10.00")));
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(new BigDecimal("10.00"), result.orElseThrow().unitPrice());
+    }
+
+    @Test
+    void getByCode_WhenOtherInstanceEvictsDuringLoad_ShouldNotPublishStaleEntry() {
+        // Arrange
+        ProductCatalogCache nodeA = remoteCache();
+        ProductCatalogCache nodeB = remoteCache();
+
+        // Act - A lee el precio anterior; B modifica e invalida antes de que A publique, y el
+        // mensaje de invalidación todavía no llegó a A
+        nodeA.getByCode(
+                "TEST001",
+                () -> {
+                    loads.incrementAndGet();
+                    nodeB.evict("TEST001");
+                    return Optional.of(entry("10.00"));
+                });
+        Optional<ProductCatalogEntry> result =
+                nodeB.getByCode("TEST001", loader(entry("12.50")));
+
+        // Assert - B no recibe de Redis el valor anterior
+        assertEquals(2, loads.get());
+        assertEquals(new BigDecimal("12.50"), result.orElseThrow().unitPrice());
+        assertTrue(redis.get(ProductCatalogCache.KEY_PREFIX + "TEST001").contains("12.50"));
+    }
+
+    /** Instancia con Redis simulado; los scripts se interpretan sobre el mapa compartido. */
+    @SuppressWarnings("unchecked")
+    private ProductCatalogCache remoteCache() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient()
+                .when(valueOperations.multiGet(anyList()))
+                .thenAnswer(
+                        invocation ->
+                                ((List<String>) invocation.getArgument(0))
+                                        .stream().map(redis::get).toList());
+        lenient()
+                .when(redisTemplate.execute(eq(ProductCatalogCache.EVICT_SCRIPT), anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            List<String> keys = invocation.getArgument(1);
+                            for (int i = 0; i < keys.size(); i += 2) {
+                                redis.remove(keys.get(i));
+                                redis.merge(
+                                        keys.get(i + 1),
+                                        "1",
+                                        (current, one) ->
+                                                String.valueOf(Long.parseLong(current) + 1));
+                            }
+                            return (long) keys.size() / 2;
+                        });
+        lenient()
+                .when(
+                        redisTemplate.execute(
+                                eq(ProductCatalogCache.WRITE_SCRIPT),
+                                anyList(),
+                                anyString(),
+                                anyString(),
+                                anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            List<String> keys = invocation.getArgument(1);
+                            String version = redis.getOrDefault(keys.get(1), "");
+                            if (!version.equals(invocation.getArgument(2))) {
+                                return 0L;
+                            }
+                            redis.put(keys.get(0), invocation.getArgument(3));
+                            return 1L;
+                        });
+
+        ProductCatalogCache cache =
+                new ProductCatalogCache(
+                        InventoryProperties.defaults(),
+                        new ObjectMapper(),
+                        new SimpleMeterRegistry(),
+                        redisTemplate,
+                        null);
+        cache.start();
+        return cache;
+    }
+
+    private Supplier<Optional<ProductCatalogEntry>> loader(ProductCatalogEntry entry) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(entry);
+        };
+    }
+
+    private static ProductCatalogEntry entry(String unitPrice) {
+        return new ProductCatalogEntry(
+                1L, "TEST001", "Test Product", new BigDecimal(unitPrice), true);
+    }
+}
@@ -0,0 +1,307 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.ProductImportFormat;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse;
+import dev.kreaker.kinvex.dto.inventory.ProductImportResponse.RowError;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.repository.CategoryRepository;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests unitarios para ProductImportService. */
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private CategoryRepository categoryRepository;
+
+    @Mock private InventoryMovementRepository inventoryMovementRepository;
+
+    @Mock private CurrentUserProvider currentUserProvider;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private ValidatorFactory validatorFactory;
+
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        new InventoryProperties.ProductImport(2, 10),
+                        null,
+                        null);
+        importService =
+                new ProductImportService(
+                        productRepository,
+                        categoryRepository,
+                        inventoryMovementRepository,
+                        currentUserProvider,
+                        properties,
+                        validatorFactory.getValidator(),
+                        transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importProducts_WithCsv_ShouldInsertValidRowsAndReportErrors() throws IOException {
+        // Arrange
+        String csv =
+                "code,name,unitPrice,initialStock\n"
+                        + "P1,\"Tornillo, 3/8\",1.50,5\n"
+                        + "P2,Tuerca,abc,0\n"
+                        + "P3,Arandela,0.80,0\n"
+                        + "P1,Otro,2.00,0\n";
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of("P3"));
+        when(productRepository.insertAllSkippingExistingCodes(any()))
+                .thenAnswer(
+                        invocation -> {
+                            List<Product> products = invocation.getArgument(0);
+                            products.forEach(product -> product.setId(100L));
+                            return products;
+                        });
+
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(csv(csv), ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals(4, result.totalRows());
+        assertEquals(1, result.importedCount());
+        assertEquals(3, result.failedCount());
+        assertEquals(
+                List.of(3L, 4L, 5L), result.errors().stream().map(RowError::rowNumber).toList());
+        assertEquals("Ya existe un producto con el código: P3", result.errors().get(1).message());
+        assertEquals("Código repetido en el archivo", result.errors().get(2).message());
+        assertFalse(result.errorsTruncated());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryMovement>> movements = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMovementRepository).insertAll(movements.capture());
+        InventoryMovement movement = movements.getValue().get(0);
+        assertEquals("Tornillo, 3/8", movement.getProduct().getName());
+        assertEquals(MovementType.IN, movement.getMovementType());
+        assertEquals(5, movement.getQuantity());
+    }
+
+    @Test
+    void importProducts_ShouldQueryExistingCodesOncePerChunk() throws IOException {
+        // Arrange
+        String csv = "code,name,unitPrice\nA,Uno,1\nB,Dos,2\nC,Tres,3\n";
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of());
+        when(productRepository.insertAllSkippingExistingCodes(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(csv(csv), ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals(3, result.importedCount());
+        verify(productRepository, times(2)).findExistingCodes(anyCollection());
+        verify(productRepository, times(2)).insertAllSkippingExistingCodes(any());
+        verify(inventoryMovementRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void importProducts_WithCodeCreatedConcurrently_ShouldReportRow() throws IOException {
+        // Arrange
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of());
+        when(productRepository.insertAllSkippingExistingCodes(any())).thenReturn(List.of());
+
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(
+                        csv("code,name,unitPrice\nA,Uno,1\n"), ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals(0, result.importedCount());
+        assertEquals(2, result.errors().get(0).rowNumber());
+        assertEquals("Ya existe un producto con el código: A", result.errors().get(0).message());
+    }
+
+    @Test
+    void importProducts_WithUnknownCategory_ShouldRejectRow() throws IOException {
+        // Arrange
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of());
+        when(categoryRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(
+                        csv("code,name,unitPrice,category_id\nA,Uno,1,7\n"),
+                        ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals("Categoría no encontrada: 7", result.errors().get(0).message());
+    }
+
+    @Test
+    void importProducts_WithCodeRejectedByCategory_ShouldAcceptLaterRowWithSameCode()
+            throws IOException {
+        // Arrange - la primera fila con el código A se rechaza por su categoría
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of());
+        when(categoryRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+        when(productRepository.insertAllSkippingExistingCodes(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(
+                        csv("code,name,unitPrice,category_id\nA,Uno,1,7\nA,Uno,1,\n"),
+                        ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals(1, result.importedCount());
+        assertEquals(1, result.failedCount());
+        assertEquals("Categoría no encontrada: 7", result.errors().get(0).message());
+    }
+
+    @Test
+    void importProducts_WithPriceOutOfColumnPrecision_ShouldRejectRows() throws IOException {
+        // Arrange
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of());
+        when(productRepository.insertAllSkippingExistingCodes(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act - unit_price es NUMERIC(10, 2)
+        ProductImportResponse result =
+                importService.importProducts(
+                        csv(
+                                "code,name,unitPrice\n"
+                                        + "A,Uno,123456789.00\n"
+                                        + "B,Dos,1.005\n"
+                                        + "C,Tres,99999999.99\n"),
+                        ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals(1, result.importedCount());
+        assertEquals(
+                List.of(2L, 3L), result.errors().stream().map(RowError::rowNumber).toList());
+        assertEquals(
+                "El precio admite hasta 8 dígitos enteros y 2 decimales",
+                result.errors().get(0).message());
+    }
+
+    @Test
+    void importProducts_WithMaxStockBelowMinStock_ShouldRejectRowBeforeInsert() throws IOException {
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(
+                        csv("code,name,unitPrice,minStock,maxStock\nA,Uno,1,10,5\n"),
+                        ProductImportFormat.CSV);
+
+        // Assert
+        assertEquals(1, result.failedCount());
+        assertEquals(
+                "El stock máximo no puede ser menor que el stock mínimo",
+                result.errors().get(0).message());
+        verify(productRepository, never()).findExistingCodes(anyCollection());
+    }
+
+    @Test
+    void importProducts_WithoutRequiredColumns_ShouldThrowException() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        importService.importProducts(
+                                csv("code,name\nA,Uno\n"), ProductImportFormat.CSV));
+        verify(productRepository, never()).insertAllSkippingExistingCodes(any());
+    }
+
+    @Test
+    void importProducts_WithXlsx_ShouldReadCellsBySheetEvents() throws IOException {
+        // Arrange
+        when(productRepository.findExistingCodes(anyCollection())).thenReturn(List.of());
+        when(productRepository.insertAllSkippingExistingCodes(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        byte[] workbook;
+        try (XSSFWorkbook book = new XSSFWorkbook();
+                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = book.createSheet("Productos");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Code");
+            header.createCell(1).setCellValue("Name");
+            header.createCell(2).setCellValue("Description");
+            header.createCell(3).setCellValue("Unit Price");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("X1");
+            row.createCell(1).setCellValue("Cable");
+            // Sin descripción: la celda vacía no genera evento
+            row.createCell(3).setCellValue(12.5);
+            book.write(out);
+            workbook = out.toByteArray();
+        }
+
+        // Act
+        ProductImportResponse result =
+                importService.importProducts(
+                        new ByteArrayInputStream(workbook), ProductImportFormat.XLSX);
+
+        // Assert
+        assertEquals(1, result.importedCount());
+        assertTrue(result.errors().isEmpty());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> products = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).insertAllSkippingExistingCodes(products.capture());
+        Product product = products.getValue().get(0);
+        assertEquals("X1", product.getCode());
+        assertNull(product.getDescription());
+        assertEquals(new BigDecimal("12.5"), product.getUnitPrice());
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,8 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import dev.kreaker.kinvex.config.InventoryProperties;
 import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
 import dev.kreaker.kinvex.dto.report.ReportFilterDto;
 import dev.kreaker.kinvex.dto.report.StockLevelReportDto;
@@ -16,19 +23,29 @@ import dev.kreaker.kinvex.entity.Product;
 import dev.kreaker.kinvex.entity.Supplier;
 import dev.kreaker.kinvex.entity.User;
 import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.MovementRollupDailyRepository;
 import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.PurchaseOrderRepository;
 import dev.kreaker.kinvex.repository.SupplierRepository;
+import dev.kreaker.kinvex.repository.projection.StockLevelRow;
+import dev.kreaker.kinvex.repository.projection.SupplierPerformance;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 
 @ExtendWith(MockitoExtension.class)
 class ReportServiceTest {
@@ -39,7 +56,11 @@ class ReportServiceTest {
 
     @Mock private SupplierRepository supplierRepository;
 
-    @InjectMocks private ReportService reportService;
+    @Mock private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Mock private MovementRollupDailyRepository movementRollupRepository;
+
+    private ReportService reportService;
 
     private Product testProduct;
     private InventoryMovement testMovement;
@@ -48,6 +69,8 @@ class ReportServiceTest {
 
     @BeforeEach
     void setUp() {
+        reportService = reportService(true);
+
         // Create test product
         testProduct = new Product("TEST001", "Test Product", new BigDecimal("10.00"));
         testProduct.setId(1L);
@@ -87,8 +110,8 @@ class ReportServiceTest {
     @Test
     void testGetInventoryMovementReport() {
         // Given
-        when(inventoryMovementRepository.findByCreatedAtBetween(any(), any()))
-                .thenReturn(Arrays.asList(testMovement));
+        FetchableFluentQuery<InventoryMovement> movementQuery =
+                stubMovementQuery(Arrays.asList(testMovement));
 
         // When
         List<InventoryMovementReportDto> result =
@@ -104,13 +127,13 @@ class ReportServiceTest {
         assertEquals(testProduct.getName(), reportDto.getProductName());
         assertEquals(testMovement.getMovementType(), reportDto.getMovementType());
         assertEquals(testMovement.getQuantity(), reportDto.getQuantity());
+        verify(movementQuery).sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"));
     }
 
     @Test
     void testGetDetailedInventoryMovementReport() {
         // Given
-        when(inventoryMovementRepository.findMovementsBetween(any(), any()))
-                .thenReturn(Arrays.asList(testMovement));
+        stubMovementQuery(Arrays.asList(testMovement));
 
         // When
         List<InventoryMovementReportDto> result =
@@ -130,9 +153,18 @@ class ReportServiceTest {
     @Test
     void testGetStockLevelReport() {
         // Given
-        when(productRepository.findByActiveTrue()).thenReturn(Arrays.asList(testProduct));
-        when(inventoryMovementRepository.findByProductAndCreatedAtBetween(any(), any(), any()))
-                .thenReturn(Arrays.asList(testMovement));
+        when(productRepository.streamStockLevelsWithMovementsBetween(
+                        eq(true),
+                        eq(false),
+                        any(),
+                        eq(false),
+                        any(),
+                        eq(false),
+                        any(),
+                        eq(testFilter.getStartDate()),
+                        eq(testFilter.getEndDate())))
+                .thenReturn(
+                        Stream.of(stockLevelRow(testProduct, 50, 0, testMovement.getCreatedAt())));
 
         // When
         List<StockLevelReportDto> result = reportService.getStockLevelReport(testFilter);
@@ -147,13 +179,16 @@ class ReportServiceTest {
         assertEquals(testProduct.getName(), reportDto.getProductName());
         assertEquals(testProduct.getCurrentStock(), reportDto.getCurrentStock());
         assertEquals("Test Category", reportDto.getCategoryName());
+        assertEquals(50, reportDto.getInboundMovements());
+        assertEquals(0, reportDto.getOutboundMovements());
+        assertEquals(testMovement.getCreatedAt(), reportDto.getLastMovementDate());
     }
 
     @Test
     void testGetSupplierPerformanceReport() {
         // Given
         when(supplierRepository.findByActiveTrue()).thenReturn(Arrays.asList(testSupplier));
-        when(supplierRepository.findSupplierPerformanceBetween(any(), any()))
+        when(purchaseOrderRepository.findSupplierPerformanceBetween(any(), any()))
                 .thenReturn(Arrays.asList());
 
         // When
@@ -205,7 +240,9 @@ class ReportServiceTest {
     void testGetProductMovementSummary() {
         // Given
         Object[] summaryData = {testProduct, 100L, 50L, 50L};
-        when(inventoryMovementRepository.findProductMovementSummaryBetween(any(), any()))
+        when(movementRollupRepository.findProductMovementSummaryBetween(
+                        testFilter.getStartDate().toLocalDate(),
+                        testFilter.getEndDate().toLocalDate()))
                 .thenReturn(Collections.singletonList(summaryData));
 
         // When
@@ -226,7 +263,7 @@ class ReportServiceTest {
             5L,
             250L
         };
-        when(inventoryMovementRepository.findMovementStatisticsByTypeBetween(any(), any()))
+        when(movementRollupRepository.findMovementStatisticsByTypeBetween(any(), any()))
                 .thenReturn(Collections.singletonList(statsData));
 
         // When
@@ -242,7 +279,7 @@ class ReportServiceTest {
     void testGetDailyMovementSummary() {
         // Given
         Object[] dailyData = {LocalDateTime.now().toLocalDate(), 100L, 50L};
-        when(inventoryMovementRepository.findDailyMovementSummaryBetween(any(), any()))
+        when(movementRollupRepository.findDailyMovementSummaryBetween(any(), any()))
                 .thenReturn(Collections.singletonList(dailyData));
 
         // When
@@ -254,6 +291,27 @@ class ReportServiceTest {
         assertEquals(LocalDateTime.now().toLocalDate(), result.get(0)[0]);
     }
 
+    @Test
+    void testGetDailyMovementSummaryWithoutRollupTriggers() {
+        // Given
+        reportService = reportService(false);
+        LocalDate startDate = testFilter.getStartDate().toLocalDate();
+        LocalDate endDate = testFilter.getEndDate().toLocalDate();
+        LocalTime endOfDay = LocalTime.of(23, 59, 59, 999_999_000);
+        Object[] dailyData = {endDate, 100L, 50L};
+        when(inventoryMovementRepository.findDailyMovementSummaryBetween(
+                        startDate.atStartOfDay(), endDate.atTime(endOfDay)))
+                .thenReturn(Collections.singletonList(dailyData));
+
+        // When
+        List<Object[]> result = reportService.getDailyMovementSummary(testFilter);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(endDate, result.get(0)[0]);
+        verifyNoInteractions(movementRollupRepository);
+    }
+
     @Test
     void testGetInventoryMovementReportWithFilters() {
         // Given
@@ -263,8 +321,7 @@ class ReportServiceTest {
         filterWithProductIds.setProductIds(Arrays.asList(1L, 2L));
         filterWithProductIds.setMovementTypes(Arrays.asList(InventoryMovement.MovementType.IN));
 
-        when(inventoryMovementRepository.findByCreatedAtBetween(any(), any()))
-                .thenReturn(Arrays.asList(testMovement));
+        stubMovementQuery(Arrays.asList(testMovement));
 
         // When
         List<InventoryMovementReportDto> result =
@@ -282,7 +339,9 @@ class ReportServiceTest {
         filterWithCategory.setCategoryIds(Arrays.asList(1L));
         filterWithCategory.setActiveProductsOnly(true);
 
-        when(productRepository.findByActiveTrue()).thenReturn(Arrays.asList(testProduct));
+        when(productRepository.streamStockLevels(
+                        eq(true), eq(false), any(), eq(false), any(), eq(true), eq(List.of(1L))))
+                .thenReturn(Stream.of(stockLevelRow(testProduct, 0, 0, null)));
 
         // When
         List<StockLevelReportDto> result = reportService.getStockLevelReport(filterWithCategory);
@@ -302,7 +361,7 @@ class ReportServiceTest {
         filterWithSuppliers.setSupplierIds(Arrays.asList(1L));
 
         when(supplierRepository.findAllById(any())).thenReturn(Arrays.asList(testSupplier));
-        when(supplierRepository.findSupplierPerformanceBetween(any(), any()))
+        when(purchaseOrderRepository.findSupplierPerformanceBetween(any(), any()))
                 .thenReturn(Arrays.asList());
 
         // When
@@ -328,8 +387,12 @@ class ReportServiceTest {
         movement2.setId(2L);
         movement2.setCreatedAt(LocalDateTime.now());
 
-        when(inventoryMovementRepository.findMovementsBetween(any(), any()))
-                .thenReturn(Arrays.asList(testMovement, movement2));
+        FetchableFluentQuery<InventoryMovement> movementQuery =
+                stubMovementQuery(Arrays.asList(testMovement, movement2));
+        @SuppressWarnings("unchecked")
+        FetchableFluentQuery<InventoryMovement> limitedQuery = mock(FetchableFluentQuery.class);
+        when(movementQuery.limit(1)).thenReturn(limitedQuery);
+        when(limitedQuery.all()).thenReturn(Arrays.asList(testMovement));
 
         // When
         List<InventoryMovementReportDto> result =
@@ -338,6 +401,34 @@ class ReportServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.size()); // Limited to 1 result
+        verify(movementQuery, never()).all();
+    }
+
+    @Test
+    void testGetInventoryMovementReportWithSort() {
+        // Given
+        testFilter.setSortBy("quantity");
+        testFilter.setSortDirection("asc");
+        FetchableFluentQuery<InventoryMovement> movementQuery =
+                stubMovementQuery(Arrays.asList(testMovement));
+
+        // When
+        reportService.getInventoryMovementReport(testFilter);
+
+        // Then
+        verify(movementQuery).sortBy(Sort.by("quantity", "id"));
+    }
+
+    @Test
+    void testGetInventoryMovementReportWithUnsupportedSort() {
+        // Given
+        testFilter.setSortBy("notes");
+
+        // When & Then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> reportService.getInventoryMovementReport(testFilter));
+        verify(inventoryMovementRepository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -351,7 +442,12 @@ class ReportServiceTest {
         inactiveProduct.setId(2L);
         inactiveProduct.setActive(false);
 
-        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct, inactiveProduct));
+        when(productRepository.streamStockLevels(
+                        eq(false), eq(false), any(), eq(false), any(), eq(false), any()))
+                .thenReturn(
+                        Stream.of(
+                                stockLevelRow(testProduct, 0, 0, null),
+                                stockLevelRow(inactiveProduct, 0, 0, null)));
 
         // When
         List<StockLevelReportDto> result =
@@ -365,10 +461,12 @@ class ReportServiceTest {
     @Test
     void testGetSupplierPerformanceReportWithPerformanceData() {
         // Given
-        Object[] performanceData = {testSupplier, 5, new BigDecimal("500.00"), 4, 1};
+        LocalDateTime lastOrderDate = LocalDateTime.now().minusDays(2);
         when(supplierRepository.findByActiveTrue()).thenReturn(Arrays.asList(testSupplier));
-        when(supplierRepository.findSupplierPerformanceBetween(any(), any()))
-                .thenReturn(Collections.singletonList(performanceData));
+        when(purchaseOrderRepository.findSupplierPerformanceBetween(any(), any()))
+                .thenReturn(
+                        Collections.singletonList(
+                                supplierPerformance(testSupplier.getId(), lastOrderDate)));
 
         // When
         List<SupplierPerformanceReportDto> result =
@@ -381,6 +479,11 @@ class ReportServiceTest {
         assertEquals(5, reportDto.getTotalOrders());
         assertEquals(4, reportDto.getCompletedOrders());
         assertEquals(1, reportDto.getCancelledOrders());
+        assertEquals(0, reportDto.getPendingOrders());
+        assertEquals(new BigDecimal("2500.00"), reportDto.getTotalOrderValue());
+        assertEquals(new BigDecimal("500.00"), reportDto.getAverageOrderValue());
+        assertEquals(6.5, reportDto.getAverageDeliveryDays());
+        assertEquals(lastOrderDate, reportDto.getLastOrderDate());
     }
 
     @Test
@@ -427,4 +530,158 @@ class ReportServiceTest {
                     reportService.getDailyMovementSummary(invalidFilter);
                 });
     }
+
+    /** Runs the report's query function against a fluent query that returns the movements. */
+    private ReportService reportService(boolean databaseTriggers) {
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        new InventoryProperties.Aggregates(databaseTriggers),
+                        null);
+        return new ReportService(
+                inventoryMovementRepository,
+                productRepository,
+                supplierRepository,
+                purchaseOrderRepository,
+                movementRollupRepository,
+                properties);
+    }
+
+    private FetchableFluentQuery<InventoryMovement> stubMovementQuery(
+            List<InventoryMovement> movements) {
+        @SuppressWarnings("unchecked")
+        FetchableFluentQuery<InventoryMovement> movementQuery = mock(FetchableFluentQuery.class);
+        when(movementQuery.sortBy(any())).thenReturn(movementQuery);
+        lenient().when(movementQuery.all()).thenReturn(movements);
+        when(inventoryMovementRepository.findBy(any(Specification.class), any()))
+                .thenAnswer(
+                        invocation -> {
+                            Function<FetchableFluentQuery<InventoryMovement>, ?> queryFunction =
+                                    invocation.getArgument(1);
+                            return queryFunction.apply(movementQuery);
+                        });
+        return movementQuery;
+    }
+
+    private static SupplierPerformance supplierPerformance(
+            Long supplierId, LocalDateTime lastOrderDate) {
+        return new SupplierPerformance() {
+            @Override
+            public Long getSupplierId() {
+                return supplierId;
+            }
+
+            @Override
+            public Long getTotalOrders() {
+                return 5L;
+            }
+
+            @Override
+            public Long getCompletedOrders() {
+                return 4L;
+            }
+
+            @Override
+            public Long getPendingOrders() {
+                return 0L;
+            }
+
+            @Override
+            public Long getCancelledOrders() {
+                return 1L;
+            }
+
+            @Override
+            public Long getOverdueOrders() {
+                return 0L;
+            }
+
+            @Override
+            public BigDecimal getTotalOrderValue() {
+                return new BigDecimal("2500.00");
+            }
+
+            @Override
+            public Double getAverageOrderValue() {
+                return 500.0;
+            }
+
+            @Override
+            public Double getAverageDeliveryDays() {
+                return 6.5;
+            }
+
+            @Override
+            public LocalDateTime getLastOrderDate() {
+                return lastOrderDate;
+            }
+        };
+    }
+
+    private static StockLevelRow stockLevelRow(
+            Product product, long inbound, long outbound, LocalDateTime lastMovementDate) {
+        return new StockLevelRow() {
+            @Override
+            public Long getProductId() {
+                return product.getId();
+            }
+
+            @Override
+            public String getProductCode() {
+                return product.getCode();
+            }
+
+            @Override
+            public String getProductName() {
+                return product.getName();
+            }
+
+            @Override
+            public String getCategoryName() {
+                return product.getCategory() != null ? product.getCategory().getName() : null;
+            }
+
+            @Override
+            public Integer getCurrentStock() {
+                return product.getCurrentStock();
+            }
+
+            @Override
+            public Integer getMinStock() {
+                return product.getMinStock();
+            }
+
+            @Override
+            public Integer getMaxStock() {
+                return product.getMaxStock();
+            }
+
+            @Override
+            public BigDecimal getUnitPrice() {
+                return product.getUnitPrice();
+            }
+
+            @Override
+            public Long getInboundQuantity() {
+                return inbound;
+            }
+
+            @Override
+            public Long getOutboundQuantity() {
+                return outbound;
+            }
+
+            @Override
+            public LocalDateTime getLastMovementDate() {
+                return lastMovementDate;
+            }
+        };
+    }
 }
@@ -0,0 +1,137 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.kreaker.kinvex.dto.report.InventoryMovementReportDto;
+import dev.kreaker.kinvex.dto.report.ReportFilterDto;
+import dev.kreaker.kinvex.dto.report.ReportStreamFormat;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for ReportStreamService */
+@ExtendWith(MockitoExtension.class)
+class ReportStreamServiceTest {
+
+    @Mock private InventoryMovementRepository inventoryMovementRepository;
+
+    private ReportStreamService reportStreamService;
+
+    private ReportFilterDto filter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper =
+                new ObjectMapper()
+                        .findAndRegisterModules()
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        reportStreamService = new ReportStreamService(inventoryMovementRepository, objectMapper);
+
+        filter = new ReportFilterDto();
+        filter.setStartDate(LocalDateTime.of(2024, 1, 1, 0, 0));
+        filter.setEndDate(LocalDateTime.of(2024, 3, 31, 23, 59));
+    }
+
+    @Test
+    void testWriteInventoryMovementReportAsNdjson() throws IOException {
+        // Given
+        when(inventoryMovementRepository.streamReportRows(
+                        any(), any(), isNull(), eq(ReportStreamService.FETCH_SIZE)))
+                .thenReturn(
+                        Stream.of(movement(1L, "PROD001", null), movement(2L, "PROD002", null)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long rows =
+                reportStreamService.writeInventoryMovementReport(
+                        filter, ReportStreamFormat.NDJSON, output);
+
+        // Then
+        assertEquals(2, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper reader = new ObjectMapper();
+        JsonNode first = reader.readTree(lines[0]);
+        assertEquals("PROD001", first.get("productCode").asText());
+        assertEquals("2024-01-15T10:30:00", first.get("createdAt").asText());
+        assertEquals("PROD002", reader.readTree(lines[1]).get("productCode").asText());
+    }
+
+    @Test
+    void testWriteInventoryMovementReportAsCsv() throws IOException {
+        // Given
+        filter.setLimit(10);
+        when(inventoryMovementRepository.streamReportRows(
+                        any(), any(), eq(10), eq(ReportStreamService.FETCH_SIZE)))
+                .thenReturn(Stream.of(movement(1L, "PROD001", "Lote \"A\", estante 2")));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        reportStreamService.writeInventoryMovementReport(filter, ReportStreamFormat.CSV, output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals(
+                "movementId,productCode,productName,movementType,quantity,referenceType,"
+                        + "referenceId,sourceSystem,notes,createdBy,createdAt,unitPrice,totalValue",
+                lines[0]);
+        assertEquals(
+                "1,PROD001,Product PROD001,IN,4,PURCHASE_ORDER,7,,"
+                        + "\"Lote \"\"A\"\", estante 2\",jdoe,2024-01-15T10:30,2.50,10.00",
+                lines[1]);
+    }
+
+    @Test
+    void testWriteInventoryMovementReportWithInvalidDateRange() {
+        // Given
+        filter.setEndDate(filter.getStartDate().minusDays(1));
+
+        // When & Then
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        reportStreamService.writeInventoryMovementReport(
+                                filter, ReportStreamFormat.CSV, new ByteArrayOutputStream()));
+        verify(inventoryMovementRepository, never())
+                .streamReportRows(any(), any(), any(), anyInt());
+    }
+
+    private static InventoryMovementReportDto movement(Long id, String productCode, String notes) {
+        return new InventoryMovementReportDto(
+                id,
+                productCode,
+                "Product " + productCode,
+                MovementType.IN,
+                4,
+                ReferenceType.PURCHASE_ORDER,
+                7L,
+                null,
+                notes,
+                "jdoe",
+                LocalDateTime.of(2024, 1, 15, 10, 30),
+                new BigDecimal("2.50"));
+    }
+}
@@ -0,0 +1,259 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.StockLedgerDeduction;
+import dev.kreaker.kinvex.exception.InsufficientStockException;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockLedgerDeductionRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Tests unitarios para StockLedger. */
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private StockLedgerDeductionRepository deductionRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong movementIds = new AtomicLong(100);
+
+    private StockLedger stockLedger;
+
+    @AfterEach
+    void tearDown() {
+        // Una transacción abierta mantendría el descuento en curso e impediría liberar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        if (stockLedger != null) {
+            stockLedger.stop();
+        }
+    }
+
+    @Test
+    void tryDeduct_WhenDisabled_ShouldLeaveDeductionToDatabase() {
+        // Arrange
+        stockLedger = ledger(false);
+        stockLedger.start();
+
+        // Act
+        Optional<StockLedger.AcceptedDeduction> result =
+                stockLedger.tryDeduct("TEST001", 5, this::movement);
+        stockLedger.recordDeduction(1L, "TEST001", "Test Product");
+        stockLedger.release(1L);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertFalse(stockLedger.isRunning());
+        verify(productRepository, never()).releaseAllFromLedger();
+        verify(deductionRepository, never()).record(any(), any(), any(), any());
+    }
+
+    @Test
+    void hotProduct_ShouldDeductInMemoryAndFlushNetDeltaAfterCommit() {
+        // Arrange
+        stockLedger = hotLedger();
+
+        // Act
+        beginTransaction();
+        StockLedger.AcceptedDeduction first =
+                stockLedger.tryDeduct("TEST001", 4, this::movement).orElseThrow();
+        StockLedger.AcceptedDeduction second =
+                stockLedger.tryDeduct("TEST001", 3, this::movement).orElseThrow();
+
+        // Assert - validación contra el contador en memoria y movimiento en la transacción
+        assertEquals(10, first.previousStock());
+        assertEquals(6, first.currentStock());
+        assertEquals(3, second.currentStock());
+        assertEquals(101L, first.movement().getId());
+        assertThrows(
+                InsufficientStockException.class,
+                () -> stockLedger.tryDeduct("TEST001", 4, this::movement));
+        verify(deductionRepository).record(eq(101L), eq(1L), eq(4), any());
+        verify(deductionRepository).record(eq(102L), eq(1L), eq(3), any());
+        verify(productRepository, never()).deductStockByCode(any(), any());
+
+        // Act - antes del commit no hay nada que volcar
+        stockLedger.flush();
+        verify(productRepository, never()).applyLedgerDeduction(anyLong(), anyInt());
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        stockLedger.flush();
+
+        // Assert - volcado coalescido
+        verify(productRepository).allowLedgerFlush();
+        verify(productRepository).applyLedgerDeduction(1L, 7);
+        verify(deductionRepository).deleteByMovementIds(List.of(101L, 102L));
+    }
+
+    @Test
+    void tryDeduct_WhenTransactionRollsBack_ShouldRestoreStockAndSkipFlush() {
+        // Arrange
+        stockLedger = hotLedger();
+        beginTransaction();
+        stockLedger.tryDeduct("TEST001", 4, this::movement);
+
+        // Act
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        stockLedger.flush();
+
+        // Assert - el stock vuelve al contador y un reintento puede descontar todo
+        verify(productRepository, never()).applyLedgerDeduction(anyLong(), anyInt());
+        beginTransaction();
+        Optional<StockLedger.AcceptedDeduction> retry =
+                stockLedger.tryDeduct("TEST001", 10, this::movement);
+        assertEquals(10, retry.orElseThrow().previousStock());
+    }
+
+    @Test
+    void tryDeduct_WhenRecordingMovementFails_ShouldRestoreStockOnRollback() {
+        // Arrange
+        stockLedger = hotLedger();
+        beginTransaction();
+        Function<Long, InventoryMovement> failing =
+                productId -> {
+                    throw new IllegalStateException("fallo de escritura");
+                };
+
+        // Act
+        assertThrows(
+                IllegalStateException.class, () -> stockLedger.tryDeduct("TEST001", 4, failing));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(deductionRepository, never()).record(any(), any(), any(), any());
+        beginTransaction();
+        Optional<StockLedger.AcceptedDeduction> retry =
+                stockLedger.tryDeduct("TEST001", 10, this::movement);
+        assertEquals(10, retry.orElseThrow().previousStock());
+    }
+
+    @Test
+    void tryDeduct_WithoutTransaction_ShouldFail() {
+        // Arrange
+        stockLedger = hotLedger();
+
+        // Act & Assert
+        assertThrows(
+                IllegalStateException.class,
+                () -> stockLedger.tryDeduct("TEST001", 4, this::movement));
+        verify(deductionRepository, never()).record(any(), any(), any(), any());
+    }
+
+    @Test
+    void release_ShouldReturnProductToDatabase() {
+        // Arrange
+        stockLedger = hotLedger();
+        beginTransaction();
+        stockLedger.tryDeduct("TEST001", 4, this::movement);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Act
+        stockLedger.release(1L);
+
+        // Assert
+        verify(productRepository).applyLedgerDeduction(1L, 4);
+        verify(deductionRepository).deleteByMovementIds(List.of(101L));
+        verify(productRepository).releaseFromLedger(1L);
+        beginTransaction();
+        assertTrue(stockLedger.tryDeduct("TEST001", 1, this::movement).isEmpty());
+    }
+
+    @Test
+    void start_WithPendingDeductions_ShouldApplyThem() {
+        // Arrange - descuentos confirmados por una ejecución anterior que no llegó a volcarlos
+        StockLedgerDeduction deduction = new StockLedgerDeduction();
+        deduction.setMovementId(55L);
+        deduction.setProductId(1L);
+        deduction.setQuantity(5);
+        deduction.setCreatedAt(LocalDateTime.now());
+        when(deductionRepository.findAll()).thenReturn(List.of(deduction));
+        stockLedger = ledger(false);
+
+        // Act
+        stockLedger.start();
+
+        // Assert
+        verify(productRepository).allowLedgerFlush();
+        verify(productRepository).applyLedgerDeduction(1L, 5);
+        verify(deductionRepository).deleteByMovementIds(List.of(55L));
+        verify(productRepository).releaseAllFromLedger();
+        assertFalse(stockLedger.isRunning());
+    }
+
+    /** Libro habilitado con el producto 1 (stock 10) ya gestionado en memoria. */
+    private StockLedger hotLedger() {
+        StockLedger hotLedger = ledger(true);
+        hotLedger.start();
+        when(productRepository.claimForLedger(1L)).thenReturn(Optional.of(10));
+
+        // Superar el umbral de descuentos en base de datos y cerrar la ventana
+        hotLedger.recordDeduction(1L, "TEST001", "Test Product");
+        hotLedger.recordDeduction(1L, "TEST001", "Test Product");
+        hotLedger.evaluateHotProducts();
+        return hotLedger;
+    }
+
+    private InventoryMovement movement(Long productId) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.setId(movementIds.incrementAndGet());
+        return movement;
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private StockLedger ledger(boolean enabled) {
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        new InventoryProperties.Ledger(
+                                enabled, Duration.ofHours(1), 2, Duration.ofHours(1)),
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null);
+        return new StockLedger(
+                productRepository, deductionRepository, properties, transactionManager);
+    }
+}
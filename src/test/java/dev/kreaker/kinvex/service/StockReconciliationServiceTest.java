@@ -0,0 +1,201 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse;
+import dev.kreaker.kinvex.dto.inventory.StockReconciliationResponse.ReconciliationStatus;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.InventoryMovement.ReferenceType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.projection.ProductIdRange;
+import dev.kreaker.kinvex.repository.projection.StockMismatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests unitarios para StockReconciliationService. */
+@ExtendWith(MockitoExtension.class)
+class StockReconciliationServiceTest {
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private InventoryMovementRepository inventoryMovementRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StockReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties =
+                new InventoryProperties(
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        new InventoryProperties.Reconciliation(100, 2, 10),
+                        null,
+                        null,
+                        null,
+                        null);
+        reconciliationService =
+                new StockReconciliationService(
+                        productRepository,
+                        inventoryMovementRepository,
+                        properties,
+                        transactionManager,
+                        meterRegistry);
+    }
+
+    @Test
+    void reconcile_ShouldCheckEveryPartitionAndReportMismatches() {
+        // Arrange - IDs 1 a 250 en particiones de 100
+        when(productRepository.findIdRange()).thenReturn(idRange(1L, 250L, 240L));
+        when(productRepository.findStockMismatchesBetween(1L, 100L))
+                .thenReturn(List.of(mismatch(7L, 10, 12L)));
+        when(productRepository.findStockMismatchesBetween(101L, 200L)).thenReturn(List.of());
+        when(productRepository.findStockMismatchesBetween(201L, 250L))
+                .thenReturn(List.of(mismatch(230L, 5, 0L)));
+
+        // Act
+        StockReconciliationResponse result = reconciliationService.reconcile(false);
+
+        // Assert
+        assertEquals(ReconciliationStatus.COMPLETED, result.getStatus());
+        assertEquals(3, result.getTotalPartitions());
+        assertEquals(3, result.getCompletedPartitions());
+        assertEquals(240L, result.getTotalProducts());
+        assertEquals(2L, result.getMismatchesFound());
+        assertEquals(0L, result.getCorrectionsApplied());
+        assertEquals(2, result.getMismatches().size());
+        assertEquals(1.0, result.getProgress());
+        verify(inventoryMovementRepository, never()).insertAll(anyList());
+        assertEquals(
+                2.0, meterRegistry.get("kinvex.reconciliation.mismatches").counter().count());
+        assertEquals(
+                3.0, meterRegistry.get("kinvex.reconciliation.partitions").counter().count());
+    }
+
+    @Test
+    void reconcile_WithCorrections_ShouldWriteAdjustmentForConfirmedMismatches() {
+        // Arrange - el producto 8 se corrigió solo al confirmar una operación concurrente
+        Product product = new Product("TEST007", "Test Product", new BigDecimal("10.00"));
+        product.setId(7L);
+        when(productRepository.findIdRange()).thenReturn(idRange(1L, 50L, 50L));
+        when(productRepository.findStockMismatchesBetween(1L, 50L))
+                .thenReturn(List.of(mismatch(7L, 10, 12L), mismatch(8L, 3, 4L)));
+        when(productRepository.findStockMismatchesIn(List.of(7L, 8L)))
+                .thenReturn(List.of(mismatch(7L, 10, 12L)));
+        when(productRepository.getReferenceById(7L)).thenReturn(product);
+
+        // Act
+        StockReconciliationResponse result = reconciliationService.reconcile(true);
+
+        // Assert
+        verify(productRepository).lockByIds(List.of(7L, 8L));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMovementRepository).insertAll(captor.capture());
+        InventoryMovement correction = captor.getValue().get(0);
+        assertEquals(MovementType.OUT, correction.getMovementType());
+        assertEquals(2, correction.getQuantity());
+        assertEquals(ReferenceType.ADJUSTMENT, correction.getReferenceType());
+        assertEquals(1L, result.getMismatchesFound());
+        assertEquals(1L, result.getCorrectionsApplied());
+        assertTrue(result.getMismatches().get(0).isCorrected());
+    }
+
+    @Test
+    void reconcile_WithoutProducts_ShouldCompleteWithoutPartitions() {
+        // Arrange
+        when(productRepository.findIdRange()).thenReturn(idRange(null, null, 0L));
+
+        // Act
+        StockReconciliationResponse result = reconciliationService.reconcile(false);
+
+        // Assert
+        assertEquals(ReconciliationStatus.COMPLETED, result.getStatus());
+        assertEquals(0, result.getTotalPartitions());
+        verify(productRepository, never()).findStockMismatchesBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    void reconcile_WhenPartitionFails_ShouldMarkRunAsFailed() {
+        // Arrange
+        when(productRepository.findIdRange()).thenReturn(idRange(1L, 10L, 10L));
+        when(productRepository.findStockMismatchesBetween(1L, 10L))
+                .thenThrow(new IllegalStateException("statement timeout"));
+
+        // Act
+        StockReconciliationResponse result = reconciliationService.reconcile(false);
+
+        // Assert
+        assertEquals(ReconciliationStatus.FAILED, result.getStatus());
+        assertEquals("statement timeout", result.getError());
+        assertFalse(reconciliationService.getReconciliation(result.getRunId()).isEmpty());
+    }
+
+    private static ProductIdRange idRange(Long minId, Long maxId, Long productCount) {
+        return new ProductIdRange() {
+            @Override
+            public Long getMinId() {
+                return minId;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+
+            @Override
+            public Long getProductCount() {
+                return productCount;
+            }
+        };
+    }
+
+    private static StockMismatch mismatch(Long productId, int currentStock, long ledgerStock) {
+        return new StockMismatch() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public String getProductCode() {
+                return "TEST" + productId;
+            }
+
+            @Override
+            public Integer getCurrentStock() {
+                return currentStock;
+            }
+
+            @Override
+            public Long getLedgerStock() {
+                return ledgerStock;
+            }
+        };
+    }
+}
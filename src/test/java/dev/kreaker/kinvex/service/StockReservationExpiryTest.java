@@ -0,0 +1,135 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.entity.StockReservationItem;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockReservationRepository;
+import dev.kreaker.kinvex.repository.projection.ReservationExpiration;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests unitarios para StockReservationExpiry. */
+@ExtendWith(MockitoExtension.class)
+class StockReservationExpiryTest {
+
+    @Mock private StockReservationRepository reservationRepository;
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private StockReservationExpiry reservationExpiry;
+
+    @BeforeEach
+    void setUp() {
+        reservationExpiry =
+                new StockReservationExpiry(
+                        reservationRepository,
+                        productRepository,
+                        InventoryProperties.defaults(),
+                        transactionManager);
+    }
+
+    @Test
+    void expire_WithExpiredActiveReservation_ShouldReturnReservedStock() {
+        // Arrange
+        Product product = new Product("TEST001", "Test Product", new BigDecimal("10.00"));
+        product.setId(1L);
+        StockReservation reservation =
+                new StockReservation("CART-1", LocalDateTime.now().minusMinutes(1), null);
+        reservation.addItem(new StockReservationItem(product, 3));
+        when(reservationRepository.markExpired(eq(50L), any(LocalDateTime.class))).thenReturn(1);
+        when(reservationRepository.findByIdWithItems(50L)).thenReturn(Optional.of(reservation));
+
+        // Act
+        boolean expired = reservationExpiry.expire(50L);
+
+        // Assert
+        assertTrue(expired);
+        verify(productRepository).releaseReservedStock(1L, 3);
+    }
+
+    @Test
+    void expire_WithResolvedReservation_ShouldDoNothing() {
+        // Arrange - confirmada o liberada antes de vencer
+        when(reservationRepository.markExpired(eq(50L), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act
+        boolean expired = reservationExpiry.expire(50L);
+
+        // Assert
+        assertFalse(expired);
+        verify(reservationRepository, never()).findByIdWithItems(anyLong());
+        verify(productRepository, never()).releaseReservedStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void sweepExpiredReservations_ShouldExpireEveryReservationInBatch() {
+        // Arrange
+        when(reservationRepository.findActiveExpiringBefore(
+                        any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(expiration(7L), expiration(8L)));
+        when(reservationRepository.markExpired(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        // Act
+        reservationExpiry.sweepExpiredReservations();
+
+        // Assert
+        verify(reservationRepository).markExpired(eq(7L), any(LocalDateTime.class));
+        verify(reservationRepository).markExpired(eq(8L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void pendingExpiration_ShouldBeOrderedByExpiration() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        StockReservationExpiry.PendingExpiration soon =
+                new StockReservationExpiry.PendingExpiration(1L, now.plusSeconds(5));
+        StockReservationExpiry.PendingExpiration later =
+                new StockReservationExpiry.PendingExpiration(2L, now.plusMinutes(5));
+        StockReservationExpiry.PendingExpiration overdue =
+                new StockReservationExpiry.PendingExpiration(3L, now.minusSeconds(1));
+
+        // Assert
+        assertTrue(soon.compareTo(later) < 0);
+        assertTrue(soon.getDelay(TimeUnit.MILLISECONDS) > 0);
+        assertTrue(overdue.getDelay(TimeUnit.MILLISECONDS) <= 0);
+    }
+
+    private static ReservationExpiration expiration(Long id) {
+        return new ReservationExpiration() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return LocalDateTime.now().minusMinutes(1);
+            }
+        };
+    }
+}
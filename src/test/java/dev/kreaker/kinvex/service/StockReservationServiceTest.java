@@ -0,0 +1,348 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.config.InventoryProperties;
+import dev.kreaker.kinvex.dto.inventory.StockReservationItemRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationRequest;
+import dev.kreaker.kinvex.dto.inventory.StockReservationResponse;
+import dev.kreaker.kinvex.entity.InventoryMovement;
+import dev.kreaker.kinvex.entity.InventoryMovement.MovementType;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.StockReservation;
+import dev.kreaker.kinvex.entity.StockReservation.ReservationStatus;
+import dev.kreaker.kinvex.entity.StockReservationItem;
+import dev.kreaker.kinvex.exception.InsufficientStockException;
+import dev.kreaker.kinvex.exception.ReservationNotFoundException;
+import dev.kreaker.kinvex.exception.ReservationStateConflictException;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockReservationRepository;
+import dev.kreaker.kinvex.repository.projection.StockDeductionResult;
+import dev.kreaker.kinvex.security.CurrentUserProvider;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Tests unitarios para StockReservationService. */
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private StockReservationRepository reservationRepository;
+
+    @Mock private InventoryMovementRepository inventoryMovementRepository;
+
+    @Mock private CurrentUserProvider currentUserProvider;
+
+    @Mock private IdempotencyService idempotencyService;
+
+    @Mock private StockLedger stockLedger;
+
+    @Mock private StockReservationExpiry reservationExpiry;
+
+    @Spy private InventoryProperties inventoryProperties = InventoryProperties.defaults();
+
+    @InjectMocks private StockReservationService reservationService;
+
+    private Product productA;
+    private Product productB;
+
+    @BeforeEach
+    void setUp() {
+        // El envoltorio de idempotencia delega en los métodos simulados del servicio
+        lenient()
+                .when(idempotencyService.execute(any(), any(), any(), any(), any()))
+                .thenCallRealMethod();
+        productA = product(1L, "PROD-A", 10);
+        productB = product(2L, "PROD-B", 5);
+    }
+
+    @Test
+    void reserveStock_WithAvailableStock_ShouldReserveAllItemsInCodeOrder() {
+        // Arrange
+        StockReservationRequest request =
+                new StockReservationRequest(
+                        "CART-1",
+                        List.of(
+                                new StockReservationItemRequest("PROD-B", 2),
+                                new StockReservationItemRequest("PROD-A", 3),
+                                new StockReservationItemRequest("PROD-A", 1)));
+        when(productRepository.reserveStockByCode("PROD-A", 4))
+                .thenReturn(Optional.of(reservedResult(productA)));
+        when(productRepository.reserveStockByCode("PROD-B", 2))
+                .thenReturn(Optional.of(reservedResult(productB)));
+        when(productRepository.getReferenceById(1L)).thenReturn(productA);
+        when(productRepository.getReferenceById(2L)).thenReturn(productB);
+        when(reservationRepository.save(any(StockReservation.class)))
+                .thenAnswer(
+                        invocation -> {
+                            StockReservation reservation = invocation.getArgument(0);
+                            reservation.setId(50L);
+                            return reservation;
+                        });
+
+        // Act
+        StockReservationResponse response = reservationService.reserveStock(request);
+
+        // Assert
+        assertEquals(50L, response.getReservationId());
+        assertEquals(ReservationStatus.ACTIVE, response.getStatus());
+        assertEquals(6, response.getTotalQuantity());
+        assertEquals("PROD-A", response.getItems().get(0).getProductCode());
+        assertEquals(4, response.getItems().get(0).getQuantity());
+
+        InOrder order = inOrder(stockLedger, productRepository);
+        order.verify(stockLedger).release(Set.of("PROD-A", "PROD-B"));
+        order.verify(productRepository).reserveStockByCode("PROD-A", 4);
+        order.verify(productRepository).reserveStockByCode("PROD-B", 2);
+        verify(reservationExpiry).schedule(eq(50L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reserveStock_WithInsufficientStock_ShouldRejectWholeReservation() {
+        // Arrange
+        StockReservationRequest request =
+                new StockReservationRequest(
+                        "CART-1", List.of(new StockReservationItemRequest("PROD-A", 20)));
+        when(productRepository.reserveStockByCode("PROD-A", 20)).thenReturn(Optional.empty());
+        when(productRepository.findByCode("PROD-A")).thenReturn(Optional.of(productA));
+
+        // Act & Assert
+        InsufficientStockException exception =
+                assertThrows(
+                        InsufficientStockException.class,
+                        () -> reservationService.reserveStock(request));
+        assertEquals(10, exception.getAvailableStock());
+        verify(reservationRepository, never()).save(any());
+        verify(reservationExpiry, never()).schedule(anyLong(), any());
+    }
+
+    @Test
+    void reserveStock_WithTtlAboveMaximum_ShouldCapExpiration() {
+        // Arrange
+        StockReservationRequest request =
+                new StockReservationRequest(
+                        "CART-1", List.of(new StockReservationItemRequest("PROD-A", 1)));
+        request.setTtlSeconds(Duration.ofDays(30).toSeconds());
+        when(productRepository.reserveStockByCode("PROD-A", 1))
+                .thenReturn(Optional.of(reservedResult(productA)));
+        when(productRepository.getReferenceById(1L)).thenReturn(productA);
+        when(reservationRepository.save(any(StockReservation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        StockReservationResponse response = reservationService.reserveStock(request);
+
+        // Assert
+        LocalDateTime maxExpiration =
+                LocalDateTime.now().plus(inventoryProperties.reservation().maxTtl());
+        assertTrue(!response.getExpiresAt().isAfter(maxExpiration));
+        assertTrue(response.getExpiresAt().isAfter(maxExpiration.minusMinutes(1)));
+    }
+
+    @Test
+    void commitReservation_WithActiveReservation_ShouldDeductStockAndRecordMovements() {
+        // Arrange
+        StockReservation reservation = reservation(ReservationStatus.COMMITTED);
+        when(reservationRepository.markCommitted(eq(50L), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(reservationRepository.findByIdWithItems(50L)).thenReturn(Optional.of(reservation));
+        when(productRepository.commitReservedStock(anyLong(), anyInt())).thenReturn(1);
+
+        // Act
+        StockReservationResponse response = reservationService.commitReservation(50L);
+
+        // Assert
+        assertEquals(ReservationStatus.COMMITTED, response.getStatus());
+        verify(productRepository).commitReservedStock(1L, 4);
+        verify(productRepository).commitReservedStock(2L, 2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryMovement>> movements = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMovementRepository).insertAll(movements.capture());
+        assertEquals(2, movements.getValue().size());
+        InventoryMovement movement = movements.getValue().get(0);
+        assertEquals(MovementType.OUT, movement.getMovementType());
+        assertEquals(InventoryMovement.ReferenceType.SALE, movement.getReferenceType());
+        assertEquals(50L, movement.getReferenceId());
+        assertEquals("CHECKOUT", movement.getSourceSystem());
+    }
+
+    @Test
+    void commitReservation_ShouldDeductProductsInIdOrder() {
+        // Arrange - líneas guardadas en orden inverso al de los IDs de producto
+        StockReservation reservation = reservationInReverseOrder(ReservationStatus.COMMITTED);
+        when(reservationRepository.markCommitted(eq(50L), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(reservationRepository.findByIdWithItems(50L)).thenReturn(Optional.of(reservation));
+        when(productRepository.commitReservedStock(anyLong(), anyInt())).thenReturn(1);
+
+        // Act
+        reservationService.commitReservation(50L);
+
+        // Assert
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).commitReservedStock(1L, 4);
+        order.verify(productRepository).commitReservedStock(2L, 2);
+    }
+
+    @Test
+    void commitReservation_WithExpiredReservation_ShouldThrowConflict() {
+        // Arrange
+        StockReservation reservation = reservation(ReservationStatus.ACTIVE);
+        reservation.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(reservationRepository.markCommitted(eq(50L), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(reservationRepository.findById(50L)).thenReturn(Optional.of(reservation));
+
+        // Act & Assert
+        ReservationStateConflictException exception =
+                assertThrows(
+                        ReservationStateConflictException.class,
+                        () -> reservationService.commitReservation(50L));
+        assertTrue(exception.getMessage().contains("venció"));
+        verify(productRepository, never()).commitReservedStock(anyLong(), anyInt());
+        verify(inventoryMovementRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void commitReservation_WhenNotFound_ShouldThrowNotFound() {
+        // Arrange
+        when(reservationRepository.markCommitted(eq(99L), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(reservationRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(
+                ReservationNotFoundException.class,
+                () -> reservationService.commitReservation(99L));
+    }
+
+    @Test
+    void releaseReservation_WithActiveReservation_ShouldReturnReservedStock() {
+        // Arrange
+        StockReservation reservation = reservation(ReservationStatus.RELEASED);
+        when(reservationRepository.markReleased(eq(50L), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(reservationRepository.findByIdWithItems(50L)).thenReturn(Optional.of(reservation));
+
+        // Act
+        StockReservationResponse response = reservationService.releaseReservation(50L);
+
+        // Assert
+        assertEquals(ReservationStatus.RELEASED, response.getStatus());
+        verify(productRepository).releaseReservedStock(1L, 4);
+        verify(productRepository).releaseReservedStock(2L, 2);
+        verify(inventoryMovementRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void releaseReservation_ShouldReturnStockInProductIdOrder() {
+        // Arrange
+        StockReservation reservation = reservationInReverseOrder(ReservationStatus.RELEASED);
+        when(reservationRepository.markReleased(eq(50L), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(reservationRepository.findByIdWithItems(50L)).thenReturn(Optional.of(reservation));
+
+        // Act
+        reservationService.releaseReservation(50L);
+
+        // Assert
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).releaseReservedStock(1L, 4);
+        order.verify(productRepository).releaseReservedStock(2L, 2);
+    }
+
+    @Test
+    void releaseReservation_WithCommittedReservation_ShouldThrowConflict() {
+        // Arrange
+        when(reservationRepository.markReleased(eq(50L), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(reservationRepository.findById(50L))
+                .thenReturn(Optional.of(reservation(ReservationStatus.COMMITTED)));
+
+        // Act & Assert
+        assertThrows(
+                ReservationStateConflictException.class,
+                () -> reservationService.releaseReservation(50L));
+        verify(productRepository, never()).releaseReservedStock(anyLong(), anyInt());
+    }
+
+    private StockReservation reservation(ReservationStatus status) {
+        StockReservation reservation =
+                new StockReservation("CART-1", LocalDateTime.now().plusMinutes(10), null);
+        reservation.setId(50L);
+        reservation.setStatus(status);
+        reservation.setSourceSystem("CHECKOUT");
+        reservation.addItem(new StockReservationItem(productA, 4));
+        reservation.addItem(new StockReservationItem(productB, 2));
+        return reservation;
+    }
+
+    private StockReservation reservationInReverseOrder(ReservationStatus status) {
+        StockReservation reservation =
+                new StockReservation("CART-1", LocalDateTime.now().plusMinutes(10), null);
+        reservation.setId(50L);
+        reservation.setStatus(status);
+        reservation.addItem(new StockReservationItem(productB, 2));
+        reservation.addItem(new StockReservationItem(productA, 4));
+        return reservation;
+    }
+
+    private static Product product(Long id, String code, int stock) {
+        Product product = new Product(code, "Product " + code, new BigDecimal("10.00"));
+        product.setId(id);
+        product.setCurrentStock(stock);
+        product.setActive(true);
+        return product;
+    }
+
+    private static StockDeductionResult reservedResult(Product product) {
+        return new StockDeductionResult() {
+            @Override
+            public Long getId() {
+                return product.getId();
+            }
+
+            @Override
+            public String getCode() {
+                return product.getCode();
+            }
+
+            @Override
+            public String getName() {
+                return product.getName();
+            }
+
+            @Override
+            public Integer getCurrentStock() {
+                return product.getCurrentStock();
+            }
+        };
+    }
+}
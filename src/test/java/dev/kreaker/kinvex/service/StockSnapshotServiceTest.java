@@ -0,0 +1,268 @@
+package dev.kreaker.kinvex.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kreaker.kinvex.dto.inventory.StockAsOfResponse;
+import dev.kreaker.kinvex.entity.Product;
+import dev.kreaker.kinvex.entity.StockSnapshot;
+import dev.kreaker.kinvex.exception.ProductNotFoundException;
+import dev.kreaker.kinvex.repository.InventoryMovementRepository;
+import dev.kreaker.kinvex.repository.ProductRepository;
+import dev.kreaker.kinvex.repository.StockLedgerDeductionRepository;
+import dev.kreaker.kinvex.repository.StockSnapshotRepository;
+import dev.kreaker.kinvex.repository.projection.NetMovement;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Tests unitarios para StockSnapshotService. */
+@ExtendWith(MockitoExtension.class)
+class StockSnapshotServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 9);
+
+    @Mock private StockSnapshotRepository snapshotRepository;
+
+    @Mock private ProductRepository productRepository;
+
+    @Mock private InventoryMovementRepository inventoryMovementRepository;
+
+    @Mock private StockLedgerDeductionRepository deductionRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private StockSnapshotService snapshotService;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService =
+                new StockSnapshotService(
+                        snapshotRepository,
+                        productRepository,
+                        inventoryMovementRepository,
+                        deductionRepository,
+                        transactionManager);
+        product = new Product("TEST001", "Test Product", new BigDecimal("10.00"));
+        product.setId(1L);
+        product.setCurrentStock(100);
+    }
+
+    @Test
+    void takeSnapshotsThrough_ShouldSnapshotEachMissingDay() {
+        // Arrange - última foto hace tres días
+        when(snapshotRepository.findLatestSnapshotDate()).thenReturn(Optional.of(DAY.minusDays(3)));
+        when(snapshotRepository.insertDailySnapshots(
+                        any(LocalDate.class),
+                        any(LocalDate.class),
+                        any(LocalDateTime.class),
+                        any(LocalDateTime.class)))
+                .thenReturn(5);
+
+        // Act
+        int inserted = snapshotService.takeSnapshotsThrough(DAY);
+
+        // Assert
+        assertEquals(15, inserted);
+        verify(snapshotRepository)
+                .insertDailySnapshots(
+                        DAY.minusDays(2),
+                        DAY.minusDays(3),
+                        DAY.minusDays(2).atStartOfDay(),
+                        DAY.minusDays(1).atStartOfDay());
+        verify(snapshotRepository)
+                .insertDailySnapshots(
+                        DAY, DAY.minusDays(1), DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void takeSnapshotsThrough_WithoutSnapshots_ShouldSnapshotOnlyLastDay() {
+        // Arrange
+        when(snapshotRepository.findLatestSnapshotDate()).thenReturn(Optional.empty());
+
+        // Act
+        snapshotService.takeSnapshotsThrough(DAY);
+
+        // Assert
+        verify(snapshotRepository, times(1))
+                .insertDailySnapshots(
+                        any(LocalDate.class),
+                        any(LocalDate.class),
+                        any(LocalDateTime.class),
+                        any(LocalDateTime.class));
+        verify(snapshotRepository)
+                .insertDailySnapshots(
+                        DAY, DAY.minusDays(1), DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void takeSnapshotsThrough_WhenUpToDate_ShouldDoNothing() {
+        // Arrange
+        when(snapshotRepository.findLatestSnapshotDate()).thenReturn(Optional.of(DAY));
+
+        // Act
+        int inserted = snapshotService.takeSnapshotsThrough(DAY);
+
+        // Assert
+        assertEquals(0, inserted);
+        verify(snapshotRepository, never())
+                .insertDailySnapshots(
+                        any(LocalDate.class),
+                        any(LocalDate.class),
+                        any(LocalDateTime.class),
+                        any(LocalDateTime.class));
+    }
+
+    @Test
+    void getStockAsOf_WithEarlierSnapshot_ShouldAddMovementsSinceClose() {
+        // Arrange - foto del 9 con cierre 80; consulta el 10 al mediodía
+        LocalDateTime at = DAY.plusDays(1).atTime(12, 0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(snapshotRepository.findFirstByProductIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+                        1L, at.toLocalDate()))
+                .thenReturn(Optional.of(snapshot(DAY, 80)));
+        when(inventoryMovementRepository.sumNetMovementBetween(
+                        1L, DAY.plusDays(1).atStartOfDay(), at))
+                .thenReturn(netMovement(-5, 2));
+
+        // Act
+        StockAsOfResponse response = snapshotService.getStockAsOf(1L, at);
+
+        // Assert
+        assertEquals(75, response.getStock());
+        assertEquals(DAY, response.getSnapshotDate());
+        assertEquals(2L, response.getMovementsApplied());
+    }
+
+    @Test
+    void getStockAsOf_BeforeFirstSnapshot_ShouldSubtractMovementsUntilClose() {
+        // Arrange - consulta el mismo día de la primera foto
+        LocalDateTime at = DAY.atTime(9, 0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(snapshotRepository.findFirstByProductIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+                        1L, DAY))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository
+                        .findFirstByProductIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(
+                                1L, DAY))
+                .thenReturn(Optional.of(snapshot(DAY, 80)));
+        when(inventoryMovementRepository.sumNetMovementBetween(
+                        1L, at, DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(netMovement(10, 1));
+
+        // Act
+        StockAsOfResponse response = snapshotService.getStockAsOf(1L, at);
+
+        // Assert
+        assertEquals(70, response.getStock());
+        assertEquals(DAY, response.getSnapshotDate());
+    }
+
+    @Test
+    void getStockAsOf_WithoutSnapshots_ShouldStartFromCurrentStock() {
+        // Arrange
+        LocalDateTime at = LocalDateTime.now().minusDays(2);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(inventoryMovementRepository.sumNetMovementBetween(
+                        eq(1L), eq(at), any(LocalDateTime.class)))
+                .thenReturn(netMovement(30, 4));
+
+        // Act
+        StockAsOfResponse response = snapshotService.getStockAsOf(1L, at);
+
+        // Assert
+        assertEquals(70, response.getStock());
+        assertNull(response.getSnapshotDate());
+        assertEquals(4L, response.getMovementsApplied());
+    }
+
+    @Test
+    void getStockAsOf_WithoutSnapshotsAndPendingLedgerDeductions_ShouldSubtractThem() {
+        // Arrange - 5 unidades descontadas por el libro, con movimiento pero sin volcar al stock
+        LocalDateTime at = LocalDateTime.now().minusDays(2);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(deductionRepository.sumPendingQuantity(1L)).thenReturn(5L);
+        when(inventoryMovementRepository.sumNetMovementBetween(
+                        eq(1L), eq(at), any(LocalDateTime.class)))
+                .thenReturn(netMovement(-5, 1));
+
+        // Act
+        StockAsOfResponse response = snapshotService.getStockAsOf(1L, at);
+
+        // Assert
+        assertEquals(100, response.getStock());
+    }
+
+    @Test
+    void getStockAsOf_WithoutSnapshotsBeforeProductCreation_ShouldStartFromCreation() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
+        product.setCreatedAt(createdAt);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(inventoryMovementRepository.sumNetMovementBetween(
+                        eq(1L), eq(createdAt), any(LocalDateTime.class)))
+                .thenReturn(netMovement(100, 1));
+
+        // Act
+        StockAsOfResponse response = snapshotService.getStockAsOf(1L, DAY.atTime(9, 0));
+
+        // Assert
+        assertEquals(0, response.getStock());
+    }
+
+    @Test
+    void getStockAsOf_WithoutSnapshotsBeyondLimit_ShouldThrowException() {
+        // Arrange
+        LocalDateTime at =
+                LocalDateTime.now().minusDays(StockSnapshotService.MAX_DAYS_WITHOUT_SNAPSHOT + 1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.getStockAsOf(1L, at));
+        verify(inventoryMovementRepository, never()).sumNetMovementBetween(any(), any(), any());
+    }
+
+    @Test
+    void getStockAsOf_WithNonExistentProduct_ShouldThrowException() {
+        // Arrange
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(
+                ProductNotFoundException.class,
+                () -> snapshotService.getStockAsOf(99L, LocalDateTime.now()));
+    }
+
+    private StockSnapshot snapshot(LocalDate date, int closingStock) {
+        return new StockSnapshot(product, date, closingStock);
+    }
+
+    private static NetMovement netMovement(long netQuantity, long movementCount) {
+        return new NetMovement() {
+            @Override
+            public Long getNetQuantity() {
+                return netQuantity;
+            }
+
+            @Override
+            public Long getMovementCount() {
+                return movementCount;
+            }
+        };
+    }
+}